@@ -0,0 +1,118 @@
+package co.edu.umanizales.bookverse;
+
+import co.edu.umanizales.bookverse.model.*;
+import co.edu.umanizales.bookverse.model.CsvRowWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic entities and data directories for the benchmarks.
+ * Entity i always has the ID prefix-i, so benchmarks can look records up by index.
+ */
+public final class BenchmarkData {
+
+    public static final String[] GENRES = {"Novela", "Fantasía", "Ciencia Ficción", "Historia", "Poesía", "Ensayo"};
+    public static final String[] STATUSES = {"PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED"};
+    private static final String[] LANGUAGES = {"Español", "Inglés", "Francés"};
+    private static final String[] PUBLISHERS = {"Planeta", "Alfaguara", "Anagrama", "Penguin", "Norma"};
+
+    private BenchmarkData() {
+    }
+
+    public static Author author(int i) {
+        return new Author("author-" + i, "Nombre" + i, "Apellido" + i, "Colombiana",
+                LocalDate.of(1950, 1, 1).plusDays(i % 10_000),
+                "Autor de \"obras\" número " + i + ", con comas", "author" + i + "@bookverse.co");
+    }
+
+    public static Book book(int i, int authors) {
+        return new Book("book-" + i, "978-" + (1_000_000_000L + i), "Título del libro " + i,
+                "author-" + (i % Math.max(authors, 1)), PUBLISHERS[i % PUBLISHERS.length],
+                LocalDate.of(1990, 1, 1).plusDays(i % 12_000), GENRES[i % GENRES.length],
+                100 + i % 900, 1_000 + (i * 37L) % 200_000, i % 50,
+                "Descripción del libro " + i, LANGUAGES[i % LANGUAGES.length]);
+    }
+
+    public static Customer customer(int i) {
+        Customer customer = new Customer("customer-" + i, "Cliente" + i, "Apellido" + i,
+                "customer" + i + "@mail.com", "300" + (1_000_000 + i), "Calle " + i + " #12-34",
+                LocalDate.of(2020, 1, 1).plusDays(i % 1_500), true);
+        customer.addOrder("order-" + i);
+        return customer;
+    }
+
+    public static Salesperson salesperson(int i) {
+        return new Salesperson("employee-" + i, "Vendedor" + i, "Apellido" + i,
+                "employee" + i + "@bookverse.co", "310" + (1_000_000 + i),
+                LocalDate.of(2018, 1, 1).plusDays(i % 2_000), 2_500_000, "Vendedor",
+                15_000, i % 200, "Zona " + (i % 5));
+    }
+
+    public static Administrator administrator(int i) {
+        return new Administrator("employee-" + i, "Admin" + i, "Apellido" + i,
+                "admin" + i + "@bookverse.co", "320" + (1_000_000 + i),
+                LocalDate.of(2015, 1, 1).plusDays(i % 2_000), 5_000_000, "Administrador",
+                "ALTO", new ArrayList<>(List.of("READ", "WRITE", "DELETE")), "Operaciones", 12_000_000);
+    }
+
+    /**
+     * Builds an order for customer/employee/book IDs taken modulo the given table sizes
+     */
+    public static Order order(int i, int items, int customers, int employees, int books) {
+        Order order = new Order("order-" + i, customer(i % Math.max(customers, 1)),
+                salesperson(i % Math.max(employees, 1)),
+                LocalDateTime.of(2025, 1, 1, 9, 30).plusMinutes(i * 7L),
+                PaymentMethod.values()[i % PaymentMethod.values().length],
+                STATUSES[i % STATUSES.length], "Carrera " + i + " #45-67, Manizales");
+        for (int k = 0; k < items; k++) {
+            Book book = book((i + k) % Math.max(books, 1), 1);
+            order.addItem(new Order.OrderItem(book, 1 + k % 3, book.getPrice()));
+        }
+        return order;
+    }
+
+    /**
+     * Writes all five CSV files into dir. Employees are all salespeople so orders resolve.
+     */
+    public static void writeDataset(Path dir, int authors, int books, int customers, int employees,
+                                    int orders, int itemsPerOrder) throws IOException {
+        Files.createDirectories(dir);
+        write(dir.resolve("autores.csv"), authors, BenchmarkData::author);
+        write(dir.resolve("libros.csv"), books, i -> book(i, authors));
+        write(dir.resolve("clientes.csv"), customers, BenchmarkData::customer);
+        write(dir.resolve("empleados.csv"), employees, BenchmarkData::salesperson);
+        write(dir.resolve("ordenes.csv"), orders, i -> order(i, itemsPerOrder, customers, employees, books));
+    }
+
+    public static Path tempDirectory() throws IOException {
+        return Files.createTempDirectory("bookverse-bench");
+    }
+
+    public static void deleteDirectory(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static void write(Path file, int count, IntFunction<? extends Exportable> factory) throws IOException {
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (int i = 0; i < count; i++) {
+                writer.row(factory.apply(i));
+            }
+        }
+    }
+}
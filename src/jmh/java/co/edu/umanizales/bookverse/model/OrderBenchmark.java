@@ -0,0 +1,53 @@
+package co.edu.umanizales.bookverse.model;
+
+import co.edu.umanizales.bookverse.BenchmarkData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order hot paths: totals, CSV rendering and JSON serialization of the full graph
+ * (customer, salesperson and items with their books), at several order sizes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int items;
+
+    private Order order;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        order = BenchmarkData.order(1, items, 10, 10, Math.max(items, 1));
+        for (Order.OrderItem item : order.getItems()) {
+            item.getBook().setAuthor(BenchmarkData.author(1));
+        }
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+    }
+
+    @Benchmark
+    public long calculateTotals() {
+        order.calculateTotals();
+        return order.getTotal();
+    }
+
+    @Benchmark
+    public String toCsv() {
+        return order.toCsv();
+    }
+
+    @Benchmark
+    public byte[] toJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
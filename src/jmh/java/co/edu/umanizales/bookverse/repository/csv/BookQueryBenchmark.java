@@ -0,0 +1,55 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.BenchmarkData;
+import co.edu.umanizales.bookverse.model.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Book repository lookups against libros.csv at several catalog sizes
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookQueryBenchmark {
+
+    private static final int AUTHORS = 100;
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private Path dataDir;
+    private BookCsvRepository books;
+    private String lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = BenchmarkData.tempDirectory();
+        BenchmarkData.writeDataset(dataDir, AUTHORS, size, 0, 0, 0, 0);
+        books = new BookCsvRepository(dataDir.toString(), new AuthorCsvRepository(dataDir.toString()));
+        lastId = "book-" + (size - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDirectory(dataDir);
+    }
+
+    @Benchmark
+    public Optional<Book> findById() {
+        return books.findById(lastId);
+    }
+
+    @Benchmark
+    public List<Book> findByGenre() {
+        return books.findByGenre(BenchmarkData.GENRES[0]);
+    }
+}
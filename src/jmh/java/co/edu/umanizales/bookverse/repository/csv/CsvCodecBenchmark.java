@@ -0,0 +1,162 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.BenchmarkData;
+import co.edu.umanizales.bookverse.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one CSV line into an entity (parseLine) and one entity back into
+ * a CSV row, for every CSV repository. Order parsing resolves its references against
+ * small fixed-size tables, as it does in the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvCodecBenchmark {
+
+    private static final int TABLE_SIZE = 20;
+
+    private Path dataDir;
+    private AuthorCsvRepository authors;
+    private BookCsvRepository books;
+    private CustomerCsvRepository customers;
+    private EmployeeCsvRepository employees;
+    private OrderCsvRepository orders;
+
+    private Author author;
+    private Book book;
+    private Customer customer;
+    private Salesperson salesperson;
+    private Administrator administrator;
+    private Order order;
+
+    private String authorLine;
+    private String bookLine;
+    private String customerLine;
+    private String salespersonLine;
+    private String administratorLine;
+    private String orderLine;
+
+    private CsvRowWriter writer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = BenchmarkData.tempDirectory();
+        BenchmarkData.writeDataset(dataDir, TABLE_SIZE, TABLE_SIZE, TABLE_SIZE, TABLE_SIZE, 0, 0);
+        String path = dataDir.toString();
+        authors = new AuthorCsvRepository(path);
+        books = new BookCsvRepository(path, authors);
+        customers = new CustomerCsvRepository(path);
+        employees = new EmployeeCsvRepository(path);
+        orders = new OrderCsvRepository(path, customers, employees, books);
+
+        author = BenchmarkData.author(1);
+        book = BenchmarkData.book(1, TABLE_SIZE);
+        customer = BenchmarkData.customer(1);
+        salesperson = BenchmarkData.salesperson(1);
+        administrator = BenchmarkData.administrator(1);
+        order = BenchmarkData.order(1, 5, TABLE_SIZE, TABLE_SIZE, TABLE_SIZE);
+
+        authorLine = author.toCsv();
+        bookLine = book.toCsv();
+        customerLine = customer.toCsv();
+        salespersonLine = salesperson.toCsv();
+        administratorLine = administrator.toCsv();
+        orderLine = order.toCsv();
+
+        writer = new CsvRowWriter(new DiscardingChannel());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        BenchmarkData.deleteDirectory(dataDir);
+    }
+
+    @Benchmark
+    public Author parseAuthor() {
+        return authors.parseLine(authorLine);
+    }
+
+    @Benchmark
+    public Book parseBook() {
+        return BookCsvFormat.parse(bookLine);
+    }
+
+    @Benchmark
+    public Book parseBookResolvingAuthor() {
+        return books.parseLine(bookLine);
+    }
+
+    @Benchmark
+    public Customer parseCustomer() {
+        return customers.parseLine(customerLine);
+    }
+
+    @Benchmark
+    public void parseEmployees(Blackhole blackhole) {
+        blackhole.consume(employees.parseLine(salespersonLine));
+        blackhole.consume(employees.parseLine(administratorLine));
+    }
+
+    @Benchmark
+    public Order parseOrderResolvingReferences() {
+        return orders.parseLine(orderLine);
+    }
+
+    @Benchmark
+    public long writeAuthor() {
+        return writer.row(author).getRows();
+    }
+
+    @Benchmark
+    public long writeBook() {
+        return writer.row(book).getRows();
+    }
+
+    @Benchmark
+    public long writeCustomer() {
+        return writer.row(customer).getRows();
+    }
+
+    @Benchmark
+    public long writeEmployees() {
+        return writer.row(salesperson).row(administrator).getRows();
+    }
+
+    @Benchmark
+    public long writeOrder() {
+        return writer.row(order).getRows();
+    }
+
+    /**
+     * Accepts and drops everything, so only the encoding cost is measured
+     */
+    static final class DiscardingChannel implements WritableByteChannel {
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            src.position(src.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.BenchmarkData;
+import co.edu.umanizales.bookverse.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order repository lookups against ordenes.csv. Every parsed order resolves its
+ * customer, salesperson and books, so the reference tables are kept small.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderQueryBenchmark {
+
+    private static final int REFERENCES = 50;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Path dataDir;
+    private OrderCsvRepository orders;
+    private String lastId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDir = BenchmarkData.tempDirectory();
+        BenchmarkData.writeDataset(dataDir, REFERENCES, REFERENCES, REFERENCES, REFERENCES, size, ITEMS_PER_ORDER);
+        String path = dataDir.toString();
+        AuthorCsvRepository authors = new AuthorCsvRepository(path);
+        orders = new OrderCsvRepository(path, new CustomerCsvRepository(path),
+                new EmployeeCsvRepository(path), new BookCsvRepository(path, authors));
+        lastId = "order-" + (size - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDirectory(dataDir);
+    }
+
+    @Benchmark
+    public Optional<Order> findById() {
+        return orders.findById(lastId);
+    }
+
+    @Benchmark
+    public List<Order> findByStatus() {
+        return orders.findByStatus(BenchmarkData.STATUSES[0]);
+    }
+}
@@ -0,0 +1,23 @@
+package co.edu.umanizales.bookverse.config;
+
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Id generator used by the repositories for new entities:
+ * time-ordered (UUIDv7, default) or random (UUIDv4)
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    @Bean
+    public IdGenerator idGenerator(@Value("${bookverse.ids.generator:time-ordered}") String generator) {
+        return switch (generator) {
+            case "time-ordered" -> IdGenerator.timeOrdered();
+            case "random" -> IdGenerator.random();
+            default -> throw new IllegalArgumentException("Unknown bookverse.ids.generator: " + generator);
+        };
+    }
+}
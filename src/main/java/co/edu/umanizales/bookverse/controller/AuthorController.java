@@ -36,8 +36,10 @@ public class AuthorController {
     @PostMapping
     public ResponseEntity<Author> createAuthor(@RequestBody Author author) {
         try {
-            Author savedAuthor = authorService.saveAuthor(author);
-            return new ResponseEntity<>(savedAuthor, HttpStatus.CREATED);
+            if (!authorService.createAuthor(author)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(author, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -45,11 +47,9 @@ public class AuthorController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Author> updateAuthor(@PathVariable String id, @RequestBody Author author) {
-        if (!authorService.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        author.setId(id);
-        return ResponseEntity.ok(authorService.saveAuthor(author));
+        return authorService.updateAuthor(id, author)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
@@ -1,12 +1,21 @@
 package co.edu.umanizales.bookverse.controller;
 
 import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Money;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.BookColumns;
+import co.edu.umanizales.bookverse.service.BookImportService;
 import co.edu.umanizales.bookverse.service.BookService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +24,12 @@ import java.util.Map;
 public class BookController {
 
     private final BookService bookService;
+    private final BookImportService bookImportService;
 
     @Autowired
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, BookImportService bookImportService) {
         this.bookService = bookService;
+        this.bookImportService = bookImportService;
     }
 
     @GetMapping
@@ -26,6 +37,14 @@ public class BookController {
         return new ResponseEntity<>(bookService.getAllBooks(), HttpStatus.OK);
     }
 
+    /**
+     * Several books in one request, e.g. ?ids=a,b,c; unknown ids are left out
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Book>> getBooksByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(bookService.getBooksByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Book> getBookById(
             @PathVariable String id) {
@@ -49,24 +68,68 @@ public class BookController {
         return ResponseEntity.ok(bookService.getAvailableBooks());
     }
 
+    @GetMapping("/stats/inventory")
+    public ResponseEntity<Map<String, BigDecimal>> getInventoryValue() {
+        return ResponseEntity.ok(Map.of("inventoryValue", Money.toBigDecimal(bookService.getInventoryValue())));
+    }
+
+    @GetMapping("/stats/prices")
+    public ResponseEntity<BookColumns.PriceStatistics> getPriceStatistics() {
+        return ResponseEntity.ok(bookService.getPriceStatistics());
+    }
+
+    @GetMapping("/stats/genres")
+    public ResponseEntity<List<BookColumns.GenreSummary>> getGenreSummaries() {
+        return ResponseEntity.ok(bookService.getGenreSummaries());
+    }
+
     @PostMapping
     public ResponseEntity<Book> createBook(
             @RequestBody Book book) {
         try {
-            Book savedBook = bookService.saveBook(book);
-            return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
+            if (!bookService.createBook(book)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(book, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Creates or updates several books with one write; 207 when some of them failed
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult<Book>> saveBooks(@RequestBody List<Book> books) {
+        BatchResult<Book> result = bookService.saveBooks(books);
+        return new ResponseEntity<>(result, result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+    }
+
+    /**
+     * Imports a CSV in the libros.csv layout sent as the raw request body
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+            MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<BookImportService.Summary> importBooks(InputStream body) {
+        return ResponseEntity.ok(bookImportService.importCsv(body));
+    }
+
+    /**
+     * Imports a CSV in the libros.csv layout uploaded as the multipart part "file"
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BookImportService.Summary> importBooks(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(bookImportService.importCsv(in));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Book> updateBook(@PathVariable String id, @RequestBody Book book) {
-        if (!bookService.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        book.setId(id);
-        return ResponseEntity.ok(bookService.saveBook(book));
+        return bookService.updateBook(id, book)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
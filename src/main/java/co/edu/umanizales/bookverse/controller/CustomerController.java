@@ -1,6 +1,8 @@
 package co.edu.umanizales.bookverse.controller;
 
+import co.edu.umanizales.bookverse.exception.InvalidRequestException;
 import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.repository.BatchResult;
 import co.edu.umanizales.bookverse.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +27,14 @@ public class CustomerController {
         return new ResponseEntity<>(customerService.getAllCustomers(), HttpStatus.OK);
     }
 
+    /**
+     * Several customers in one request, e.g. ?ids=a,b,c; unknown ids are left out
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Customer>> getCustomersByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(customerService.getCustomersByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Customer> getCustomerById(@PathVariable String id) {
         return customerService.getCustomerById(id)
@@ -45,20 +55,31 @@ public class CustomerController {
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@RequestBody Customer customer) {
         try {
-            Customer savedCustomer = customerService.saveCustomer(customer);
-            return new ResponseEntity<>(savedCustomer, HttpStatus.CREATED);
+            if (!customerService.createCustomer(customer)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(customer, HttpStatus.CREATED);
+        } catch (InvalidRequestException e) {
+            throw e;
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Creates or updates several customers with one write; 207 when some of them failed
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult<Customer>> saveCustomers(@RequestBody List<Customer> customers) {
+        BatchResult<Customer> result = customerService.saveCustomers(customers);
+        return new ResponseEntity<>(result, result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(@PathVariable String id, @RequestBody Customer customer) {
-        if (!customerService.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        customer.setId(id);
-        return ResponseEntity.ok(customerService.saveCustomer(customer));
+        return customerService.updateCustomer(id, customer)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
@@ -45,8 +45,10 @@ public class EmployeeController {
     @PostMapping
     public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
         try {
-            Employee savedEmployee = employeeService.saveEmployee(employee);
-            return new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
+            if (!employeeService.createEmployee(employee)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(employee, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -54,11 +56,9 @@ public class EmployeeController {
 
     @PutMapping("/{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable String id, @RequestBody Employee employee) {
-        if (!employeeService.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        employee.setId(id);
-        return ResponseEntity.ok(employeeService.saveEmployee(employee));
+        return employeeService.updateEmployee(id, employee)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,89 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.exception.ExportAbortedException;
+import co.edu.umanizales.bookverse.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming CSV exports per entity. Query parameters other than gzip are filters; gzip=true
+ * returns a .csv.gz file. A "Range: rows=N-" header resumes an export at data row N.
+ * A failure while rows are being written drops the connection, see {@link ExportAbortedException}.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping
+    public ResponseEntity<Set<String>> getExports() {
+        return ResponseEntity.ok(exportService.entities());
+    }
+
+    @GetMapping("/{entity}")
+    public void export(@PathVariable String entity,
+                       @RequestParam Map<String, String> params,
+                       @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+                       HttpServletResponse response) throws IOException {
+        if (!exportService.entities().contains(entity)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Map<String, String> filters = new LinkedHashMap<>(params);
+        boolean gzip = Boolean.parseBoolean(filters.remove("gzip"));
+        ExportService.RowRange rows;
+        try {
+            rows = ExportService.RowRange.parse(range);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(), e.getMessage());
+            return;
+        }
+        ExportService.Export export;
+        try {
+            export = exportService.prepare(entity, filters);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+
+        response.setStatus(rows.isPartial() ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "rows");
+        if (rows.isPartial()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "rows " + rows.first() + "-"
+                    + (rows.last() == Long.MAX_VALUE ? "" : rows.last()) + "/*");
+        }
+        response.setContentType(gzip ? "application/gzip" : "text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(entity + (gzip ? ".csv.gz" : ".csv")).build().toString());
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER)
+                : response.getOutputStream();
+        try {
+            export.write(out, rows);
+        } catch (RuntimeException e) {
+            // not closed: that would end the body (and the gzip stream) as if the export were complete
+            throw new ExportAbortedException("Export of " + entity + " failed after the response started", e);
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,77 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.monitoring.jfr.RecordingStatus;
+import co.edu.umanizales.bookverse.service.FlightRecorderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * On-demand Java Flight Recorder control. A recording is written under
+ * bookverse.jfr.directory when stopped; dump returns a snapshot while it runs.
+ */
+@RestController
+@RequestMapping("/api/admin/jfr")
+public class FlightRecorderController {
+
+    private static final Set<String> SETTINGS = Set.of("default", "profile");
+
+    private final FlightRecorderService flightRecorderService;
+
+    @Autowired
+    public FlightRecorderController(FlightRecorderService flightRecorderService) {
+        this.flightRecorderService = flightRecorderService;
+    }
+
+    @GetMapping
+    public ResponseEntity<RecordingStatus> getStatus() {
+        return flightRecorderService.status()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * @param settings JDK configuration, default (about 1% overhead) or profile
+     * @param maxAge history kept by the recording, e.g. PT10M
+     * @param threshold minimum duration for BookVerse events to be recorded, e.g. PT0.001S
+     */
+    @PostMapping("/start")
+    public ResponseEntity<RecordingStatus> start(
+            @RequestParam(defaultValue = "default") String settings,
+            @RequestParam(required = false) Duration maxAge,
+            @RequestParam(defaultValue = "PT0S") Duration threshold) {
+        if (!SETTINGS.contains(settings)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return flightRecorderService.start(settings, maxAge, threshold)
+                .map(status -> new ResponseEntity<>(status, HttpStatus.CREATED))
+                .orElse(new ResponseEntity<>(HttpStatus.CONFLICT));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<RecordingStatus> stop() {
+        return flightRecorderService.stop()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/dump")
+    public ResponseEntity<Resource> dump() {
+        return flightRecorderService.dump()
+                .map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                .filename(file.getFileName().toString()).build().toString())
+                        .<Resource>body(new FileSystemResource(file)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,12 +1,15 @@
 package co.edu.umanizales.bookverse.controller;
 
 import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.repository.BatchResult;
 import co.edu.umanizales.bookverse.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -25,6 +28,14 @@ public class OrderController {
         return new ResponseEntity<>(orderService.getAllOrders(), HttpStatus.OK);
     }
 
+    /**
+     * Several orders in one request, e.g. ?ids=a,b,c; unknown ids are left out
+     */
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Order>> getOrdersByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(orderService.getOrdersByIds(ids));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Order> getOrderById(
             @PathVariable String id) {
@@ -48,23 +59,42 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByStatus(status));
     }
 
+    /**
+     * Orders placed between two dates, both inclusive and optional, e.g. ?from=2025-01-01&to=2025-03-31
+     */
+    @GetMapping("/date-range")
+    public ResponseEntity<List<Order>> getOrdersByDateRange(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(orderService.getOrdersByDateRange(from, to));
+    }
+
     @PostMapping
     public ResponseEntity<Order> createOrder(@RequestBody Order order) {
         try {
-            Order savedOrder = orderService.saveOrder(order);
-            return new ResponseEntity<>(savedOrder, HttpStatus.CREATED);
+            if (!orderService.createOrder(order)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(order, HttpStatus.CREATED);
         } catch (Exception e) {
             return new ResponseEntity<>(null, HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Creates or updates several orders with one write; 207 when some of them failed
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult<Order>> saveOrders(@RequestBody List<Order> orders) {
+        BatchResult<Order> result = orderService.saveOrders(orders);
+        return new ResponseEntity<>(result, result.failed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Order> updateOrder(@PathVariable String id, @RequestBody Order order) {
-        if (!orderService.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
-        order.setId(id);
-        return ResponseEntity.ok(orderService.saveOrder(order));
+        return orderService.updateOrder(id, order)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @DeleteMapping("/{id}")
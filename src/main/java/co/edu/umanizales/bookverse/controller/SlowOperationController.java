@@ -0,0 +1,71 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.monitoring.SlowOperation;
+import co.edu.umanizales.bookverse.monitoring.SlowOperationLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read access to the slow-operation log
+ */
+@RestController
+@RequestMapping("/api/admin/slow-operations")
+public class SlowOperationController {
+
+    private final SlowOperationLog slowOperationLog;
+
+    @Autowired
+    public SlowOperationController(SlowOperationLog slowOperationLog) {
+        this.slowOperationLog = slowOperationLog;
+    }
+
+    /**
+     * Newest first, optionally filtered by layer (controller, service, repository)
+     */
+    @GetMapping
+    public ResponseEntity<List<SlowOperation>> getSlowOperations(
+            @RequestParam(required = false) String layer,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(slowOperationLog.getEntries().stream()
+                .filter(entry -> layer == null || entry.layer().equalsIgnoreCase(layer))
+                .limit(Math.max(0, limit))
+                .toList());
+    }
+
+    @GetMapping("/shapes")
+    public ResponseEntity<List<SlowOperation.ShapeSummary>> getShapes() {
+        return ResponseEntity.ok(slowOperationLog.getShapes());
+    }
+
+    @GetMapping("/settings")
+    public ResponseEntity<Map<String, Object>> getSettings() {
+        return ResponseEntity.ok(settings());
+    }
+
+    @PutMapping("/settings")
+    public ResponseEntity<Map<String, Object>> updateSettings(@RequestParam Duration threshold) {
+        if (threshold.isNegative()) {
+            return ResponseEntity.badRequest().build();
+        }
+        slowOperationLog.setThreshold(threshold);
+        return ResponseEntity.ok(settings());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clear() {
+        slowOperationLog.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    private Map<String, Object> settings() {
+        return Map.of(
+                "enabled", slowOperationLog.isEnabled(),
+                "thresholdMillis", slowOperationLog.getThreshold().toMillis(),
+                "capacity", slowOperationLog.getCapacity());
+    }
+}
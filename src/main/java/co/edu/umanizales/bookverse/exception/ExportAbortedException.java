@@ -0,0 +1,12 @@
+package co.edu.umanizales.bookverse.exception;
+
+/**
+ * An export that failed after its status and first rows were sent. It is left to the servlet
+ * container, which drops the connection instead of ending the body, so the client cannot take
+ * the truncated file for a complete one.
+ */
+public class ExportAbortedException extends RuntimeException {
+    public ExportAbortedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package co.edu.umanizales.bookverse.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package co.edu.umanizales.bookverse.exception;
+
+public class StorageBusyException extends RuntimeException {
+    public StorageBusyException(String message) {
+        super(message);
+    }
+}
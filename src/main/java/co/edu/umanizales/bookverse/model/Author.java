@@ -23,12 +23,14 @@ public class Author implements Exportable {
     private String email;
     
     @Override
-    public String toCsv() {
-        String escapedBiography = biography != null ? 
-            "\"" + biography.replace("\"", "\"\"") + "\"" : "";
-        return String.format("%s,%s,%s,%s,%s,%s,%s",
-            id, name, lastName, nationality, birthDate, 
-            escapedBiography, email);
+    public void writeCsv(CsvRowWriter writer) {
+        writer.field(id)
+            .field(name)
+            .field(lastName)
+            .field(nationality)
+            .date(birthDate)
+            .quoted(biography)
+            .field(email);
     }
     
     @Override
@@ -3,6 +3,8 @@ package co.edu.umanizales.bookverse.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDate;
 
@@ -21,16 +23,20 @@ public class Book implements Exportable {
     private LocalDate publicationDate;
     private String genre;
     private int pageCount;
-    private double price;
+    // Minor units (cents); exposed in JSON as a decimal amount
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long price;
     private int stock;
     private String description;
     private String language;
     
     /**
      * Main constructor with Author object
+     * @param price price in minor units (cents)
      */
     public Book(String id, String isbn, String title, Author author, String publisher, 
-                LocalDate publicationDate, String genre, int pageCount, double price, 
+                LocalDate publicationDate, String genre, int pageCount, long price, 
                 int stock, String description, String language) {
         this.id = id;
         this.isbn = isbn;
@@ -52,7 +58,7 @@ public class Book implements Exportable {
      */
     @Deprecated
     public Book(String id, String isbn, String title, String authorId, String publisher, 
-                LocalDate publicationDate, String genre, int pageCount, double price, 
+                LocalDate publicationDate, String genre, int pageCount, long price, 
                 int stock, String description, String language) {
         this.id = id;
         this.isbn = isbn;
@@ -84,12 +90,19 @@ public class Book implements Exportable {
     }
     
     @Override
-    public String toCsv() {
-        String escapedDescription = description != null ? 
-            "\"" + description.replace("\"", "\"\"") + "\"" : "";
-        return String.format("%s,%s,%s,%s,%s,%s,%s,%d,%.2f,%d,%s,%s",
-            id, isbn, title, getAuthorId(), publisher, publicationDate, 
-            genre, pageCount, price, stock, escapedDescription, language);
+    public void writeCsv(CsvRowWriter writer) {
+        writer.field(id)
+            .field(isbn)
+            .field(title)
+            .field(getAuthorId())
+            .field(publisher)
+            .date(publicationDate)
+            .field(genre)
+            .field(pageCount)
+            .money(price)
+            .field(stock)
+            .quoted(description)
+            .field(language);
     }
     
     @Override
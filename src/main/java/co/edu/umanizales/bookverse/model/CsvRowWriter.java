@@ -0,0 +1,453 @@
+package co.edu.umanizales.bookverse.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming CSV writer used by {@link Exportable} entities.
+ * Fields are encoded as UTF-8 straight into one reused buffer, which is written
+ * to the channel whenever it fills up, so writing a row does not create Strings.
+ * Numbers, money and dates are encoded by hand instead of going through String.format.
+ */
+public final class CsvRowWriter implements Closeable, Flushable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MIN_BUFFER_SIZE = 64;
+    private static final byte[] LONG_MIN = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private boolean firstField = true;
+    private long bytesWritten;
+    private long rows;
+
+    public CsvRowWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvRowWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, MIN_BUFFER_SIZE));
+    }
+
+    /**
+     * Opens a writer that replaces the content of a file
+     */
+    public static CsvRowWriter open(Path path) throws IOException {
+        return new CsvRowWriter(FileChannel.open(path,
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Renders a single entity as a CSV line (without line terminator)
+     */
+    public static String format(Exportable entity) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out), 1024)) {
+            entity.writeCsv(writer);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes an entity followed by a line terminator
+     */
+    public CsvRowWriter row(Exportable entity) {
+        entity.writeCsv(this);
+        return endRow();
+    }
+
+    /**
+     * Writes a text field, quoting it only when it contains a comma, quote or line break
+     */
+    public CsvRowWriter field(String value) {
+        separator();
+        if (value != null) {
+            if (needsQuoting(value)) {
+                writeQuoted(value);
+            } else {
+                writeChars(value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes a text field that is always quoted; null is written as an empty field
+     */
+    public CsvRowWriter quoted(String value) {
+        separator();
+        if (value != null) {
+            writeQuoted(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a list as a single quoted field with ';' between the values;
+     * a null or empty list is written as an empty field
+     */
+    public CsvRowWriter joined(List<String> values) {
+        separator();
+        if (values != null && !values.isEmpty()) {
+            put('"');
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    put(';');
+                }
+                rawEscaped(values.get(i));
+            }
+            put('"');
+        }
+        return this;
+    }
+
+    /**
+     * Writes an empty field
+     */
+    public CsvRowWriter empty() {
+        separator();
+        return this;
+    }
+
+    public CsvRowWriter field(long value) {
+        separator();
+        return raw(value);
+    }
+
+    public CsvRowWriter field(boolean value) {
+        separator();
+        return raw(value ? "true" : "false");
+    }
+
+    public CsvRowWriter field(Enum<?> value) {
+        separator();
+        return value != null ? raw(value.name()) : this;
+    }
+
+    /**
+     * Writes an amount held in minor units, e.g. 3099 as 30.99
+     */
+    public CsvRowWriter money(long minor) {
+        separator();
+        return rawMoney(minor);
+    }
+
+    /**
+     * Writes a floating-point amount with two decimals, rounded like {@code %.2f} in Locale.US
+     */
+    public CsvRowWriter decimal(double value) {
+        separator();
+        double scaled = value * 100.0;
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(scaled) < 1e15 && Math.abs(fraction - 0.5) > 1e-6 && !(value < 0 && scaled > -0.5)) {
+            return rawMoney(Math.round(scaled));
+        }
+        // Close to half a cent the product above may round the other way, and negative
+        // amounts that round to zero print as -0.00, so those take the formatter
+        return raw(String.format(Locale.US, "%.2f", value));
+    }
+
+    /**
+     * Writes a date as yyyy-MM-dd; null is written as an empty field
+     */
+    public CsvRowWriter date(LocalDate value) {
+        separator();
+        if (value != null) {
+            writeDate(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a date-time in the same layout as LocalDateTime.toString()
+     */
+    public CsvRowWriter dateTime(LocalDateTime value) {
+        separator();
+        if (value != null) {
+            writeDate(value.toLocalDate());
+            put('T');
+            writeTime(value.toLocalTime());
+        }
+        return this;
+    }
+
+    /**
+     * Opens a quoted field whose content is written with the raw methods
+     */
+    public CsvRowWriter beginQuoted() {
+        separator();
+        put('"');
+        return this;
+    }
+
+    public CsvRowWriter endQuoted() {
+        put('"');
+        return this;
+    }
+
+    /**
+     * Writes text inside an open field without any escaping
+     */
+    public CsvRowWriter raw(String value) {
+        if (value != null) {
+            writeChars(value);
+        }
+        return this;
+    }
+
+    public CsvRowWriter raw(char c) {
+        writeChar(c);
+        return this;
+    }
+
+    /**
+     * Writes text inside an open quoted field, doubling embedded quotes
+     */
+    public CsvRowWriter rawEscaped(String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put('"');
+                }
+                i = writeChar(value, i);
+            }
+        }
+        return this;
+    }
+
+    public CsvRowWriter raw(long value) {
+        if (value == Long.MIN_VALUE) {
+            ensure(LONG_MIN.length);
+            buffer.put(LONG_MIN);
+            return this;
+        }
+        if (value < 0) {
+            put('-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        ensure(count);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+        return this;
+    }
+
+    public CsvRowWriter rawMoney(long minor) {
+        if (minor < 0) {
+            put('-');
+            if (minor == Long.MIN_VALUE) {
+                raw(-(minor / 100));
+                put('.');
+                long rest = -(minor % 100);
+                put((char) ('0' + rest / 10));
+                put((char) ('0' + rest % 10));
+                return this;
+            }
+            minor = -minor;
+        }
+        raw(minor / 100);
+        long fraction = minor % 100;
+        put('.');
+        put((char) ('0' + fraction / 10));
+        put((char) ('0' + fraction % 10));
+        return this;
+    }
+
+    /**
+     * Terminates the current row
+     */
+    public CsvRowWriter endRow() {
+        put('\n');
+        firstField = true;
+        rows++;
+        return this;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing CSV data", e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error closing CSV channel", e);
+            }
+        }
+    }
+
+    private void separator() {
+        if (firstField) {
+            firstField = false;
+        } else {
+            put(',');
+        }
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeQuoted(String value) {
+        put('"');
+        rawEscaped(value);
+        put('"');
+    }
+
+    private void writeDate(LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            writeChars(date.toString());
+            return;
+        }
+        ensure(10);
+        putDigits(year, 4);
+        buffer.put((byte) '-');
+        putDigits(date.getMonthValue(), 2);
+        buffer.put((byte) '-');
+        putDigits(date.getDayOfMonth(), 2);
+    }
+
+    private void writeTime(LocalTime time) {
+        ensure(18);
+        putDigits(time.getHour(), 2);
+        buffer.put((byte) ':');
+        putDigits(time.getMinute(), 2);
+        int second = time.getSecond();
+        int nano = time.getNano();
+        if (second > 0 || nano > 0) {
+            buffer.put((byte) ':');
+            putDigits(second, 2);
+            if (nano > 0) {
+                buffer.put((byte) '.');
+                if (nano % 1_000_000 == 0) {
+                    putDigits(nano / 1_000_000, 3);
+                } else if (nano % 1000 == 0) {
+                    putDigits(nano / 1000, 6);
+                } else {
+                    putDigits(nano, 9);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a non-negative number left-padded with zeros; capacity must be ensured by the caller
+     */
+    private void putDigits(int value, int width) {
+        int end = buffer.position() + width;
+        for (int i = end - 1; i >= end - width; i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    private void writeChars(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            i = writeChar(value, i);
+        }
+    }
+
+    /**
+     * Encodes the char at index as UTF-8, consuming a surrogate pair when present
+     * @return the index of the last char consumed
+     */
+    private int writeChar(String value, int index) {
+        char c = value.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            ensure(4);
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            return index + 1;
+        }
+        writeChar(c);
+        return index;
+    }
+
+    private void writeChar(char c) {
+        if (c < 0x80) {
+            put(c);
+        } else if (c < 0x800) {
+            ensure(2);
+            buffer.put((byte) (0xC0 | (c >> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isSurrogate(c)) {
+            // Unpaired surrogate: same replacement as String.getBytes
+            put('?');
+        } else {
+            ensure(3);
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+    }
+
+    private void put(char ascii) {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) ascii);
+    }
+
+    private void ensure(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
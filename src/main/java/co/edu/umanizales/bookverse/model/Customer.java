@@ -40,12 +40,16 @@ public class Customer implements Exportable, Notificable {
     }
     
     @Override
-    public String toCsv() {
-        String historyStr = orderHistory != null ? 
-            "\"" + String.join(";", orderHistory) + "\"" : "";
-        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s",
-            id, name, lastName, email, phone, address, 
-            registrationDate, historyStr, active);
+    public void writeCsv(CsvRowWriter writer) {
+        writer.field(id)
+            .field(name)
+            .field(lastName)
+            .field(email)
+            .field(phone)
+            .field(address)
+            .date(registrationDate)
+            .joined(orderHistory)
+            .field(active);
     }
     
     @Override
@@ -58,6 +58,20 @@ public abstract class Employee implements Exportable, Notificable {
         return "id,name,lastName,email,phone,hireDate,baseSalary,position,type";
     }
     
+    /**
+     * Writes the columns shared by every employee type
+     */
+    protected void writeEmployeeFields(CsvRowWriter writer) {
+        writer.field(id)
+            .field(name)
+            .field(lastName)
+            .field(email)
+            .field(phone)
+            .date(hireDate)
+            .decimal(baseSalary)
+            .field(position);
+    }
+    
     /**
      * Gets the full name of the employee
      */
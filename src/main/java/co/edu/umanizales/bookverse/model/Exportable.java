@@ -5,11 +5,19 @@ package co.edu.umanizales.bookverse.model;
  */
 public interface Exportable {
     
+    /**
+     * Writes the entity's fields as one CSV row, without the line terminator
+     * @param writer destination of the row
+     */
+    void writeCsv(CsvRowWriter writer);
+    
     /**
      * Converts the entity to a CSV row format
      * @return String representation in CSV format
      */
-    String toCsv();
+    default String toCsv() {
+        return CsvRowWriter.format(this);
+    }
     
     /**
      * Gets the CSV header for this entity type
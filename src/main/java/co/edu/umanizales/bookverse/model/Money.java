@@ -0,0 +1,172 @@
+package co.edu.umanizales.bookverse.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are stored as long minor units (cents),
+ * and are parsed and formatted with '.' as the decimal separator regardless of locale.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+    private static final long FACTOR = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount such as "45000", "30.99" or "-1.5" into minor units.
+     * Extra decimals are rounded half-up.
+     */
+    public static long parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * Parses the decimal amount found in text[from, to) into minor units
+     */
+    public static long parse(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) == ' ') {
+            i++;
+        }
+        while (to > i && text.charAt(to - 1) == ' ') {
+            to--;
+        }
+        if (i == to) {
+            throw new NumberFormatException("Empty amount");
+        }
+
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long units = 0;
+        int digits = 0;
+        for (; i < to && text.charAt(i) != '.'; i++) {
+            units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i));
+            digits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        if (i < to) {
+            i++;
+            for (; i < to; i++) {
+                int d = digit(text, i);
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + d;
+                } else if (fractionDigits == SCALE) {
+                    roundUp = d >= 5;
+                }
+                fractionDigits++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount: " + text.subSequence(from, to));
+        }
+        for (int k = Math.min(fractionDigits, SCALE); k < SCALE; k++) {
+            fraction *= 10;
+        }
+
+        long minor = Math.addExact(Math.multiplyExact(units, FACTOR), fraction + (roundUp ? 1 : 0));
+        return negative ? -minor : minor;
+    }
+
+    /**
+     * Appends an amount in minor units as a plain decimal, for example 3099 as "30.99"
+     */
+    public static StringBuilder appendTo(StringBuilder out, long minor) {
+        if (minor < 0) {
+            out.append('-');
+            if (minor == Long.MIN_VALUE) {
+                // Cannot be negated; only the last digit needs special care
+                out.append(-(minor / FACTOR)).append('.');
+                long rest = -(minor % FACTOR);
+                return out.append((char) ('0' + rest / 10)).append((char) ('0' + rest % 10));
+            }
+            minor = -minor;
+        }
+        long fraction = minor % FACTOR;
+        return out.append(minor / FACTOR)
+                .append('.')
+                .append((char) ('0' + fraction / 10))
+                .append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * Formats an amount in minor units as a plain decimal string
+     */
+    public static String format(long minor) {
+        return appendTo(new StringBuilder(24), minor).toString();
+    }
+
+    /**
+     * Converts a floating-point amount into minor units, rounding half-up
+     */
+    public static long fromDouble(double amount) {
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static double toDouble(long minor) {
+        return minor / (double) FACTOR;
+    }
+
+    public static BigDecimal toBigDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    /**
+     * Applies a whole-number percentage to an amount, rounding half-up
+     */
+    public static long percent(long minor, int percent) {
+        long scaled = Math.multiplyExact(minor, percent);
+        return scaled >= 0 ? (scaled + 50) / 100 : -((-scaled + 50) / 100);
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Invalid character '" + c + "' in amount: " + text);
+        }
+        return c - '0';
+    }
+
+    /**
+     * Writes minor units as a JSON decimal number, so the API keeps showing 55000.00
+     */
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(toBigDecimal(value));
+        }
+    }
+
+    /**
+     * Reads a JSON decimal number (or numeric string) into minor units
+     */
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return parse(p.getText());
+            }
+            return p.getDecimalValue().setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+    }
+}
@@ -5,18 +5,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 /**
  * Regular class representing an order
+ * Money amounts are held in minor units (cents) and exposed in JSON as decimals
  */
 @Data
 @NoArgsConstructor
 public class Order implements Exportable {
     
+    private static final int TAX_RATE_PERCENT = 19;
+    
     private String id;
     private Customer customer;
     @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
@@ -25,9 +31,15 @@ public class Order implements Exportable {
     private LocalDateTime orderDate;
     @JsonFormat(with = JsonFormat.Feature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
     private List<OrderItem> items;
-    private double subtotal;
-    private double taxes;
-    private double total;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long subtotal;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long taxes;
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    private long total;
     private PaymentMethod paymentMethod;
     private String status;
     private String shippingAddress;
@@ -42,9 +54,9 @@ public class Order implements Exportable {
         this.salesperson = salesperson;
         this.orderDate = orderDate;
         this.items = new ArrayList<>();
-        this.subtotal = 0.0;
-        this.taxes = 0.0;
-        this.total = 0.0;
+        this.subtotal = 0;
+        this.taxes = 0;
+        this.total = 0;
         this.paymentMethod = paymentMethod;
         this.status = status;
         this.shippingAddress = shippingAddress;
@@ -64,9 +76,9 @@ public class Order implements Exportable {
         this.salesperson.setId(salespersonId);
         this.orderDate = orderDate;
         this.items = new ArrayList<>();
-        this.subtotal = 0.0;
-        this.taxes = 0.0;
-        this.total = 0.0;
+        this.subtotal = 0;
+        this.taxes = 0;
+        this.total = 0;
         this.paymentMethod = paymentMethod;
         this.status = status;
         this.shippingAddress = shippingAddress;
@@ -87,16 +99,34 @@ public class Order implements Exportable {
     }
     
     @Override
-    public String toCsv() {
-        String itemsStr = items != null ? 
-            "\"" + items.stream()
-                .map(item -> String.format("%s:%d:%.2f", 
-                    item.getBookId(), item.getQuantity(), item.getUnitPrice()))
-                .reduce((a, b) -> a + ";" + b)
-                .orElse("") + "\"" : "";
-        return String.format("%s,%s,%s,%s,%s,%.2f,%.2f,%.2f,%s,%s,%s",
-            id, getCustomerId(), getSalespersonId(), orderDate, itemsStr, 
-            subtotal, taxes, total, paymentMethod, status, shippingAddress);
+    public void writeCsv(CsvRowWriter writer) {
+        writer.field(id)
+            .field(getCustomerId())
+            .field(getSalespersonId())
+            .dateTime(orderDate);
+        if (items != null) {
+            writer.beginQuoted();
+            for (int i = 0; i < items.size(); i++) {
+                OrderItem item = items.get(i);
+                if (i > 0) {
+                    writer.raw(';');
+                }
+                writer.rawEscaped(item.getBookId())
+                    .raw(':')
+                    .raw(item.getQuantity())
+                    .raw(':')
+                    .rawMoney(item.getUnitPrice());
+            }
+            writer.endQuoted();
+        } else {
+            writer.empty();
+        }
+        writer.money(subtotal)
+            .money(taxes)
+            .money(total)
+            .field(paymentMethod)
+            .field(status)
+            .field(shippingAddress);
     }
     
     @Override
@@ -105,46 +135,57 @@ public class Order implements Exportable {
     }
     
     /**
-     * Adds an item to the order
+     * Adds an item to the order, updating the totals incrementally
      */
     public void addItem(OrderItem item) {
         if (this.items == null) {
             this.items = new ArrayList<>();
         }
         this.items.add(item);
-        calculateTotals();
+        applySubtotal(Math.addExact(subtotal, item.calculateSubtotal()));
     }
     
     /**
-     * Removes an item from the order
+     * Removes an item from the order, updating the totals incrementally
      */
     public boolean removeItem(String bookId) {
         if (this.items == null) {
             return false;
         }
-        boolean removed = this.items.removeIf(item -> item.getBookId().equals(bookId));
+        long removedAmount = 0;
+        boolean removed = false;
+        Iterator<OrderItem> iterator = this.items.iterator();
+        while (iterator.hasNext()) {
+            OrderItem item = iterator.next();
+            if (bookId.equals(item.getBookId())) {
+                removedAmount += item.calculateSubtotal();
+                iterator.remove();
+                removed = true;
+            }
+        }
         if (removed) {
-            calculateTotals();
+            applySubtotal(subtotal - removedAmount);
         }
         return removed;
     }
     
     /**
-     * Calculates subtotal, taxes, and total
+     * Recalculates subtotal, taxes, and total from every item.
+     * Needed when the items list is replaced as a whole (e.g. by JSON binding).
      */
     public void calculateTotals() {
-        if (items == null || items.isEmpty()) {
-            this.subtotal = 0.0;
-            this.taxes = 0.0;
-            this.total = 0.0;
-            return;
+        long sum = 0;
+        if (items != null) {
+            for (OrderItem item : items) {
+                sum = Math.addExact(sum, item.calculateSubtotal());
+            }
         }
-        
-        this.subtotal = items.stream()
-            .mapToDouble(item -> item.getQuantity() * item.getUnitPrice())
-            .sum();
-        
-        this.taxes = subtotal * 0.19; // 19% tax
+        applySubtotal(sum);
+    }
+    
+    private void applySubtotal(long subtotal) {
+        this.subtotal = subtotal;
+        this.taxes = Money.percent(subtotal, TAX_RATE_PERCENT);
         this.total = subtotal + taxes;
     }
     
@@ -188,18 +229,21 @@ public class Order implements Exportable {
     
     /**
      * Inner class representing an order item with proper Book reference
+     * The unit price is held in minor units (cents)
      */
     @Data
     @NoArgsConstructor
     public static class OrderItem {
         private Book book;
         private int quantity;
-        private double unitPrice;
+        @JsonSerialize(using = Money.Serializer.class)
+        @JsonDeserialize(using = Money.Deserializer.class)
+        private long unitPrice;
         
         /**
          * Main constructor with Book object
          */
-        public OrderItem(Book book, int quantity, double unitPrice) {
+        public OrderItem(Book book, int quantity, long unitPrice) {
             this.book = book;
             this.quantity = quantity;
             this.unitPrice = unitPrice;
@@ -210,7 +254,7 @@ public class Order implements Exportable {
          * @deprecated Use constructor with Book object instead
          */
         @Deprecated
-        public OrderItem(String bookId, String bookTitle, int quantity, double unitPrice) {
+        public OrderItem(String bookId, String bookTitle, int quantity, long unitPrice) {
             this.book = new Book();
             this.book.setId(bookId);
             this.book.setTitle(bookTitle);
@@ -232,8 +276,8 @@ public class Order implements Exportable {
             return book != null ? book.getTitle() : null;
         }
         
-        public double calculateSubtotal() {
-            return quantity * unitPrice;
+        public long calculateSubtotal() {
+            return Math.multiplyExact(unitPrice, quantity);
         }
     }
 }
@@ -1,16 +1,22 @@
 package co.edu.umanizales.bookverse.model;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.time.LocalDateTime;
 
 /**
  * Record representing a purchase history entry
  * Records are immutable and ideal for data transfer objects
+ * The total amount is held in minor units (cents)
  */
 public record PurchaseHistory(
     String orderId,
     String customerId,
     LocalDateTime purchaseDate,
-    double totalAmount,
+    @JsonSerialize(using = Money.Serializer.class)
+    @JsonDeserialize(using = Money.Deserializer.class)
+    long totalAmount,
     PaymentMethod paymentMethod,
     String status
 ) {
@@ -37,7 +43,7 @@ public record PurchaseHistory(
      * Formats the purchase history as a readable string
      */
     public String format() {
-        return String.format("Order: %s | Customer: %s | Date: %s | Total: $%.2f | Payment: %s | Status: %s",
-            orderId, customerId, purchaseDate, totalAmount, paymentMethod.getName(), status);
+        return String.format("Order: %s | Customer: %s | Date: %s | Total: $%s | Payment: %s | Status: %s",
+            orderId, customerId, purchaseDate, Money.format(totalAmount), paymentMethod.getName(), status);
     }
 }
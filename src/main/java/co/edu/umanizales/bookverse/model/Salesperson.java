@@ -42,11 +42,12 @@ public class Salesperson extends Employee {
     }
     
     @Override
-    public String toCsv() {
-        return String.format(java.util.Locale.US, "%s,%s,%s,%s,%s,%s,%.2f,%s,Salesperson,%.2f,%d,%s",
-            getId(), getName(), getLastName(), getEmail(), getPhone(),
-            getHireDate(), getBaseSalary(), getPosition(),
-            commissionPerSale, salesCompleted, assignedZone);
+    public void writeCsv(CsvRowWriter writer) {
+        writeEmployeeFields(writer);
+        writer.field("Salesperson")
+            .decimal(commissionPerSale)
+            .field(salesCompleted)
+            .field(assignedZone);
     }
     
     /**
@@ -0,0 +1,129 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls in flight on the current thread, from the outermost intercepted controller, service or
+ * repository call down. Nested calls are folded into one stage per operation, so an order
+ * listing that resolves a thousand customers shows up as a single customers stage.
+ */
+public final class OperationTrace {
+
+    private static final ThreadLocal<OperationTrace> CURRENT = new ThreadLocal<>();
+    private static final int MAX_STAGES = 32;
+    private static final String OTHER = "other";
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+    private OperationTrace() {
+    }
+
+    /**
+     * Adds rows and bytes read from a data file to every call in flight
+     */
+    public static void recordScan(long rows, long bytes) {
+        OperationTrace trace = CURRENT.get();
+        if (trace != null) {
+            for (Frame frame : trace.frames) {
+                frame.rowsScanned += rows;
+                frame.bytesRead += bytes;
+            }
+        }
+    }
+
+    static Frame enter(String layer, String operation) {
+        OperationTrace trace = CURRENT.get();
+        if (trace == null) {
+            trace = new OperationTrace();
+            CURRENT.set(trace);
+        }
+        Frame frame = new Frame(layer, operation, trace.frames.size());
+        if (frame.depth > 0) {
+            frame.stage = trace.stage(frame);
+        }
+        trace.frames.push(frame);
+        frame.start = System.nanoTime();
+        return frame;
+    }
+
+    /**
+     * Closes the innermost call; returns the trace once the outermost one is done, null before
+     */
+    static OperationTrace exit(Frame frame) {
+        OperationTrace trace = CURRENT.get();
+        frame.nanos = System.nanoTime() - frame.start;
+        trace.frames.pop();
+        if (frame.stage != null) {
+            frame.stage.add(frame);
+            return null;
+        }
+        CURRENT.remove();
+        return trace;
+    }
+
+    List<SlowOperation.Stage> stages() {
+        List<SlowOperation.Stage> result = new ArrayList<>(stages.size());
+        for (Stage stage : stages.values()) {
+            result.add(new SlowOperation.Stage(stage.layer, stage.operation, stage.calls,
+                    stage.nanos / 1e6, stage.maxNanos / 1e6, stage.rowsScanned));
+        }
+        return result;
+    }
+
+    private Stage stage(Frame frame) {
+        String key = frame.layer + ':' + frame.operation;
+        Stage stage = stages.get(key);
+        if (stage == null) {
+            if (stages.size() >= MAX_STAGES) {
+                return stages.computeIfAbsent(OTHER, k -> new Stage(OTHER, OTHER));
+            }
+            stage = new Stage(frame.layer, frame.operation);
+            stages.put(key, stage);
+        }
+        return stage;
+    }
+
+    static final class Frame {
+        final String layer;
+        final String operation;
+        final int depth;
+        Stage stage;
+        long start;
+        long nanos;
+        long rowsScanned;
+        long bytesRead;
+
+        Frame(String layer, String operation, int depth) {
+            this.layer = layer;
+            this.operation = operation;
+            this.depth = depth;
+        }
+    }
+
+    private static final class Stage {
+        final String layer;
+        final String operation;
+        long calls;
+        long nanos;
+        long maxNanos;
+        long rowsScanned;
+
+        Stage(String layer, String operation) {
+            this.layer = layer;
+            this.operation = operation;
+        }
+
+        void add(Frame frame) {
+            calls++;
+            nanos += frame.nanos;
+            maxNanos = Math.max(maxNanos, frame.nanos);
+            rowsScanned += frame.rowsScanned;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Storage-level meters shared by every repository, tagged with the repository name
+ * (authors, books, customers, employees, orders):
+ * <ul>
+ *   <li>bookverse.repository.operation - timer per public operation and outcome</li>
+ *   <li>bookverse.repository.rows.returned - rows handed back per operation</li>
+ *   <li>bookverse.repository.rows.scanned / rows.written - CSV rows read and written</li>
+ *   <li>bookverse.repository.bytes.read / bytes.written - file bytes read and written</li>
+ *   <li>bookverse.repository.parse.failures - lines that could not be parsed</li>
+ *   <li>bookverse.repository.id.filter - id lookups by Bloom filter outcome: negative (answered
+ *       without storage), positive or false_positive</li>
+ *   <li>bookverse.repository.id.filter.fpp - false positive rate expected from the filter's fill</li>
+ * </ul>
+ */
+@Component
+public class RepositoryMetrics {
+
+    private static final RepositoryMetrics NOOP = new RepositoryMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    // Meters are looked up on every row read or written, so each one is built and registered once
+    private final Map<OperationKey, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<OperationKey, DistributionSummary> rowsReturned = new ConcurrentHashMap<>();
+    private final Map<String, StorageCounters> storageCounters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RepositoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Metrics that go nowhere, for repositories built outside Spring
+     */
+    public static RepositoryMetrics noop() {
+        return NOOP;
+    }
+
+    public void recordOperation(String repository, String operation, String outcome, long nanos, long rowsReturned) {
+        operationTimers.computeIfAbsent(new OperationKey(repository, operation, outcome),
+                key -> Timer.builder("bookverse.repository.operation")
+                        .description("Repository operation latency")
+                        .tags("repository", repository, "operation", operation, "outcome", outcome)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(10_000))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(registry))
+                .record(Duration.ofNanos(nanos));
+        if (rowsReturned >= 0) {
+            this.rowsReturned.computeIfAbsent(new OperationKey(repository, operation, ""),
+                    key -> DistributionSummary.builder("bookverse.repository.rows.returned")
+                            .description("Rows returned by a repository operation")
+                            .tags("repository", repository, "operation", operation)
+                            .register(registry))
+                    .record(rowsReturned);
+        }
+    }
+
+    public void recordScan(String repository, long rows, long bytes) {
+        StorageCounters counters = storageCounters(repository);
+        counters.rowsScanned().increment(rows);
+        counters.bytesRead().increment(bytes);
+    }
+
+    public void recordWrite(String repository, long rows, long bytes) {
+        StorageCounters counters = storageCounters(repository);
+        counters.rowsWritten().increment(rows);
+        counters.bytesWritten().increment(bytes);
+    }
+
+    public void recordParseFailure(String repository) {
+        storageCounters(repository).parseFailures().increment();
+    }
+
+    /**
+     * Registers the filter's gauge and returns its outcome counters, which the filter keeps
+     * since it counts every id lookup
+     */
+    public IdFilterCounters registerIdFilter(String repository, Supplier<Number> expectedFalsePositiveRate) {
+        Gauge.builder("bookverse.repository.id.filter.fpp", expectedFalsePositiveRate)
+                .description("Expected false positive rate of the id Bloom filter")
+                .tag("repository", repository)
+                .register(registry);
+        return new IdFilterCounters(idFilterCounter(repository, "negative"),
+                idFilterCounter(repository, "positive"), idFilterCounter(repository, "false_positive"));
+    }
+
+    private Counter idFilterCounter(String repository, String outcome) {
+        return Counter.builder("bookverse.repository.id.filter")
+                .description("Id lookups by Bloom filter outcome")
+                .tags("repository", repository, "outcome", outcome)
+                .register(registry);
+    }
+
+    private StorageCounters storageCounters(String repository) {
+        return storageCounters.computeIfAbsent(repository, name -> new StorageCounters(
+                counter("bookverse.repository.rows.scanned", name, "CSV rows read"),
+                counter("bookverse.repository.bytes.read", name, "Data file bytes read"),
+                counter("bookverse.repository.rows.written", name, "CSV rows written"),
+                counter("bookverse.repository.bytes.written", name, "Data file bytes written"),
+                counter("bookverse.repository.parse.failures", name, "CSV lines that failed to parse")));
+    }
+
+    private Counter counter(String name, String repository, String description) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("repository", repository)
+                .register(registry);
+    }
+
+    public record IdFilterCounters(Counter negative, Counter positive, Counter falsePositive) {
+    }
+
+    private record OperationKey(String repository, String operation, String outcome) {
+    }
+
+    private record StorageCounters(Counter rowsScanned, Counter bytesRead, Counter rowsWritten,
+                                   Counter bytesWritten, Counter parseFailures) {
+    }
+}
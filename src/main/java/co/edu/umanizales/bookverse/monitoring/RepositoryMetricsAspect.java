@@ -0,0 +1,71 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import co.edu.umanizales.bookverse.repository.*;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Times every public operation of the repository beans. Calls a repository makes on itself
+ * are not intercepted, so each entry is one call from a service or from another repository
+ * (for example order parsing resolving customers and books).
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final RepositoryMetrics metrics;
+
+    @Autowired
+    public RepositoryMetricsAspect(RepositoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("within(co.edu.umanizales.bookverse.repository..*) "
+            + "&& @within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getTarget());
+        String operation = joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            metrics.recordOperation(repository, operation, "success", System.nanoTime() - start, rows(result));
+            return result;
+        } catch (Throwable t) {
+            metrics.recordOperation(repository, operation, "error", System.nanoTime() - start, -1);
+            throw t;
+        }
+    }
+
+    static String repositoryName(Object target) {
+        if (target instanceof IBookRepository) {
+            return "books";
+        } else if (target instanceof IOrderRepository) {
+            return "orders";
+        } else if (target instanceof ICustomerRepository) {
+            return "customers";
+        } else if (target instanceof IEmployeeRepository) {
+            return "employees";
+        } else if (target instanceof IAuthorRepository) {
+            return "authors";
+        }
+        return target.getClass().getSimpleName();
+    }
+
+    /**
+     * Rows handed back by an operation, or -1 when the result is not a row set
+     */
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
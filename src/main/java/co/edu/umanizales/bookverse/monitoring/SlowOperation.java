@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One operation that went over the slow-log threshold
+ * @param timestamp when the operation finished
+ * @param layer controller, service or repository
+ * @param operation class and method, e.g. BookCsvRepository.findByGenre
+ * @param parameters argument values by name; entities and collections are reduced to their type and size
+ * @param durationMillis wall time of the whole operation
+ * @param outcome success or the exception class name
+ * @param rowsScanned CSV rows read while it ran, nested calls included
+ * @param bytesRead data file bytes read while it ran
+ * @param thread thread that ran it
+ * @param stages nested calls folded per operation, in first-call order
+ */
+public record SlowOperation(
+    Instant timestamp,
+    String layer,
+    String operation,
+    Map<String, Object> parameters,
+    double durationMillis,
+    String outcome,
+    long rowsScanned,
+    long bytesRead,
+    String thread,
+    List<Stage> stages
+) {
+
+    /**
+     * Operation plus parameter names, e.g. BookController.getBooksByGenre(genre)
+     */
+    public String shape() {
+        return operation + "(" + String.join(",", parameters.keySet()) + ")";
+    }
+
+    /**
+     * @param calls times the operation ran inside the outer one
+     * @param totalMillis summed wall time of those calls
+     * @param maxMillis slowest single call
+     * @param rowsScanned CSV rows read by those calls
+     */
+    public record Stage(
+        String layer,
+        String operation,
+        long calls,
+        double totalMillis,
+        double maxMillis,
+        long rowsScanned
+    ) {
+    }
+
+    /**
+     * Slow entries grouped by {@link #shape()}
+     */
+    public record ShapeSummary(
+        String shape,
+        String layer,
+        long count,
+        double avgMillis,
+        double maxMillis,
+        long maxRowsScanned,
+        Instant lastSeen
+    ) {
+    }
+}
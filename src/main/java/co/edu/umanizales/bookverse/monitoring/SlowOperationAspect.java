@@ -0,0 +1,111 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Feeds {@link OperationTrace} from controller, service and repository calls and hands the
+ * outermost call to {@link SlowOperationLog} when it went over the threshold.
+ */
+@Aspect
+@Component
+public class SlowOperationAspect {
+
+    private static final int MAX_VALUE_LENGTH = 100;
+
+    private final SlowOperationLog slowLog;
+
+    @Autowired
+    public SlowOperationAspect(SlowOperationLog slowLog) {
+        this.slowLog = slowLog;
+    }
+
+    @Around("within(co.edu.umanizales.bookverse.controller..*) "
+            + "&& @within(org.springframework.web.bind.annotation.RestController) && execution(public * *(..))")
+    public Object controller(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("controller", joinPoint);
+    }
+
+    @Around("within(co.edu.umanizales.bookverse.service..*) "
+            + "&& @within(org.springframework.stereotype.Service) && execution(public * *(..))")
+    public Object service(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("service", joinPoint);
+    }
+
+    @Around("within(co.edu.umanizales.bookverse.repository..*) "
+            + "&& @within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+    public Object repository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace("repository", joinPoint);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!slowLog.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        String operation = joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
+        OperationTrace.Frame frame = OperationTrace.enter(layer, operation);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            outcome = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            OperationTrace trace = OperationTrace.exit(frame);
+            if (trace != null && slowLog.isSlow(frame.nanos)) {
+                slowLog.add(new SlowOperation(Instant.now(), layer, operation, parameters(layer, joinPoint),
+                        frame.nanos / 1e6, outcome, frame.rowsScanned, frame.bytesRead,
+                        Thread.currentThread().getName(), trace.stages()));
+            }
+        }
+    }
+
+    private static Map<String, Object> parameters(String layer, ProceedingJoinPoint joinPoint) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if ("controller".equals(layer)) {
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            if (attributes instanceof ServletRequestAttributes servlet) {
+                HttpServletRequest request = servlet.getRequest();
+                parameters.put("request", request.getMethod() + " " + request.getRequestURI());
+            }
+        }
+        String[] names = joinPoint.getSignature() instanceof CodeSignature code ? code.getParameterNames() : null;
+        Object[] args = joinPoint.getArgs();
+        for (int i = 0; i < args.length; i++) {
+            String name = names != null && i < names.length ? names[i] : "arg" + i;
+            parameters.put(name, describe(args[i]));
+        }
+        return parameters;
+    }
+
+    /**
+     * Scalars as their value, entities and collections as their shape only
+     */
+    static Object describe(Object value) {
+        if (value == null || value instanceof Number || value instanceof Boolean) {
+            return value;
+        } else if (value instanceof CharSequence || value instanceof Enum<?> || value instanceof TemporalAccessor) {
+            String text = value.toString();
+            return text.length() > MAX_VALUE_LENGTH ? text.substring(0, MAX_VALUE_LENGTH) + "..." : text;
+        } else if (value instanceof Collection<?> collection) {
+            return value.getClass().getSimpleName() + "[" + collection.size() + "]";
+        } else if (value instanceof Map<?, ?> map) {
+            return value.getClass().getSimpleName() + "[" + map.size() + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+}
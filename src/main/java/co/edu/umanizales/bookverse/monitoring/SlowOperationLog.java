@@ -0,0 +1,106 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-memory log of operations slower than bookverse.slow-log.threshold. Once
+ * bookverse.slow-log.capacity entries are held the oldest one is overwritten. Each entry is
+ * also logged at WARN as a single line with its shape, duration and rows scanned.
+ */
+@Component
+@Slf4j
+public class SlowOperationLog {
+
+    private final boolean enabled;
+    private final SlowOperation[] entries;
+    private volatile long thresholdNanos;
+    private long next;
+
+    @Autowired
+    public SlowOperationLog(
+            @Value("${bookverse.slow-log.enabled:true}") boolean enabled,
+            @Value("${bookverse.slow-log.threshold:500ms}") Duration threshold,
+            @Value("${bookverse.slow-log.capacity:256}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow log capacity must be positive: " + capacity);
+        }
+        this.enabled = enabled;
+        this.entries = new SlowOperation[capacity];
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    public void setThreshold(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+        log.info("Slow operation threshold set to {} ms", threshold.toMillis());
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= thresholdNanos;
+    }
+
+    void add(SlowOperation entry) {
+        log.warn("Slow {} {} took {} ms, {} rows scanned, parameters {}", entry.layer(), entry.shape(),
+                Math.round(entry.durationMillis()), entry.rowsScanned(), entry.parameters());
+        synchronized (entries) {
+            entries[(int) (next++ % entries.length)] = entry;
+        }
+    }
+
+    /**
+     * Held entries, newest first
+     */
+    public List<SlowOperation> getEntries() {
+        List<SlowOperation> result = new ArrayList<>(entries.length);
+        synchronized (entries) {
+            for (long i = next - 1; i >= 0 && i >= next - entries.length; i--) {
+                result.add(entries[(int) (i % entries.length)]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Held entries grouped by shape, slowest average first
+     */
+    public List<SlowOperation.ShapeSummary> getShapes() {
+        Map<String, List<SlowOperation>> byShape = getEntries().stream()
+                .collect(Collectors.groupingBy(SlowOperation::shape, LinkedHashMap::new, Collectors.toList()));
+        List<SlowOperation.ShapeSummary> shapes = new ArrayList<>();
+        byShape.forEach((shape, list) -> {
+            DoubleSummaryStatistics millis = list.stream().mapToDouble(SlowOperation::durationMillis).summaryStatistics();
+            long maxRows = list.stream().mapToLong(SlowOperation::rowsScanned).max().orElse(0);
+            Instant lastSeen = list.get(0).timestamp();
+            shapes.add(new SlowOperation.ShapeSummary(shape, list.get(0).layer(), list.size(),
+                    millis.getAverage(), millis.getMax(), maxRows, lastSeen));
+        });
+        shapes.sort(Comparator.comparingDouble(SlowOperation.ShapeSummary::avgMillis).reversed());
+        return shapes;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            Arrays.fill(entries, null);
+            next = 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Full read of a repository data file, from open to the last parsed row
+ */
+@Name("bookverse.CsvRead")
+@Label("CSV File Read")
+@Category({"BookVerse", "Storage"})
+@StackTrace(false)
+public class CsvReadEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("File")
+    public String file;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Parse Failures")
+    public long parseFailures;
+}
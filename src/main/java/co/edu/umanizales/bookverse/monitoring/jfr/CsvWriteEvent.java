@@ -0,0 +1,26 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Full rewrite of a repository data file
+ */
+@Name("bookverse.CsvWrite")
+@Label("CSV File Write")
+@Category({"BookVerse", "Storage"})
+@StackTrace(false)
+public class CsvWriteEvent extends Event {
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("File")
+    public String file;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
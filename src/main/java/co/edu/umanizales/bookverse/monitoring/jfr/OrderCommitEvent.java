@@ -0,0 +1,27 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Order save through the service: totals calculation plus the repository write
+ */
+@Name("bookverse.OrderCommit")
+@Label("Order Commit")
+@Category({"BookVerse", "Service"})
+public class OrderCommitEvent extends Event {
+
+    @Label("Order Id")
+    public String orderId;
+
+    @Label("Customer Id")
+    public String customerId;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Total (minor units)")
+    public long total;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
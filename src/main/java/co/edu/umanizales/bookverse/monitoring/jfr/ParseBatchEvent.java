@@ -0,0 +1,33 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A run of consecutive lines handed to a repository parseLine. The event duration covers
+ * reading and consuming the rows too; parseTime is the share spent inside the parser,
+ * which for orders includes resolving customers, salespeople and books.
+ */
+@Name("bookverse.ParseBatch")
+@Label("CSV Parse Batch")
+@Category({"BookVerse", "Storage"})
+@StackTrace(false)
+public class ParseBatchEvent extends Event {
+
+    /**
+     * Lines per event
+     */
+    public static final int BATCH_SIZE = 1024;
+
+    @Label("Entity")
+    public String entity;
+
+    @Label("First Line")
+    public long firstLine;
+
+    @Label("Rows")
+    public long rows;
+
+    @Label("Parse Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long parseTime;
+}
@@ -0,0 +1,25 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * State of the on-demand flight recording
+ * @param id JFR recording id
+ * @param state NEW, RUNNING, STOPPED or CLOSED
+ * @param settings JFR configuration the recording was started with (default or profile)
+ * @param startTime when the recording started
+ * @param duration time recorded so far, or until it was stopped
+ * @param maxAge how much history the recording keeps, null for unbounded
+ * @param file last file the recording was written to, null until stopped or dumped
+ */
+public record RecordingStatus(
+    long id,
+    String state,
+    String settings,
+    Instant startTime,
+    Duration duration,
+    Duration maxAge,
+    String file
+) {
+}
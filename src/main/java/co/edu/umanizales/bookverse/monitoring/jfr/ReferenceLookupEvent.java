@@ -0,0 +1,47 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * One repository resolving a reference through another, e.g. an order row looking up its
+ * customer. These are the N+1 reads behind slow order and book listings.
+ */
+@Name("bookverse.ReferenceLookup")
+@Label("Cross-Repository Lookup")
+@Category({"BookVerse", "Storage"})
+public class ReferenceLookupEvent extends Event {
+
+    @Label("Source Entity")
+    public String sourceEntity;
+
+    @Label("Target Entity")
+    public String targetEntity;
+
+    @Label("Id")
+    public String id;
+
+    @Label("Found")
+    public boolean found;
+
+    /**
+     * Runs the lookup inside an event
+     */
+    public static <T> Optional<T> lookup(String sourceEntity, String targetEntity, String id,
+                                         Function<String, Optional<T>> finder) {
+        ReferenceLookupEvent event = new ReferenceLookupEvent();
+        event.begin();
+        Optional<T> result = finder.apply(id);
+        event.end();
+        if (event.shouldCommit()) {
+            event.sourceEntity = sourceEntity;
+            event.targetEntity = targetEntity;
+            event.id = id;
+            event.found = result.isPresent();
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,28 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Stock change on one book, from lookup to the saved row
+ */
+@Name("bookverse.StockMutation")
+@Label("Stock Mutation")
+@Category({"BookVerse", "Service"})
+public class StockMutationEvent extends Event {
+
+    @Label("Book Id")
+    public String bookId;
+
+    @Label("Operation")
+    @Description("set, reduce or increase")
+    public String operation;
+
+    @Label("Quantity")
+    public int quantity;
+
+    @Label("Resulting Stock")
+    public int resultingStock;
+
+    @Label("Applied")
+    public boolean applied;
+}
@@ -0,0 +1,65 @@
+package co.edu.umanizales.bookverse.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch upsert: one item per submitted entity in submission order, with the
+ * failed ones repeated in {@code errors}
+ * @param <T> Entity type
+ */
+public record BatchResult<T>(int created, int updated, int failed, List<Item<T>> items, List<Item<T>> errors) {
+
+    public enum Status { CREATED, UPDATED, FAILED }
+
+    /**
+     * @param index position of the entity in the submitted list
+     * @param entity the stored entity, null when it failed
+     */
+    public record Item<T>(int index, String id, Status status, T entity, String error) {
+
+        public static <T> Item<T> created(int index, String id, T entity) {
+            return new Item<>(index, id, Status.CREATED, entity, null);
+        }
+
+        public static <T> Item<T> updated(int index, String id, T entity) {
+            return new Item<>(index, id, Status.UPDATED, entity, null);
+        }
+
+        public static <T> Item<T> failed(int index, String id, String error) {
+            return new Item<>(index, id, Status.FAILED, null, error);
+        }
+    }
+
+    public static <T> BatchResult<T> of(List<Item<T>> items) {
+        List<Item<T>> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(Item::index));
+        int created = 0;
+        int updated = 0;
+        List<Item<T>> errors = new ArrayList<>();
+        for (Item<T> item : sorted) {
+            switch (item.status()) {
+                case CREATED -> created++;
+                case UPDATED -> updated++;
+                case FAILED -> errors.add(item);
+            }
+        }
+        return new BatchResult<>(created, updated, errors.size(), sorted, errors);
+    }
+
+    /**
+     * Replaces the items at the same index, e.g. entities rejected before reaching the repository
+     */
+    public BatchResult<T> with(List<Item<T>> replacements) {
+        if (replacements.isEmpty()) {
+            return this;
+        }
+        Map<Integer, Item<T>> byIndex = new HashMap<>();
+        items.forEach(item -> byIndex.put(item.index(), item));
+        replacements.forEach(item -> byIndex.put(item.index(), item));
+        return of(new ArrayList<>(byIndex.values()));
+    }
+}
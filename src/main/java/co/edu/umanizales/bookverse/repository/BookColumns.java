@@ -0,0 +1,476 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Money;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented view of the catalog used for analytics.
+ * Numeric fields are kept in primitive arrays (prices in minor units) and low-cardinality strings
+ * hold their {@link FieldDictionaries} codes, so aggregates run as plain loops over arrays.
+ * Values a full dictionary has no code for get codes from {@link StringDictionary#maxSize()}
+ * upwards that only mean something within these columns.
+ * <p>
+ * Columns built with {@link #builderById} also keep the book ids, so a storage can follow its
+ * writes with {@link #apply} instead of building them again; aggregates and updates then
+ * exclude each other.
+ */
+public final class BookColumns {
+
+    private static final BookColumns EMPTY = builder(0).build();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Overflow genreOverflow;
+    private final Overflow languageOverflow;
+    private final Overflow publisherOverflow;
+    private int size;
+    private long[] price;
+    private int[] stock;
+    private int[] pageCount;
+    private int[] genreCode;
+    private int[] languageCode;
+    private int[] publisherCode;
+    // Book id per row and row per book id; null unless built by id
+    private String[] ids;
+    private final Map<String, Integer> rows;
+
+    private BookColumns(Builder builder) {
+        this.size = builder.size;
+        this.price = builder.price;
+        this.stock = builder.stock;
+        this.pageCount = builder.pageCount;
+        this.genreCode = builder.genreCode;
+        this.languageCode = builder.languageCode;
+        this.publisherCode = builder.publisherCode;
+        this.genreOverflow = builder.genreOverflow;
+        this.languageOverflow = builder.languageOverflow;
+        this.publisherOverflow = builder.publisherOverflow;
+        this.ids = builder.ids;
+        this.rows = builder.rows;
+    }
+
+    public static BookColumns empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the column arrays from a list of books
+     */
+    public static BookColumns of(List<Book> books) {
+        Builder builder = builder(books.size());
+        books.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Starts a builder for storages that can feed the columns without creating Book objects
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize, false);
+    }
+
+    /**
+     * Starts a builder whose columns can be updated with {@link #apply}; rows are added as books
+     */
+    public static Builder builderById(int expectedSize) {
+        return new Builder(expectedSize, true);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sum of price * stock over the whole catalog, in minor units
+     */
+    public long inventoryValue() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += price[i] * stock[i];
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Total units in stock over the whole catalog
+     */
+    public long totalUnits() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            for (int i = 0; i < size; i++) {
+                total += stock[i];
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Min, max and average price of the catalog
+     */
+    public PriceStatistics priceStatistics() {
+        lock.readLock().lock();
+        try {
+            if (size == 0) {
+                return new PriceStatistics(0, 0, 0, 0);
+            }
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                long p = price[i];
+                if (p < min) {
+                    min = p;
+                }
+                if (p > max) {
+                    max = p;
+                }
+                sum += p;
+            }
+            return new PriceStatistics(size, min, max, Math.round((double) sum / size));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Titles, units and inventory value grouped by genre
+     */
+    public List<GenreSummary> genreRollup() {
+        lock.readLock().lock();
+        try {
+            Slots slots = new Slots(genreCode, size, FieldDictionaries.BOOK_GENRE.maxSize());
+            int[] titles = new int[slots.count];
+            long[] units = new long[slots.count];
+            long[] value = new long[slots.count];
+            long[] pages = new long[slots.count];
+
+            for (int i = 0; i < size; i++) {
+                int g = slots.of(genreCode[i]);
+                titles[g]++;
+                units[g] += stock[i];
+                value[g] += price[i] * stock[i];
+                pages[g] += pageCount[i];
+            }
+
+            List<GenreSummary> summaries = new ArrayList<>();
+            for (int g = 0; g < slots.count; g++) {
+                if (titles[g] > 0) {
+                    summaries.add(new GenreSummary(genreOverflow.decode(FieldDictionaries.BOOK_GENRE, slots.code(g)),
+                            titles[g], units[g], value[g], (double) pages[g] / titles[g]));
+                }
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of titles per language
+     */
+    public Map<String, Integer> titlesByLanguage() {
+        return countByCode(languageCode, FieldDictionaries.BOOK_LANGUAGE, languageOverflow);
+    }
+
+    /**
+     * Number of titles per publisher
+     */
+    public Map<String, Integer> titlesByPublisher() {
+        return countByCode(publisherCode, FieldDictionaries.BOOK_PUBLISHER, publisherOverflow);
+    }
+
+    /**
+     * Removes the rows of the removed books, then replaces or adds the rows of the written ones,
+     * matching rows by book id
+     * @throws IllegalStateException when the columns were not built with {@link #builderById}
+     */
+    public void apply(Collection<Book> removed, Collection<Book> written) {
+        if (rows == null) {
+            throw new IllegalStateException("Book columns were not built by id");
+        }
+        lock.writeLock().lock();
+        try {
+            for (Book book : removed) {
+                Integer row = rows.remove(book.getId());
+                if (row != null && row != --size) {
+                    // the last row fills the gap
+                    move(size, row);
+                }
+            }
+            for (Book book : written) {
+                Integer row = rows.get(book.getId());
+                if (row == null) {
+                    if (size == price.length) {
+                        grow();
+                    }
+                    row = size++;
+                    ids[row] = book.getId();
+                    rows.put(book.getId(), row);
+                }
+                set(row, book);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void move(int from, int to) {
+        price[to] = price[from];
+        stock[to] = stock[from];
+        pageCount[to] = pageCount[from];
+        genreCode[to] = genreCode[from];
+        languageCode[to] = languageCode[from];
+        publisherCode[to] = publisherCode[from];
+        ids[to] = ids[from];
+        rows.put(ids[to], to);
+        ids[from] = null;
+    }
+
+    private void set(int row, Book book) {
+        price[row] = book.getPrice();
+        stock[row] = book.getStock();
+        pageCount[row] = book.getPageCount();
+        genreCode[row] = genreOverflow.code(FieldDictionaries.BOOK_GENRE, book.getGenre());
+        languageCode[row] = languageOverflow.code(FieldDictionaries.BOOK_LANGUAGE, book.getLanguage());
+        publisherCode[row] = publisherOverflow.code(FieldDictionaries.BOOK_PUBLISHER, book.getPublisher());
+    }
+
+    private void grow() {
+        int capacity = Math.max(price.length * 2, 16);
+        price = Arrays.copyOf(price, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+        pageCount = Arrays.copyOf(pageCount, capacity);
+        genreCode = Arrays.copyOf(genreCode, capacity);
+        languageCode = Arrays.copyOf(languageCode, capacity);
+        publisherCode = Arrays.copyOf(publisherCode, capacity);
+        if (ids != null) {
+            ids = Arrays.copyOf(ids, capacity);
+        }
+    }
+
+    private Map<String, Integer> countByCode(int[] codes, StringDictionary dictionary, Overflow overflow) {
+        lock.readLock().lock();
+        try {
+            Slots slots = new Slots(codes, size, dictionary.maxSize());
+            int[] counts = new int[slots.count];
+            for (int i = 0; i < size; i++) {
+                counts[slots.of(codes[i])]++;
+            }
+            Map<String, Integer> result = new HashMap<>();
+            for (int s = 0; s < counts.length; s++) {
+                if (counts[s] > 0) {
+                    result.put(overflow.decode(dictionary, slots.code(s)), counts[s]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Maps the codes present in a column to consecutive group slots: dictionary codes up to the
+     * largest one used, then overflow codes, so group arrays do not span the unused codes between
+     */
+    private static final class Slots {
+        private final int maxSize;
+        private final int known;
+        private final int count;
+
+        Slots(int[] codes, int size, int maxSize) {
+            int maxKnown = -1;
+            int maxOverflow = -1;
+            for (int i = 0; i < size; i++) {
+                int code = codes[i];
+                if (code < maxSize) {
+                    maxKnown = Math.max(maxKnown, code);
+                } else {
+                    maxOverflow = Math.max(maxOverflow, code - maxSize);
+                }
+            }
+            this.maxSize = maxSize;
+            this.known = maxKnown + 1;
+            this.count = known + maxOverflow + 1;
+        }
+
+        int of(int code) {
+            return code < maxSize ? code : known + code - maxSize;
+        }
+
+        int code(int slot) {
+            return slot < known ? slot : maxSize + slot - known;
+        }
+    }
+
+    /**
+     * Values of one column that its full dictionary has no code for
+     */
+    private static final class Overflow {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(StringDictionary dictionary, String value) {
+            String stored = value != null ? value : "";
+            int code = dictionary.encode(stored);
+            if (code >= 0) {
+                return code;
+            }
+            Integer local = codes.get(stored);
+            if (local == null) {
+                local = dictionary.maxSize() + values.size();
+                codes.put(stored, local);
+                values.add(stored);
+            }
+            return local;
+        }
+
+        String decode(StringDictionary dictionary, int code) {
+            return code < dictionary.maxSize() ? dictionary.decode(code) : values.get(code - dictionary.maxSize());
+        }
+    }
+
+    /**
+     * Price statistics for the catalog, amounts in minor units
+     */
+    public record PriceStatistics(
+        int count,
+        @JsonSerialize(using = Money.Serializer.class) long min,
+        @JsonSerialize(using = Money.Serializer.class) long max,
+        @JsonSerialize(using = Money.Serializer.class) long average
+    ) {
+    }
+
+    /**
+     * Aggregated figures for a single genre, inventory value in minor units
+     */
+    public record GenreSummary(
+        String genre,
+        int titles,
+        long units,
+        @JsonSerialize(using = Money.Serializer.class) long inventoryValue,
+        double averagePageCount
+    ) {
+    }
+
+    /**
+     * Appends rows one at a time, growing the arrays as needed
+     */
+    public static final class Builder {
+        private int size;
+        private long[] price;
+        private int[] stock;
+        private int[] pageCount;
+        private int[] genreCode;
+        private int[] languageCode;
+        private int[] publisherCode;
+        private String[] ids;
+        private final Map<String, Integer> rows;
+        private final Overflow genreOverflow = new Overflow();
+        private final Overflow languageOverflow = new Overflow();
+        private final Overflow publisherOverflow = new Overflow();
+
+        private Builder(int expectedSize, boolean byId) {
+            int capacity = Math.max(expectedSize, 16);
+            price = new long[capacity];
+            stock = new int[capacity];
+            pageCount = new int[capacity];
+            genreCode = new int[capacity];
+            languageCode = new int[capacity];
+            publisherCode = new int[capacity];
+            ids = byId ? new String[capacity] : null;
+            rows = byId ? new HashMap<>() : null;
+        }
+
+        /**
+         * Adds a book, keeping its id when building by id; a book already added replaces its row
+         */
+        public Builder add(Book book) {
+            Integer row = rows != null ? rows.get(book.getId()) : null;
+            if (row != null) {
+                set(row, book.getPrice(), book.getStock(), book.getPageCount(),
+                        genreOverflow.code(FieldDictionaries.BOOK_GENRE, book.getGenre()),
+                        languageOverflow.code(FieldDictionaries.BOOK_LANGUAGE, book.getLanguage()),
+                        publisherOverflow.code(FieldDictionaries.BOOK_PUBLISHER, book.getPublisher()));
+                return this;
+            }
+            if (rows != null) {
+                if (size == price.length) {
+                    grow();
+                }
+                ids[size] = book.getId();
+                rows.put(book.getId(), size);
+            }
+            return add(book.getPrice(), book.getStock(), book.getPageCount(),
+                    book.getGenre(), book.getLanguage(), book.getPublisher());
+        }
+
+        public Builder add(long price, int stock, int pageCount,
+                           String genre, String language, String publisher) {
+            return addEncoded(price, stock, pageCount,
+                    genreOverflow.code(FieldDictionaries.BOOK_GENRE, genre),
+                    languageOverflow.code(FieldDictionaries.BOOK_LANGUAGE, language),
+                    publisherOverflow.code(FieldDictionaries.BOOK_PUBLISHER, publisher));
+        }
+
+        /**
+         * Adds a row whose string columns are already {@link FieldDictionaries} codes
+         */
+        public Builder addEncoded(long price, int stock, int pageCount,
+                                  int genreCode, int languageCode, int publisherCode) {
+            if (size == this.price.length) {
+                grow();
+            }
+            set(size++, price, stock, pageCount, genreCode, languageCode, publisherCode);
+            return this;
+        }
+
+        public BookColumns build() {
+            return new BookColumns(this);
+        }
+
+        private void set(int row, long price, int stock, int pageCount,
+                         int genreCode, int languageCode, int publisherCode) {
+            this.price[row] = price;
+            this.stock[row] = stock;
+            this.pageCount[row] = pageCount;
+            this.genreCode[row] = genreCode;
+            this.languageCode[row] = languageCode;
+            this.publisherCode[row] = publisherCode;
+        }
+
+        private void grow() {
+            int capacity = price.length * 2;
+            price = Arrays.copyOf(price, capacity);
+            stock = Arrays.copyOf(stock, capacity);
+            pageCount = Arrays.copyOf(pageCount, capacity);
+            genreCode = Arrays.copyOf(genreCode, capacity);
+            languageCode = Arrays.copyOf(languageCode, capacity);
+            publisherCode = Arrays.copyOf(publisherCode, capacity);
+            if (ids != null) {
+                ids = Arrays.copyOf(ids, capacity);
+            }
+        }
+    }
+}
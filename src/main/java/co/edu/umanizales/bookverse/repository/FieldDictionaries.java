@@ -0,0 +1,17 @@
+package co.edu.umanizales.bookverse.repository;
+
+/**
+ * Process-wide dictionaries for the repeated string fields of parsed entities
+ */
+public final class FieldDictionaries {
+
+    public static final StringDictionary BOOK_GENRE = new StringDictionary(4096);
+    public static final StringDictionary BOOK_LANGUAGE = new StringDictionary(1024);
+    public static final StringDictionary BOOK_PUBLISHER = new StringDictionary(65536);
+    public static final StringDictionary ORDER_STATUS = new StringDictionary(256);
+    public static final StringDictionary EMPLOYEE_POSITION = new StringDictionary(4096);
+    public static final StringDictionary SALES_ZONE = new StringDictionary(4096);
+
+    private FieldDictionaries() {
+    }
+}
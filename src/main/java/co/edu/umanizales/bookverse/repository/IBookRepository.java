@@ -2,15 +2,25 @@ package co.edu.umanizales.bookverse.repository;
 
 import co.edu.umanizales.bookverse.model.Book;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+public interface IBookRepository extends IRepository<Book, String> {
+    /**
+     * Creates or updates several books with one read and one write of the storage
+     * @return outcome per book, in the order given
+     */
+    BatchResult<Book> saveBatch(List<Book> books);
 
-public interface IBookRepository {
-    List<Book> findAll();
-    Optional<Book> findById(String id);
-    Book save(Book book);
-    void deleteById(String id);
-    boolean existsById(String id);
     List<Book> findByAuthorId(String authorId);
     List<Book> findByGenre(String genre);
     List<Book> findAvailableBooks();
+    BookColumns columns();
+
+    /**
+     * Applies stock changes to several books with a single file rewrite
+     * @param changes new stock as a function of the stored stock, by book id
+     * @return number of books found and changed
+     */
+    int updateStock(Map<String, IntUnaryOperator> changes);
 }
@@ -2,14 +2,14 @@ package co.edu.umanizales.bookverse.repository;
 
 import co.edu.umanizales.bookverse.model.Customer;
 import java.util.List;
-import java.util.Optional;
 
-public interface ICustomerRepository {
-    List<Customer> findAll();
-    Optional<Customer> findById(String id);
-    Customer save(Customer customer);
-    void deleteById(String id);
-    boolean existsById(String id);
+public interface ICustomerRepository extends IRepository<Customer, String> {
+    /**
+     * Creates or updates several customers with one read and one write of the storage
+     * @return outcome per customer, in the order given
+     */
+    BatchResult<Customer> saveBatch(List<Customer> customers);
+
     List<Customer> findActiveCustomers();
     List<Customer> findByEmail(String email);
 }
@@ -2,14 +2,8 @@ package co.edu.umanizales.bookverse.repository;
 
 import co.edu.umanizales.bookverse.model.Employee;
 import java.util.List;
-import java.util.Optional;
 
-public interface IEmployeeRepository {
-    List<Employee> findAll();
-    Optional<Employee> findById(String id);
-    Employee save(Employee employee);
-    void deleteById(String id);
-    boolean existsById(String id);
+public interface IEmployeeRepository extends IRepository<Employee, String> {
     List<Employee> findByPosition(String position);
     List<Employee> findByType(String type);
 }
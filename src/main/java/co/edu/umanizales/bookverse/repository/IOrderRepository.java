@@ -1,16 +1,23 @@
 package co.edu.umanizales.bookverse.repository;
 
 import co.edu.umanizales.bookverse.model.Order;
+
+import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
 
-public interface IOrderRepository {
-    List<Order> findAll();
-    Optional<Order> findById(String id);
-    Order save(Order order);
-    void deleteById(String id);
-    boolean existsById(String id);
+public interface IOrderRepository extends IRepository<Order, String> {
+    /**
+     * Creates or updates several orders with one read and one write of the storage
+     * @return outcome per order, in the order given
+     */
+    BatchResult<Order> saveBatch(List<Order> orders);
+
     List<Order> findByCustomerId(String customerId);
     List<Order> findBySalespersonId(String salespersonId);
     List<Order> findByStatus(String status);
+
+    /**
+     * Orders placed between the dates, both inclusive; a null bound leaves that side open
+     */
+    List<Order> findByOrderDateBetween(LocalDate from, LocalDate to);
 }
@@ -1,7 +1,10 @@
 package co.edu.umanizales.bookverse.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Generic interface for basic CRUD operations
@@ -14,21 +17,62 @@ public interface IRepository<T, ID> {
      */
     List<T> findAll();
     
+    /**
+     * Streams every element to the consumer in storage order without collecting them;
+     * referenced entities only carry their ID
+     */
+    void forEach(Consumer<? super T> consumer);
+    
     /**
      * Finds an element by its ID
      */
     Optional<T> findById(ID id);
     
+    /**
+     * Finds several elements in one pass over the storage
+     * @return the elements found, in the order of the given IDs and without duplicates
+     */
+    List<T> findAllById(Collection<ID> ids);
+    
     /**
      * Saves an element (creates or updates)
      */
     T save(T entity);
     
+    /**
+     * Stores the element only when no element has its ID, checking and writing in one pass.
+     * A missing ID is generated as in save.
+     * @return whether it was stored
+     */
+    boolean insertIfAbsent(T entity);
+    
+    /**
+     * Replaces the element with the given ID, checking and writing in one pass; the entity
+     * takes that ID
+     * @return the stored element, or empty when no element has the ID
+     */
+    default Optional<T> updateIfExists(ID id, T entity) {
+        return computeIfPresent(id, stored -> entity);
+    }
+    
+    /**
+     * Reads the element with the given ID and stores what the function returns for it, in one
+     * pass. The result takes that ID; returning null keeps the element as stored without writing.
+     * @return the element stored after the call, or empty when no element has the ID
+     */
+    Optional<T> computeIfPresent(ID id, UnaryOperator<T> update);
+    
     /**
      * Deletes an element by its ID
      */
     void deleteById(ID id);
     
+    /**
+     * Deletes the element with the given ID, checking and writing in one pass
+     * @return whether it existed
+     */
+    boolean deleteIfExists(ID id);
+    
     /**
      * Checks if an element exists with the given ID
      */
@@ -0,0 +1,195 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Bloom filter over the ids of one repository, so lookups of ids that were never stored return
+ * without reading storage. {@link #mightContain} never answers false for an id that was
+ * {@link #add added}; a true answer is confirmed by the repository with {@link #confirm}, which
+ * feeds the false positive counts in {@link RepositoryMetrics}.
+ * <p>
+ * Repositories rebuild the filter from their data on startup and add ids before writing them.
+ * Deleted ids stay in the filter until the next rebuild, which also happens when more ids have
+ * been added than it was sized for.
+ */
+public final class IdFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RepositoryMetrics.IdFilterCounters counters;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ids added since the last rebuild, replayed into the next one in case its source missed them
+    private final Queue<String> added = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger addedCount = new AtomicInteger();
+    private volatile Bits bits;
+
+    /**
+     * @param repository plural entity name used for metrics, e.g. "books"
+     */
+    public IdFilter(String repository, RepositoryMetrics metrics) {
+        this.bits = new Bits(MIN_CAPACITY);
+        this.counters = metrics.registerIdFilter(repository, this::expectedFalsePositiveRate);
+    }
+
+    /**
+     * Replaces the content with the ids the source emits, sized for twice as many ids.
+     * Ids added while the source runs are kept.
+     */
+    public void rebuild(Consumer<Consumer<String>> source) {
+        List<String> ids = new ArrayList<>();
+        source.accept(ids::add);
+        Bits rebuilt = new Bits(Math.max(MIN_CAPACITY, ids.size() * 2));
+        ids.forEach(rebuilt::add);
+        lock.writeLock().lock();
+        try {
+            added.forEach(rebuilt::add);
+            added.clear();
+            addedCount.set(0);
+            bits = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records an id; call before the id becomes visible in storage
+     */
+    public void add(String id) {
+        lock.readLock().lock();
+        try {
+            bits.add(id);
+            added.add(id);
+            addedCount.incrementAndGet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether more ids were added since the last rebuild than the filter was sized for
+     */
+    public boolean needsRebuild() {
+        return addedCount.get() > bits.capacity / 2;
+    }
+
+    /**
+     * False means the id is certainly not stored; true must be confirmed against storage
+     */
+    public boolean mightContain(String id) {
+        if (id == null || !bits.mightContain(id)) {
+            counters.negative().increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reports whether an id the filter let through was actually found
+     */
+    public void confirm(boolean found) {
+        (found ? counters.positive() : counters.falsePositive()).increment();
+    }
+
+    /**
+     * Reports how many of the distinct ids the filter let through were actually found
+     */
+    public void confirm(int candidates, int found) {
+        counters.positive().increment(found);
+        counters.falsePositive().increment(candidates - found);
+    }
+
+    /**
+     * Ids from a multi-get that might be stored, without duplicates
+     */
+    public List<String> candidates(Collection<String> ids) {
+        List<String> candidates = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (mightContain(id)) {
+                candidates.add(id);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Chance of a false positive given the bits set so far
+     */
+    public double expectedFalsePositiveRate() {
+        return bits.expectedFalsePositiveRate();
+    }
+
+    private static final class Bits {
+        private final int capacity;
+        private final long size;
+        private final int hashes;
+        private final AtomicLongArray words;
+
+        Bits(int capacity) {
+            this.capacity = capacity;
+            double bitsPerId = -Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2));
+            long words = Math.max(1, (long) Math.ceil(capacity * bitsPerId / 64));
+            this.size = words * 64;
+            this.hashes = Math.max(1, (int) Math.round(bitsPerId * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact(words));
+        }
+
+        void add(String id) {
+            long hash = hash(id);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String id) {
+            long hash = hash(id);
+            long step = mix(hash) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(hash + i * step, size);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / size, hashes);
+        }
+
+        // FNV-1a over the UTF-8 bytes, then mixed; the mix of that gives the second hash
+        private static long hash(String id) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : id.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package co.edu.umanizales.bookverse.repository;
+
+import java.util.UUID;
+
+/**
+ * Source of ids for new entities. Ids are opaque strings to the repositories, so rows stored
+ * with ids from another generator, such as the random UUIDs written before, keep working.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    String nextId();
+
+    /**
+     * Time-ordered UUIDv7 ids: they sort by creation time as strings
+     */
+    static IdGenerator timeOrdered() {
+        return TimeOrderedIdGenerator.SYSTEM;
+    }
+
+    /**
+     * Version 4 random UUIDs from {@link UUID#randomUUID()}
+     */
+    static IdGenerator random() {
+        return () -> UUID.randomUUID().toString();
+    }
+}
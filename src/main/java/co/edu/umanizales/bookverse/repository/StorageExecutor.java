@@ -0,0 +1,294 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.exception.StorageBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of platform threads that performs the blocking data file I/O, so request threads
+ * (virtual or not) never have more than bookverse.storage.io-threads reads or writes in progress.
+ * Only opens, chunk reads and writes and closes run here; parsing stays on the caller, so a
+ * long order scan does not hold an I/O thread while it resolves customers and books.
+ * <p>
+ * Up to bookverse.storage.queue-capacity more tasks wait in the queue. Opening a file waits up
+ * to bookverse.storage.queue-timeout for a slot and then fails with {@link StorageBusyException};
+ * once open, chunk operations wait as long as needed so a rewrite is never cut halfway.
+ * <p>
+ * Meters: executor.* tagged name=bookverse.storage (active, queued, completed),
+ * bookverse.storage.queue.wait, bookverse.storage.waiting and bookverse.storage.rejected.
+ */
+@Component
+@Slf4j
+public class StorageExecutor {
+
+    private static final StorageExecutor DIRECT = new StorageExecutor();
+    private static final ThreadLocal<Boolean> STORAGE_THREAD = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor pool;
+    private final Semaphore slots;
+    private final long timeoutNanos;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final MeterRegistry registry;
+    private final Counter rejected;
+    // looked up for every chunk read or written, so built once per repository
+    private final Map<String, Timer> queueWaits = new ConcurrentHashMap<>();
+
+    private StorageExecutor() {
+        this.pool = null;
+        this.slots = null;
+        this.timeoutNanos = 0;
+        this.registry = null;
+        this.rejected = null;
+    }
+
+    @Autowired
+    public StorageExecutor(
+            @Value("${bookverse.storage.io-threads:4}") int threads,
+            @Value("${bookverse.storage.queue-capacity:256}") int queueCapacity,
+            @Value("${bookverse.storage.queue-timeout:5s}") Duration queueTimeout,
+            MeterRegistry registry) {
+        if (threads <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Storage executor needs at least one thread and a non-negative queue");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(() -> {
+                        STORAGE_THREAD.set(Boolean.TRUE);
+                        task.run();
+                    }, "storage-io-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.slots = new Semaphore(threads + queueCapacity, true);
+        this.timeoutNanos = queueTimeout.toNanos();
+        this.registry = registry;
+        new ExecutorServiceMetrics(pool, "bookverse.storage", List.of()).bindTo(registry);
+        Gauge.builder("bookverse.storage.waiting", waiting, AtomicInteger::get)
+                .description("Callers waiting for a storage queue slot")
+                .register(registry);
+        this.rejected = Counter.builder("bookverse.storage.rejected")
+                .description("Storage requests rejected after the queue timeout")
+                .register(registry);
+        log.info("Storage executor started with {} I/O threads and a queue of {}", threads, queueCapacity);
+    }
+
+    /**
+     * Runs every operation on the calling thread, for repositories built outside Spring
+     */
+    public static StorageExecutor direct() {
+        return DIRECT;
+    }
+
+    /**
+     * Opens a file whose reads, writes and close run on the storage threads
+     * @param repository plural entity name used to tag the queue wait timer and messages
+     */
+    public ByteChannel open(String repository, Path path, OpenOption... options) throws IOException {
+        FileChannel channel = execute(repository, true, () -> FileChannel.open(path, options));
+        return pool == null ? channel : new StorageChannel(repository, channel);
+    }
+
+    /**
+     * Opens a file for reading through the storage threads. Unlike Channels.newInputStream the
+     * stream does not synchronize, so a virtual thread waiting on a chunk is not pinned. The
+     * stream ends at the size the file had when it was opened; bytes appended later are not read.
+     */
+    public InputStream newInputStream(String repository, Path path) throws IOException {
+        FileChannel[] file = new FileChannel[1];
+        long size = execute(repository, true, () -> {
+            file[0] = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return file[0].size();
+            } catch (IOException e) {
+                file[0].close();
+                throw e;
+            }
+        });
+        ByteChannel channel = pool == null ? file[0] : new StorageChannel(repository, file[0]);
+        return new InputStream() {
+            private long remaining = size;
+
+            @Override
+            public int read() throws IOException {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                Objects.checkFromIndexSize(off, len, b.length);
+                if (len == 0) {
+                    return 0;
+                }
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)));
+                if (read > 0) {
+                    remaining -= read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+
+    /**
+     * Runs a task on a storage thread and waits for its result, subject to the queue timeout
+     */
+    public <T> T call(String repository, Callable<T> task) {
+        try {
+            return execute(repository, true, task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T execute(String repository, boolean timed, Callable<T> task) throws IOException {
+        if (pool == null || STORAGE_THREAD.get() != null) {
+            return unwrap(repository, task);
+        }
+        acquire(repository, timed);
+        long submitted = System.nanoTime();
+        FutureTask<T> future = new FutureTask<>(() -> {
+            queueWait(repository).record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+            return task.call();
+        }) {
+            @Override
+            protected void done() {
+                slots.release();
+            }
+        };
+        try {
+            pool.execute(future);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw new StorageBusyException("Storage executor is shut down");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + repository + " storage", e);
+        } catch (ExecutionException e) {
+            return rethrow(repository, e.getCause());
+        }
+    }
+
+    private void acquire(String repository, boolean timed) throws IOException {
+        waiting.incrementAndGet();
+        try {
+            if (!timed) {
+                slots.acquire();
+            } else if (!slots.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new StorageBusyException("Storage is busy, " + repository + " request was not queued");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + repository + " storage", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Timer queueWait(String repository) {
+        return queueWaits.computeIfAbsent(repository, name -> Timer.builder("bookverse.storage.queue.wait")
+                .description("Time storage I/O spends queued before a thread picks it up")
+                .tag("repository", name)
+                .register(registry));
+    }
+
+    private static <T> T unwrap(String repository, Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (Exception e) {
+            return rethrow(repository, e);
+        }
+    }
+
+    private static <T> T rethrow(String repository, Throwable cause) throws IOException {
+        if (cause instanceof IOException io) {
+            throw io;
+        } else if (cause instanceof RuntimeException runtime) {
+            throw runtime;
+        } else if (cause instanceof Error error) {
+            throw error;
+        }
+        throw new IOException("Error accessing " + repository + " storage", cause);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Admitted file: every operation queues again but without the timeout
+     */
+    private final class StorageChannel implements ByteChannel {
+
+        private final String repository;
+        private final FileChannel channel;
+
+        StorageChannel(String repository, FileChannel channel) {
+            this.repository = repository;
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return execute(repository, false, () -> channel.read(dst));
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return execute(repository, false, () -> channel.write(src));
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            execute(repository, false, () -> {
+                channel.close();
+                return null;
+            });
+        }
+    }
+}
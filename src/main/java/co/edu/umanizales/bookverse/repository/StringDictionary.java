@@ -0,0 +1,172 @@
+package co.edu.umanizales.bookverse.repository;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Canonicalizing dictionary for low-cardinality string fields.
+ * Every distinct value gets one shared String instance and a stable int code,
+ * plus a second code shared by all values that are equal ignoring case,
+ * so finders can compare ints instead of calling equalsIgnoreCase per row.
+ * <p>
+ * The dictionary holds at most {@code maxSize} values. Values first seen after that are neither
+ * canonicalized nor encoded and have no fold code, so callers keep the string itself and compare
+ * it with {@link #equalsIgnoreCase(int, String, String)}.
+ */
+public final class StringDictionary {
+
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Integer> foldCodes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private volatile int[] valueFoldCodes = new int[16];
+    private int size;
+
+    /**
+     * @param maxSize values seen after this many entries are not added through either
+     *                {@link #canonical} or {@link #encode}, which protects the heap if a field
+     *                turns out not to be low-cardinality
+     */
+    public StringDictionary(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the shared instance for a value
+     */
+    public String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        Entry entry = entries.get(value);
+        if (entry == null) {
+            entry = add(value);
+        }
+        return entry != null ? entry.value() : value;
+    }
+
+    /**
+     * Returns the exact code of a value, assigning one if needed; -1 for null and for a new
+     * value once the dictionary is full
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Entry entry = entries.get(value);
+        if (entry == null) {
+            entry = add(value);
+        }
+        return entry != null ? entry.code() : -1;
+    }
+
+    /**
+     * Returns the canonical value for an exact code; null for -1
+     */
+    public String decode(int code) {
+        return code < 0 ? null : values[code];
+    }
+
+    /**
+     * Returns the case-insensitive code of a value, or -1 if no value equal
+     * to it ignoring case has been seen. Never adds entries.
+     */
+    public int foldCode(String value) {
+        if (value == null) {
+            return -1;
+        }
+        Entry entry = entries.get(value);
+        if (entry != null) {
+            return entry.foldCode();
+        }
+        Integer code = foldCodes.get(fold(value));
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Whether a value equals the query ignoring case, given the {@link #foldCode} of the query.
+     * Compares the codes when both sides have one and the strings otherwise, so values left out
+     * of a full dictionary still match.
+     */
+    public boolean equalsIgnoreCase(int queryFoldCode, String query, String value) {
+        if (query == null || value == null) {
+            return false;
+        }
+        int valueFoldCode = foldCode(value);
+        if (queryFoldCode >= 0 && valueFoldCode >= 0) {
+            return queryFoldCode == valueFoldCode;
+        }
+        return query.equalsIgnoreCase(value);
+    }
+
+    /**
+     * Maximum number of exact codes; every code is below it
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the case-insensitive code for an exact code
+     */
+    public int foldCodeOf(int code) {
+        return code < 0 ? -1 : valueFoldCodes[code];
+    }
+
+    /**
+     * Number of exact codes assigned so far
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the entry, or null when the dictionary is full
+     */
+    private synchronized Entry add(String value) {
+        Entry existing = entries.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (size >= maxSize) {
+            return null;
+        }
+        String folded = fold(value);
+        Integer foldCode = foldCodes.get(folded);
+        if (foldCode == null) {
+            foldCode = foldCodes.size();
+        }
+
+        int code = size;
+        if (code == values.length) {
+            String[] grownValues = Arrays.copyOf(values, code * 2);
+            int[] grownFoldCodes = Arrays.copyOf(valueFoldCodes, code * 2);
+            grownValues[code] = value;
+            grownFoldCodes[code] = foldCode;
+            valueFoldCodes = grownFoldCodes;
+            values = grownValues;
+        } else {
+            values[code] = value;
+            valueFoldCodes[code] = foldCode;
+        }
+        size++;
+
+        Entry entry = new Entry(value, code, foldCode);
+        foldCodes.putIfAbsent(folded, foldCode);
+        entries.put(value, entry);
+        return entry;
+    }
+
+    /**
+     * Case fold behind {@link #foldCode}; indexes keyed by a case-insensitive value use it too,
+     * so they agree with {@link #equalsIgnoreCase} on which values match
+     */
+    public static String fold(String value) {
+        return value.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(String value, int code, int foldCode) {
+    }
+}
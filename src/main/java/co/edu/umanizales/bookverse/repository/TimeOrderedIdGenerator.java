@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.repository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UUIDv7 ids (RFC 9562): 48-bit Unix milliseconds, a 12-bit counter in rand_a and 62 random
+ * bits from {@link ThreadLocalRandom}. The timestamp and counter advance together through one
+ * CAS, so ids are strictly increasing within the process even when the clock stalls or goes
+ * back; a counter overflow borrows the next millisecond.
+ */
+public final class TimeOrderedIdGenerator implements IdGenerator {
+
+    static final TimeOrderedIdGenerator SYSTEM = new TimeOrderedIdGenerator(Clock.systemUTC());
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+
+    private final Clock clock;
+    // Last issued timestamp << COUNTER_BITS | counter
+    private final AtomicLong last = new AtomicLong();
+
+    public TimeOrderedIdGenerator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String nextId() {
+        return nextUuid().toString();
+    }
+
+    public UUID nextUuid() {
+        long now = clock.millis() << COUNTER_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(now, previous + 1);
+        } while (!last.compareAndSet(previous, next));
+
+        long millis = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        long msb = millis << 16 | VERSION_7 | counter;
+        long lsb = VARIANT | ThreadLocalRandom.current().nextLong() >>> 2;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Creation time carried by a UUIDv7 id; empty for any other id, such as a random UUID
+     */
+    public static Optional<Instant> timestampOf(String id) {
+        if (id == null || id.length() != 36) {
+            return Optional.empty();
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.version() == 7
+                    ? Optional.of(Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16))
+                    : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,105 +1,93 @@
 package co.edu.umanizales.bookverse.repository.csv;
 
 import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
 import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 @Repository
 public class AuthorCsvRepository implements IAuthorRepository {
     
-    private final String filePath;
+    private final CsvStore<Author> store;
     
-    public AuthorCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath) {
-        this.filePath = dataPath + "/autores.csv";
-        ensureDirectoryExists();
+    public AuthorCsvRepository(String dataPath) {
+        this(dataPath, RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered());
     }
     
-    private void ensureDirectoryExists() {
-        try {
-            Files.createDirectories(Paths.get(filePath).getParent());
-            if (!Files.exists(Paths.get(filePath))) {
-                Files.createFile(Paths.get(filePath));
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error initializing data file", e);
-        }
+    @Autowired
+    public AuthorCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath, RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator) {
+        this.store = new CsvStore<>(dataPath + "/autores.csv", "authors", "author",
+                CsvCodec.of(this::parseLine, Author::getId, Author::setId), metrics, storageExecutor, idGenerator,
+                null);
     }
     
     @Override
     public List<Author> findAll() {
-        List<Author> authors = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    authors.add(parseLine(line));
-                }
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading authors file", e);
-        }
-        return authors;
+        return store.findAll();
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Author> consumer) {
+        store.forEach(consumer);
     }
     
     @Override
     public Optional<Author> findById(String id) {
-        return findAll().stream()
-                .filter(a -> a.getId().equals(id))
-                .findFirst();
+        return store.findById(id);
+    }
+    
+    @Override
+    public List<Author> findAllById(Collection<String> ids) {
+        return store.findAllById(ids);
     }
     
     @Override
     public Author save(Author author) {
-        List<Author> authors = findAll();
-        
-        if (author.getId() == null || author.getId().isEmpty()) {
-            // New author
-            author.setId(UUID.randomUUID().toString());
-            authors.add(author);
-        } else {
-            // Update existing author
-            for (int i = 0; i < authors.size(); i++) {
-                if (authors.get(i).getId().equals(author.getId())) {
-                    authors.set(i, author);
-                    break;
-                }
-            }
-        }
-        
-        saveAll(authors);
-        return author;
+        return store.save(author);
+    }
+    
+    @Override
+    public boolean insertIfAbsent(Author author) {
+        return store.insertIfAbsent(author);
+    }
+    
+    @Override
+    public Optional<Author> computeIfPresent(String id, UnaryOperator<Author> update) {
+        return store.computeIfPresent(id, update);
     }
     
     @Override
     public void deleteById(String id) {
-        List<Author> authors = findAll();
-        authors.removeIf(a -> a.getId().equals(id));
-        saveAll(authors);
+        store.deleteIfExists(id);
+    }
+    
+    @Override
+    public boolean deleteIfExists(String id) {
+        return store.deleteIfExists(id);
     }
     
     @Override
     public boolean existsById(String id) {
-        return findAll().stream().anyMatch(a -> a.getId().equals(id));
+        return store.existsById(id);
     }
     
-    private void saveAll(List<Author> authors) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (Author author : authors) {
-                writer.println(toCSV(author));
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error saving authors", e);
-        }
+    @Override
+    public long count() {
+        return store.count();
     }
     
-    private Author parseLine(String line) {
+    Author parseLine(String line) {
         String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
         Author author = new Author();
         author.setId(parts[0]);
@@ -118,29 +106,4 @@ public class AuthorCsvRepository implements IAuthorRepository {
         }
         return author;
     }
-    
-    private String toCSV(Author author) {
-        String biography = author.getBiography() != null ? 
-            "\"" + author.getBiography().replace("\"", "\"\"") + "\"" : "";
-            
-        return String.join(",",
-            escapeCsv(author.getId()),
-            escapeCsv(author.getName()),
-            escapeCsv(author.getLastName()),
-            escapeCsv(author.getNationality()),
-            author.getBirthDate() != null ? author.getBirthDate().toString() : "",
-            biography,
-            escapeCsv(author.getEmail())
-        );
-    }
-    
-    private String escapeCsv(String input) {
-        if (input == null) {
-            return "";
-        }
-        if (input.contains(",") || input.contains("\"") || input.contains("\n")) {
-            return "\"" + input.replace("\"", "\"\"") + "\"";
-        }
-        return input;
-    }
 }
@@ -0,0 +1,101 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Money;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.regex.Pattern;
+
+/**
+ * Line parser for libros.csv, shared by every book storage implementation.
+ * Writing is done by {@link Book#writeCsv}.
+ * Parsing only sets the author id; resolving the full Author is up to the caller.
+ * Genre, language and publisher are canonicalized through {@link FieldDictionaries}.
+ */
+@Slf4j
+public final class BookCsvFormat {
+
+    // Commas outside quoted fields
+    private static final Pattern SEPARATOR = Pattern.compile(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
+
+    private BookCsvFormat() {
+    }
+
+    /**
+     * Parses a CSV line into a Book whose author only carries its ID
+     */
+    public static Book parse(String line) {
+        return parse(split(line));
+    }
+
+    /**
+     * Splits a CSV line into its raw fields; quoted fields keep their quotes
+     */
+    public static String[] split(String line) {
+        return SEPARATOR.split(line);
+    }
+
+    /**
+     * Builds a Book from fields returned by {@link #split(String)}
+     */
+    public static Book parse(String[] parts) {
+        Book book = new Book();
+        book.setId(parts[0]);
+        book.setIsbn(parts.length > 1 ? parts[1] : "");
+        book.setTitle(parts.length > 2 ? parts[2] : "");
+
+        if (parts.length > 3 && !parts[3].isEmpty()) {
+            Author author = new Author();
+            author.setId(parts[3]);
+            book.setAuthor(author);
+        }
+
+        book.setPublisher(FieldDictionaries.BOOK_PUBLISHER.canonical(parts.length > 4 ? parts[4] : ""));
+
+        if (parts.length > 5 && !parts[5].isEmpty()) {
+            try {
+                book.setPublicationDate(LocalDate.parse(parts[5]));
+            } catch (Exception e) {
+                log.warn("Error parsing publication date: {}", parts[5]);
+            }
+        }
+
+        book.setGenre(FieldDictionaries.BOOK_GENRE.canonical(parts.length > 6 ? parts[6] : ""));
+
+        if (parts.length > 7 && !parts[7].isEmpty()) {
+            try {
+                book.setPageCount(Integer.parseInt(parts[7]));
+            } catch (NumberFormatException e) {
+                log.warn("Error parsing page count: {}", parts[7]);
+            }
+        }
+
+        if (parts.length > 8 && !parts[8].isEmpty()) {
+            try {
+                book.setPrice(Money.parse(parts[8]));
+            } catch (NumberFormatException e) {
+                log.warn("Error parsing price: {}", parts[8]);
+            }
+        }
+
+        if (parts.length > 9 && !parts[9].isEmpty()) {
+            try {
+                book.setStock(Integer.parseInt(parts[9]));
+            } catch (NumberFormatException e) {
+                log.warn("Error parsing stock: {}", parts[9]);
+            }
+        }
+
+        if (parts.length > 10) {
+            String description = parts[10].replaceAll("^\"|\"$", "").replace("\"\"", "\"");
+            book.setDescription(description);
+        }
+
+        book.setLanguage(FieldDictionaries.BOOK_LANGUAGE.canonical(parts.length > 11 ? parts[11] : ""));
+
+        return book;
+    }
+}
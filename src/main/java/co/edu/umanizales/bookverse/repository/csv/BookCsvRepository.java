@@ -1,134 +1,154 @@
 package co.edu.umanizales.bookverse.repository.csv;
 
-import co.edu.umanizales.bookverse.model.Author;
 import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.monitoring.jfr.ReferenceLookupEvent;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.BookColumns;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
 import co.edu.umanizales.bookverse.repository.IAuthorRepository;
 import co.edu.umanizales.bookverse.repository.IBookRepository;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
+import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.LocalDate;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Repository
+@ConditionalOnProperty(name = "bookverse.storage.books", havingValue = "csv", matchIfMissing = true)
 @Slf4j
 public class BookCsvRepository implements IBookRepository {
     
-    private final String filePath;
+    private final CsvStore<Book> store;
     private final IAuthorRepository authorRepository;
     
+    // Columns for analytics with the file stamp they match; built on first use, updated by every
+    // write through the store and built again when the file changes behind its back
+    private volatile ColumnsSnapshot columns;
+    
+    public BookCsvRepository(String dataPath, IAuthorRepository authorRepository) {
+        this(dataPath, authorRepository, RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered());
+    }
+    
     @Autowired
     public BookCsvRepository(
             @Value("${bookverse.data.path:./data}") String dataPath,
-            IAuthorRepository authorRepository) {
-        this.filePath = dataPath + "/libros.csv";
+            IAuthorRepository authorRepository,
+            RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator) {
         this.authorRepository = authorRepository;
-        ensureDirectoryExists();
+        this.store = new CsvStore<>(dataPath + "/libros.csv", "books", "book",
+                CsvCodec.of(BookCsvFormat::parse, Book::getId, Book::setId).resolving(this::resolveAuthor),
+                metrics, storageExecutor, idGenerator, this::columnsChanged);
     }
     
-    private void ensureDirectoryExists() {
-        try {
-            Files.createDirectories(Paths.get(filePath).getParent());
-            if (!Files.exists(Paths.get(filePath))) {
-                Files.createFile(Paths.get(filePath));
-            }
-        } catch (IOException e) {
-            log.error("Error initializing books data file", e);
-            throw new RuntimeException("Error initializing data file", e);
-        }
+    @Override
+    public List<Book> findAll() {
+        return store.findAll();
     }
     
     @Override
-    public List<Book> findAll() {
-        List<Book> books = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        books.add(parseLine(line));
-                    } catch (Exception e) {
-                        log.error("Error parsing book line: {}", line, e);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.error("Error reading books file", e);
-            throw new RuntimeException("Error reading books file", e);
-        }
-        return books;
+    public void forEach(Consumer<? super Book> consumer) {
+        store.forEach(consumer);
     }
     
     @Override
     public Optional<Book> findById(String id) {
-        return findAll().stream()
-                .filter(b -> b.getId().equals(id))
-                .findFirst();
+        return store.findById(id);
+    }
+    
+    @Override
+    public List<Book> findAllById(Collection<String> ids) {
+        return store.findAllById(ids);
     }
     
     @Override
     public Book save(Book book) {
-        List<Book> books = findAll();
-        
-        if (book.getId() == null || book.getId().isEmpty()) {
-            book.setId(UUID.randomUUID().toString());
-            books.add(book);
-            log.info("Creating new book with ID: {}", book.getId());
-        } else {
-            boolean found = false;
-            for (int i = 0; i < books.size(); i++) {
-                if (books.get(i).getId().equals(book.getId())) {
-                    books.set(i, book);
-                    found = true;
-                    log.info("Updating book with ID: {}", book.getId());
-                    break;
-                }
-            }
-            if (!found) {
-                books.add(book);
-                log.info("Adding book with existing ID: {}", book.getId());
-            }
+        return store.save(book);
+    }
+    
+    @Override
+    public BatchResult<Book> saveBatch(List<Book> books) {
+        return store.saveBatch(books);
+    }
+    
+    @Override
+    public int updateStock(Map<String, IntUnaryOperator> changes) {
+        Map<String, UnaryOperator<Book>> updates = new HashMap<>();
+        changes.forEach((id, change) -> updates.put(id, book -> {
+            book.setStock(change.applyAsInt(book.getStock()));
+            return book;
+        }));
+        int updated = store.computeEach(updates);
+        if (updated > 0) {
+            log.info("Updated stock for {} books in one write", updated);
         }
-        
-        saveAll(books);
-        return book;
+        return updated;
+    }
+    
+    @Override
+    public boolean insertIfAbsent(Book book) {
+        return store.insertIfAbsent(book);
+    }
+    
+    @Override
+    public Optional<Book> computeIfPresent(String id, UnaryOperator<Book> update) {
+        return store.computeIfPresent(id, update);
     }
     
     @Override
     public void deleteById(String id) {
-        List<Book> books = findAll();
-        boolean removed = books.removeIf(b -> b.getId().equals(id));
-        if (removed) {
-            log.info("Deleted book with ID: {}", id);
-            saveAll(books);
-        } else {
-            log.warn("Book with ID {} not found for deletion", id);
-        }
+        store.deleteIfExists(id);
+    }
+    
+    @Override
+    public boolean deleteIfExists(String id) {
+        return store.deleteIfExists(id);
     }
     
     @Override
     public boolean existsById(String id) {
-        return findAll().stream().anyMatch(b -> b.getId().equals(id));
+        return store.existsById(id);
+    }
+    
+    @Override
+    public long count() {
+        return store.count();
     }
     
     @Override
     public List<Book> findByAuthorId(String authorId) {
-        return findAll().stream()
-                .filter(b -> b.getAuthorId() != null && b.getAuthorId().equals(authorId))
-                .collect(Collectors.toList());
+        if (authorId == null) {
+            return new ArrayList<>();
+        }
+        // only lines mentioning the id are parsed, and only the matching books resolve their author
+        return store.findMatching(line -> line.contains(authorId), b -> authorId.equals(b.getAuthorId()));
     }
     
     @Override
     public List<Book> findByGenre(String genre) {
-        return findAll().stream()
-                .filter(b -> b.getGenre() != null && b.getGenre().equalsIgnoreCase(genre))
-                .collect(Collectors.toList());
+        if (genre == null) {
+            return new ArrayList<>();
+        }
+        // a genre not registered yet has no code, and equalsIgnoreCase then compares the strings
+        int genreCode = FieldDictionaries.BOOK_GENRE.foldCode(genre);
+        // genres are stored as written, so only lines holding the genre in any case are parsed
+        Pattern pattern = Pattern.compile(Pattern.quote(genre), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        return store.findMatching(line -> pattern.matcher(line).find(),
+                b -> FieldDictionaries.BOOK_GENRE.equalsIgnoreCase(genreCode, genre, b.getGenre()));
     }
     
     @Override
@@ -138,107 +158,68 @@ public class BookCsvRepository implements IBookRepository {
                 .collect(Collectors.toList());
     }
     
-    private void saveAll(List<Book> books) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (Book book : books) {
-                writer.println(toCSV(book));
-            }
-        } catch (IOException e) {
-            log.error("Error saving books", e);
-            throw new RuntimeException("Error saving books", e);
+    @Override
+    public BookColumns columns() {
+        ColumnsSnapshot snapshot = columns;
+        if (snapshot == null || snapshot.stamp() != fileStamp()) {
+            // built as a write, so no write lands between the scan and publishing the columns
+            snapshot = store.write(() -> {
+                ColumnsSnapshot current = columns;
+                long stamp = fileStamp();
+                if (current != null && current.stamp() == stamp) {
+                    return current;
+                }
+                // rows are decoded without resolving their authors, which the columns do not use
+                BookColumns.Builder builder = BookColumns.builderById(0);
+                store.forEach(builder::add);
+                ColumnsSnapshot built = new ColumnsSnapshot(builder.build(), stamp);
+                columns = built;
+                return built;
+            });
         }
+        return snapshot.columns();
     }
     
-    private Book parseLine(String line) {
-        String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
-        
-        Book book = new Book();
-        book.setId(parts[0]);
-        book.setIsbn(parts.length > 1 ? parts[1] : "");
-        book.setTitle(parts.length > 2 ? parts[2] : "");
-        
-        if (parts.length > 3 && !parts[3].isEmpty()) {
-            Optional<Author> author = authorRepository.findById(parts[3]);
-            book.setAuthor(author.orElseGet(() -> {
-                Author a = new Author();
-                a.setId(parts[3]);
-                return a;
-            }));
-        }
-        
-        book.setPublisher(parts.length > 4 ? parts[4] : "");
-        
-        if (parts.length > 5 && !parts[5].isEmpty()) {
-            try {
-                book.setPublicationDate(LocalDate.parse(parts[5]));
-            } catch (Exception e) {
-                log.warn("Error parsing publication date: {}", parts[5]);
-            }
-        }
-        
-        book.setGenre(parts.length > 6 ? parts[6] : "");
-        
-        if (parts.length > 7 && !parts[7].isEmpty()) {
-            try {
-                book.setPageCount(Integer.parseInt(parts[7]));
-            } catch (NumberFormatException e) {
-                log.warn("Error parsing page count: {}", parts[7]);
-            }
-        }
-        
-        if (parts.length > 8 && !parts[8].isEmpty()) {
-            try {
-                book.setPrice(Double.parseDouble(parts[8]));
-            } catch (NumberFormatException e) {
-                log.warn("Error parsing price: {}", parts[8]);
-            }
+    /**
+     * Store listener: applies a write to the columns, if they were built, and moves their stamp
+     * to the file it produced
+     */
+    private void columnsChanged(Collection<Book> before, Collection<Book> after) {
+        ColumnsSnapshot snapshot = columns;
+        if (snapshot != null) {
+            snapshot.columns().apply(before, after);
+            columns = new ColumnsSnapshot(snapshot.columns(), fileStamp());
         }
-        
-        if (parts.length > 9 && !parts[9].isEmpty()) {
-            try {
-                book.setStock(Integer.parseInt(parts[9]));
-            } catch (NumberFormatException e) {
-                log.warn("Error parsing stock: {}", parts[9]);
-            }
+    }
+    
+    /**
+     * Cheap change marker for the data file (modification time mixed with size)
+     */
+    private long fileStamp() {
+        try {
+            Path path = store.file().path();
+            return Files.getLastModifiedTime(path).toMillis() * 31 + Files.size(path);
+        } catch (IOException e) {
+            return -1;
         }
-        
-        if (parts.length > 10) {
-            String description = parts[10].replaceAll("^\"|\"$", "").replace("\"\"", "\"");
-            book.setDescription(description);
+    }
+    
+    Book parseLine(String line) {
+        return resolveAuthor(BookCsvFormat.parse(line));
+    }
+    
+    private Book resolveAuthor(Book book) {
+        String authorId = book.getAuthorId();
+        if (authorId != null) {
+            ReferenceLookupEvent.lookup("books", "authors", authorId, authorRepository::findById)
+                    .ifPresent(book::setAuthor);
         }
-        
-        book.setLanguage(parts.length > 11 ? parts[11] : "");
-        
         return book;
     }
     
-    private String toCSV(Book book) {
-        String description = book.getDescription() != null ? 
-            "\"" + book.getDescription().replace("\"", "\"\"") + "\"" : "";
-            
-        return String.join(",",
-            escapeCsv(book.getId()),
-            escapeCsv(book.getIsbn()),
-            escapeCsv(book.getTitle()),
-            escapeCsv(book.getAuthorId()),
-            escapeCsv(book.getPublisher()),
-            book.getPublicationDate() != null ? book.getPublicationDate().toString() : "",
-            escapeCsv(book.getGenre()),
-            String.valueOf(book.getPageCount()),
-            String.format(java.util.Locale.US, "%.2f", book.getPrice()),
-            String.valueOf(book.getStock()),
-            description,
-            escapeCsv(book.getLanguage())
-        );
-    }
-    
-    private String escapeCsv(String input) {
-        if (input == null) {
-            return "";
-        }
-        if (input.contains(",") || input.contains("\"") || input.contains("\n")) {
-            return "\"" + input.replace("\"", "\"\"") + "\"";
-        }
-        return input;
+    /**
+     * Columns with the stamp of the file they match, published together
+     */
+    private record ColumnsSnapshot(BookColumns columns, long stamp) {
     }
 }
@@ -0,0 +1,66 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Exportable;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.IdFilter;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Batch upsert shared by the CSV repositories: missing ids come from the repository's
+ * {@link IdGenerator} like in save and every id is added to its {@link IdFilter}, then the whole
+ * batch goes through {@link CsvFile#upsert(Map)} with one read and one write. When the same id
+ * appears more than once in a batch the outcomes are those of saving the entities one by one:
+ * the last one is stored, the first reports CREATED unless the id was already stored, and the
+ * later ones report UPDATED.
+ */
+@Slf4j
+final class CsvBatch {
+
+    private CsvBatch() {
+    }
+
+    static <T extends Exportable> BatchResult<T> upsert(CsvFile file, String name, List<T> entities,
+                                                       Function<T, String> getId, BiConsumer<T, String> setId,
+                                                       IdGenerator ids, IdFilter filter) {
+        Map<String, T> rows = new LinkedHashMap<>();
+        List<BatchResult.Item<T>> items = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            if (entity == null) {
+                items.add(BatchResult.Item.failed(i, null, "Missing entity"));
+                continue;
+            }
+            String id = getId.apply(entity);
+            if (id == null || id.isEmpty()) {
+                id = ids.nextId();
+                setId.accept(entity, id);
+            }
+            filter.add(id);
+            rows.put(id, entity);
+        }
+        if (rows.isEmpty()) {
+            return BatchResult.of(items);
+        }
+
+        Set<String> replaced = file.upsert(rows);
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < entities.size(); i++) {
+            T entity = entities.get(i);
+            if (entity != null) {
+                String id = getId.apply(entity);
+                items.add(replaced.contains(id) || !seen.add(id)
+                        ? BatchResult.Item.updated(i, id, entity)
+                        : BatchResult.Item.created(i, id, entity));
+            }
+        }
+        BatchResult<T> result = BatchResult.of(items);
+        log.info("Upserted {} {} in one write: {} created, {} updated, {} failed",
+                entities.size(), name, result.created(), result.updated(), result.failed());
+        return result;
+    }
+}
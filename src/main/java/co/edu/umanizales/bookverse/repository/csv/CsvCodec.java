@@ -0,0 +1,79 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Exportable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * How one entity type maps to the lines of its data file for {@link CsvStore}. Rows are written
+ * through {@link Exportable}; the codec parses them back and reads and assigns the id, which is
+ * always the first field.
+ */
+interface CsvCodec<T extends Exportable> {
+
+    /**
+     * Parses one line; referenced entities only carry their ID. Null skips the line.
+     */
+    T decode(String line);
+
+    String id(T entity);
+
+    void assignId(T entity, String id);
+
+    /**
+     * Fills in the entities a decoded row references, for the lookups that return whole entities
+     */
+    default T resolve(T entity) {
+        return entity;
+    }
+
+    /**
+     * Same codec, resolving references with the given function
+     */
+    default CsvCodec<T> resolving(UnaryOperator<T> references) {
+        CsvCodec<T> codec = this;
+        return new CsvCodec<>() {
+            @Override
+            public T decode(String line) {
+                return codec.decode(line);
+            }
+
+            @Override
+            public String id(T entity) {
+                return codec.id(entity);
+            }
+
+            @Override
+            public void assignId(T entity, String id) {
+                codec.assignId(entity, id);
+            }
+
+            @Override
+            public T resolve(T entity) {
+                return references.apply(codec.resolve(entity));
+            }
+        };
+    }
+
+    static <T extends Exportable> CsvCodec<T> of(Function<String, T> decode, Function<T, String> id,
+                                                 BiConsumer<T, String> assignId) {
+        return new CsvCodec<>() {
+            @Override
+            public T decode(String line) {
+                return decode.apply(line);
+            }
+
+            @Override
+            public String id(T entity) {
+                return id.apply(entity);
+            }
+
+            @Override
+            public void assignId(T entity, String value) {
+                assignId.accept(entity, value);
+            }
+        };
+    }
+}
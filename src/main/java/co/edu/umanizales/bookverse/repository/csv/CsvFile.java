@@ -0,0 +1,507 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.CsvRowWriter;
+import co.edu.umanizales.bookverse.model.Exportable;
+import co.edu.umanizales.bookverse.monitoring.OperationTrace;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.monitoring.jfr.CsvReadEvent;
+import co.edu.umanizales.bookverse.monitoring.jfr.CsvWriteEvent;
+import co.edu.umanizales.bookverse.monitoring.jfr.ParseBatchEvent;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One repository data file: full reads with per-line parsing and full rewrites through
+ * {@link CsvRowWriter}, committed by renaming a temporary file over the data file. Rows and bytes moved and parse failures are reported to
+ * {@link RepositoryMetrics} under the repository name, and to JFR as {@link CsvReadEvent},
+ * {@link ParseBatchEvent} and {@link CsvWriteEvent} while a recording is running. Rows read
+ * are also added to the calls in flight on the thread through {@link OperationTrace}.
+ * <p>
+ * File I/O goes through the {@link StorageExecutor} in 256 KB chunks
+ * for reads and the writer buffer size for rewrites; parsing and formatting stay on the
+ * calling thread. Files ending in .gz are read-only and decompressed on the calling thread;
+ * byte counts are the compressed bytes read.
+ * <p>
+ * Reads never see a write halfway: rewrites replace the file by renaming, and a read stops at the
+ * size the file had when it was opened, which cannot fall inside a row since {@link #append}
+ * excludes opening reads while it writes.
+ */
+@Slf4j
+public final class CsvFile {
+
+    private static final int READ_CHUNK = 256 * 1024;
+    private static final int LINE_CHUNK = 4 * 1024;
+
+    private final Path path;
+    private final String name;
+    private final RepositoryMetrics metrics;
+    private final StorageExecutor executor;
+    private final boolean compressed;
+    // Held for reading while a read opens the file and for writing while a row is appended
+    private final ReadWriteLock appends = new ReentrantReadWriteLock();
+
+    /**
+     * @param name plural entity name used in metrics and messages, e.g. "books"
+     */
+    public CsvFile(String filePath, String name, RepositoryMetrics metrics, StorageExecutor executor) {
+        this.path = Paths.get(filePath);
+        this.name = name;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.compressed = filePath.endsWith(".gz");
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Creates the data directory and an empty file when missing
+     */
+    public void ensureExists() {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            if (!Files.exists(path)) {
+                Files.createFile(path);
+            }
+        } catch (IOException e) {
+            log.error("Error initializing {} data file", name, e);
+            throw new RuntimeException("Error initializing data file", e);
+        }
+    }
+
+    /**
+     * Parses every non-blank line; lines that fail to parse are logged and skipped
+     */
+    public <T> List<T> readAll(Function<String, T> parser) {
+        List<T> rows = new ArrayList<>();
+        forEach(parser, rows::add);
+        return rows;
+    }
+
+    /**
+     * Streams the parsed rows to the consumer without collecting them
+     */
+    public <T> void forEach(Function<String, T> parser, Consumer<? super T> consumer) {
+        CsvReadEvent event = new CsvReadEvent();
+        event.begin();
+        boolean timeBatches = event.isEnabled() && new ParseBatchEvent().isEnabled();
+        ParseBatchEvent batch = null;
+        long lines = 0;
+        long failures = 0;
+        CountingInputStream in = null;
+        try (CountingInputStream counting = new CountingInputStream(new BufferedInputStream(
+                     openForRead(), READ_CHUNK));
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     compressed ? new GZIPInputStream(counting, READ_CHUNK) : counting, StandardCharsets.UTF_8))) {
+            in = counting;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    lines++;
+                    if (timeBatches && batch == null) {
+                        batch = new ParseBatchEvent();
+                        batch.firstLine = lines;
+                        batch.begin();
+                    }
+                    long parseStart = timeBatches ? System.nanoTime() : 0;
+                    T row;
+                    try {
+                        row = parser.apply(line);
+                    } catch (Exception e) {
+                        failures++;
+                        metrics.recordParseFailure(name);
+                        log.error("Error parsing {} line: {}", name, line, e);
+                        continue;
+                    } finally {
+                        if (batch != null) {
+                            batch.parseTime += System.nanoTime() - parseStart;
+                            if (++batch.rows == ParseBatchEvent.BATCH_SIZE) {
+                                commit(batch);
+                                batch = null;
+                            }
+                        }
+                    }
+                    if (row != null) {
+                        consumer.accept(row);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading {} file", name, e);
+            throw new RuntimeException("Error reading " + name + " file", e);
+        } finally {
+            long bytes = in != null ? in.count : 0;
+            metrics.recordScan(name, lines, bytes);
+            OperationTrace.recordScan(lines, bytes);
+            if (batch != null) {
+                commit(batch);
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.entity = name;
+                event.file = path.toString();
+                event.rows = lines;
+                event.bytes = bytes;
+                event.parseFailures = failures;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Parses only the lines whose first field is one of the keys, in a single pass
+     * @return rows in the order of the keys, without duplicates; missing keys are skipped
+     */
+    public <T> List<T> readByKeys(Collection<String> keys, Function<String, T> parser) {
+        Set<String> wanted = new HashSet<>(keys);
+        Map<String, T> found = new HashMap<>();
+        forEach(line -> {
+            String key = key(line);
+            if (!wanted.remove(key)) {
+                return null;
+            }
+            // a parser may reject a line by returning null; its key is then missing like an unknown one
+            T row = parser.apply(line);
+            return row != null ? Map.entry(key, row) : null;
+        }, entry -> found.put(entry.getKey(), entry.getValue()));
+        List<T> rows = new ArrayList<>(found.size());
+        for (String key : new LinkedHashSet<>(keys)) {
+            T row = found.get(key);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Counts the non-blank lines without parsing them
+     */
+    public long count() {
+        long[] lines = {0};
+        forEach(Function.identity(), line -> lines[0]++);
+        return lines[0];
+    }
+
+    /**
+     * Replaces the file content with one row per entity
+     */
+    public void writeAll(Iterable<? extends Exportable> rows) {
+        write(writer -> {
+            for (Exportable row : rows) {
+                writer.row(row);
+            }
+        });
+    }
+
+    /**
+     * Replaces the file content with whatever the body writes. The rows go to a temporary file
+     * that is then moved over the data file, so readers and a crash midway see either the old
+     * content or the new one, never a truncated file.
+     */
+    public void write(Consumer<CsvRowWriter> body) {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        write(body, temporary, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            executor.call(name, () -> {
+                try {
+                    Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            log.error("Error saving {}", name, e);
+            throw new RuntimeException("Error saving " + name, e);
+        }
+    }
+
+    /**
+     * Adds one row at the end of the file without reading it
+     * @return byte offset where the row starts
+     */
+    public long append(Exportable row) {
+        appends.writeLock().lock();
+        try {
+            return appendRow(row);
+        } finally {
+            appends.writeLock().unlock();
+        }
+    }
+
+    private long appendRow(Exportable row) {
+        long[] end = executor.call(name, () -> {
+            if (!Files.exists(path) || Files.size(path) == 0) {
+                return new long[]{0, '\n'};
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer last = ByteBuffer.allocate(1);
+                channel.read(last, channel.size() - 1);
+                return new long[]{channel.size(), last.get(0)};
+            }
+        });
+        // a file edited by hand may lack the final newline
+        boolean newline = end[1] != '\n';
+        write(writer -> {
+            if (newline) {
+                writer.raw('\n');
+            }
+            writer.row(row);
+        }, path, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return newline ? end[0] + 1 : end[0];
+    }
+
+    private void write(Consumer<CsvRowWriter> body, Path target, OpenOption... options) {
+        CsvWriteEvent event = new CsvWriteEvent();
+        event.begin();
+        CsvRowWriter open = null;
+        try (CsvRowWriter writer = new CsvRowWriter(executor.open(name, target, options))) {
+            open = writer;
+            body.accept(writer);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error saving {}", name, e);
+            throw new RuntimeException("Error saving " + name, e);
+        } finally {
+            if (open != null) {
+                metrics.recordWrite(name, open.getRows(), open.getBytesWritten());
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.entity = name;
+                event.file = path.toString();
+                event.rows = open != null ? open.getRows() : 0;
+                event.bytes = open != null ? open.getBytesWritten() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Byte offset of every line by its first field, read without decoding or parsing the rows
+     */
+    public Map<String, Long> offsets() {
+        Map<String, Long> offsets = new HashMap<>();
+        long position = 0;
+        try (InputStream in = openForRead()) {
+            byte[] buffer = new byte[READ_CHUNK];
+            ByteArrayOutputStream key = new ByteArrayOutputStream(64);
+            long lineStart = 0;
+            boolean inKey = true;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                for (int i = 0; i < read; i++, position++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        putKey(offsets, key, lineStart);
+                        inKey = true;
+                        lineStart = position + 1;
+                    } else if (inKey) {
+                        if (b == ',') {
+                            inKey = false;
+                        } else if (b != '\r') {
+                            key.write(b);
+                        }
+                    }
+                }
+            }
+            putKey(offsets, key, lineStart);
+        } catch (IOException e) {
+            log.error("Error indexing {} file", name, e);
+            throw new RuntimeException("Error indexing " + name + " file", e);
+        } finally {
+            metrics.recordScan(name, offsets.size(), position);
+            OperationTrace.recordScan(offsets.size(), position);
+        }
+        return offsets;
+    }
+
+    /**
+     * Opens the file for a read that ends after the last row completed at the time
+     */
+    private InputStream openForRead() throws IOException {
+        appends.readLock().lock();
+        try {
+            return executor.newInputStream(name, path);
+        } finally {
+            appends.readLock().unlock();
+        }
+    }
+
+    private static void putKey(Map<String, Long> offsets, ByteArrayOutputStream key, long lineStart) {
+        String value = key.toString(StandardCharsets.UTF_8);
+        key.reset();
+        if (!value.isBlank()) {
+            offsets.put(value, lineStart);
+        }
+    }
+
+    /**
+     * Reads the single line that starts at the offset, e.g. one found through {@link #offsets()}
+     * @return the line without its newline, or null past the end of the file
+     */
+    public String lineAt(long offset) {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(LINE_CHUNK);
+        boolean found = executor.call(name, () -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(LINE_CHUNK);
+                long position = offset;
+                boolean any = false;
+                while (channel.read(buffer, position) > 0) {
+                    any = true;
+                    buffer.flip();
+                    position += buffer.remaining();
+                    while (buffer.hasRemaining()) {
+                        byte b = buffer.get();
+                        if (b == '\n') {
+                            return true;
+                        }
+                        line.write(b);
+                    }
+                    buffer.clear();
+                }
+                return any;
+            }
+        });
+        metrics.recordScan(name, found ? 1 : 0, line.size());
+        OperationTrace.recordScan(found ? 1 : 0, line.size());
+        if (!found) {
+            return null;
+        }
+        String value = line.toString(StandardCharsets.UTF_8);
+        return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+    }
+
+    /**
+     * Reads a byte range of the file as stored, e.g. one block of a compressed file
+     */
+    public byte[] bytesAt(long offset, int length) {
+        byte[] bytes = executor.call(name, () -> {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                    // keep reading until the range is complete or the file ends
+                }
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            }
+        });
+        metrics.recordScan(name, 0, bytes.length);
+        OperationTrace.recordScan(0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Upserts rows keyed by their first field with one read and one write. Stored lines are
+     * copied back as read, without parsing, unless a row with the same key replaces them; rows
+     * with new keys are appended in map order.
+     * @return keys of the rows that replaced a stored line
+     */
+    public Set<String> upsert(Map<String, ? extends Exportable> rows) {
+        List<String> lines = readAll(Function.identity());
+        Set<String> replaced = new HashSet<>();
+        write(writer -> {
+            for (String line : lines) {
+                String key = key(line);
+                Exportable row = rows.get(key);
+                if (row != null && replaced.add(key)) {
+                    writer.row(row);
+                } else {
+                    writer.raw(line).endRow();
+                }
+            }
+            rows.forEach((key, row) -> {
+                if (!replaced.contains(key)) {
+                    writer.row(row);
+                }
+            });
+        });
+        return replaced;
+    }
+
+    /**
+     * Drops the lines whose first field is one of the keys, copying the rest back as read
+     * @return keys that were found and removed
+     */
+    public Set<String> removeKeys(Set<String> keys) {
+        List<String> lines = readAll(Function.identity());
+        Set<String> removed = new HashSet<>();
+        for (String line : lines) {
+            String key = key(line);
+            if (keys.contains(key)) {
+                removed.add(key);
+            }
+        }
+        if (!removed.isEmpty()) {
+            write(writer -> {
+                for (String line : lines) {
+                    if (!removed.contains(key(line))) {
+                        writer.raw(line).endRow();
+                    }
+                }
+            });
+        }
+        return removed;
+    }
+
+    /**
+     * First field of a line, which is the entity id in every data file
+     */
+    static String key(String line) {
+        int comma = line.indexOf(',');
+        return comma >= 0 ? line.substring(0, comma) : line;
+    }
+
+    private void commit(ParseBatchEvent batch) {
+        batch.end();
+        if (batch.shouldCommit()) {
+            batch.entity = name;
+            batch.commit();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Exportable;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.IdFilter;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Storage engine behind the CSV repositories that keep one entity type in one file: the
+ * repository supplies a {@link CsvCodec} and its own finders, and the store implements the
+ * {@link co.edu.umanizales.bookverse.repository.IRepository} operations once for all of them.
+ * <ul>
+ *     <li>Lookups by id parse only the matching line, and ids that were never stored are
+ *     answered by the {@link IdFilter} without reading the file.</li>
+ *     <li>New rows are appended; updates and deletes copy the other lines back as read instead
+ *     of parsing and formatting every row.</li>
+ *     <li>Writes run one at a time, so conditional operations check and write atomically, and
+ *     full rewrites are committed by {@link CsvFile#write renaming} a temporary file.</li>
+ *     <li>A {@link Listener} sees the stored and new versions of every changed row, for
+ *     secondary indexes, and {@link #version()} changes with every write, for caches.</li>
+ * </ul>
+ * Reads do not wait for writes: they see the file as it was when they opened it, which
+ * {@link CsvFile} keeps from ever ending inside a row.
+ */
+@Slf4j
+final class CsvStore<T extends Exportable> {
+
+    /**
+     * Told about every write with the stored versions of the rows it replaced or removed and
+     * the versions it wrote, called while the write still excludes other writes
+     */
+    @FunctionalInterface
+    interface Listener<T> {
+        void changed(Collection<T> before, Collection<T> after);
+
+        /**
+         * Called before the file is changed by a write that will then call {@link #changed}
+         */
+        default void writing() {
+        }
+    }
+
+    private final CsvFile file;
+    private final String name;
+    private final String entity;
+    private final CsvCodec<T> codec;
+    private final IdGenerator idGenerator;
+    private final IdFilter idFilter;
+    private final Listener<T> listener;
+    private final Lock writes = new ReentrantLock();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @param name plural entity name used for metrics, e.g. "books"
+     * @param entity singular entity name used in log messages, e.g. "book"
+     * @param listener null when no write needs the stored versions of the rows it changes
+     */
+    CsvStore(String filePath, String name, String entity, CsvCodec<T> codec, RepositoryMetrics metrics,
+             StorageExecutor storageExecutor, IdGenerator idGenerator, Listener<T> listener) {
+        this.file = new CsvFile(filePath, name, metrics, storageExecutor);
+        this.name = name;
+        this.entity = entity;
+        this.codec = codec;
+        this.idGenerator = idGenerator;
+        this.idFilter = new IdFilter(name, metrics);
+        this.listener = listener;
+        file.ensureExists();
+        rebuildIdFilter();
+    }
+
+    CsvFile file() {
+        return file;
+    }
+
+    /**
+     * Number of writes made through this store; snapshots of the content are stale once it changes
+     */
+    long version() {
+        return version.get();
+    }
+
+    List<T> findAll() {
+        return file.readAll(this::parse);
+    }
+
+    void forEach(Consumer<? super T> consumer) {
+        file.forEach(codec::decode, consumer);
+    }
+
+    Optional<T> findById(String id) {
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        List<T> found = file.readByKeys(List.of(id), this::parse);
+        idFilter.confirm(!found.isEmpty());
+        return found.stream().findFirst();
+    }
+
+    List<T> findAllById(Collection<String> ids) {
+        List<String> candidates = idFilter.candidates(ids);
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<T> found = file.readByKeys(candidates, this::parse);
+        idFilter.confirm(candidates.size(), found.size());
+        return found;
+    }
+
+    boolean existsById(String id) {
+        if (!idFilter.mightContain(id)) {
+            return false;
+        }
+        boolean found = !file.readByKeys(List.of(id), CsvFile::key).isEmpty();
+        idFilter.confirm(found);
+        return found;
+    }
+
+    /**
+     * Rows the filter accepts, decoding only the lines the line test lets through and resolving
+     * only the rows the filter accepts
+     * @param mayMatch cheap test on the raw line that is false only for rows that cannot match
+     */
+    List<T> findMatching(Predicate<String> mayMatch, Predicate<T> filter) {
+        List<T> rows = new ArrayList<>();
+        file.forEach(line -> {
+            if (!mayMatch.test(line)) {
+                return null;
+            }
+            T row = codec.decode(line);
+            return row != null && filter.test(row) ? codec.resolve(row) : null;
+        }, rows::add);
+        return rows;
+    }
+
+    long count() {
+        return file.count();
+    }
+
+    /**
+     * Appends an entity without an id; replaces the stored row of one with an id, or appends it
+     */
+    T save(T row) {
+        return write(() -> {
+            String id = codec.id(row);
+            if (id == null || id.isEmpty()) {
+                codec.assignId(row, idGenerator.nextId());
+                append(row);
+                return row;
+            }
+            List<T> before = stored(List.of(id));
+            idFilter.add(id);
+            writing();
+            boolean replaced = !file.upsert(Map.of(id, row)).isEmpty();
+            log.info(replaced ? "Updating {} with ID: {}" : "Adding {} with existing ID: {}", entity, id);
+            changed(before, List.of(row));
+            return row;
+        });
+    }
+
+    BatchResult<T> saveBatch(List<T> rows) {
+        return write(() -> {
+            List<T> before = stored(rows.stream()
+                    .filter(row -> row != null && codec.id(row) != null && !codec.id(row).isEmpty())
+                    .map(codec::id)
+                    .toList());
+            writing();
+            BatchResult<T> result = CsvBatch.upsert(file, name, rows, codec::id, codec::assignId, idGenerator,
+                    idFilter);
+            // a repeated id is stored once, as its last entity
+            Map<String, T> after = new LinkedHashMap<>();
+            for (BatchResult.Item<T> item : result.items()) {
+                if (item.status() != BatchResult.Status.FAILED) {
+                    after.remove(item.id());
+                    after.put(item.id(), item.entity());
+                }
+            }
+            changed(before, after.values());
+            return result;
+        });
+    }
+
+    /**
+     * Appends the row without rewriting the file; the file is only read when the id filter
+     * cannot rule the ID out
+     */
+    boolean insertIfAbsent(T row) {
+        return write(() -> {
+            String id = codec.id(row);
+            if (id == null || id.isEmpty()) {
+                codec.assignId(row, idGenerator.nextId());
+            } else if (idFilter.mightContain(id)) {
+                boolean exists = !file.readByKeys(List.of(id), CsvFile::key).isEmpty();
+                idFilter.confirm(exists);
+                if (exists) {
+                    log.warn("Not creating {} with ID {}: it already exists", entity, id);
+                    return false;
+                }
+            }
+            append(row);
+            return true;
+        });
+    }
+
+    /**
+     * Reads the file once, parsing only the stored row, and writes it back with the updated row
+     */
+    Optional<T> computeIfPresent(String id, UnaryOperator<T> update) {
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        return write(() -> {
+            List<String> lines = file.readAll(Function.identity());
+            int index = indexOf(lines, id);
+            idFilter.confirm(index >= 0);
+            if (index < 0) {
+                return Optional.empty();
+            }
+            // decoded apart, since the function may change the stored row in place
+            T before = listener != null ? codec.decode(lines.get(index)) : null;
+            T stored = parse(lines.get(index));
+            if (stored == null) {
+                return Optional.empty();
+            }
+            T updated = update.apply(stored);
+            if (updated == null) {
+                return Optional.of(stored);
+            }
+            codec.assignId(updated, id);
+            writing();
+            file.write(writer -> {
+                for (int i = 0; i < lines.size(); i++) {
+                    if (i == index) {
+                        writer.row(updated);
+                    } else {
+                        writer.raw(lines.get(i)).endRow();
+                    }
+                }
+            });
+            log.info("Updating {} with ID: {}", entity, id);
+            changed(before != null ? List.of(before) : List.of(), List.of(updated));
+            return Optional.of(updated);
+        });
+    }
+
+    /**
+     * Like {@link #computeIfPresent} for several ids with one read and one write. Rows are
+     * decoded without resolving their references, and only the stored ones are.
+     * @return how many stored rows were updated
+     */
+    int computeEach(Map<String, UnaryOperator<T>> updates) {
+        Set<String> candidates = new HashSet<>(idFilter.candidates(updates.keySet()));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        return write(() -> {
+            List<String> lines = file.readAll(Function.identity());
+            Set<String> found = new HashSet<>();
+            List<T> before = new ArrayList<>();
+            Map<Integer, T> updated = new HashMap<>();
+            for (int i = 0; i < lines.size(); i++) {
+                String id = CsvFile.key(lines.get(i));
+                if (!candidates.contains(id) || !found.add(id)) {
+                    continue;
+                }
+                T stored = codec.decode(lines.get(i));
+                if (stored == null) {
+                    continue;
+                }
+                // decoded apart, since the function may change the stored row in place
+                T previous = listener != null ? codec.decode(lines.get(i)) : null;
+                T row = updates.get(id).apply(stored);
+                if (row != null) {
+                    codec.assignId(row, id);
+                    updated.put(i, row);
+                    if (previous != null) {
+                        before.add(previous);
+                    }
+                }
+            }
+            idFilter.confirm(candidates.size(), found.size());
+            if (updated.isEmpty()) {
+                return 0;
+            }
+            writing();
+            file.write(writer -> {
+                for (int i = 0; i < lines.size(); i++) {
+                    T row = updated.get(i);
+                    if (row != null) {
+                        writer.row(row);
+                    } else {
+                        writer.raw(lines.get(i)).endRow();
+                    }
+                }
+            });
+            changed(before, updated.values());
+            return updated.size();
+        });
+    }
+
+    boolean deleteIfExists(String id) {
+        if (!idFilter.mightContain(id)) {
+            log.warn("No {} with ID {} found for deletion", entity, id);
+            return false;
+        }
+        return write(() -> {
+            List<T> before = stored(List.of(id));
+            writing();
+            boolean removed = !file.removeKeys(Set.of(id)).isEmpty();
+            idFilter.confirm(removed);
+            if (removed) {
+                log.info("Deleted {} with ID: {}", entity, id);
+                changed(before, List.of());
+            } else {
+                log.warn("No {} with ID {} found for deletion", entity, id);
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * Runs a write of the repository's own, such as a bulk rewrite through {@link #file()},
+     * excluding other writes and counting as one for {@link #version()}
+     */
+    <R> R write(Supplier<R> body) {
+        writes.lock();
+        try {
+            return body.get();
+        } finally {
+            version.incrementAndGet();
+            if (idFilter.needsRebuild()) {
+                rebuildIdFilter();
+            }
+            writes.unlock();
+        }
+    }
+
+    private void append(T row) {
+        String id = codec.id(row);
+        idFilter.add(id);
+        writing();
+        file.append(row);
+        log.info("Creating new {} with ID: {}", entity, id);
+        changed(List.of(), List.of(row));
+    }
+
+    private T parse(String line) {
+        T row = codec.decode(line);
+        return row != null ? codec.resolve(row) : null;
+    }
+
+    /**
+     * Stored versions of some rows, read only when the listener needs them
+     */
+    private List<T> stored(List<String> ids) {
+        return listener != null && !ids.isEmpty() ? file.readByKeys(ids, codec::decode) : List.of();
+    }
+
+    private void writing() {
+        if (listener != null) {
+            listener.writing();
+        }
+    }
+
+    private void changed(Collection<T> before, Collection<T> after) {
+        if (listener != null) {
+            listener.changed(before, after);
+        }
+    }
+
+    private void rebuildIdFilter() {
+        idFilter.rebuild(ids -> file.forEach(CsvFile::key, ids));
+    }
+
+    private static int indexOf(List<String> lines, String id) {
+        for (int i = 0; i < lines.size(); i++) {
+            if (CsvFile.key(lines.get(i)).equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
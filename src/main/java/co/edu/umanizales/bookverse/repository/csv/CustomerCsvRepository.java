@@ -1,112 +1,129 @@
 package co.edu.umanizales.bookverse.repository.csv;
 
 import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.BatchResult;
 import co.edu.umanizales.bookverse.repository.ICustomerRepository;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import co.edu.umanizales.bookverse.repository.index.BPlusTree;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+/**
+ * Customers in clientes.csv, with a B+tree index file by lowercased email so that lookups by
+ * email, most often for an address nobody uses yet, do not scan the file.
+ */
 @Repository
 @Slf4j
 public class CustomerCsvRepository implements ICustomerRepository {
     
-    private final String filePath;
+    private final CsvStore<Customer> store;
+    private final BPlusTree byEmail;
     
-    public CustomerCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath) {
-        this.filePath = dataPath + "/clientes.csv";
-        ensureDirectoryExists();
+    public CustomerCsvRepository(String dataPath) {
+        this(dataPath, RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered());
     }
     
-    private void ensureDirectoryExists() {
-        try {
-            Files.createDirectories(Paths.get(filePath).getParent());
-            if (!Files.exists(Paths.get(filePath))) {
-                Files.createFile(Paths.get(filePath));
-            }
-        } catch (IOException e) {
-            log.error("Error initializing customers data file", e);
-            throw new RuntimeException("Error initializing data file", e);
+    @Autowired
+    public CustomerCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath, RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator) {
+        this.byEmail = BPlusTree.open(Paths.get(dataPath, "clientes-email.bpt"), "customers", storageExecutor);
+        this.store = new CsvStore<>(dataPath + "/clientes.csv", "customers", "customer",
+                CsvCodec.of(this::parseLine, Customer::getId, Customer::setId), metrics, storageExecutor,
+                idGenerator, new CsvStore.Listener<>() {
+                    @Override
+                    public void changed(Collection<Customer> before, Collection<Customer> after) {
+                        reindex(before, after);
+                    }
+
+                    @Override
+                    public void writing() {
+                        byEmail.begin();
+                    }
+                });
+        if (byEmail.needsRebuild()) {
+            byEmail.rebuild(index -> forEach(c -> index.accept(emailKey(c.getEmail()), c.getId())));
         }
     }
     
+    /**
+     * Forces the email index to disk
+     */
+    @PreDestroy
+    public void close() {
+        byEmail.close();
+    }
+    
     @Override
     public List<Customer> findAll() {
-        List<Customer> customers = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        customers.add(parseLine(line));
-                    } catch (Exception e) {
-                        log.error("Error parsing customer line: {}", line, e);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.error("Error reading customers file", e);
-            throw new RuntimeException("Error reading customers file", e);
-        }
-        return customers;
+        return store.findAll();
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Customer> consumer) {
+        store.forEach(consumer);
     }
     
     @Override
     public Optional<Customer> findById(String id) {
-        return findAll().stream()
-                .filter(c -> c.getId().equals(id))
-                .findFirst();
+        return store.findById(id);
+    }
+    
+    @Override
+    public List<Customer> findAllById(Collection<String> ids) {
+        return store.findAllById(ids);
     }
     
     @Override
     public Customer save(Customer customer) {
-        List<Customer> customers = findAll();
-        
-        if (customer.getId() == null || customer.getId().isEmpty()) {
-            customer.setId(UUID.randomUUID().toString());
-            customers.add(customer);
-            log.info("Creating new customer with ID: {}", customer.getId());
-        } else {
-            boolean found = false;
-            for (int i = 0; i < customers.size(); i++) {
-                if (customers.get(i).getId().equals(customer.getId())) {
-                    customers.set(i, customer);
-                    found = true;
-                    log.info("Updating customer with ID: {}", customer.getId());
-                    break;
-                }
-            }
-            if (!found) {
-                customers.add(customer);
-                log.info("Adding customer with existing ID: {}", customer.getId());
-            }
-        }
-        
-        saveAll(customers);
-        return customer;
+        return store.save(customer);
+    }
+    
+    @Override
+    public BatchResult<Customer> saveBatch(List<Customer> customers) {
+        return store.saveBatch(customers);
+    }
+    
+    @Override
+    public boolean insertIfAbsent(Customer customer) {
+        return store.insertIfAbsent(customer);
+    }
+    
+    @Override
+    public Optional<Customer> computeIfPresent(String id, UnaryOperator<Customer> update) {
+        return store.computeIfPresent(id, update);
     }
     
     @Override
     public void deleteById(String id) {
-        List<Customer> customers = findAll();
-        boolean removed = customers.removeIf(c -> c.getId().equals(id));
-        if (removed) {
-            log.info("Deleted customer with ID: {}", id);
-            saveAll(customers);
-        } else {
-            log.warn("Customer with ID {} not found for deletion", id);
-        }
+        store.deleteIfExists(id);
+    }
+    
+    @Override
+    public boolean deleteIfExists(String id) {
+        return store.deleteIfExists(id);
     }
     
     @Override
     public boolean existsById(String id) {
-        return findAll().stream().anyMatch(c -> c.getId().equals(id));
+        return store.existsById(id);
+    }
+    
+    @Override
+    public long count() {
+        return store.count();
     }
     
     @Override
@@ -118,23 +135,41 @@ public class CustomerCsvRepository implements ICustomerRepository {
     
     @Override
     public List<Customer> findByEmail(String email) {
-        return findAll().stream()
+        if (email == null) {
+            return new ArrayList<>();
+        }
+        List<String> ids = byEmail.find(emailKey(email));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return store.findAllById(ids).stream()
                 .filter(c -> c.getEmail() != null && c.getEmail().equalsIgnoreCase(email))
                 .collect(Collectors.toList());
     }
     
-    private void saveAll(List<Customer> customers) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (Customer customer : customers) {
-                writer.println(toCSV(customer));
+    /**
+     * Moves the email entries of the stored versions of some customers to their new versions
+     */
+    private void reindex(Collection<Customer> before, Collection<Customer> after) {
+        Set<BPlusTree.Entry> added = new LinkedHashSet<>();
+        for (Customer customer : after) {
+            added.add(new BPlusTree.Entry(emailKey(customer.getEmail()), customer.getId()));
+        }
+        Set<BPlusTree.Entry> removed = new LinkedHashSet<>();
+        for (Customer customer : before) {
+            BPlusTree.Entry entry = new BPlusTree.Entry(emailKey(customer.getEmail()), customer.getId());
+            if (!added.remove(entry)) {
+                removed.add(entry);
             }
-        } catch (IOException e) {
-            log.error("Error saving customers", e);
-            throw new RuntimeException("Error saving customers", e);
         }
+        byEmail.update(removed, added);
     }
     
-    private Customer parseLine(String line) {
+    private static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : "";
+    }
+    
+    Customer parseLine(String line) {
         String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
         
         Customer customer = new Customer();
@@ -167,31 +202,4 @@ public class CustomerCsvRepository implements ICustomerRepository {
         
         return customer;
     }
-    
-    private String toCSV(Customer customer) {
-        String historyStr = customer.getOrderHistory() != null && !customer.getOrderHistory().isEmpty() ? 
-            "\"" + String.join(";", customer.getOrderHistory()) + "\"" : "";
-            
-        return String.join(",",
-            escapeCsv(customer.getId()),
-            escapeCsv(customer.getName()),
-            escapeCsv(customer.getLastName()),
-            escapeCsv(customer.getEmail()),
-            escapeCsv(customer.getPhone()),
-            escapeCsv(customer.getAddress()),
-            customer.getRegistrationDate() != null ? customer.getRegistrationDate().toString() : "",
-            historyStr,
-            String.valueOf(customer.isActive())
-        );
-    }
-    
-    private String escapeCsv(String input) {
-        if (input == null) {
-            return "";
-        }
-        if (input.contains(",") || input.contains("\"") || input.contains("\n")) {
-            return "\"" + input.replace("\"", "\"\"") + "\"";
-        }
-        return input;
-    }
 }
@@ -3,118 +3,103 @@ package co.edu.umanizales.bookverse.repository.csv;
 import co.edu.umanizales.bookverse.model.Administrator;
 import co.edu.umanizales.bookverse.model.Employee;
 import co.edu.umanizales.bookverse.model.Salesperson;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
 import co.edu.umanizales.bookverse.repository.IEmployeeRepository;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Repository
 @Slf4j
 public class EmployeeCsvRepository implements IEmployeeRepository {
     
-    private final String filePath;
+    private final CsvStore<Employee> store;
     
-    public EmployeeCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath) {
-        this.filePath = dataPath + "/empleados.csv";
-        ensureDirectoryExists();
+    public EmployeeCsvRepository(String dataPath) {
+        this(dataPath, RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered());
     }
     
-    private void ensureDirectoryExists() {
-        try {
-            Files.createDirectories(Paths.get(filePath).getParent());
-            if (!Files.exists(Paths.get(filePath))) {
-                Files.createFile(Paths.get(filePath));
-            }
-        } catch (IOException e) {
-            log.error("Error initializing employees data file", e);
-            throw new RuntimeException("Error initializing data file", e);
-        }
+    @Autowired
+    public EmployeeCsvRepository(@Value("${bookverse.data.path:./data}") String dataPath, RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator) {
+        this.store = new CsvStore<>(dataPath + "/empleados.csv", "employees", "employee",
+                CsvCodec.of(this::parseLine, Employee::getId, Employee::setId), metrics, storageExecutor,
+                idGenerator, null);
     }
     
     @Override
     public List<Employee> findAll() {
-        List<Employee> employees = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        employees.add(parseLine(line));
-                    } catch (Exception e) {
-                        log.error("Error parsing employee line: {}", line, e);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            log.error("Error reading employees file", e);
-            throw new RuntimeException("Error reading employees file", e);
-        }
-        return employees;
+        return store.findAll();
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Employee> consumer) {
+        store.forEach(consumer);
     }
     
     @Override
     public Optional<Employee> findById(String id) {
-        return findAll().stream()
-                .filter(e -> e.getId().equals(id))
-                .findFirst();
+        return store.findById(id);
+    }
+    
+    @Override
+    public List<Employee> findAllById(Collection<String> ids) {
+        return store.findAllById(ids);
     }
     
     @Override
     public Employee save(Employee employee) {
-        List<Employee> employees = findAll();
-        
-        if (employee.getId() == null || employee.getId().isEmpty()) {
-            employee.setId(UUID.randomUUID().toString());
-            employees.add(employee);
-            log.info("Creating new employee with ID: {}", employee.getId());
-        } else {
-            boolean found = false;
-            for (int i = 0; i < employees.size(); i++) {
-                if (employees.get(i).getId().equals(employee.getId())) {
-                    employees.set(i, employee);
-                    found = true;
-                    log.info("Updating employee with ID: {}", employee.getId());
-                    break;
-                }
-            }
-            if (!found) {
-                employees.add(employee);
-                log.info("Adding employee with existing ID: {}", employee.getId());
-            }
-        }
-        
-        saveAll(employees);
-        return employee;
+        return store.save(employee);
+    }
+    
+    @Override
+    public boolean insertIfAbsent(Employee employee) {
+        return store.insertIfAbsent(employee);
+    }
+    
+    @Override
+    public Optional<Employee> computeIfPresent(String id, UnaryOperator<Employee> update) {
+        return store.computeIfPresent(id, update);
     }
     
     @Override
     public void deleteById(String id) {
-        List<Employee> employees = findAll();
-        boolean removed = employees.removeIf(e -> e.getId().equals(id));
-        if (removed) {
-            log.info("Deleted employee with ID: {}", id);
-            saveAll(employees);
-        } else {
-            log.warn("Employee with ID {} not found for deletion", id);
-        }
+        store.deleteIfExists(id);
+    }
+    
+    @Override
+    public boolean deleteIfExists(String id) {
+        return store.deleteIfExists(id);
     }
     
     @Override
     public boolean existsById(String id) {
-        return findAll().stream().anyMatch(e -> e.getId().equals(id));
+        return store.existsById(id);
+    }
+    
+    @Override
+    public long count() {
+        return store.count();
     }
     
     @Override
     public List<Employee> findByPosition(String position) {
-        return findAll().stream()
-                .filter(e -> e.getPosition() != null && e.getPosition().equalsIgnoreCase(position))
+        List<Employee> employees = findAll();
+        int positionCode = FieldDictionaries.EMPLOYEE_POSITION.foldCode(position);
+        return employees.stream()
+                .filter(e -> FieldDictionaries.EMPLOYEE_POSITION.equalsIgnoreCase(positionCode, position,
+                        e.getPosition()))
                 .collect(Collectors.toList());
     }
     
@@ -132,18 +117,7 @@ public class EmployeeCsvRepository implements IEmployeeRepository {
                 .collect(Collectors.toList());
     }
     
-    private void saveAll(List<Employee> employees) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (Employee employee : employees) {
-                writer.println(employee.toCsv());
-            }
-        } catch (IOException e) {
-            log.error("Error saving employees", e);
-            throw new RuntimeException("Error saving employees", e);
-        }
-    }
-    
-    private Employee parseLine(String line) {
+    Employee parseLine(String line) {
         String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
         
         String type = parts.length > 8 ? parts[8] : "";
@@ -182,7 +156,7 @@ public class EmployeeCsvRepository implements IEmployeeRepository {
             }
         }
         
-        admin.setPosition(parts.length > 7 ? parts[7] : "");
+        admin.setPosition(FieldDictionaries.EMPLOYEE_POSITION.canonical(parts.length > 7 ? parts[7] : ""));
         admin.setAccessLevel(parts.length > 9 ? parts[9] : "");
         
         if (parts.length > 10 && !parts[10].isEmpty()) {
@@ -229,7 +203,7 @@ public class EmployeeCsvRepository implements IEmployeeRepository {
             }
         }
         
-        salesperson.setPosition(parts.length > 7 ? parts[7] : "");
+        salesperson.setPosition(FieldDictionaries.EMPLOYEE_POSITION.canonical(parts.length > 7 ? parts[7] : ""));
         
         if (parts.length > 9 && !parts[9].isEmpty()) {
             try {
@@ -247,7 +221,7 @@ public class EmployeeCsvRepository implements IEmployeeRepository {
             }
         }
         
-        salesperson.setAssignedZone(parts.length > 11 ? parts[11] : "");
+        salesperson.setAssignedZone(FieldDictionaries.SALES_ZONE.canonical(parts.length > 11 ? parts[11] : ""));
         
         return salesperson;
     }
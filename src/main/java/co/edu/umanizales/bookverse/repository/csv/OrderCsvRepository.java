@@ -1,169 +1,568 @@
 package co.edu.umanizales.bookverse.repository.csv;
 
 import co.edu.umanizales.bookverse.model.*;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.monitoring.jfr.ReferenceLookupEvent;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
 import co.edu.umanizales.bookverse.repository.IBookRepository;
 import co.edu.umanizales.bookverse.repository.ICustomerRepository;
 import co.edu.umanizales.bookverse.repository.IEmployeeRepository;
 import co.edu.umanizales.bookverse.repository.IOrderRepository;
+import co.edu.umanizales.bookverse.repository.IdFilter;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import co.edu.umanizales.bookverse.repository.StringDictionary;
+import co.edu.umanizales.bookverse.repository.index.BPlusTree;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+/**
+ * Orders stored in monthly segments by orderDate, see {@link OrderSegments}. Lookups by id go
+ * through the segment indexes and read single records; status and date queries skip the months
+ * that cannot match. New orders are appended without rewriting their month. A single ordenes.csv
+ * from before partitioning is split into months on startup.
+ * <p>
+ * Queries by customer and by status go through B+tree index files keyed by (customerId,
+ * orderDate) and (status, orderDate), kept next to the segments and rebuilt from them when they
+ * were not closed cleanly.
+ */
 @Repository
 @Slf4j
 public class OrderCsvRepository implements IOrderRepository {
     
-    private final String filePath;
+    // Above one match in this many orders a status query scans its months instead
+    private static final int INDEX_SELECTIVITY = 8;
+    
+    private final OrderSegments segments;
+    private final BPlusTree byCustomer;
+    private final BPlusTree byStatus;
+    private final IdGenerator idGenerator;
+    private final IdFilter idFilter;
     private final ICustomerRepository customerRepository;
     private final IEmployeeRepository employeeRepository;
     private final IBookRepository bookRepository;
     
+    public OrderCsvRepository(
+            String dataPath,
+            ICustomerRepository customerRepository,
+            IEmployeeRepository employeeRepository,
+            IBookRepository bookRepository) {
+        this(dataPath, customerRepository, employeeRepository, bookRepository,
+                RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered(), true,
+                Clock.systemDefaultZone());
+    }
+    
     @Autowired
     public OrderCsvRepository(
             @Value("${bookverse.data.path:./data}") String dataPath,
             ICustomerRepository customerRepository,
             IEmployeeRepository employeeRepository,
-            IBookRepository bookRepository) {
-        this.filePath = dataPath + "/ordenes.csv";
+            IBookRepository bookRepository,
+            RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator,
+            @Value("${bookverse.orders.offset-index:true}") boolean offsetIndex) {
+        this(dataPath, customerRepository, employeeRepository, bookRepository, metrics, storageExecutor,
+                idGenerator, offsetIndex, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * @param offsetIndex whether lookups by id read single records through the offset indexes
+     * @param clock decides which months are in the past and can be sealed
+     */
+    OrderCsvRepository(
+            String dataPath,
+            ICustomerRepository customerRepository,
+            IEmployeeRepository employeeRepository,
+            IBookRepository bookRepository,
+            RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator,
+            boolean offsetIndex,
+            Clock clock) {
+        this.idGenerator = idGenerator;
+        this.idFilter = new IdFilter("orders", metrics);
         this.customerRepository = customerRepository;
         this.employeeRepository = employeeRepository;
         this.bookRepository = bookRepository;
-        ensureDirectoryExists();
+        this.segments = new OrderSegments(Paths.get(dataPath, OrderSegments.DIRECTORY), metrics, storageExecutor,
+                clock, line -> parseLine(line, false), offsetIndex);
+        segments.open(Paths.get(dataPath, "ordenes.csv"));
+        rebuildIdFilter();
+        this.byCustomer = BPlusTree.open(Paths.get(dataPath, OrderSegments.DIRECTORY, "indice-cliente.bpt"),
+                "orders", storageExecutor);
+        this.byStatus = BPlusTree.open(Paths.get(dataPath, OrderSegments.DIRECTORY, "indice-estado.bpt"),
+                "orders", storageExecutor);
+        if (byCustomer.needsRebuild() || byStatus.needsRebuild()) {
+            byCustomer.rebuild(index -> forEach(o -> index.accept(customerKey(o), o.getId())));
+            byStatus.rebuild(index -> forEach(o -> index.accept(statusKey(o), o.getId())));
+        }
     }
     
-    private void ensureDirectoryExists() {
-        try {
-            Files.createDirectories(Paths.get(filePath).getParent());
-            if (!Files.exists(Paths.get(filePath))) {
-                Files.createFile(Paths.get(filePath));
-            }
-        } catch (IOException e) {
-            log.error("Error initializing orders data file", e);
-            throw new RuntimeException("Error initializing data file", e);
-        }
+    /**
+     * Forces the index files to disk
+     */
+    @PreDestroy
+    public void close() {
+        byCustomer.close();
+        byStatus.close();
     }
     
     @Override
     public List<Order> findAll() {
-        List<Order> orders = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (!line.trim().isEmpty()) {
-                    try {
-                        orders.add(parseLine(line));
-                    } catch (Exception e) {
-                        log.error("Error parsing order line: {}", line, e);
-                    }
+        return segments.read(() -> read(segments.all()));
+    }
+    
+    @Override
+    public void forEach(Consumer<? super Order> consumer) {
+        segments.read(() -> {
+            for (OrderSegments.Segment segment : segments.all()) {
+                segment.file().forEach(line -> parseLine(line, false), consumer);
+            }
+            return null;
+        });
+    }
+    
+    @Override
+    public Optional<Order> findById(String id) {
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        Optional<Order> order = segments.read(() -> {
+            for (OrderSegments.Segment segment : segments.candidates(id)) {
+                List<String> found = segment.find(List.of(id));
+                if (!found.isEmpty()) {
+                    return Optional.of(parseLine(found.get(0)));
                 }
             }
-        } catch (IOException e) {
-            log.error("Error reading orders file", e);
-            throw new RuntimeException("Error reading orders file", e);
+            return Optional.empty();
+        });
+        idFilter.confirm(order.isPresent());
+        return order;
+    }
+    
+    @Override
+    public List<Order> findAllById(Collection<String> ids) {
+        List<String> candidates = idFilter.candidates(ids);
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Order> orders = segments.read(() -> {
+            Map<String, Order> found = stored(candidates, true);
+            List<Order> ordered = new ArrayList<>(found.size());
+            for (String id : candidates) {
+                Order order = found.get(id);
+                if (order != null) {
+                    ordered.add(order);
+                }
+            }
+            return ordered;
+        });
+        idFilter.confirm(candidates.size(), orders.size());
         return orders;
     }
     
     @Override
-    public Optional<Order> findById(String id) {
-        return findAll().stream()
-                .filter(o -> o.getId().equals(id))
-                .findFirst();
+    public Order save(Order order) {
+        return segments.write(() -> {
+            boolean created = order.getId() == null || order.getId().isEmpty();
+            if (created) {
+                order.setId(idGenerator.nextId());
+            }
+            store(order, created, created ? List.of() : stored(List.of(order.getId()), false).values());
+            return order;
+        });
     }
     
+    /**
+     * Appends to the order's month; the months are only read when the id filter cannot rule
+     * the ID out
+     */
     @Override
-    public Order save(Order order) {
-        List<Order> orders = findAll();
-        
-        if (order.getId() == null || order.getId().isEmpty()) {
-            order.setId(UUID.randomUUID().toString());
-            orders.add(order);
+    public boolean insertIfAbsent(Order order) {
+        return segments.write(() -> {
+            boolean created = order.getId() == null || order.getId().isEmpty();
+            if (created) {
+                order.setId(idGenerator.nextId());
+            } else if (idFilter.mightContain(order.getId())) {
+                boolean exists = !stored(List.of(order.getId()), false).isEmpty();
+                idFilter.confirm(exists);
+                if (exists) {
+                    log.warn("Order with ID {} already exists", order.getId());
+                    return false;
+                }
+            }
+            store(order, true, List.of());
+            return true;
+        });
+    }
+    
+    @Override
+    public Optional<Order> computeIfPresent(String id, UnaryOperator<Order> update) {
+        if (!idFilter.mightContain(id)) {
+            return Optional.empty();
+        }
+        return segments.write(() -> {
+            Order stored = stored(List.of(id), true).get(id);
+            idFilter.confirm(stored != null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            // copy for the indexes, since the function may change the stored order in place
+            Order previous = parseLine(stored.toCsv(), false);
+            Order updated = update.apply(stored);
+            if (updated == null) {
+                return Optional.of(stored);
+            }
+            updated.setId(id);
+            store(updated, false, List.of(previous));
+            return Optional.of(updated);
+        });
+    }
+    
+    /**
+     * Writes an order into its month, moving it out of any other month; call inside a segment write
+     * @param created whether the ID is new, so no month can hold it
+     * @param before stored versions of the order, whose index entries it replaces
+     */
+    private void store(Order order, boolean created, Collection<Order> before) {
+        idFilter.add(order.getId());
+        beginIndexes();
+        OrderSegments.Segment target = segments.forWrite(OrderSegments.keyOf(order.getOrderDate()));
+        boolean replaced = false;
+        boolean moved = false;
+        if (!created && target.mayContain(order.getId())) {
+            replaced = !target.file().upsert(Map.of(order.getId(), order)).isEmpty();
+            segments.changed(target, 1);
+            moved = !replaced && removeFromOthers(order.getId(), target);
+        } else {
+            moved = !created && removeFromOthers(order.getId(), target);
+            segments.append(target, order.getId(), order);
+        }
+        reindex(before, List.of(order));
+        if (idFilter.needsRebuild()) {
+            rebuildIdFilter();
+        }
+        if (created) {
             log.info("Creating new order with ID: {}", order.getId());
+        } else if (replaced || moved) {
+            log.info("Updating order with ID: {}", order.getId());
         } else {
-            boolean found = false;
+            log.info("Adding order with existing ID: {}", order.getId());
+        }
+    }
+    
+    /**
+     * Upserts with one read and one write per month touched
+     */
+    @Override
+    public BatchResult<Order> saveBatch(List<Order> orders) {
+        return segments.write(() -> {
+            List<BatchResult.Item<Order>> items = new ArrayList<>(orders.size());
+            Map<String, List<Integer>> byMonth = new TreeMap<>();
+            Set<String> givenIds = new HashSet<>();
             for (int i = 0; i < orders.size(); i++) {
-                if (orders.get(i).getId().equals(order.getId())) {
-                    orders.set(i, order);
-                    found = true;
-                    log.info("Updating order with ID: {}", order.getId());
-                    break;
+                Order order = orders.get(i);
+                if (order == null) {
+                    items.add(BatchResult.Item.failed(i, null, "Missing entity"));
+                    continue;
                 }
+                if (order.getId() != null && !order.getId().isEmpty()) {
+                    givenIds.add(order.getId());
+                }
+                byMonth.computeIfAbsent(OrderSegments.keyOf(order.getOrderDate()), key -> new ArrayList<>()).add(i);
             }
-            if (!found) {
-                orders.add(order);
-                log.info("Adding order with existing ID: {}", order.getId());
+            Collection<Order> before = stored(givenIds, false).values();
+            beginIndexes();
+            // a repeated id is stored once, as its last entity
+            Map<String, Order> after = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Integer>> month : byMonth.entrySet()) {
+                OrderSegments.Segment target = segments.forWrite(month.getKey());
+                List<Integer> indexes = month.getValue();
+                BatchResult<Order> result = CsvBatch.upsert(target.file(), "orders",
+                        indexes.stream().map(orders::get).toList(), Order::getId, Order::setId, idGenerator,
+                        idFilter);
+                for (BatchResult.Item<Order> item : result.items()) {
+                    int index = indexes.get(item.index());
+                    if (item.status() != BatchResult.Status.FAILED) {
+                        after.remove(item.id());
+                        after.put(item.id(), item.entity());
+                    }
+                    boolean moved = item.status() == BatchResult.Status.CREATED && givenIds.contains(item.id())
+                            && removeFromOthers(item.id(), target);
+                    items.add(moved
+                            ? BatchResult.Item.updated(index, item.id(), item.entity())
+                            : new BatchResult.Item<>(index, item.id(), item.status(), item.entity(), item.error()));
+                }
+                segments.changed(target, indexes.size());
             }
-        }
-        
-        saveAll(orders);
-        return order;
+            reindex(before, after.values());
+            if (idFilter.needsRebuild()) {
+                rebuildIdFilter();
+            }
+            return BatchResult.of(items);
+        });
     }
     
     @Override
     public void deleteById(String id) {
-        List<Order> orders = findAll();
-        boolean removed = orders.removeIf(o -> o.getId().equals(id));
+        deleteIfExists(id);
+    }
+    
+    @Override
+    public boolean deleteIfExists(String id) {
+        if (!idFilter.mightContain(id)) {
+            log.warn("Order with ID {} not found for deletion", id);
+            return false;
+        }
+        boolean removed = segments.write(() -> {
+            Collection<Order> before = stored(List.of(id), false).values();
+            beginIndexes();
+            boolean found = removeFromOthers(id, null);
+            reindex(before, List.of());
+            return found;
+        });
+        idFilter.confirm(removed);
         if (removed) {
             log.info("Deleted order with ID: {}", id);
-            saveAll(orders);
         } else {
             log.warn("Order with ID {} not found for deletion", id);
         }
+        return removed;
     }
     
     @Override
     public boolean existsById(String id) {
-        return findAll().stream().anyMatch(o -> o.getId().equals(id));
+        if (!idFilter.mightContain(id)) {
+            return false;
+        }
+        boolean exists = segments.read(() -> {
+            for (OrderSegments.Segment segment : segments.candidates(id)) {
+                if (!segment.find(List.of(id)).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        });
+        idFilter.confirm(exists);
+        return exists;
     }
     
+    @Override
+    public long count() {
+        return segments.read(() -> segments.all().stream().mapToLong(OrderSegments.Segment::count).sum());
+    }
+    
+    /**
+     * Orders of one customer, oldest first
+     */
     @Override
     public List<Order> findByCustomerId(String customerId) {
-        return findAll().stream()
-                .filter(o -> o.getCustomerId() != null && o.getCustomerId().equals(customerId))
-                .collect(Collectors.toList());
+        if (customerId == null) {
+            return new ArrayList<>();
+        }
+        return findAllById(byCustomer.findByPrefix(customerId));
     }
     
+    /**
+     * Only rows that mention the id are decoded, and only the matching orders get their
+     * references resolved
+     */
     @Override
     public List<Order> findBySalespersonId(String salespersonId) {
-        return findAll().stream()
-                .filter(o -> o.getSalespersonId() != null && o.getSalespersonId().equals(salespersonId))
-                .collect(Collectors.toList());
+        if (salespersonId == null) {
+            return new ArrayList<>();
+        }
+        return segments.read(() -> {
+            List<Order> orders = new ArrayList<>();
+            for (OrderSegments.Segment segment : segments.all()) {
+                segment.file().forEach(line -> line.contains(salespersonId)
+                        && salespersonId.equals(parseLine(line, false).getSalespersonId())
+                        ? parseLine(line) : null, orders::add);
+            }
+            return orders;
+        });
     }
     
     @Override
     public List<Order> findByStatus(String status) {
-        return findAll().stream()
-                .filter(o -> o.getStatus() != null && o.getStatus().equalsIgnoreCase(status))
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        int statusCode = FieldDictionaries.ORDER_STATUS.foldCode(status);
+        List<String> ids = byStatus.findByPrefix(foldStatus(status));
+        List<Order> candidates;
+        // one entry per order, so the index counts the orders without scanning the months
+        if ((long) ids.size() * INDEX_SELECTIVITY <= byStatus.size()) {
+            candidates = findAllById(ids);
+        } else {
+            String canonical = FieldDictionaries.ORDER_STATUS.canonical(status);
+            candidates = segments.read(() -> read(segments.withStatus(canonical)));
+        }
+        return candidates.stream()
+                .filter(o -> FieldDictionaries.ORDER_STATUS.equalsIgnoreCase(statusCode, status, o.getStatus()))
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Order> findByOrderDateBetween(LocalDate from, LocalDate to) {
+        return segments.read(() -> read(segments.between(from, to))).stream()
+                .filter(o -> o.getOrderDate() != null)
+                .filter(o -> from == null || !o.getOrderDate().toLocalDate().isBefore(from))
+                .filter(o -> to == null || !o.getOrderDate().toLocalDate().isAfter(to))
                 .collect(Collectors.toList());
     }
     
-    private void saveAll(List<Order> orders) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            for (Order order : orders) {
-                writer.println(order.toCsv());
+    private void rebuildIdFilter() {
+        idFilter.rebuild(ids -> segments.read(() -> {
+            for (OrderSegments.Segment segment : segments.all()) {
+                segment.file().forEach(CsvFile::key, ids);
+            }
+            return null;
+        }));
+    }
+    
+    /**
+     * Stored orders with these ids, looked up through the segment indexes; call inside a segment lock
+     */
+    private Map<String, Order> stored(Collection<String> ids, boolean resolveReferences) {
+        Set<String> missing = new LinkedHashSet<>(ids);
+        Map<String, Order> found = new HashMap<>();
+        for (OrderSegments.Segment segment : segments.all()) {
+            if (missing.isEmpty()) {
+                break;
+            }
+            List<String> wanted = missing.stream().filter(segment::mayContain).toList();
+            if (!wanted.isEmpty()) {
+                for (String line : segment.find(wanted)) {
+                    Order order = parseLine(line, resolveReferences);
+                    found.put(order.getId(), order);
+                    missing.remove(order.getId());
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Marks the indexes as behind the segments before a write changes them; {@link #reindex}
+     * catches them up
+     */
+    private void beginIndexes() {
+        byCustomer.begin();
+        byStatus.begin();
+    }
+    
+    /**
+     * Moves the index entries of the stored versions of some orders to their new versions
+     */
+    private void reindex(Collection<Order> before, Collection<Order> after) {
+        reindex(byCustomer, before, after, OrderCsvRepository::customerKey);
+        reindex(byStatus, before, after, OrderCsvRepository::statusKey);
+    }
+    
+    private static void reindex(BPlusTree index, Collection<Order> before, Collection<Order> after,
+                                Function<Order, String> key) {
+        Set<BPlusTree.Entry> added = new LinkedHashSet<>();
+        for (Order order : after) {
+            added.add(new BPlusTree.Entry(key.apply(order), order.getId()));
+        }
+        Set<BPlusTree.Entry> removed = new LinkedHashSet<>();
+        for (Order order : before) {
+            BPlusTree.Entry entry = new BPlusTree.Entry(key.apply(order), order.getId());
+            if (!added.remove(entry)) {
+                removed.add(entry);
+            }
+        }
+        index.update(removed, added);
+    }
+    
+    private static String customerKey(Order order) {
+        return BPlusTree.key(order.getCustomerId(), dateKey(order));
+    }
+    
+    private static String statusKey(Order order) {
+        return BPlusTree.key(foldStatus(order.getStatus()), dateKey(order));
+    }
+    
+    /**
+     * Status as stored in the index, where statuses differing only in case share a key
+     */
+    private static String foldStatus(String status) {
+        return status != null ? StringDictionary.fold(status) : "";
+    }
+    
+    private static String dateKey(Order order) {
+        return order.getOrderDate() != null ? order.getOrderDate().toString() : "";
+    }
+    
+    private List<Order> read(Collection<OrderSegments.Segment> selected) {
+        List<Order> orders = new ArrayList<>();
+        for (OrderSegments.Segment segment : selected) {
+            segment.file().forEach(this::parseLine, orders::add);
+        }
+        return orders;
+    }
+    
+    /**
+     * Removes the id from every segment other than the target; call inside a segment write
+     * @return whether it was stored anywhere else
+     */
+    private boolean removeFromOthers(String id, OrderSegments.Segment target) {
+        boolean removed = false;
+        for (OrderSegments.Segment segment : segments.candidates(id)) {
+            // candidates are only narrowed by indexes, so the id is looked up before a month is
+            // unsealed or rewritten
+            if (segment == target || segment.find(List.of(id)).isEmpty()) {
+                continue;
+            }
+            OrderSegments.Segment open = segments.forWrite(segment.key());
+            if (!open.file().removeKeys(Set.of(id)).isEmpty()) {
+                removed = true;
+                segments.shrank(open, 1);
             }
-        } catch (IOException e) {
-            log.error("Error saving orders", e);
-            throw new RuntimeException("Error saving orders", e);
         }
+        return removed;
+    }
+    
+    private String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1).replace("\"\"", "\"");
+        }
+        return value;
+    }
+    
+    Order parseLine(String line) {
+        return parseLine(line, true);
     }
     
-    private Order parseLine(String line) {
+    /**
+     * @param resolveReferences whether to look up customer, salesperson and books, or leave id-only stubs
+     */
+    Order parseLine(String line, boolean resolveReferences) {
         String[] parts = line.split(",(?=([^\"]*\"[^\"]*\")*[^\"]*$)");
         
         Order order = new Order();
         order.setId(parts[0]);
         
         if (parts.length > 1 && !parts[1].isEmpty()) {
-            Optional<Customer> customer = customerRepository.findById(parts[1]);
+            Optional<Customer> customer = resolveReferences
+                    ? ReferenceLookupEvent.lookup("orders", "customers", parts[1], customerRepository::findById)
+                    : Optional.empty();
             order.setCustomer(customer.orElseGet(() -> {
                 Customer c = new Customer();
                 c.setId(parts[1]);
@@ -172,7 +571,9 @@ public class OrderCsvRepository implements IOrderRepository {
         }
         
         if (parts.length > 2 && !parts[2].isEmpty()) {
-            Optional<Employee> employee = employeeRepository.findById(parts[2]);
+            Optional<Employee> employee = resolveReferences
+                    ? ReferenceLookupEvent.lookup("orders", "employees", parts[2], employeeRepository::findById)
+                    : Optional.empty();
             if (employee.isPresent() && employee.get() instanceof Salesperson) {
                 order.setSalesperson((Salesperson) employee.get());
             } else {
@@ -201,9 +602,11 @@ public class OrderCsvRepository implements IOrderRepository {
                         try {
                             String bookId = itemData[0];
                             int quantity = Integer.parseInt(itemData[1]);
-                            double unitPrice = Double.parseDouble(itemData[2]);
+                            long unitPrice = Money.parse(itemData[2]);
                             
-                            Optional<Book> book = bookRepository.findById(bookId);
+                            Optional<Book> book = resolveReferences
+                                    ? ReferenceLookupEvent.lookup("orders", "books", bookId, bookRepository::findById)
+                                    : Optional.empty();
                             Order.OrderItem item = new Order.OrderItem(
                                 book.orElseGet(() -> {
                                     Book b = new Book();
@@ -225,7 +628,7 @@ public class OrderCsvRepository implements IOrderRepository {
         
         if (parts.length > 5 && !parts[5].isEmpty()) {
             try {
-                order.setSubtotal(Double.parseDouble(parts[5]));
+                order.setSubtotal(Money.parse(parts[5]));
             } catch (NumberFormatException e) {
                 log.warn("Error parsing subtotal: {}", parts[5]);
             }
@@ -233,7 +636,7 @@ public class OrderCsvRepository implements IOrderRepository {
         
         if (parts.length > 6 && !parts[6].isEmpty()) {
             try {
-                order.setTaxes(Double.parseDouble(parts[6]));
+                order.setTaxes(Money.parse(parts[6]));
             } catch (NumberFormatException e) {
                 log.warn("Error parsing taxes: {}", parts[6]);
             }
@@ -241,7 +644,7 @@ public class OrderCsvRepository implements IOrderRepository {
         
         if (parts.length > 7 && !parts[7].isEmpty()) {
             try {
-                order.setTotal(Double.parseDouble(parts[7]));
+                order.setTotal(Money.parse(parts[7]));
             } catch (NumberFormatException e) {
                 log.warn("Error parsing total: {}", parts[7]);
             }
@@ -255,8 +658,8 @@ public class OrderCsvRepository implements IOrderRepository {
             }
         }
         
-        order.setStatus(parts.length > 9 ? parts[9] : "");
-        order.setShippingAddress(parts.length > 10 ? parts[10] : "");
+        order.setStatus(FieldDictionaries.ORDER_STATUS.canonical(parts.length > 9 ? parts[9] : ""));
+        order.setShippingAddress(parts.length > 10 ? unquote(parts[10]) : "");
         
         return order;
     }
@@ -0,0 +1,729 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Order storage split by orderDate month under data/ordenes/: one ordenes-YYYY-MM.csv per
+ * month, plus ordenes-sin-fecha.csv for orders without a date. A past month whose orders are
+ * all completed ({@link Order#isCompleted()}) is sealed: compressed to ordenes-YYYY-MM.csv.gz
+ * next to an ordenes-YYYY-MM.idx file with its row count, statuses and sorted ids. Writes and
+ * lookups therefore read the open months, normally just the current one, and only the id index
+ * of sealed months; a write into a sealed month unseals it first and seals it again afterwards.
+ * <p>
+ * With bookverse.orders.offset-index (the default) a lookup by id reads one record instead of
+ * the segment: open months keep an id to byte offset map in memory, built on the first lookup,
+ * extended by appends and dropped when the file is rewritten; sealed months are compressed in
+ * independent gzip blocks of {@value #BLOCK_ROWS} rows and their index maps each id to a
+ * block, so a lookup decompresses only that block.
+ * <p>
+ * A month is checked for sealing at startup, after each write to it and when the first order
+ * of a new month arrives; the check reads the file only while the month might be done, since
+ * each segment counts the open orders it saw last time and appends keep that count current. Sealing and unsealing write the new files before deleting the old
+ * ones, and a plain file always wins over a sealed one at startup, so a crash halfway leaves
+ * the month open. Reads share a lock that writes, seals and unseals take exclusively.
+ */
+@Slf4j
+final class OrderSegments {
+
+    static final String DIRECTORY = "ordenes";
+    static final String UNDATED = "sin-fecha";
+    private static final String NAME = "orders";
+    private static final Pattern FILE = Pattern.compile("ordenes-(\\d{4}-\\d{2}|sin-fecha)\\.(csv|csv\\.gz|idx)");
+    private static final Pattern MONTH = Pattern.compile("\\d{4}-\\d{2}");
+    private static final int BUFFER = 64 * 1024;
+    static final int BLOCK_ROWS = 256;
+
+    private final Path directory;
+    private final RepositoryMetrics metrics;
+    private final StorageExecutor executor;
+    private final Clock clock;
+    private final Function<String, Order> parser;
+    private final boolean offsetIndex;
+    private final NavigableMap<String, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param parser parses a stored line without resolving references
+     * @param offsetIndex whether open months look ids up through an offset map instead of a scan
+     */
+    OrderSegments(Path directory, RepositoryMetrics metrics, StorageExecutor executor, Clock clock,
+                  Function<String, Order> parser, boolean offsetIndex) {
+        this.directory = directory;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.clock = clock;
+        this.parser = parser;
+        this.offsetIndex = offsetIndex;
+    }
+
+    /**
+     * Loads the segments in the directory, splitting a single-file ordenes.csv from before
+     * partitioning into months first, and seals the past months that qualify
+     */
+    void open(Path legacyFile) {
+        try {
+            Files.createDirectories(directory);
+            Map<String, EnumSet<Kind>> found = new TreeMap<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(file -> {
+                    Matcher matcher = FILE.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        found.computeIfAbsent(matcher.group(1), key -> EnumSet.noneOf(Kind.class))
+                                .add(Kind.of(matcher.group(2)));
+                    }
+                });
+            }
+            if (found.isEmpty() && Files.exists(legacyFile) && Files.size(legacyFile) > 0) {
+                migrate(legacyFile).forEach(key -> found.put(key, EnumSet.of(Kind.PLAIN)));
+            }
+            for (Map.Entry<String, EnumSet<Kind>> entry : found.entrySet()) {
+                Segment segment = new Segment(entry.getKey());
+                if (entry.getValue().contains(Kind.PLAIN)) {
+                    // an interrupted seal or unseal: the plain file is the complete one
+                    Files.deleteIfExists(segment.sealedPath());
+                    Files.deleteIfExists(segment.indexPath());
+                } else if (entry.getValue().contains(Kind.SEALED)) {
+                    segment.index = Files.exists(segment.indexPath()) ? readIndex(segment.indexPath()) : null;
+                    if (segment.index == null) {
+                        // no index, or one without block offsets: reopen and let it be sealed again
+                        log.warn("Order segment {} has no usable index, reopening it", segment.key);
+                        unseal(segment);
+                    }
+                } else {
+                    Files.delete(segment.indexPath());
+                    continue;
+                }
+                segments.put(segment.key, segment);
+            }
+        } catch (IOException e) {
+            log.error("Error opening order segments in {}", directory, e);
+            throw new RuntimeException("Error opening order segments", e);
+        }
+        write(() -> {
+            sealEligible();
+            return null;
+        });
+        log.info("Opened {} order segments in {} ({} sealed)", segments.size(), directory,
+                segments.values().stream().filter(Segment::isSealed).count());
+    }
+
+    <T> T read(Supplier<T> body) {
+        lock.readLock().lock();
+        try {
+            return body.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <T> T write(Supplier<T> body) {
+        lock.writeLock().lock();
+        try {
+            return body.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Every segment, oldest month first and undated orders last
+     */
+    Collection<Segment> all() {
+        return segments.values();
+    }
+
+    /**
+     * Segments that can hold the id, open ones newest first and then sealed ones
+     */
+    List<Segment> candidates(String id) {
+        List<Segment> candidates = new ArrayList<>();
+        for (Segment segment : segments.descendingMap().values()) {
+            if (!segment.isSealed() && segment.mayContain(id)) {
+                candidates.add(segment);
+            }
+        }
+        for (Segment segment : segments.descendingMap().values()) {
+            if (segment.isSealed() && segment.mayContain(id)) {
+                candidates.add(segment);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Segments that can hold orders in the canonical status; sealed months list theirs
+     */
+    List<Segment> withStatus(String status) {
+        return segments.values().stream()
+                .filter(segment -> !segment.isSealed() || segment.index.statuses().contains(status))
+                .toList();
+    }
+
+    /**
+     * Months that overlap the dates, both inclusive and null when open-ended; undated orders never match
+     */
+    List<Segment> between(LocalDate from, LocalDate to) {
+        String first = from != null ? YearMonth.from(from).toString() : "";
+        String last = to != null ? YearMonth.from(to).toString() : "9999-12";
+        return segments.subMap(first, true, last, true).values().stream()
+                .filter(segment -> !UNDATED.equals(segment.key))
+                .toList();
+    }
+
+    /**
+     * Open segment for the month, created or unsealed when needed; call inside {@link #write}
+     */
+    Segment forWrite(String key) {
+        Segment segment = segments.get(key);
+        if (segment == null) {
+            if (!UNDATED.equals(key)) {
+                // first order of a new month: earlier months may have just finished. Checked before
+                // the new segment is registered, which would otherwise be dropped while still empty
+                sealEligible();
+            }
+            segment = new Segment(key);
+            segment.plain.ensureExists();
+            segments.put(key, segment);
+        } else if (segment.isSealed()) {
+            unseal(segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Seals a past month after a rewrite when it qualifies; call inside {@link #write}
+     * @param rows orders the rewrite replaced or added, any of which may have completed an open order
+     */
+    void changed(Segment segment, int rows) {
+        segment.offsets = null;
+        segment.uncounted(rows);
+        sealIfDone(segment);
+    }
+
+    /**
+     * Adds a row at the end of an open segment, keeping its offset map current; call inside {@link #write}
+     */
+    void append(Segment segment, String id, Order order) {
+        long offset = segment.plain.append(order);
+        Map<String, Long> offsets = segment.offsets;
+        if (offsets != null) {
+            offsets.put(id, offset);
+        }
+        if (segment.openOrders > 0 && !order.isCompleted()) {
+            segment.openOrders++;
+        }
+        sealIfDone(segment);
+    }
+
+    private void sealIfDone(Segment segment) {
+        // a month known to hold an open order cannot be sealed, so it is not read again
+        if (!segment.isSealed() && isPast(segment.key) && segment.openOrders <= 0) {
+            maybeSeal(segment);
+        }
+    }
+
+    /**
+     * Like {@link #changed}, and also drops the segment when the last order was removed
+     * @param rows orders removed
+     */
+    void shrank(Segment segment, int rows) {
+        segment.offsets = null;
+        segment.uncounted(rows);
+        if (!segment.isSealed() && (isPast(segment.key) && segment.openOrders <= 0 || segment.plain.count() == 0)) {
+            maybeSeal(segment);
+        }
+    }
+
+    private boolean isPast(String key) {
+        return !UNDATED.equals(key) && YearMonth.parse(key).isBefore(YearMonth.now(clock));
+    }
+
+    static String keyOf(LocalDateTime orderDate) {
+        return orderDate != null ? YearMonth.from(orderDate).toString() : UNDATED;
+    }
+
+    /**
+     * Segment key of a stored line, read from the date in the fourth field without parsing the rest
+     */
+    static String keyOf(String line) {
+        int start = 0;
+        for (int field = 0; field < 3; field++) {
+            start = line.indexOf(',', start) + 1;
+            if (start == 0) {
+                return UNDATED;
+            }
+        }
+        if (line.length() < start + 8 || line.charAt(start + 7) != '-') {
+            return UNDATED;
+        }
+        String month = line.substring(start, start + 7);
+        return MONTH.matcher(month).matches() ? month : UNDATED;
+    }
+
+    private void sealEligible() {
+        for (Segment segment : List.copyOf(segments.values())) {
+            sealIfDone(segment);
+        }
+    }
+
+    private void maybeSeal(Segment segment) {
+        Set<String> statuses = new TreeSet<>();
+        long[] rows = {0};
+        long[] open = {0};
+        segment.plain.forEach(parser, order -> {
+            rows[0]++;
+            statuses.add(order.getStatus());
+            if (!order.isCompleted()) {
+                open[0]++;
+            }
+        });
+        segment.openOrders = open[0];
+        if (rows[0] == 0) {
+            drop(segment);
+            return;
+        }
+        if (open[0] > 0 || !isPast(segment.key)) {
+            return;
+        }
+        long plainBytes = sizeOf(segment.plainPath());
+        SealedIndex index = executor.call(NAME, () -> {
+            SealedIndex written = compress(segment, Set.copyOf(statuses));
+            Files.delete(segment.plainPath());
+            return written;
+        });
+        segment.offsets = null;
+        segment.index = index;
+        log.info("Sealed order segment {}: {} orders in {} blocks, {} -> {} bytes", segment.key, index.rows(),
+                index.blocks(), plainBytes, sizeOf(segment.sealedPath()));
+    }
+
+    /**
+     * Writes the plain file as gzip blocks of BLOCK_ROWS rows, then its index; runs on a storage thread
+     */
+    private SealedIndex compress(Segment segment, Set<String> statuses) throws IOException {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        Path compressed = temporary(segment.sealedPath());
+        try (BufferedReader in = Files.newBufferedReader(segment.plainPath(), StandardCharsets.UTF_8);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(compressed), BUFFER)) {
+            List<String> block = new ArrayList<>(BLOCK_ROWS);
+            long position = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                entries.add(Map.entry(CsvFile.key(line), offsets.size()));
+                block.add(line);
+                if (block.size() == BLOCK_ROWS) {
+                    offsets.add(position);
+                    position += writeBlock(block, out);
+                    block.clear();
+                }
+            }
+            if (!block.isEmpty()) {
+                offsets.add(position);
+                position += writeBlock(block, out);
+            }
+            offsets.add(position);
+        }
+        Files.move(compressed, segment.sealedPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        entries.sort(Map.Entry.comparingByKey());
+        SealedIndex index = new SealedIndex(entries.size(), statuses, segment.indexPath(),
+                offsets.stream().mapToLong(Long::longValue).toArray());
+        index.write(entries, temporary(segment.indexPath()));
+        return index;
+    }
+
+    /**
+     * One gzip member; concatenated members still read as a single gzip stream
+     */
+    private static int writeBlock(List<String> lines, OutputStream out) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BUFFER);
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes, BUFFER), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        bytes.writeTo(out);
+        return bytes.size();
+    }
+
+    private void unseal(Segment segment) {
+        executor.call(NAME, () -> {
+            Path plain = temporary(segment.plainPath());
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(segment.sealedPath()), BUFFER)) {
+                Files.copy(in, plain, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(plain, segment.plainPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(segment.indexPath());
+            Files.deleteIfExists(segment.sealedPath());
+            return null;
+        });
+        segment.index = null;
+        segment.offsets = null;
+        segment.openOrders = 0;
+        log.info("Unsealed order segment {}", segment.key);
+    }
+
+    private void drop(Segment segment) {
+        executor.call(NAME, () -> Files.deleteIfExists(segment.plainPath()));
+        segments.remove(segment.key);
+        log.info("Removed empty order segment {}", segment.key);
+    }
+
+    /**
+     * Reads the header and block offsets of an index, or returns null when it has no block offsets
+     */
+    private SealedIndex readIndex(Path path) throws IOException {
+        String header;
+        String blocks;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            header = reader.readLine();
+            blocks = reader.readLine();
+        }
+        int comma = header != null ? header.indexOf(',') : -1;
+        if (comma < 0) {
+            throw new IOException("Invalid order segment index header in " + path);
+        }
+        if (blocks == null || !blocks.startsWith("#")) {
+            return null;
+        }
+        String statuses = header.substring(comma + 1);
+        return new SealedIndex(Long.parseLong(header.substring(0, comma)),
+                statuses.isEmpty() ? Set.of() : Set.of(statuses.split(";")), path,
+                Arrays.stream(blocks.substring(1).split(",")).mapToLong(Long::parseLong).toArray());
+    }
+
+    /**
+     * Splits a single ordenes.csv into monthly files, keeping the line order within each month,
+     * and renames it to ordenes.csv.migrated
+     * @return keys of the segments written
+     */
+    private Set<String> migrate(Path legacyFile) throws IOException {
+        Map<String, Writer> writers = new TreeMap<>();
+        long[] lines = {0};
+        try (BufferedReader reader = Files.newBufferedReader(legacyFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String key = keyOf(line);
+                Writer writer = writers.get(key);
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(new Segment(key).plainPath(), StandardCharsets.UTF_8);
+                    writers.put(key, writer);
+                }
+                writer.write(line);
+                writer.write('\n');
+                lines[0]++;
+            }
+        } finally {
+            for (Writer writer : writers.values()) {
+                writer.close();
+            }
+        }
+        Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"),
+                StandardCopyOption.REPLACE_EXISTING);
+        log.info("Split {} orders from {} into {} monthly segments", lines[0], legacyFile, writers.size());
+        return writers.keySet();
+    }
+
+    private static Path temporary(Path file) {
+        return file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private enum Kind {
+        PLAIN, SEALED, INDEX;
+
+        static Kind of(String extension) {
+            return switch (extension) {
+                case "csv" -> PLAIN;
+                case "csv.gz" -> SEALED;
+                default -> INDEX;
+            };
+        }
+    }
+
+    /**
+     * One month of orders; {@link #file()} is the compressed copy while sealed
+     */
+    final class Segment {
+        private final String key;
+        private final CsvFile plain;
+        private final CsvFile sealed;
+        private volatile SealedIndex index;
+        // Byte offset per id of the open file; null until the next lookup builds it
+        private volatile Map<String, Long> offsets;
+        // Lower bound on the orders not completed, counted when the month was last checked for
+        // sealing; 0 when nothing is known, so the next check reads the file
+        private volatile long openOrders;
+
+        private Segment(String key) {
+            this.key = key;
+            this.plain = new CsvFile(directory.resolve("ordenes-" + key + ".csv").toString(), NAME, metrics, executor);
+            this.sealed = new CsvFile(directory.resolve("ordenes-" + key + ".csv.gz").toString(), NAME, metrics, executor);
+        }
+
+        String key() {
+            return key;
+        }
+
+        /**
+         * Rows were rewritten or removed: each one may have been an open order
+         */
+        private void uncounted(int rows) {
+            openOrders = Math.max(0, openOrders - rows);
+        }
+
+        boolean isSealed() {
+            return index != null;
+        }
+
+        CsvFile file() {
+            return index != null ? sealed : plain;
+        }
+
+        /**
+         * False when an index rules the id out; true for open months read by scanning
+         */
+        boolean mayContain(String id) {
+            SealedIndex sealedIndex = index;
+            if (sealedIndex != null) {
+                return sealedIndex.block(id) >= 0;
+            }
+            return !offsetIndex || offsets().containsKey(id);
+        }
+
+        /**
+         * Stored lines of the ids found in this segment, each read on its own where an index allows it
+         */
+        List<String> find(Collection<String> ids) {
+            SealedIndex sealedIndex = index;
+            if (sealedIndex != null) {
+                return sealedIndex.find(ids, sealed);
+            }
+            if (!offsetIndex) {
+                return plain.readByKeys(ids, Function.identity());
+            }
+            Map<String, Long> known = offsets();
+            List<String> lines = new ArrayList<>();
+            for (String id : new LinkedHashSet<>(ids)) {
+                Long offset = known.get(id);
+                String line = offset != null ? plain.lineAt(offset) : null;
+                if (line != null && id.equals(CsvFile.key(line))) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+
+        /**
+         * Rows from the index when there is one, otherwise counted from the file
+         */
+        long count() {
+            SealedIndex sealedIndex = index;
+            if (sealedIndex != null) {
+                return sealedIndex.rows();
+            }
+            return offsetIndex ? offsets().size() : plain.count();
+        }
+
+        private Map<String, Long> offsets() {
+            Map<String, Long> known = offsets;
+            if (known == null) {
+                known = plain.offsets();
+                offsets = known;
+            }
+            return known;
+        }
+
+        private Path plainPath() {
+            return plain.path();
+        }
+
+        private Path sealedPath() {
+            return sealed.path();
+        }
+
+        private Path indexPath() {
+            return directory.resolve("ordenes-" + key + ".idx");
+        }
+    }
+
+    /**
+     * Sidecar of a sealed month: a "rows,STATUS;STATUS" header line, a "#" line with the byte
+     * offset of every block plus the end of the file, then one "id,block" line per order sorted
+     * by id. The header and offsets are read at startup; the ids are loaded on the first lookup
+     * and kept softly, so the heap can reclaim the indexes of months nobody asks for.
+     */
+    private final class SealedIndex {
+        private final long rows;
+        private final Set<String> statuses;
+        private final Path path;
+        private final long[] blockOffsets;
+        private volatile SoftReference<Entries> entries = new SoftReference<>(null);
+
+        SealedIndex(long rows, Set<String> statuses, Path path, long[] blockOffsets) {
+            this.rows = rows;
+            this.statuses = statuses;
+            this.path = path;
+            this.blockOffsets = blockOffsets;
+        }
+
+        long rows() {
+            return rows;
+        }
+
+        Set<String> statuses() {
+            return statuses;
+        }
+
+        int blocks() {
+            return blockOffsets.length - 1;
+        }
+
+        /**
+         * Block holding the id, or -1
+         */
+        int block(String id) {
+            Entries loaded = entries();
+            int position = Arrays.binarySearch(loaded.ids(), id);
+            return position >= 0 ? loaded.blocks()[position] : -1;
+        }
+
+        /**
+         * Decompresses each block that holds one of the ids, once
+         */
+        List<String> find(Collection<String> ids, CsvFile file) {
+            Map<Integer, Set<String>> byBlock = new TreeMap<>();
+            for (String id : ids) {
+                int block = block(id);
+                if (block >= 0) {
+                    byBlock.computeIfAbsent(block, b -> new HashSet<>()).add(id);
+                }
+            }
+            Map<String, String> found = new HashMap<>();
+            for (Map.Entry<Integer, Set<String>> block : byBlock.entrySet()) {
+                int number = block.getKey();
+                byte[] bytes = file.bytesAt(blockOffsets[number],
+                        Math.toIntExact(blockOffsets[number + 1] - blockOffsets[number]));
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String key = CsvFile.key(line);
+                        if (block.getValue().contains(key)) {
+                            found.put(key, line);
+                        }
+                    }
+                } catch (IOException e) {
+                    log.error("Error reading block {} of {}", number, file.path(), e);
+                    throw new RuntimeException("Error reading order segment block", e);
+                }
+            }
+            List<String> lines = new ArrayList<>(found.size());
+            for (String id : new LinkedHashSet<>(ids)) {
+                String line = found.get(id);
+                if (line != null) {
+                    lines.add(line);
+                }
+            }
+            return lines;
+        }
+
+        private Entries entries() {
+            Entries loaded = entries.get();
+            if (loaded == null) {
+                loaded = load();
+                entries = new SoftReference<>(loaded);
+            }
+            return loaded;
+        }
+
+        private Entries load() {
+            String[] ids = new String[Math.toIntExact(rows)];
+            int[] blocks = new int[ids.length];
+            int count = 0;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    executor.newInputStream(NAME, path), StandardCharsets.UTF_8), BUFFER)) {
+                reader.readLine();
+                reader.readLine();
+                String line;
+                while ((line = reader.readLine()) != null && count < ids.length) {
+                    int comma = line.lastIndexOf(',');
+                    ids[count] = line.substring(0, comma);
+                    blocks[count++] = Integer.parseInt(line.substring(comma + 1));
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Error reading order segment index {}", path, e);
+                throw new RuntimeException("Error reading order segment index", e);
+            }
+            return new Entries(Arrays.copyOf(ids, count), Arrays.copyOf(blocks, count));
+        }
+
+        void write(List<Map.Entry<String, Integer>> sorted, Path temporary) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(rows + "," + String.join(";", new TreeSet<>(statuses)));
+                writer.write('\n');
+                writer.write('#');
+                for (int i = 0; i < blockOffsets.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writer.write(Long.toString(blockOffsets[i]));
+                }
+                writer.write('\n');
+                for (Map.Entry<String, Integer> entry : sorted) {
+                    writer.write(entry.getKey());
+                    writer.write(',');
+                    writer.write(Integer.toString(entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            entries = new SoftReference<>(new Entries(
+                    sorted.stream().map(Map.Entry::getKey).toArray(String[]::new),
+                    sorted.stream().mapToInt(Map.Entry::getValue).toArray()));
+        }
+    }
+
+    /**
+     * Ids in sorted order with the block of each
+     */
+    private record Entries(String[] ids, int[] blocks) {
+    }
+}
@@ -0,0 +1,799 @@
+package co.edu.umanizales.bookverse.repository.index;
+
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Secondary index file: a B+tree of (key, value) string pairs in 4 KB pages, where the value is
+ * normally an entity id and the key one or more fields joined with {@link #key(String...)}.
+ * Lookups by key, key prefix or key range read one page per level plus the leaves they cover,
+ * with the most recently used pages cached.
+ * <p>
+ * Pages carry a CRC32. Removals leave underfull leaves in place instead of merging them;
+ * {@link #rebuild} packs the tree again.
+ * <p>
+ * Crash contract: every {@link #update} is one atomic change. The new images of the pages it
+ * touches, with a header numbering the change, are written to a .journal file and forced before
+ * any page is overwritten, and on open a complete journal newer than the header is replayed.
+ * The header also records whether the pages match the owner's data: {@link #begin()} clears that
+ * mark on disk before the owner writes a change, and the update carrying the change sets it again.
+ * An index left unmarked by a crash in between, or that is missing or unreadable, reports
+ * {@link #needsRebuild()} so its owner reloads it from the data files, which stay the source of
+ * truth. An update that fails leaves the index unusable until it is rebuilt.
+ */
+@Slf4j
+public final class BPlusTree implements Closeable {
+
+    static final int PAGE_SIZE = 4096;
+    // Keys plus values longer than this are rejected so that a page always holds several entries
+    static final int MAX_ENTRY_BYTES = 1000;
+    private static final int MAGIC = 0x42505431;
+    // 2: order statuses keyed by StringDictionary.fold instead of upper case
+    // 3: header numbers the changes, journal replay
+    private static final int VERSION = 3;
+    private static final int CACHE_PAGES = 1024;
+    private static final byte LEAF = 0;
+    private static final byte INTERNAL = 1;
+    // type, entry count, next leaf or first child
+    private static final int NODE_HEADER = 1 + 2 + 4;
+    private static final int CRC_BYTES = 4;
+    private static final int CAPACITY = PAGE_SIZE - NODE_HEADER - CRC_BYTES;
+    // Bulk loads leave room for inserts
+    private static final int FILL = CAPACITY * 3 / 4;
+    private static final char PART = '\u0001';
+    private static final char VALUE = '\u0000';
+
+    private final Path path;
+    private final Path journal;
+    private final String name;
+    private final StorageExecutor executor;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final Map<Integer, Node> cache = new LinkedHashMap<>(CACHE_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Node> eldest) {
+            return size() > CACHE_PAGES;
+        }
+    };
+
+    private int root;
+    private int pageCount;
+    private long size;
+    private boolean needsRebuild;
+    // number of the last change, which a journal must exceed to be replayed
+    private long sequence;
+    // whether the header on disk says the pages match the owner's data
+    private boolean consistent;
+    // whether pages have been written since the file was last forced
+    private boolean unforced;
+
+    private BPlusTree(Path path, String name, StorageExecutor executor) throws IOException {
+        this.path = path;
+        this.journal = path.resolveSibling(path.getFileName() + ".journal");
+        this.name = name;
+        this.executor = executor;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    /**
+     * Opens or creates an index file, replaying an interrupted update
+     * @param name plural entity name used for storage metrics and messages, e.g. "orders"
+     */
+    public static BPlusTree open(Path path, String name, StorageExecutor executor) {
+        try {
+            BPlusTree tree = new BPlusTree(path, name, executor);
+            executor.call(name, () -> {
+                tree.recover();
+                return null;
+            });
+            return tree;
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error opening index {}", path, e);
+            throw new RuntimeException("Error opening index " + path, e);
+        }
+    }
+
+    /**
+     * Joins key fields so that keys sort field by field and a leading subset works as a prefix
+     */
+    public static String key(String... parts) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                key.append(PART);
+            }
+            key.append(parts[i] != null ? parts[i] : "");
+        }
+        return key.toString();
+    }
+
+    /**
+     * Whether the file was new or unreadable, was left behind its data by a crash, or had an update
+     * fail, so its entries cannot be trusted
+     */
+    public boolean needsRebuild() {
+        return needsRebuild;
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Values stored under exactly this key, in value order
+     */
+    public List<String> find(String key) {
+        return scan(key + VALUE, key + PART);
+    }
+
+    /**
+     * Values whose key starts with these leading fields, in key order
+     */
+    public List<String> findByPrefix(String... parts) {
+        String prefix = key(parts);
+        return scan(prefix + VALUE, prefix + (char) (PART + 1));
+    }
+
+    /**
+     * Values whose key is at least from and below to, in key order
+     */
+    public List<String> findRange(String from, String to) {
+        return scan(from, to);
+    }
+
+    /**
+     * Marks the index on disk as behind its data. Owners call it before writing a change whose
+     * entries they then pass to {@link #update}, so a crash in between makes the next open report
+     * {@link #needsRebuild()}.
+     */
+    public void begin() {
+        lock.writeLock().lock();
+        try {
+            checkUsable();
+            if (consistent) {
+                executor.call(name, () -> {
+                    writeHeader(false);
+                    // also makes the pages of the last update durable
+                    channel.force(false);
+                    return null;
+                });
+                consistent = false;
+                unforced = false;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies removals, then additions, as one journaled change, and marks the index as matching
+     * its data again. Removing a missing pair or adding a present one does nothing.
+     */
+    public void update(Collection<Entry> removals, Collection<Entry> additions) {
+        lock.writeLock().lock();
+        try {
+            checkUsable();
+            Map<Integer, Node> dirty = new LinkedHashMap<>();
+            for (Entry entry : removals) {
+                if (remove(entry.encoded(), dirty)) {
+                    size--;
+                }
+            }
+            for (Entry entry : additions) {
+                if (insert(entry.encoded(), dirty)) {
+                    size++;
+                }
+            }
+            if (!dirty.isEmpty() || !consistent) {
+                commit(dirty);
+            }
+        } catch (RuntimeException e) {
+            if (!needsRebuild) {
+                fail(e);
+            }
+            throw e;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the content with the pairs the source emits, packed into full pages
+     */
+    public void rebuild(Consumer<BiConsumer<String, String>> source) {
+        List<String> entries = new ArrayList<>();
+        source.accept((key, value) -> entries.add(new Entry(key, value).encoded()));
+        entries.sort(null);
+        lock.writeLock().lock();
+        try {
+            executor.call(name, () -> {
+                // a crash while the pages are rewritten must not leave them trusted
+                writeHeader(false);
+                channel.force(false);
+                bulkLoad(entries);
+                writeHeader(true);
+                channel.force(false);
+                Files.deleteIfExists(journal);
+                return null;
+            });
+            consistent = true;
+            unforced = false;
+            needsRebuild = false;
+            log.info("Rebuilt index {}: {} entries in {} pages", path.getFileName(), size, pageCount);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the file and drops the journal; an index left behind its data stays marked so
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                executor.call(name, () -> {
+                    channel.force(true);
+                    channel.close();
+                    if (consistent && !needsRebuild) {
+                        Files.deleteIfExists(journal);
+                    }
+                    return null;
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<String> scan(String from, String to) {
+        lock.readLock().lock();
+        try {
+            checkUsable();
+            List<String> values = new ArrayList<>();
+            Node node = node(root);
+            while (!node.leaf) {
+                node = node(node.children.get(childIndex(node, from)));
+            }
+            int position = lowerBound(node.entries, from);
+            while (true) {
+                for (int i = position; i < node.entries.size(); i++) {
+                    String entry = node.entries.get(i);
+                    if (entry.compareTo(to) >= 0) {
+                        return values;
+                    }
+                    values.add(entry.substring(entry.lastIndexOf(VALUE) + 1));
+                }
+                if (node.next < 0) {
+                    return values;
+                }
+                node = node(node.next);
+                position = 0;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean insert(String entry, Map<Integer, Node> dirty) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = node(root, dirty);
+        while (!node.leaf) {
+            path.push(node);
+            node = node(node.children.get(childIndex(node, entry)), dirty);
+        }
+        int position = Collections.binarySearch(node.entries, entry);
+        if (position >= 0) {
+            return false;
+        }
+        node = dirty.computeIfAbsent(node.page, page -> node(page).copy());
+        node.entries.add(-position - 1, entry);
+        while (node.bytes() > CAPACITY) {
+            Node right = split(node, dirty);
+            String separator = node.leaf ? right.entries.get(0) : right.separator;
+            if (path.isEmpty()) {
+                Node newRoot = new Node(pageCount++, false);
+                newRoot.children.add(node.page);
+                newRoot.entries.add(separator);
+                newRoot.children.add(right.page);
+                dirty.put(newRoot.page, newRoot);
+                root = newRoot.page;
+                break;
+            }
+            Node parent = dirty.computeIfAbsent(path.pop().page, page -> node(page).copy());
+            int index = upperBound(parent.entries, separator);
+            parent.entries.add(index, separator);
+            parent.children.add(index + 1, right.page);
+            node = parent;
+        }
+        return true;
+    }
+
+    /**
+     * Moves the upper half of an overfull node, by bytes, into a new right sibling
+     */
+    private Node split(Node node, Map<Integer, Node> dirty) {
+        int half = node.bytes() / 2;
+        int used = NODE_HEADER + CRC_BYTES;
+        int at = 0;
+        while (at < node.entries.size() - 1 && used < half) {
+            used += node.entryBytes(at);
+            at++;
+        }
+        at = Math.max(at, 1);
+        Node right = new Node(pageCount++, node.leaf);
+        if (node.leaf) {
+            right.entries.addAll(node.entries.subList(at, node.entries.size()));
+            node.entries.subList(at, node.entries.size()).clear();
+            right.next = node.next;
+            node.next = right.page;
+        } else {
+            // the entry at the split point moves up to the parent
+            right.separator = node.entries.get(at);
+            right.entries.addAll(node.entries.subList(at + 1, node.entries.size()));
+            right.children.addAll(node.children.subList(at + 1, node.children.size()));
+            node.entries.subList(at, node.entries.size()).clear();
+            node.children.subList(at + 1, node.children.size()).clear();
+        }
+        dirty.put(right.page, right);
+        return right;
+    }
+
+    private boolean remove(String entry, Map<Integer, Node> dirty) {
+        Node node = node(root, dirty);
+        while (!node.leaf) {
+            node = node(node.children.get(childIndex(node, entry)), dirty);
+        }
+        int position = Collections.binarySearch(node.entries, entry);
+        if (position < 0) {
+            return false;
+        }
+        dirty.computeIfAbsent(node.page, page -> node(page).copy()).entries.remove(position);
+        return true;
+    }
+
+    private static int childIndex(Node node, String entry) {
+        return upperBound(node.entries, entry);
+    }
+
+    private static int upperBound(List<String> entries, String entry) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).compareTo(entry) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(List<String> entries, String entry) {
+        int low = 0;
+        int high = entries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries.get(middle).compareTo(entry) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The page as changed by the update in progress, or as stored
+     */
+    private Node node(int page, Map<Integer, Node> dirty) {
+        Node changed = dirty.get(page);
+        return changed != null ? changed : node(page);
+    }
+
+    private Node node(int page) {
+        cacheLock.lock();
+        try {
+            Node cached = cache.get(page);
+            if (cached != null) {
+                return cached;
+            }
+        } finally {
+            cacheLock.unlock();
+        }
+        Node node = executor.call(name, () -> decode(page, read(page)));
+        cache(node);
+        return node;
+    }
+
+    private void cache(Node node) {
+        cacheLock.lock();
+        try {
+            cache.put(node.page, node);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void checkUsable() {
+        if (needsRebuild) {
+            throw new IllegalStateException("Index " + path.getFileName() + " needs a rebuild");
+        }
+    }
+
+    /**
+     * Journal: change number and page count, then page number and image per page, then a CRC32
+     * of everything before it. Once it is forced the pages are overwritten in place; they are
+     * forced by the next {@link #begin}, or before the next journal replaces this one.
+     */
+    private void commit(Map<Integer, Node> dirty) {
+        executor.call(name, () -> {
+            if (unforced) {
+                channel.force(false);
+            }
+            sequence++;
+            Map<Integer, ByteBuffer> pages = new LinkedHashMap<>();
+            for (Node node : dirty.values()) {
+                pages.put(node.page, encode(node));
+            }
+            pages.put(0, header(true));
+            ByteBuffer records = ByteBuffer.allocate(12 + pages.size() * (4 + PAGE_SIZE) + 8);
+            records.putLong(sequence).putInt(pages.size());
+            pages.forEach((page, image) -> records.putInt(page).put(image.duplicate()));
+            CRC32 crc = new CRC32();
+            crc.update(records.array(), 0, records.position());
+            records.putLong(crc.getValue()).flip();
+            try (FileChannel out = FileChannel.open(journal, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(out, records, 0);
+                out.force(false);
+            }
+            for (Map.Entry<Integer, ByteBuffer> page : pages.entrySet()) {
+                writeFully(channel, page.getValue(), (long) page.getKey() * PAGE_SIZE);
+            }
+            return null;
+        });
+        consistent = true;
+        unforced = true;
+        dirty.values().forEach(this::cache);
+    }
+
+    /**
+     * Leaves the index unusable and marked on disk as behind its data, numbered past any journal
+     * of the failed change so that it is rebuilt rather than replayed
+     */
+    private void fail(RuntimeException cause) {
+        needsRebuild = true;
+        consistent = false;
+        log.error("Update of index {} failed, it needs a rebuild", path.getFileName(), cause);
+        try {
+            executor.call(name, () -> {
+                sequence++;
+                writeHeader(false);
+                channel.force(false);
+                return null;
+            });
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Replays a complete journal newer than the header, then trusts the header if it is valid and
+     * marked as matching the data; runs on a storage thread
+     */
+    private void recover() throws IOException {
+        boolean readable = readHeader();
+        ByteBuffer records = completeJournal();
+        long journaled = records != null ? records.getLong(0) : -1;
+        // without a header the file is gone, and a journal alone does not describe a tree
+        if (records != null && (readable ? journaled > sequence : channel.size() >= PAGE_SIZE)) {
+            replay(records);
+            log.info("Replayed interrupted update of index {}", path.getFileName());
+            readable = readHeader();
+        }
+        needsRebuild = !readable || !consistent;
+        if (needsRebuild) {
+            // numbered past the journal, should its deletion not last
+            sequence = Math.max(sequence, journaled);
+            bulkLoad(List.of());
+            writeHeader(false);
+            channel.force(false);
+            Files.deleteIfExists(journal);
+        }
+    }
+
+    /**
+     * @return the journal, or null when there is none or it was not completely written
+     */
+    private ByteBuffer completeJournal() throws IOException {
+        if (!Files.exists(journal)) {
+            return null;
+        }
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(journal));
+        if (records.remaining() < 20) {
+            return null;
+        }
+        int pages = records.getInt(8);
+        int length = 12 + pages * (4 + PAGE_SIZE);
+        if (pages <= 0 || records.remaining() != length + 8) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(records.array(), 0, length);
+        return crc.getValue() == records.getLong(length) ? records : null;
+    }
+
+    private void replay(ByteBuffer records) throws IOException {
+        int length = records.remaining() - 8;
+        records.position(12);
+        while (records.position() < length) {
+            int page = records.getInt();
+            writeFully(channel, records.slice(records.position(), PAGE_SIZE), (long) page * PAGE_SIZE);
+            records.position(records.position() + PAGE_SIZE);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Reads the root, page count, size, change number and consistency mark
+     * @return whether the header was valid
+     */
+    private boolean readHeader() throws IOException {
+        if (channel.size() < PAGE_SIZE) {
+            return false;
+        }
+        ByteBuffer header = read(0);
+        if (!checksumMatches(header) || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            log.warn("Index {} has an invalid header", path.getFileName());
+            return false;
+        }
+        root = header.getInt(8);
+        pageCount = header.getInt(12);
+        size = header.getLong(16);
+        consistent = header.get(24) == 1;
+        sequence = header.getLong(32);
+        if (!consistent) {
+            log.warn("Index {} was left behind its data", path.getFileName());
+        }
+        return true;
+    }
+
+    private ByteBuffer header(boolean consistent) {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, root).putInt(12, pageCount)
+                .putLong(16, size).put(24, (byte) (consistent ? 1 : 0)).putLong(32, sequence);
+        seal(header);
+        return header;
+    }
+
+    private void writeHeader(boolean consistent) throws IOException {
+        writeFully(channel, header(consistent), 0);
+    }
+
+    /**
+     * Writes sorted, distinct entries as a packed tree from scratch; runs on a storage thread
+     */
+    private void bulkLoad(List<String> entries) throws IOException {
+        channel.truncate(PAGE_SIZE);
+        cacheLock.lock();
+        try {
+            cache.clear();
+        } finally {
+            cacheLock.unlock();
+        }
+        pageCount = 1;
+        size = 0;
+        List<Node> level = new ArrayList<>();
+        Node leaf = new Node(pageCount++, true);
+        String previous = null;
+        for (String entry : entries) {
+            if (entry.equals(previous)) {
+                continue;
+            }
+            previous = entry;
+            if (!leaf.entries.isEmpty() && leaf.bytes() + Node.encodedLength(entry) > FILL) {
+                level.add(leaf);
+                Node next = new Node(pageCount++, true);
+                leaf.next = next.page;
+                leaf = next;
+            }
+            leaf.entries.add(entry);
+            size++;
+        }
+        level.add(leaf);
+        for (Node node : level) {
+            writeFully(channel, encode(node), (long) node.page * PAGE_SIZE);
+        }
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            Node parent = new Node(pageCount++, false);
+            parent.children.add(level.get(0).page);
+            for (int i = 1; i < level.size(); i++) {
+                String separator = firstEntry(level.get(i));
+                if (parent.bytes() + Node.encodedLength(separator) + 4 > FILL) {
+                    parents.add(parent);
+                    Node next = new Node(pageCount++, false);
+                    next.children.add(level.get(i).page);
+                    next.separator = separator;
+                    parent = next;
+                } else {
+                    parent.entries.add(separator);
+                    parent.children.add(level.get(i).page);
+                }
+            }
+            parents.add(parent);
+            for (Node node : parents) {
+                writeFully(channel, encode(node), (long) node.page * PAGE_SIZE);
+            }
+            level = parents;
+        }
+        root = level.get(0).page;
+    }
+
+    /**
+     * Smallest entry under a node built by bulk load, used as the separator to its left
+     */
+    private static String firstEntry(Node node) {
+        return node.leaf ? node.entries.get(0) : node.separator;
+    }
+
+    private ByteBuffer read(int page) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        long position = (long) page * PAGE_SIZE;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Page " + page + " is past the end of " + path);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private Node decode(int page, ByteBuffer buffer) throws IOException {
+        if (!checksumMatches(buffer)) {
+            throw new IOException("Page " + page + " of " + path + " fails its checksum");
+        }
+        Node node = new Node(page, buffer.get(0) == LEAF);
+        int count = Short.toUnsignedInt(buffer.getShort(1));
+        int link = buffer.getInt(3);
+        if (node.leaf) {
+            node.next = link;
+        } else {
+            node.children.add(link);
+        }
+        buffer.position(NODE_HEADER);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            node.entries.add(new String(bytes, StandardCharsets.UTF_8));
+            if (!node.leaf) {
+                node.children.add(buffer.getInt());
+            }
+        }
+        return node;
+    }
+
+    private static ByteBuffer encode(Node node) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAGE_SIZE);
+        buffer.put(node.leaf ? LEAF : INTERNAL)
+                .putShort((short) node.entries.size())
+                .putInt(node.leaf ? node.next : node.children.get(0));
+        for (int i = 0; i < node.entries.size(); i++) {
+            byte[] bytes = node.entries.get(i).getBytes(StandardCharsets.UTF_8);
+            buffer.putShort((short) bytes.length).put(bytes);
+            if (!node.leaf) {
+                buffer.putInt(node.children.get(i + 1));
+            }
+        }
+        seal(buffer);
+        return buffer;
+    }
+
+    private static void seal(ByteBuffer page) {
+        CRC32 crc = new CRC32();
+        crc.update(page.array(), 0, PAGE_SIZE - CRC_BYTES);
+        page.putInt(PAGE_SIZE - CRC_BYTES, (int) crc.getValue());
+        page.clear();
+    }
+
+    private static boolean checksumMatches(ByteBuffer page) {
+        CRC32 crc = new CRC32();
+        crc.update(page.array(), 0, PAGE_SIZE - CRC_BYTES);
+        return page.getInt(PAGE_SIZE - CRC_BYTES) == (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        ByteBuffer source = buffer.duplicate();
+        while (source.hasRemaining()) {
+            channel.write(source, position + source.position());
+        }
+    }
+
+    /**
+     * One indexed pair; neither part may contain the characters used to join them
+     */
+    public record Entry(String key, String value) {
+
+        public Entry {
+            if (key.indexOf(VALUE) >= 0 || value.indexOf(VALUE) >= 0 || value.indexOf(PART) >= 0) {
+                throw new IllegalArgumentException("Index entries cannot contain control characters");
+            }
+            if ((key + VALUE + value).getBytes(StandardCharsets.UTF_8).length > MAX_ENTRY_BYTES) {
+                throw new IllegalArgumentException("Index entry longer than " + MAX_ENTRY_BYTES + " bytes");
+            }
+        }
+
+        String encoded() {
+            return key + VALUE + value;
+        }
+    }
+
+    /**
+     * Decoded page. Internal nodes hold n separators and n + 1 children; entries at or above
+     * separator i are under child i + 1.
+     */
+    private static final class Node {
+        private final int page;
+        private final boolean leaf;
+        private final List<String> entries = new ArrayList<>();
+        private final List<Integer> children = new ArrayList<>();
+        private int next = -1;
+        // Only while splitting or bulk loading: the separator that goes to the parent
+        private String separator;
+
+        Node(int page, boolean leaf) {
+            this.page = page;
+            this.leaf = leaf;
+        }
+
+        Node copy() {
+            Node copy = new Node(page, leaf);
+            copy.entries.addAll(entries);
+            copy.children.addAll(children);
+            copy.next = next;
+            return copy;
+        }
+
+        int bytes() {
+            int bytes = NODE_HEADER + CRC_BYTES;
+            for (int i = 0; i < entries.size(); i++) {
+                bytes += entryBytes(i);
+            }
+            return bytes;
+        }
+
+        int entryBytes(int index) {
+            return encodedLength(entries.get(index)) + (leaf ? 0 : 4);
+        }
+
+        static int encodedLength(String entry) {
+            return 2 + entry.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+}
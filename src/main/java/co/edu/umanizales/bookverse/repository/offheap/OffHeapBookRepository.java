@@ -0,0 +1,417 @@
+package co.edu.umanizales.bookverse.repository.offheap;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.monitoring.jfr.ReferenceLookupEvent;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.BookColumns;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvFormat;
+import co.edu.umanizales.bookverse.repository.csv.CsvFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Book repository for very large catalogs. Records live in direct memory and
+ * Book objects are only created for the results handed back to callers.
+ * libros.csv is loaded once at startup; changes are appended to it or copied into it
+ * line by line before they reach the store, so readers never wait on file I/O.
+ * Enabled with bookverse.storage.books=offheap.
+ */
+@Repository
+@ConditionalOnProperty(name = "bookverse.storage.books", havingValue = "offheap")
+@Slf4j
+public class OffHeapBookRepository implements IBookRepository {
+
+    private final CsvFile file;
+    private final IdGenerator idGenerator;
+    private final IAuthorRepository authorRepository;
+    private final OffHeapBookStore store = new OffHeapBookStore();
+    // writers take writes for the whole change and the write lock only to update the store;
+    // holding writes is enough to read the store, since only writers change it
+    private final Lock writes = new ReentrantLock();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapBookRepository(String dataPath, IAuthorRepository authorRepository) {
+        this(dataPath, authorRepository, RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered());
+    }
+
+    @Autowired
+    public OffHeapBookRepository(
+            @Value("${bookverse.data.path:./data}") String dataPath,
+            IAuthorRepository authorRepository,
+            RepositoryMetrics metrics,
+            StorageExecutor storageExecutor,
+            IdGenerator idGenerator) {
+        this.file = new CsvFile(dataPath + "/libros.csv", "books", metrics, storageExecutor);
+        this.idGenerator = idGenerator;
+        this.authorRepository = authorRepository;
+        file.ensureExists();
+        load();
+    }
+
+    private void load() {
+        file.forEach(BookCsvFormat::parse, store::put);
+        OffHeapFootprint footprint = store.footprint();
+        log.info("Loaded {} books off-heap: {} bytes direct memory",
+                footprint.records(), footprint.totalOffHeapBytes());
+    }
+
+    @Override
+    public List<Book> findAll() {
+        return select(address -> true);
+    }
+
+    /**
+     * Runs under the read lock for the whole scan, so writers wait until the consumer is done
+     */
+    @Override
+    public void forEach(Consumer<? super Book> consumer) {
+        lock.readLock().lock();
+        try {
+            store.forEach(address -> consumer.accept(store.read(address)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Book> findById(String id) {
+        Book book;
+        lock.readLock().lock();
+        try {
+            long address = store.find(id);
+            if (address < 0) {
+                return Optional.empty();
+            }
+            book = store.read(address);
+        } finally {
+            lock.readLock().unlock();
+        }
+        String authorId = book.getAuthorId();
+        if (authorId != null) {
+            ReferenceLookupEvent.lookup("books", "authors", authorId, authorRepository::findById)
+                    .ifPresent(book::setAuthor);
+        }
+        return Optional.of(book);
+    }
+
+    @Override
+    public List<Book> findAllById(Collection<String> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (String id : new LinkedHashSet<>(ids)) {
+                long address = store.find(id);
+                if (address >= 0) {
+                    books.add(store.read(address));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        resolveAuthors(books);
+        return books;
+    }
+
+    @Override
+    public Book save(Book book) {
+        writes.lock();
+        try {
+            if (book.getId() == null || book.getId().isEmpty()) {
+                book.setId(idGenerator.nextId());
+                file.append(book);
+                log.info("Creating new book with ID: {}", book.getId());
+            } else if (file.upsert(Map.of(book.getId(), book)).isEmpty()) {
+                log.info("Adding book with existing ID: {}", book.getId());
+            } else {
+                log.info("Updating book with ID: {}", book.getId());
+            }
+            apply(() -> store.put(book));
+        } finally {
+            writes.unlock();
+        }
+        return book;
+    }
+
+    @Override
+    public BatchResult<Book> saveBatch(List<Book> books) {
+        List<BatchResult.Item<Book>> items = new ArrayList<>(books.size());
+        Map<String, Book> rows = new LinkedHashMap<>();
+        writes.lock();
+        try {
+            for (int i = 0; i < books.size(); i++) {
+                Book book = books.get(i);
+                if (book == null) {
+                    items.add(BatchResult.Item.failed(i, null, "Missing entity"));
+                    continue;
+                }
+                if (book.getId() == null || book.getId().isEmpty()) {
+                    book.setId(idGenerator.nextId());
+                }
+                // a repeated id replaces the earlier entity, like a second save would
+                rows.remove(book.getId());
+                rows.put(book.getId(), book);
+            }
+            if (!rows.isEmpty()) {
+                Set<String> replaced = file.upsert(rows);
+                Set<String> seen = new HashSet<>();
+                for (int i = 0; i < books.size(); i++) {
+                    Book book = books.get(i);
+                    if (book == null) {
+                        continue;
+                    }
+                    boolean existed = replaced.contains(book.getId()) || !seen.add(book.getId());
+                    items.add(existed
+                            ? BatchResult.Item.updated(i, book.getId(), book)
+                            : BatchResult.Item.created(i, book.getId(), book));
+                }
+                apply(() -> rows.values().forEach(store::put));
+            }
+        } finally {
+            writes.unlock();
+        }
+        items.sort(Comparator.comparingInt(BatchResult.Item::index));
+        BatchResult<Book> result = BatchResult.of(items);
+        log.info("Upserted {} books in one write: {} created, {} updated, {} failed",
+                books.size(), result.created(), result.updated(), result.failed());
+        return result;
+    }
+
+    @Override
+    public int updateStock(Map<String, IntUnaryOperator> changes) {
+        writes.lock();
+        try {
+            Map<String, Book> rows = new LinkedHashMap<>();
+            for (Map.Entry<String, IntUnaryOperator> change : changes.entrySet()) {
+                long address = store.find(change.getKey());
+                if (address >= 0) {
+                    Book book = store.read(address);
+                    book.setStock(change.getValue().applyAsInt(book.getStock()));
+                    rows.put(book.getId(), book);
+                }
+            }
+            if (!rows.isEmpty()) {
+                file.upsert(rows);
+                apply(() -> rows.values().forEach(store::put));
+                log.info("Updated stock for {} books in one write", rows.size());
+            }
+            return rows.size();
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    /**
+     * Appends the row to libros.csv instead of rewriting it
+     */
+    @Override
+    public boolean insertIfAbsent(Book book) {
+        writes.lock();
+        try {
+            if (book.getId() == null || book.getId().isEmpty()) {
+                book.setId(idGenerator.nextId());
+            } else if (store.find(book.getId()) >= 0) {
+                log.warn("Book with ID {} already exists", book.getId());
+                return false;
+            }
+            file.append(book);
+            apply(() -> store.put(book));
+            log.info("Creating new book with ID: {}", book.getId());
+            return true;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public Optional<Book> computeIfPresent(String id, UnaryOperator<Book> update) {
+        Book result;
+        writes.lock();
+        try {
+            long address = store.find(id);
+            if (address < 0) {
+                return Optional.empty();
+            }
+            Book stored = store.read(address);
+            Book updated = update.apply(stored);
+            if (updated == null) {
+                result = stored;
+            } else {
+                updated.setId(id);
+                file.upsert(Map.of(id, updated));
+                apply(() -> store.put(updated));
+                log.info("Updating book with ID: {}", id);
+                result = updated;
+            }
+        } finally {
+            writes.unlock();
+        }
+        resolveAuthors(List.of(result));
+        return Optional.of(result);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        deleteIfExists(id);
+    }
+
+    @Override
+    public boolean deleteIfExists(String id) {
+        writes.lock();
+        try {
+            if (file.removeKeys(Set.of(id)).isEmpty()) {
+                log.warn("Book with ID {} not found for deletion", id);
+                return false;
+            }
+            apply(() -> store.remove(id));
+            log.info("Deleted book with ID: {}", id);
+            return true;
+        } finally {
+            writes.unlock();
+        }
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        lock.readLock().lock();
+        try {
+            return store.find(id) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        lock.readLock().lock();
+        try {
+            return store.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Book> findByAuthorId(String authorId) {
+        return select(address -> authorId != null
+                && authorId.equals(store.readString(address, OffHeapBookStore.AUTHOR_ID)));
+    }
+
+    @Override
+    public List<Book> findByGenre(String genre) {
+        if (genre == null) {
+            return new ArrayList<>();
+        }
+        int genreCode = FieldDictionaries.BOOK_GENRE.foldCode(genre);
+        return select(address -> {
+            int code = store.genreFoldCode(address);
+            // genres left out of a full dictionary have no code and are compared as strings
+            return code >= 0 ? code == genreCode : genre.equalsIgnoreCase(store.genre(address));
+        });
+    }
+
+    @Override
+    public List<Book> findAvailableBooks() {
+        return select(address -> store.stock(address) > 0);
+    }
+
+    @Override
+    public BookColumns columns() {
+        lock.readLock().lock();
+        try {
+            BookColumns.Builder builder = BookColumns.builder(store.size());
+            store.forEach(address -> builder.add(
+                    store.price(address), store.stock(address), store.pageCount(address),
+                    store.genre(address), store.language(address), store.publisher(address)));
+            return builder.build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Current direct memory usage of the store
+     */
+    public OffHeapFootprint footprint() {
+        lock.readLock().lock();
+        try {
+            return store.footprint();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Materializes the records that match a filter evaluated directly on storage
+     */
+    private List<Book> select(LongPredicate filter) {
+        List<Book> books = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            store.forEach(address -> {
+                if (filter.test(address)) {
+                    books.add(store.read(address));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        resolveAuthors(books);
+        return books;
+    }
+
+    /**
+     * Replaces author stubs with full authors using a single read of the authors file
+     */
+    private void resolveAuthors(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        Set<String> authorIds = books.stream()
+                .map(Book::getAuthorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, Author> authors = authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity(), (a, b) -> a));
+        for (Book book : books) {
+            Author author = book.getAuthorId() != null ? authors.get(book.getAuthorId()) : null;
+            if (author != null) {
+                book.setAuthor(author);
+            }
+        }
+    }
+
+    /**
+     * Applies a change that is already in libros.csv to the store, blocking readers only while
+     * the records are copied in
+     */
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
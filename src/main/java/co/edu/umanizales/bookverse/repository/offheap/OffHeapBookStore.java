@@ -0,0 +1,481 @@
+package co.edu.umanizales.bookverse.repository.offheap;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.FieldDictionaries;
+import co.edu.umanizales.bookverse.repository.StringDictionary;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Book records stored in direct memory, addressed by an open-addressing id index
+ * that also lives off-heap. Not thread-safe; callers provide the locking.
+ * <p>
+ * Record layout: length (int), live flag (byte), pageCount (int), price in minor units (long),
+ * stock (int), publication date as epoch day (long), genre, language and publisher
+ * as {@link FieldDictionaries} codes (int each), followed by the free-text string
+ * fields, each one as a byte length (-1 for null) and its UTF-8 bytes. A genre, language or
+ * publisher left out of its full dictionary has code -1 and is kept as one more string field.
+ */
+final class OffHeapBookStore {
+
+    static final int ID = 0;
+    static final int ISBN = 1;
+    static final int TITLE = 2;
+    static final int AUTHOR_ID = 3;
+    static final int DESCRIPTION = 4;
+    private static final int GENRE_TEXT = 5;
+    private static final int LANGUAGE_TEXT = 6;
+    private static final int PUBLISHER_TEXT = 7;
+    private static final int STRING_FIELDS = 8;
+
+    private static final int LENGTH = 0;
+    private static final int LIVE = 4;
+    private static final int PAGE_COUNT = 5;
+    private static final int PRICE = 9;
+    private static final int STOCK = 17;
+    private static final int PUBLICATION_DATE = 21;
+    private static final int GENRE = 29;
+    private static final int LANGUAGE = 33;
+    private static final int PUBLISHER = 37;
+    private static final int STRINGS = 41;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    // 4 MB chunks; an address is chunk index << CHUNK_SHIFT | offset inside the chunk
+    private static final int CHUNK_SHIFT = 22;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final long OFFSET_MASK = CHUNK_SIZE - 1;
+
+    // Index slots hold address + 1, so zero means an empty slot
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final double MAX_LOAD = 0.7;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long writeAddress;
+    private int liveRecords;
+    private long liveBytes;
+    private long deadBytes;
+
+    private LongBuffer slots;
+    private IntBuffer hashes;
+    private int slotCount;
+    private int usedSlots;
+
+    OffHeapBookStore() {
+        allocateIndex(INITIAL_SLOTS);
+    }
+
+    int size() {
+        return liveRecords;
+    }
+
+    /**
+     * Inserts or replaces a book, keyed by its ID
+     * @return true if a record with the same ID was replaced
+     */
+    boolean put(Book book) {
+        byte[][] strings = encodeStrings(book);
+        int length = STRINGS;
+        for (byte[] s : strings) {
+            length += 4 + (s != null ? s.length : 0);
+        }
+        if (length > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Book record too large for off-heap storage: " + length + " bytes");
+        }
+
+        int hash = hash(book.getId());
+        int slot = findSlot(strings[ID], hash);
+        if (slot >= 0) {
+            long address = slots.get(slot) - 1;
+            if (recordLength(address) == length) {
+                // Same size: overwrite in place, the index entry stays valid
+                writeRecord(address, length, book, strings);
+                return true;
+            }
+            markDead(address);
+            slots.put(slot, append(length, book, strings) + 1);
+            maybeCompact();
+            return true;
+        }
+
+        if (usedSlots + 1 > slotCount * MAX_LOAD) {
+            allocateIndex(slotCount * 2);
+            slot = findSlot(strings[ID], hash);
+        }
+        int insertAt = -slot - 1;
+        if (slots.get(insertAt) == EMPTY) {
+            usedSlots++;
+        }
+        slots.put(insertAt, append(length, book, strings) + 1);
+        hashes.put(insertAt, hash);
+        return false;
+    }
+
+    /**
+     * Removes the record with the given ID
+     * @return true if a record was removed
+     */
+    boolean remove(String id) {
+        int slot = findSlot(id.getBytes(StandardCharsets.UTF_8), hash(id));
+        if (slot < 0) {
+            return false;
+        }
+        markDead(slots.get(slot) - 1);
+        slots.put(slot, TOMBSTONE);
+        maybeCompact();
+        return true;
+    }
+
+    /**
+     * Finds the address of a record, or -1 if it does not exist
+     */
+    long find(String id) {
+        int slot = findSlot(id.getBytes(StandardCharsets.UTF_8), hash(id));
+        return slot >= 0 ? slots.get(slot) - 1 : -1;
+    }
+
+    /**
+     * Visits the address of every live record in storage order
+     */
+    void forEach(LongConsumer consumer) {
+        long address = 0;
+        while (address < writeAddress) {
+            ByteBuffer chunk = chunk(address);
+            int offset = offset(address);
+            if (offset + STRINGS > CHUNK_SIZE || chunk.getInt(offset + LENGTH) == 0) {
+                // Unused tail of a chunk
+                address = ((address >>> CHUNK_SHIFT) + 1) << CHUNK_SHIFT;
+                continue;
+            }
+            int length = chunk.getInt(offset + LENGTH);
+            if (chunk.get(offset + LIVE) == 1) {
+                consumer.accept(address);
+            }
+            address += length;
+        }
+    }
+
+    /**
+     * Materializes a record as a Book whose author only carries its ID
+     */
+    Book read(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+
+        Book book = new Book();
+        book.setPageCount(chunk.getInt(offset + PAGE_COUNT));
+        book.setPrice(chunk.getLong(offset + PRICE));
+        book.setStock(chunk.getInt(offset + STOCK));
+        long epochDay = chunk.getLong(offset + PUBLICATION_DATE);
+        book.setPublicationDate(epochDay != NO_DATE ? LocalDate.ofEpochDay(epochDay) : null);
+
+        String[] strings = new String[STRING_FIELDS];
+        int position = offset + STRINGS;
+        for (int field = 0; field < STRING_FIELDS; field++) {
+            int length = chunk.getInt(position);
+            position += 4;
+            if (length >= 0) {
+                strings[field] = decode(chunk, position, length);
+                position += length;
+            }
+        }
+
+        book.setId(strings[ID]);
+        book.setIsbn(strings[ISBN]);
+        book.setTitle(strings[TITLE]);
+        if (strings[AUTHOR_ID] != null) {
+            Author author = new Author();
+            author.setId(strings[AUTHOR_ID]);
+            book.setAuthor(author);
+        }
+        book.setDescription(strings[DESCRIPTION]);
+        book.setGenre(genre(address));
+        book.setLanguage(language(address));
+        book.setPublisher(publisher(address));
+        return book;
+    }
+
+    /**
+     * Decodes a single string field without materializing the rest of the record
+     */
+    String readString(long address, int field) {
+        ByteBuffer chunk = chunk(address);
+        int position = offset(address) + STRINGS;
+        for (int i = 0; i < field; i++) {
+            int length = chunk.getInt(position);
+            position += 4 + Math.max(length, 0);
+        }
+        int length = chunk.getInt(position);
+        return length >= 0 ? decode(chunk, position + 4, length) : null;
+    }
+
+    String genre(long address) {
+        return decodeCode(address, GENRE, GENRE_TEXT, FieldDictionaries.BOOK_GENRE);
+    }
+
+    String language(long address) {
+        return decodeCode(address, LANGUAGE, LANGUAGE_TEXT, FieldDictionaries.BOOK_LANGUAGE);
+    }
+
+    String publisher(long address) {
+        return decodeCode(address, PUBLISHER, PUBLISHER_TEXT, FieldDictionaries.BOOK_PUBLISHER);
+    }
+
+    /**
+     * Case-insensitive genre code, comparable with {@link StringDictionary#foldCode(String)}
+     */
+    int genreFoldCode(long address) {
+        return FieldDictionaries.BOOK_GENRE.foldCodeOf(chunk(address).getInt(offset(address) + GENRE));
+    }
+
+    int stock(long address) {
+        return chunk(address).getInt(offset(address) + STOCK);
+    }
+
+    int pageCount(long address) {
+        return chunk(address).getInt(offset(address) + PAGE_COUNT);
+    }
+
+    long price(long address) {
+        return chunk(address).getLong(offset(address) + PRICE);
+    }
+
+    /**
+     * Reports how much memory the store uses on and off the heap
+     */
+    OffHeapFootprint footprint() {
+        long offHeap = (long) chunks.size() * CHUNK_SIZE;
+        long index = (long) slotCount * (Long.BYTES + Integer.BYTES);
+        return new OffHeapFootprint(liveRecords, liveBytes, deadBytes, offHeap, index);
+    }
+
+    private long append(int length, Book book, byte[][] strings) {
+        long address = reserve(length);
+        writeRecord(address, length, book, strings);
+        liveRecords++;
+        liveBytes += length;
+        return address;
+    }
+
+    /**
+     * Reserves space for a record at the end of the storage, opening a new chunk when needed
+     */
+    private long reserve(int length) {
+        long address = writeAddress;
+        int chunkIndex = (int) (address >>> CHUNK_SHIFT);
+        if (chunkIndex < chunks.size() && offset(address) + length > CHUNK_SIZE) {
+            deadBytes += CHUNK_SIZE - offset(address);
+            chunkIndex++;
+            address = (long) chunkIndex << CHUNK_SHIFT;
+        }
+        if (chunkIndex >= chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE));
+        }
+        writeAddress = address + length;
+        return address;
+    }
+
+    private void writeRecord(long address, int length, Book book, byte[][] strings) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        chunk.putInt(offset + LENGTH, length);
+        chunk.put(offset + LIVE, (byte) 1);
+        chunk.putInt(offset + PAGE_COUNT, book.getPageCount());
+        chunk.putLong(offset + PRICE, book.getPrice());
+        chunk.putInt(offset + STOCK, book.getStock());
+        chunk.putLong(offset + PUBLICATION_DATE,
+                book.getPublicationDate() != null ? book.getPublicationDate().toEpochDay() : NO_DATE);
+        chunk.putInt(offset + GENRE, FieldDictionaries.BOOK_GENRE.encode(book.getGenre()));
+        chunk.putInt(offset + LANGUAGE, FieldDictionaries.BOOK_LANGUAGE.encode(book.getLanguage()));
+        chunk.putInt(offset + PUBLISHER, FieldDictionaries.BOOK_PUBLISHER.encode(book.getPublisher()));
+
+        int position = offset + STRINGS;
+        for (byte[] s : strings) {
+            if (s == null) {
+                chunk.putInt(position, -1);
+                position += 4;
+            } else {
+                chunk.putInt(position, s.length);
+                chunk.put(position + 4, s);
+                position += 4 + s.length;
+            }
+        }
+    }
+
+    private void markDead(long address) {
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        chunk.put(offset + LIVE, (byte) 0);
+        int length = chunk.getInt(offset + LENGTH);
+        liveRecords--;
+        liveBytes -= length;
+        deadBytes += length;
+    }
+
+    private int recordLength(long address) {
+        return chunk(address).getInt(offset(address) + LENGTH);
+    }
+
+    /**
+     * Probes the index for an ID
+     * @return the slot holding the ID, or -(insertion slot) - 1 if absent
+     */
+    private int findSlot(byte[] id, int hash) {
+        int mask = slotCount - 1;
+        int slot = hash & mask;
+        int firstTombstone = -1;
+        while (true) {
+            long value = slots.get(slot);
+            if (value == EMPTY) {
+                return -(firstTombstone >= 0 ? firstTombstone : slot) - 1;
+            }
+            if (value == TOMBSTONE) {
+                if (firstTombstone < 0) {
+                    firstTombstone = slot;
+                }
+            } else if (hashes.get(slot) == hash && idEquals(value - 1, id)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean idEquals(long address, byte[] id) {
+        ByteBuffer chunk = chunk(address);
+        int position = offset(address) + STRINGS;
+        if (chunk.getInt(position) != id.length) {
+            return false;
+        }
+        position += 4;
+        for (int i = 0; i < id.length; i++) {
+            if (chunk.get(position + i) != id[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void allocateIndex(int newSlotCount) {
+        LongBuffer oldSlots = slots;
+        IntBuffer oldHashes = hashes;
+        int oldCount = slotCount;
+
+        slots = ByteBuffer.allocateDirect(newSlotCount * Long.BYTES).asLongBuffer();
+        hashes = ByteBuffer.allocateDirect(newSlotCount * Integer.BYTES).asIntBuffer();
+        slotCount = newSlotCount;
+        usedSlots = 0;
+
+        int mask = newSlotCount - 1;
+        for (int i = 0; i < oldCount; i++) {
+            long value = oldSlots.get(i);
+            if (value != EMPTY && value != TOMBSTONE) {
+                int hash = oldHashes.get(i);
+                int slot = hash & mask;
+                while (slots.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots.put(slot, value);
+                hashes.put(slot, hash);
+                usedSlots++;
+            }
+        }
+    }
+
+    /**
+     * Copies live records into fresh chunks once most of the storage is garbage.
+     * Each old record keeps a forwarding address so the index can be patched in place.
+     */
+    private void maybeCompact() {
+        if (deadBytes < CHUNK_SIZE || deadBytes < liveBytes) {
+            return;
+        }
+        List<ByteBuffer> oldChunks = new ArrayList<>(chunks);
+        long oldWriteAddress = writeAddress;
+        chunks.clear();
+        writeAddress = 0;
+        deadBytes = 0;
+
+        long address = 0;
+        while (address < oldWriteAddress) {
+            ByteBuffer from = oldChunks.get((int) (address >>> CHUNK_SHIFT));
+            int offset = offset(address);
+            int length = offset + STRINGS <= CHUNK_SIZE ? from.getInt(offset + LENGTH) : 0;
+            if (length == 0) {
+                address = ((address >>> CHUNK_SHIFT) + 1) << CHUNK_SHIFT;
+                continue;
+            }
+            if (from.get(offset + LIVE) == 1) {
+                long target = reserve(length);
+                chunk(target).put(offset(target), from, offset, length);
+                from.putLong(offset + PRICE, target);
+            }
+            address += length;
+        }
+
+        for (int slot = 0; slot < slotCount; slot++) {
+            long value = slots.get(slot);
+            if (value != EMPTY && value != TOMBSTONE) {
+                long old = value - 1;
+                long moved = oldChunks.get((int) (old >>> CHUNK_SHIFT)).getLong(offset(old) + PRICE);
+                slots.put(slot, moved + 1);
+            }
+        }
+    }
+
+    private String decodeCode(long address, int field, int textField, StringDictionary dictionary) {
+        int code = chunk(address).getInt(offset(address) + field);
+        return code >= 0 ? dictionary.decode(code) : readString(address, textField);
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> CHUNK_SHIFT));
+    }
+
+    private static int offset(long address) {
+        return (int) (address & OFFSET_MASK);
+    }
+
+    private static byte[][] encodeStrings(Book book) {
+        byte[][] strings = new byte[STRING_FIELDS][];
+        strings[ID] = encode(book.getId());
+        strings[ISBN] = encode(book.getIsbn());
+        strings[TITLE] = encode(book.getTitle());
+        strings[AUTHOR_ID] = encode(book.getAuthorId());
+        strings[DESCRIPTION] = encode(book.getDescription());
+        strings[GENRE_TEXT] = overflow(book.getGenre(), FieldDictionaries.BOOK_GENRE);
+        strings[LANGUAGE_TEXT] = overflow(book.getLanguage(), FieldDictionaries.BOOK_LANGUAGE);
+        strings[PUBLISHER_TEXT] = overflow(book.getPublisher(), FieldDictionaries.BOOK_PUBLISHER);
+        return strings;
+    }
+
+    /**
+     * Bytes of a value its dictionary has no code for, null when the code field holds it
+     */
+    private static byte[] overflow(String value, StringDictionary dictionary) {
+        return dictionary.encode(value) < 0 ? encode(value) : null;
+    }
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String decode(ByteBuffer chunk, int position, int length) {
+        byte[] bytes = new byte[length];
+        chunk.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,26 @@
+package co.edu.umanizales.bookverse.repository.offheap;
+
+/**
+ * Direct memory used by the off-heap book store. Heap is not reported: the store keeps only
+ * the chunk list there, and the field dictionaries it encodes with are shared with other repositories.
+ * @param records number of live records
+ * @param liveBytes bytes taken by live records
+ * @param deadBytes bytes taken by replaced or deleted records, reclaimed on compaction
+ * @param offHeapBytes direct memory reserved for record chunks
+ * @param indexBytes direct memory reserved for the id index
+ */
+public record OffHeapFootprint(
+    int records,
+    long liveBytes,
+    long deadBytes,
+    long offHeapBytes,
+    long indexBytes
+) {
+    
+    /**
+     * Total direct memory held by the store
+     */
+    public long totalOffHeapBytes() {
+        return offHeapBytes + indexBytes;
+    }
+}
@@ -33,12 +33,22 @@ public class AuthorService {
         return authorRepository.save(author);
     }
 
+    /**
+     * Stores a new author; false when an author with its ID already exists
+     */
+    public boolean createAuthor(Author author) {
+        return authorRepository.insertIfAbsent(author);
+    }
+
+    /**
+     * Replaces a stored author; empty when there is no author with the ID
+     */
+    public Optional<Author> updateAuthor(String id, Author author) {
+        return authorRepository.updateIfExists(id, author);
+    }
+
     public boolean deleteAuthor(String id) {
-        if (authorRepository.existsById(id)) {
-            authorRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return authorRepository.deleteIfExists(id);
     }
 
     public boolean existsById(String id) {
@@ -0,0 +1,251 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Money;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of books in the libros.csv layout. The input is read as a stream in batches of
+ * bookverse.import.batch-size rows; each batch is validated in parallel and committed with one
+ * {@link BookService#saveBooks(List)} call, so memory follows the batch size rather than the
+ * upload. Authors are resolved once per import. Rows with an id update that book, rows without
+ * one are created.
+ */
+@Service
+@Slf4j
+public class BookImportService {
+
+    // Rejections beyond this are counted but not listed
+    static final int MAX_REPORTED_REJECTIONS = 1000;
+    // First columns of the libros.csv header, skipped when the upload starts with it
+    private static final String HEADER_PREFIX = "id,isbn,";
+
+    private final BookService bookService;
+    private final IAuthorRepository authorRepository;
+    private final int batchSize;
+
+    @Autowired
+    public BookImportService(BookService bookService, IAuthorRepository authorRepository,
+                             @Value("${bookverse.import.batch-size:5000}") int batchSize) {
+        this.bookService = bookService;
+        this.authorRepository = authorRepository;
+        this.batchSize = batchSize;
+    }
+
+    public Summary importCsv(InputStream in) {
+        Set<String> authorIds = authorRepository.findAll().stream()
+                .map(Author::getId)
+                .collect(Collectors.toSet());
+        Progress progress = new Progress();
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            List<Row> batch = new ArrayList<>(batchSize);
+            String line;
+            long lineNumber = 0;
+            boolean first = true;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (first && line.startsWith(HEADER_PREFIX)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                batch.add(new Row(lineNumber, line));
+                if (batch.size() == batchSize) {
+                    commit(batch, authorIds, progress);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                commit(batch, authorIds, progress);
+            }
+        } catch (IOException e) {
+            log.error("Error reading book import after {} rows", progress.rows, e);
+            throw new RuntimeException("Error reading book import", e);
+        }
+        log.info("Imported books: {} rows, {} created, {} updated, {} rejected in {} ms", progress.rows,
+                progress.created, progress.updated, progress.rejected, (System.nanoTime() - start) / 1_000_000);
+        return progress.summary();
+    }
+
+    private void commit(List<Row> batch, Set<String> authorIds, Progress progress) {
+        List<Row> validated = batch.parallelStream()
+                .map(row -> validate(row, authorIds))
+                .toList();
+        List<Book> books = new ArrayList<>(validated.size());
+        List<Row> accepted = new ArrayList<>(validated.size());
+        for (Row row : validated) {
+            progress.rows++;
+            if (row.book() != null) {
+                books.add(row.book());
+                accepted.add(row);
+            } else {
+                progress.reject(row.line(), row.error());
+            }
+        }
+        if (books.isEmpty()) {
+            return;
+        }
+        BatchResult<Book> result = bookService.saveBooks(books);
+        progress.created += result.created();
+        progress.updated += result.updated();
+        for (BatchResult.Item<Book> error : result.errors()) {
+            progress.reject(accepted.get(error.index()).line(), error.error());
+        }
+    }
+
+    /**
+     * Checks the raw fields and parses the row, or returns it with the reasons it was rejected
+     */
+    static Row validate(Row row, Set<String> authorIds) {
+        String[] parts = BookCsvFormat.split(row.text());
+        if (parts.length < 10) {
+            return row.rejected("Expected at least 10 fields, found " + parts.length);
+        }
+        List<String> errors = new ArrayList<>();
+        if (parts[2].isBlank()) {
+            errors.add("Missing title");
+        }
+        if (!isValidIsbn(parts[1])) {
+            errors.add("Invalid ISBN: " + parts[1]);
+        }
+        if (!parts[3].isEmpty() && !authorIds.contains(parts[3])) {
+            errors.add("Unknown author: " + parts[3]);
+        }
+        if (!parts[5].isEmpty()) {
+            try {
+                LocalDate.parse(parts[5]);
+            } catch (DateTimeParseException e) {
+                errors.add("Invalid publication date: " + parts[5]);
+            }
+        }
+        if (!parts[7].isEmpty() && !isNonNegativeInt(parts[7])) {
+            errors.add("Invalid page count: " + parts[7]);
+        }
+        try {
+            if (Money.parse(parts[8]) < 0) {
+                errors.add("Negative price: " + parts[8]);
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            errors.add("Invalid price: " + parts[8]);
+        }
+        if (!parts[9].isEmpty() && !isNonNegativeInt(parts[9])) {
+            errors.add("Invalid stock: " + parts[9]);
+        }
+        if (!errors.isEmpty()) {
+            return row.rejected(String.join("; ", errors));
+        }
+        return row.parsed(BookCsvFormat.parse(parts));
+    }
+
+    /**
+     * ISBN-10 or ISBN-13 with a valid check digit; hyphens and spaces are ignored
+     */
+    static boolean isValidIsbn(String isbn) {
+        String digits = isbn.replace("-", "").replace(" ", "");
+        if (digits.length() == 13) {
+            int sum = 0;
+            for (int i = 0; i < 13; i++) {
+                char c = digits.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                sum += (c - '0') * (i % 2 == 0 ? 1 : 3);
+            }
+            return sum % 10 == 0;
+        }
+        if (digits.length() == 10) {
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = digits.charAt(i);
+                int value;
+                if (c >= '0' && c <= '9') {
+                    value = c - '0';
+                } else if (i == 9 && (c == 'X' || c == 'x')) {
+                    value = 10;
+                } else {
+                    return false;
+                }
+                sum += value * (10 - i);
+            }
+            return sum % 11 == 0;
+        }
+        return false;
+    }
+
+    private static boolean isNonNegativeInt(String value) {
+        try {
+            return Integer.parseInt(value) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * One input line; after validation it carries either the parsed book or the error
+     */
+    record Row(long line, String text, Book book, String error) {
+
+        Row(long line, String text) {
+            this(line, text, null, null);
+        }
+
+        Row parsed(Book book) {
+            return new Row(line, text, book, null);
+        }
+
+        Row rejected(String error) {
+            return new Row(line, null, null, error);
+        }
+    }
+
+    public record Rejection(long line, String reason) {
+    }
+
+    /**
+     * Import outcome; rejections lists at most the first 1000 rejected rows
+     */
+    public record Summary(long rows, long created, long updated, long rejected, List<Rejection> rejections) {
+    }
+
+    private static final class Progress {
+        private long rows;
+        private long created;
+        private long updated;
+        private long rejected;
+        private final List<Rejection> rejections = new ArrayList<>();
+
+        void reject(long line, String reason) {
+            rejected++;
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new Rejection(line, reason));
+            }
+        }
+
+        Summary summary() {
+            return new Summary(rows, created, updated, rejected, List.copyOf(rejections));
+        }
+    }
+}
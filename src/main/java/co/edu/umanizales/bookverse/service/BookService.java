@@ -2,12 +2,19 @@ package co.edu.umanizales.bookverse.service;
 
 import co.edu.umanizales.bookverse.exception.ResourceNotFoundException;
 import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.monitoring.jfr.StockMutationEvent;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.BookColumns;
 import co.edu.umanizales.bookverse.repository.IBookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,89 +22,196 @@ import java.util.Optional;
 public class BookService {
 
     private final IBookRepository bookRepository;
+    private final SingleFlight flights;
+    private final StockWriteBuffer stockBuffer;
 
     @Autowired
-    public BookService(IBookRepository bookRepository) {
+    public BookService(IBookRepository bookRepository, StockWriteBuffer stockBuffer, MeterRegistry registry) {
         log.info("Initializing BookService with repository: {}", bookRepository.getClass().getName());
         this.bookRepository = bookRepository;
+        this.stockBuffer = stockBuffer;
+        this.flights = new SingleFlight("books", registry);
     }
 
     public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+        return flights.read("getAllBooks", () -> stockBuffer.read(bookRepository::findAll));
     }
 
     public Optional<Book> getBookById(String id) {
-        return bookRepository.findById(id);
+        return flights.read("getBookById", () -> stockBuffer.read(() -> bookRepository.findById(id)), id);
+    }
+
+    public List<Book> getBooksByIds(Collection<String> ids) {
+        return flights.read("getBooksByIds", () -> stockBuffer.read(() -> bookRepository.findAllById(ids)), ids);
     }
 
     public Book saveBook(Book book) {
-        return bookRepository.save(book);
+        return flights.write(() -> stockBuffer.exclusive(() -> bookRepository.save(book)));
+    }
+
+    /**
+     * Stores a new book; false when a book with its ID already exists
+     */
+    public boolean createBook(Book book) {
+        return flights.write(() -> stockBuffer.exclusive(() -> bookRepository.insertIfAbsent(book)));
+    }
+
+    /**
+     * Replaces a stored book; empty when there is no book with the ID
+     */
+    public Optional<Book> updateBook(String id, Book book) {
+        return flights.write(() -> stockBuffer.exclusive(() -> bookRepository.updateIfExists(id, book)));
+    }
+
+    public BatchResult<Book> saveBooks(List<Book> books) {
+        return flights.write(() -> stockBuffer.exclusive(() -> bookRepository.saveBatch(books)));
     }
 
     public boolean deleteBook(String id) {
-        if (bookRepository.existsById(id)) {
-            bookRepository.deleteById(id);
-            log.info("Book deleted successfully: {}", id);
-            return true;
-        }
-        log.warn("Book not found for deletion: {}", id);
-        return false;
+        return flights.write(() -> stockBuffer.exclusive(() -> {
+            if (bookRepository.deleteIfExists(id)) {
+                log.info("Book deleted successfully: {}", id);
+                return true;
+            }
+            log.warn("Book not found for deletion: {}", id);
+            return false;
+        }));
     }
 
     public boolean existsById(String id) {
-        return bookRepository.existsById(id);
+        return flights.read("existsById", () -> bookRepository.existsById(id), id);
     }
 
     public List<Book> getBooksByAuthor(String authorId) {
-        return bookRepository.findByAuthorId(authorId);
+        return flights.read("getBooksByAuthor", () -> stockBuffer.read(() -> bookRepository.findByAuthorId(authorId)), authorId);
     }
 
     public List<Book> getBooksByGenre(String genre) {
-        return bookRepository.findByGenre(genre);
+        return flights.read("getBooksByGenre", () -> stockBuffer.read(() -> bookRepository.findByGenre(genre)), genre);
     }
 
     public List<Book> getAvailableBooks() {
-        return bookRepository.findAvailableBooks();
+        // pending stock can make a book available or sold out, so filter after the overlay
+        return flights.read("getAvailableBooks", () -> stockBuffer.read(() -> stockBuffer.hasPending()
+                ? bookRepository.findAll()
+                : bookRepository.findAvailableBooks()))
+                .stream().filter(Book::isAvailable).toList();
     }
 
-    public boolean updateStock(String id, int quantity) {
-        Optional<Book> bookOpt = bookRepository.findById(id);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            book.setStock(quantity);
-            bookRepository.save(book);
-            log.info("Stock updated for book {}: new stock = {}", id, quantity);
-            return true;
-        }
-        log.warn("Book not found for stock update: {}", id);
-        return false;
+    public long getInventoryValue() {
+        return stockBuffer.readPending(pending -> {
+            long value = bookRepository.columns().inventoryValue();
+            for (Book book : pendingBooks(pending)) {
+                value += book.getPrice() * (pending.get(book.getId()) - book.getStock());
+            }
+            return value;
+        });
     }
 
-    public boolean reduceStock(String id, int quantity) {
-        Optional<Book> bookOpt = bookRepository.findById(id);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            if (book.reduceStock(quantity)) {
-                bookRepository.save(book);
-                log.info("Stock reduced for book {}: quantity = {}", id, quantity);
+    public BookColumns.PriceStatistics getPriceStatistics() {
+        return bookRepository.columns().priceStatistics();
+    }
+
+    public List<BookColumns.GenreSummary> getGenreSummaries() {
+        return stockBuffer.readPending(pending -> {
+            List<BookColumns.GenreSummary> summaries = bookRepository.columns().genreRollup();
+            // units and value the pending stock adds per genre
+            Map<String, long[]> changes = new HashMap<>();
+            for (Book book : pendingBooks(pending)) {
+                int units = pending.get(book.getId()) - book.getStock();
+                long[] change = changes.computeIfAbsent(book.getGenre() != null ? book.getGenre() : "",
+                        genre -> new long[2]);
+                change[0] += units;
+                change[1] += book.getPrice() * units;
+            }
+            return summaries.stream().map(summary -> {
+                long[] change = changes.get(summary.genre());
+                return change == null ? summary : new BookColumns.GenreSummary(summary.genre(), summary.titles(),
+                        summary.units() + change[0], summary.inventoryValue() + change[1],
+                        summary.averagePageCount());
+            }).toList();
+        });
+    }
+
+    /**
+     * Stored versions of the books with pending stock, which the columns still count
+     */
+    private List<Book> pendingBooks(Map<String, Integer> pending) {
+        return pending.isEmpty() ? List.of() : bookRepository.findAllById(pending.keySet());
+    }
+
+    public boolean updateStock(String id, int quantity) {
+        return flights.write(() -> {
+            StockMutationEvent event = stockEvent();
+            Optional<StockWriteBuffer.StockChange> change = stockBuffer.apply(id, book -> {
+                book.setStock(quantity);
+                return true;
+            });
+            if (change.isPresent()) {
+                commit(event, id, "set", quantity, change.get().stock(), true);
+                log.info("Stock updated for book {}: new stock = {}", id, quantity);
                 return true;
             }
-            log.warn("Insufficient stock for book {}: requested = {}, available = {}", 
-                id, quantity, book.getStock());
+            commit(event, id, "set", quantity, 0, false);
+            log.warn("Book not found for stock update: {}", id);
             return false;
-        }
-        throw new ResourceNotFoundException("Book not found with id: " + id);
+        });
     }
 
-    public void increaseStock(String id, int quantity) {
-        Optional<Book> bookOpt = bookRepository.findById(id);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            book.increaseStock(quantity);
-            bookRepository.save(book);
-            log.info("Stock increased for book {}: quantity = {}", id, quantity);
-        } else {
+    public boolean reduceStock(String id, int quantity) {
+        return flights.write(() -> {
+            StockMutationEvent event = stockEvent();
+            Optional<StockWriteBuffer.StockChange> change = stockBuffer.apply(id, book -> book.reduceStock(quantity));
+            if (change.isPresent()) {
+                int stock = change.get().stock();
+                if (change.get().applied()) {
+                    commit(event, id, "reduce", quantity, stock, true);
+                    log.info("Stock reduced for book {}: quantity = {}", id, quantity);
+                    return true;
+                }
+                commit(event, id, "reduce", quantity, stock, false);
+                log.warn("Insufficient stock for book {}: requested = {}, available = {}", 
+                    id, quantity, stock);
+                return false;
+            }
+            commit(event, id, "reduce", quantity, 0, false);
             throw new ResourceNotFoundException("Book not found with id: " + id);
+        });
+    }
+
+    public void increaseStock(String id, int quantity) {
+        flights.write(() -> {
+            StockMutationEvent event = stockEvent();
+            Optional<StockWriteBuffer.StockChange> change = stockBuffer.apply(id, book -> {
+                book.increaseStock(quantity);
+                return true;
+            });
+            if (change.isPresent()) {
+                commit(event, id, "increase", quantity, change.get().stock(), true);
+                log.info("Stock increased for book {}: quantity = {}", id, quantity);
+            } else {
+                commit(event, id, "increase", quantity, 0, false);
+                throw new ResourceNotFoundException("Book not found with id: " + id);
+            }
+        });
+    }
+
+    private static StockMutationEvent stockEvent() {
+        StockMutationEvent event = new StockMutationEvent();
+        event.begin();
+        return event;
+    }
+
+    private static void commit(StockMutationEvent event, String id, String operation,
+                               int quantity, int resultingStock, boolean applied) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.bookId = id;
+            event.operation = operation;
+            event.quantity = quantity;
+            event.resultingStock = resultingStock;
+            event.applied = applied;
+            event.commit();
         }
     }
 }
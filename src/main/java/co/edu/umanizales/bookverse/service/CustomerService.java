@@ -1,11 +1,17 @@
 package co.edu.umanizales.bookverse.service;
 
+import co.edu.umanizales.bookverse.exception.InvalidRequestException;
 import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.repository.BatchResult;
 import co.edu.umanizales.bookverse.repository.ICustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,71 +19,151 @@ import java.util.Optional;
 @Slf4j
 public class CustomerService {
 
+    // Longest address SMTP allows; ids are bounded too, since both go into the email index entry
+    private static final int MAX_EMAIL_BYTES = 254;
+    private static final int MAX_ID_LENGTH = 100;
+
     private final ICustomerRepository customerRepository;
+    private final SingleFlight flights;
 
     @Autowired
-    public CustomerService(ICustomerRepository customerRepository) {
+    public CustomerService(ICustomerRepository customerRepository, MeterRegistry registry) {
         log.info("Initializing CustomerService with repository: {}", customerRepository.getClass().getName());
         this.customerRepository = customerRepository;
+        this.flights = new SingleFlight("customers", registry);
     }
 
     public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+        return flights.read("getAllCustomers", customerRepository::findAll);
     }
 
     public Optional<Customer> getCustomerById(String id) {
-        return customerRepository.findById(id);
+        return flights.read("getCustomerById", () -> customerRepository.findById(id), id);
+    }
+
+    public List<Customer> getCustomersByIds(Collection<String> ids) {
+        return flights.read("getCustomersByIds", () -> customerRepository.findAllById(ids), ids);
     }
 
     public Customer saveCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        validate(customer.getId(), customer);
+        return flights.write(() -> customerRepository.save(customer));
     }
 
-    public boolean deleteCustomer(String id) {
-        if (customerRepository.existsById(id)) {
-            customerRepository.deleteById(id);
-            log.info("Customer deleted successfully: {}", id);
-            return true;
+    /**
+     * Stores a new customer; false when a customer with its ID already exists
+     */
+    public boolean createCustomer(Customer customer) {
+        validate(customer.getId(), customer);
+        return flights.write(() -> customerRepository.insertIfAbsent(customer));
+    }
+
+    /**
+     * Replaces a stored customer; empty when there is no customer with the ID
+     */
+    public Optional<Customer> updateCustomer(String id, Customer customer) {
+        validate(id, customer);
+        return flights.write(() -> customerRepository.updateIfExists(id, customer));
+    }
+
+    /**
+     * Invalid customers are reported as failed without reaching the repository
+     */
+    public BatchResult<Customer> saveCustomers(List<Customer> customers) {
+        List<Customer> accepted = new ArrayList<>(customers);
+        List<BatchResult.Item<Customer>> rejected = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            Customer customer = accepted.get(i);
+            if (customer == null) {
+                continue;
+            }
+            try {
+                validate(customer.getId(), customer);
+            } catch (InvalidRequestException e) {
+                log.warn("Rejected customer {} in batch: {}", i, e.getMessage());
+                rejected.add(BatchResult.Item.failed(i, customer.getId(), e.getMessage()));
+                accepted.set(i, null);
+            }
         }
-        log.warn("Customer not found for deletion: {}", id);
-        return false;
+        return flights.write(() -> customerRepository.saveBatch(accepted).with(rejected));
+    }
+
+    public boolean deleteCustomer(String id) {
+        return flights.write(() -> {
+            if (customerRepository.deleteIfExists(id)) {
+                log.info("Customer deleted successfully: {}", id);
+                return true;
+            }
+            log.warn("Customer not found for deletion: {}", id);
+            return false;
+        });
     }
 
     public boolean existsById(String id) {
-        return customerRepository.existsById(id);
+        return flights.read("existsById", () -> customerRepository.existsById(id), id);
     }
 
     public List<Customer> getActiveCustomers() {
-        return customerRepository.findActiveCustomers();
+        return flights.read("getActiveCustomers", customerRepository::findActiveCustomers);
     }
 
     public List<Customer> getCustomersByEmail(String email) {
-        return customerRepository.findByEmail(email);
+        return flights.read("getCustomersByEmail", () -> customerRepository.findByEmail(email), email);
     }
 
     public boolean deactivateCustomer(String id) {
-        Optional<Customer> customerOpt = customerRepository.findById(id);
-        if (customerOpt.isPresent()) {
-            Customer customer = customerOpt.get();
-            customer.setActive(false);
-            customerRepository.save(customer);
-            log.info("Customer deactivated: {}", id);
-            return true;
-        }
-        log.warn("Customer not found for deactivation: {}", id);
-        return false;
+        return flights.write(() -> {
+            if (setActive(id, false)) {
+                log.info("Customer deactivated: {}", id);
+                return true;
+            }
+            log.warn("Customer not found for deactivation: {}", id);
+            return false;
+        });
     }
 
     public boolean activateCustomer(String id) {
-        Optional<Customer> customerOpt = customerRepository.findById(id);
-        if (customerOpt.isPresent()) {
-            Customer customer = customerOpt.get();
-            customer.setActive(true);
-            customerRepository.save(customer);
-            log.info("Customer activated: {}", id);
-            return true;
+        return flights.write(() -> {
+            if (setActive(id, true)) {
+                log.info("Customer activated: {}", id);
+                return true;
+            }
+            log.warn("Customer not found for activation: {}", id);
+            return false;
+        });
+    }
+
+    /**
+     * @return whether the customer exists; an unchanged flag is not written again
+     */
+    private boolean setActive(String id, boolean active) {
+        return customerRepository.computeIfPresent(id, customer -> {
+            if (customer.isActive() == active) {
+                return null;
+            }
+            customer.setActive(active);
+            return customer;
+        }).isPresent();
+    }
+
+    /**
+     * Rejects ids and emails that could not be indexed, before anything is written
+     * @throws InvalidRequestException when either is too long or holds control characters
+     */
+    private static void validate(String id, Customer customer) {
+        if (id != null && (id.length() > MAX_ID_LENGTH || hasControlCharacters(id))) {
+            throw new InvalidRequestException("Customer ID must be at most " + MAX_ID_LENGTH
+                    + " characters without control characters");
+        }
+        String email = customer.getEmail();
+        if (email != null && (email.getBytes(StandardCharsets.UTF_8).length > MAX_EMAIL_BYTES
+                || hasControlCharacters(email))) {
+            throw new InvalidRequestException("Email must be at most " + MAX_EMAIL_BYTES
+                    + " bytes without control characters");
         }
-        log.warn("Customer not found for activation: {}", id);
-        return false;
+    }
+
+    private static boolean hasControlCharacters(String value) {
+        return value.chars().anyMatch(Character::isISOControl);
     }
 }
@@ -33,9 +33,22 @@ public class EmployeeService {
         return employeeRepository.save(employee);
     }
 
+    /**
+     * Stores a new employee; false when an employee with its ID already exists
+     */
+    public boolean createEmployee(Employee employee) {
+        return employeeRepository.insertIfAbsent(employee);
+    }
+
+    /**
+     * Replaces a stored employee; empty when there is no employee with the ID
+     */
+    public Optional<Employee> updateEmployee(String id, Employee employee) {
+        return employeeRepository.updateIfExists(id, employee);
+    }
+
     public boolean deleteEmployee(String id) {
-        if (employeeRepository.existsById(id)) {
-            employeeRepository.deleteById(id);
+        if (employeeRepository.deleteIfExists(id)) {
             log.info("Employee deleted successfully: {}", id);
             return true;
         }
@@ -0,0 +1,273 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.*;
+import co.edu.umanizales.bookverse.repository.*;
+import co.edu.umanizales.bookverse.model.CsvRowWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * CSV exports straight from a repository scan: the header, then every matching entity written
+ * with {@link Exportable} as the scan reaches it, so memory does not grow with the data set.
+ * References to other entities are written as ids without being looked up. Books are read
+ * through the pending stock changes, so the export has the stock the API reports.
+ * <p>
+ * Exports can be resumed by row: {@link RowRange} counts the data rows that pass the filters,
+ * starting at 0, and the header is only written when the range starts at the first row.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private final Map<String, ExportType<?>> types = new LinkedHashMap<>();
+
+    @Autowired
+    public ExportService(IBookRepository bookRepository, StockWriteBuffer stockBuffer,
+                         IAuthorRepository authorRepository, ICustomerRepository customerRepository,
+                         IEmployeeRepository employeeRepository, IOrderRepository orderRepository) {
+        types.put("books", new ExportType<Book>(new Book().getCsvHeader(),
+                consumer -> stockBuffer.forEach(bookRepository::forEach, consumer), Map.of(
+                "genre", value -> book -> value.equalsIgnoreCase(book.getGenre()),
+                "language", value -> book -> value.equalsIgnoreCase(book.getLanguage()),
+                "authorId", value -> book -> value.equals(book.getAuthorId()),
+                "available", value -> {
+                    boolean available = parseBoolean(value);
+                    return book -> book.isAvailable() == available;
+                })));
+        types.put("authors", new ExportType<Author>(new Author().getCsvHeader(), authorRepository::forEach, Map.of(
+                "nationality", value -> author -> value.equalsIgnoreCase(author.getNationality()))));
+        types.put("customers", new ExportType<Customer>(new Customer().getCsvHeader(), customerRepository::forEach, Map.of(
+                "active", value -> {
+                    boolean active = parseBoolean(value);
+                    return customer -> customer.isActive() == active;
+                })));
+        types.put("employees", new ExportType<Employee>(new Salesperson().getCsvHeader(), employeeRepository::forEach, Map.of(
+                "position", value -> employee -> value.equalsIgnoreCase(employee.getPosition()),
+                "type", value -> employee -> value.equalsIgnoreCase(employee.getClass().getSimpleName()))));
+        types.put("orders", new ExportType<Order>(new Order().getCsvHeader(), orderRepository::forEach, Map.of(
+                "status", value -> order -> value.equalsIgnoreCase(order.getStatus()),
+                "customerId", value -> order -> value.equals(order.getCustomerId()),
+                "salespersonId", value -> order -> value.equals(order.getSalespersonId()),
+                "from", value -> {
+                    LocalDate from = parseDate(value);
+                    return order -> order.getOrderDate() != null && !order.getOrderDate().toLocalDate().isBefore(from);
+                },
+                "to", value -> {
+                    LocalDate to = parseDate(value);
+                    return order -> order.getOrderDate() != null && !order.getOrderDate().toLocalDate().isAfter(to);
+                })));
+    }
+
+    public Set<String> entities() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    /**
+     * Checks the filters before anything is written
+     * @param filters filter name to value, all of which must match
+     * @throws IllegalArgumentException for an unknown filter or a value that cannot be parsed
+     */
+    public Export prepare(String entity, Map<String, String> filters) {
+        ExportType<?> type = types.get(entity);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown export: " + entity);
+        }
+        return type.prepare(entity, filters);
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("Expected true or false: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Expected a date such as 2025-06-01: " + value);
+        }
+    }
+
+    /**
+     * Data rows to export, by position among the rows that pass the filters; last is inclusive
+     */
+    public record RowRange(long first, long last) {
+
+        public static final RowRange ALL = new RowRange(0, Long.MAX_VALUE);
+
+        /**
+         * Parses a Range header in the rows unit, e.g. "rows=1000-" or "rows=0-499".
+         * A missing header or another unit selects every row.
+         * @throws IllegalArgumentException for a malformed rows range
+         */
+        public static RowRange parse(String header) {
+            if (header == null || !header.startsWith("rows=")) {
+                return ALL;
+            }
+            String spec = header.substring("rows=".length()).trim();
+            int dash = spec.indexOf('-');
+            try {
+                if (dash <= 0 || spec.indexOf(',') >= 0) {
+                    throw new NumberFormatException(spec);
+                }
+                long first = Long.parseLong(spec.substring(0, dash));
+                String end = spec.substring(dash + 1);
+                long last = end.isEmpty() ? Long.MAX_VALUE : Long.parseLong(end);
+                if (first < 0 || last < first) {
+                    throw new NumberFormatException(spec);
+                }
+                return new RowRange(first, last);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid rows range: " + header);
+            }
+        }
+
+        public boolean isPartial() {
+            return first > 0 || last != Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * A checked export, ready to be written
+     */
+    public static final class Export {
+
+        private final String entity;
+        private final String header;
+        private final Consumer<Consumer<Object>> scan;
+        private final Predicate<Object> filter;
+
+        private Export(String entity, String header, Consumer<Consumer<Object>> scan, Predicate<Object> filter) {
+            this.entity = entity;
+            this.header = header;
+            this.scan = scan;
+            this.filter = filter;
+        }
+
+        public String entity() {
+            return entity;
+        }
+
+        /**
+         * Writes the rows in range, preceded by the header when the range starts at row 0
+         * @return data rows written
+         */
+        public long write(OutputStream out, RowRange range) {
+            long start = System.nanoTime();
+            long[] position = {0};
+            long[] written = {0};
+            try (CsvRowWriter writer = new CsvRowWriter(new OutputStreamChannel(out))) {
+                if (range.first() == 0) {
+                    writer.raw(header).endRow();
+                }
+                try {
+                    scan.accept(row -> {
+                        if (!filter.test(row)) {
+                            return;
+                        }
+                        long index = position[0]++;
+                        if (index > range.last()) {
+                            throw RangeEnd.INSTANCE;
+                        }
+                        if (index >= range.first()) {
+                            writer.row((Exportable) row);
+                            written[0]++;
+                        }
+                    });
+                } catch (RangeEnd e) {
+                    // the last requested row has been written
+                }
+            }
+            log.info("Exported {} {} rows from row {} in {} ms", written[0], entity, range.first(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return written[0];
+        }
+    }
+
+    private record ExportType<T>(String header, Consumer<Consumer<? super T>> scan,
+                                 Map<String, Function<String, Predicate<T>>> filters) {
+
+        @SuppressWarnings("unchecked")
+        Export prepare(String entity, Map<String, String> values) {
+            Predicate<T> filter = row -> true;
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                Function<String, Predicate<T>> factory = filters.get(value.getKey());
+                if (factory == null) {
+                    throw new IllegalArgumentException("Unknown filter for " + entity + ": " + value.getKey()
+                            + " (supported: " + new TreeSet<>(filters.keySet()) + ")");
+                }
+                filter = filter.and(factory.apply(value.getValue()));
+            }
+            Predicate<T> typed = filter;
+            return new Export(entity, header, consumer -> scan.accept(consumer::accept),
+                    row -> typed.test((T) row));
+        }
+    }
+
+    /**
+     * Stops a scan once the range is complete
+     */
+    private static final class RangeEnd extends RuntimeException {
+        static final RangeEnd INSTANCE = new RangeEnd();
+
+        private RangeEnd() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Channel view of the response stream. Channels.newChannel locks on every write, which would
+     * pin the request's virtual thread while the client reads.
+     */
+    private static final class OutputStreamChannel implements WritableByteChannel {
+        private final OutputStream out;
+        private byte[] copy = new byte[0];
+        private boolean open = true;
+
+        OutputStreamChannel(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            if (src.hasArray()) {
+                out.write(src.array(), src.arrayOffset() + src.position(), length);
+                src.position(src.limit());
+            } else {
+                if (copy.length < length) {
+                    copy = new byte[length];
+                }
+                src.get(copy, 0, length);
+                out.write(copy, 0, length);
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the caller owns the stream; only push out what was written
+            open = false;
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.monitoring.jfr.RecordingStatus;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Starts, stops and dumps a single in-process JFR recording. The JDK configuration
+ * (default or profile) is applied first and the BookVerse events are then enabled with
+ * the requested threshold, so cheap lookups can be filtered out on busy servers.
+ */
+@Service
+@Slf4j
+public class FlightRecorderService {
+
+    private static final String[] EVENTS = {
+        "bookverse.CsvRead", "bookverse.CsvWrite", "bookverse.ParseBatch",
+        "bookverse.ReferenceLookup", "bookverse.StockMutation", "bookverse.OrderCommit"
+    };
+
+    private final Path directory;
+    private Recording recording;
+    private String settings;
+    private Path lastFile;
+
+    @Autowired
+    public FlightRecorderService(@Value("${bookverse.jfr.directory:${java.io.tmpdir}/bookverse-jfr}") String directory) {
+        this.directory = Paths.get(directory);
+    }
+
+    /**
+     * Starts a new recording, discarding a stopped one; empty when one is already running
+     */
+    public synchronized Optional<RecordingStatus> start(String settings, Duration maxAge, Duration threshold) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+        close();
+        Recording created = new Recording(configuration);
+        created.setName("bookverse");
+        created.setToDisk(true);
+        if (maxAge != null) {
+            created.setMaxAge(maxAge);
+        }
+        for (String event : EVENTS) {
+            created.enable(event).withThreshold(threshold).withoutStackTrace();
+        }
+        created.start();
+        this.recording = created;
+        this.settings = settings;
+        this.lastFile = null;
+        log.info("JFR recording {} started with {} settings", created.getId(), settings);
+        return Optional.of(status(created));
+    }
+
+    /**
+     * Stops the running recording and writes it to disk; empty when nothing is running
+     */
+    public synchronized Optional<RecordingStatus> stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return Optional.empty();
+        }
+        Path file = newFile();
+        try {
+            recording.setDestination(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing JFR recording", e);
+        }
+        recording.stop();
+        lastFile = file;
+        log.info("JFR recording {} stopped, written to {}", recording.getId(), file);
+        return Optional.of(status(recording));
+    }
+
+    /**
+     * Snapshot of the running recording, or the file of the last stopped one
+     */
+    public synchronized Optional<Path> dump() {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            Path file = newFile();
+            try {
+                recording.dump(file);
+            } catch (IOException e) {
+                throw new RuntimeException("Error dumping JFR recording", e);
+            }
+            lastFile = file;
+        }
+        return Optional.ofNullable(lastFile).filter(Files::exists);
+    }
+
+    public synchronized Optional<RecordingStatus> status() {
+        return Optional.ofNullable(recording).map(this::status);
+    }
+
+    private RecordingStatus status(Recording r) {
+        Instant start = r.getStartTime();
+        Instant end = r.getState() == RecordingState.RUNNING ? Instant.now() : r.getStopTime();
+        Duration duration = start != null && end != null ? Duration.between(start, end) : Duration.ZERO;
+        return new RecordingStatus(r.getId(), r.getState().name(), settings, start, duration,
+                r.getMaxAge(), lastFile != null ? lastFile.toString() : null);
+    }
+
+    private Path newFile() {
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Error creating JFR directory", e);
+        }
+        return directory.resolve("bookverse-" + recording.getId() + "-" + System.currentTimeMillis() + ".jfr");
+    }
+
+    @PreDestroy
+    synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
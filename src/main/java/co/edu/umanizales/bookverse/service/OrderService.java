@@ -1,62 +1,165 @@
 package co.edu.umanizales.bookverse.service;
 
 import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.monitoring.jfr.OrderCommitEvent;
+import co.edu.umanizales.bookverse.repository.BatchResult;
 import co.edu.umanizales.bookverse.repository.IOrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class OrderService {
 
     private final IOrderRepository orderRepository;
+    private final SingleFlight flights;
+    // Orders carry their books, which get the pending stock like any other book read
+    private final StockWriteBuffer stockBuffer;
 
     @Autowired
-    public OrderService(IOrderRepository orderRepository) {
+    public OrderService(IOrderRepository orderRepository, StockWriteBuffer stockBuffer, MeterRegistry registry) {
         log.info("Initializing OrderService with repository: {}", orderRepository.getClass().getName());
         this.orderRepository = orderRepository;
+        this.stockBuffer = stockBuffer;
+        this.flights = new SingleFlight("orders", registry);
     }
 
     public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        return flights.read("getAllOrders", () -> stockBuffer.read(orderRepository::findAll));
     }
 
     public Optional<Order> getOrderById(String id) {
-        return orderRepository.findById(id);
+        return flights.read("getOrderById", () -> stockBuffer.read(() -> orderRepository.findById(id)), id);
+    }
+
+    public List<Order> getOrdersByIds(Collection<String> ids) {
+        return flights.read("getOrdersByIds", () -> stockBuffer.read(() -> orderRepository.findAllById(ids)), ids);
     }
 
     public Order saveOrder(Order order) {
-        order.calculateTotals();
-        return orderRepository.save(order);
+        return commit(order, () -> orderRepository.save(order), saved -> true);
     }
 
-    public boolean deleteOrder(String id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
-            log.info("Order deleted successfully: {}", id);
-            return true;
+    /**
+     * Stores a new order; false when an order with its ID already exists
+     */
+    public boolean createOrder(Order order) {
+        return commit(order, () -> orderRepository.insertIfAbsent(order), created -> created);
+    }
+
+    /**
+     * Replaces a stored order; empty when there is no order with the ID
+     */
+    public Optional<Order> updateOrder(String id, Order order) {
+        return commit(order, () -> orderRepository.updateIfExists(id, order), Optional::isPresent);
+    }
+
+    /**
+     * Calculates the totals and runs one repository write, recording it as an {@link OrderCommitEvent}
+     */
+    private <T> T commit(Order order, Supplier<T> write, Predicate<T> succeeded) {
+        return flights.write(() -> {
+            OrderCommitEvent event = new OrderCommitEvent();
+            event.begin();
+            T result = null;
+            try {
+                order.calculateTotals();
+                result = write.get();
+                return result;
+            } finally {
+                commit(event, order, result != null && succeeded.test(result));
+            }
+        });
+    }
+
+    /**
+     * Saves several orders with one repository write. Orders whose totals cannot be
+     * calculated are reported as failed and the rest are still saved.
+     */
+    public BatchResult<Order> saveOrders(List<Order> orders) {
+        return flights.write(() -> {
+            OrderCommitEvent[] events = new OrderCommitEvent[orders.size()];
+            List<Order> accepted = new ArrayList<>(orders);
+            List<BatchResult.Item<Order>> rejected = new ArrayList<>();
+            for (int i = 0; i < accepted.size(); i++) {
+                Order order = accepted.get(i);
+                if (order == null) {
+                    continue;
+                }
+                events[i] = new OrderCommitEvent();
+                events[i].begin();
+                try {
+                    order.calculateTotals();
+                } catch (RuntimeException e) {
+                    log.warn("Rejected order {} in batch: {}", i, e.getMessage());
+                    rejected.add(BatchResult.Item.failed(i, order.getId(), "Invalid order: " + e.getMessage()));
+                    accepted.set(i, null);
+                }
+            }
+            BatchResult<Order> result = orderRepository.saveBatch(accepted).with(rejected);
+            for (BatchResult.Item<Order> item : result.items()) {
+                if (events[item.index()] != null) {
+                    commit(events[item.index()], orders.get(item.index()), item.entity() != null);
+                }
+            }
+            return result;
+        });
+    }
+
+    private static void commit(OrderCommitEvent event, Order order, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.orderId = order.getId();
+            event.customerId = order.getCustomerId();
+            event.items = order.getItems() != null ? order.getItems().size() : 0;
+            event.total = order.getTotal();
+            event.succeeded = succeeded;
+            event.commit();
         }
-        log.warn("Order not found for deletion: {}", id);
-        return false;
+    }
+
+    public boolean deleteOrder(String id) {
+        return flights.write(() -> {
+            if (orderRepository.deleteIfExists(id)) {
+                log.info("Order deleted successfully: {}", id);
+                return true;
+            }
+            log.warn("Order not found for deletion: {}", id);
+            return false;
+        });
     }
 
     public boolean existsById(String id) {
-        return orderRepository.existsById(id);
+        return flights.read("existsById", () -> orderRepository.existsById(id), id);
     }
 
     public List<Order> getOrdersByCustomer(String customerId) {
-        return orderRepository.findByCustomerId(customerId);
+        return flights.read("getOrdersByCustomer",
+                () -> stockBuffer.read(() -> orderRepository.findByCustomerId(customerId)), customerId);
     }
 
     public List<Order> getOrdersBySalesperson(String salespersonId) {
-        return orderRepository.findBySalespersonId(salespersonId);
+        return flights.read("getOrdersBySalesperson",
+                () -> stockBuffer.read(() -> orderRepository.findBySalespersonId(salespersonId)), salespersonId);
     }
 
     public List<Order> getOrdersByStatus(String status) {
-        return orderRepository.findByStatus(status);
+        return flights.read("getOrdersByStatus", () -> stockBuffer.read(() -> orderRepository.findByStatus(status)),
+                status);
+    }
+
+    public List<Order> getOrdersByDateRange(LocalDate from, LocalDate to) {
+        return flights.read("getOrdersByDateRange",
+                () -> stockBuffer.read(() -> orderRepository.findByOrderDateBetween(from, to)), from, to);
     }
 }
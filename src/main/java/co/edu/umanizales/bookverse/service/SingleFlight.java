@@ -0,0 +1,98 @@
+package co.edu.umanizales.bookverse.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads of one service: the first caller for a method and
+ * argument list runs the load, callers arriving while it is in flight wait for and share its
+ * result. Nothing is kept once the load finishes, so this is not a cache.
+ * <p>
+ * Writes go through {@link #write} and start a new generation when they finish; reads that
+ * begin afterwards never join a load that started before the write. Shared results must be
+ * treated as read-only by callers.
+ * <p>
+ * Meter: bookverse.singleflight.calls tagged service and role (leader or follower).
+ */
+public final class SingleFlight {
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter leaders;
+    private final Counter followers;
+
+    /**
+     * @param service plural entity name of the service, e.g. "books"
+     */
+    public SingleFlight(String service, MeterRegistry registry) {
+        this.leaders = counter(registry, service, "leader");
+        this.followers = counter(registry, service, "follower");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T read(String method, Supplier<T> loader, Object... args) {
+        Key key = new Key(generation.get(), method, Arrays.asList(args));
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            followers.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                } else if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+        leaders.increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Runs a write; later reads start a fresh load even if the write failed halfway
+     */
+    public <T> T write(Supplier<T> body) {
+        try {
+            return body.get();
+        } finally {
+            generation.incrementAndGet();
+        }
+    }
+
+    public void write(Runnable body) {
+        write(() -> {
+            body.run();
+            return null;
+        });
+    }
+
+    private static Counter counter(MeterRegistry registry, String service, String role) {
+        return Counter.builder("bookverse.singleflight.calls")
+                .description("Service reads that ran a load (leader) or shared one in flight (follower)")
+                .tags("service", service, "role", role)
+                .register(registry);
+    }
+
+    private record Key(long generation, String method, List<Object> args) {
+    }
+}
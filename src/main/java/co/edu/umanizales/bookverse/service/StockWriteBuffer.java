@@ -0,0 +1,280 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for book stock. Mutations are merged per book in memory as the
+ * resulting stock and flushed every window with a single
+ * {@link IBookRepository#updateStock(Map)} rewrite; reads made through {@link #read(Supplier)},
+ * {@link #forEach} or {@link #readPending} see the pending stock, so callers always get their own
+ * writes back without a read ever forcing a flush.
+ * <p>
+ * The window (bookverse.stock.write-behind.window) is how long an acknowledged stock change
+ * may live only in memory. Zero turns the buffer off and every mutation is saved before it
+ * returns, as before.
+ * <p>
+ * Meters: bookverse.stock.pending (books waiting for a flush), bookverse.stock.mutations
+ * (buffered changes) and bookverse.stock.flush (flush latency by outcome).
+ */
+@Component
+@Slf4j
+public class StockWriteBuffer {
+
+    private final IBookRepository bookRepository;
+    private final Duration window;
+    private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+    // mutations and overlay reads share the lock, flushes and full book writes take it alone
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService flusher;
+    private final Counter mutations;
+    private final Timer flushed;
+    private final Timer flushFailed;
+
+    @Autowired
+    public StockWriteBuffer(IBookRepository bookRepository,
+                            @Value("${bookverse.stock.write-behind.window:200ms}") Duration window,
+                            MeterRegistry registry) {
+        this.bookRepository = bookRepository;
+        this.window = window;
+        this.mutations = Counter.builder("bookverse.stock.mutations")
+                .description("Stock changes buffered for the next flush")
+                .register(registry);
+        this.flushed = flushTimer("success", registry);
+        this.flushFailed = flushTimer("error", registry);
+        Gauge.builder("bookverse.stock.pending", pending, Map::size)
+                .description("Books with stock changes not yet written")
+                .register(registry);
+        if (isEnabled()) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushQuietly, window.toMillis(), window.toMillis(),
+                    TimeUnit.MILLISECONDS);
+            log.info("Stock write-behind enabled with a {} ms window", window.toMillis());
+        } else {
+            flusher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return !window.isZero() && !window.isNegative();
+    }
+
+    /**
+     * Runs a book read and applies the pending stock to the books it returns
+     * (a {@link Book}, an {@link Optional} of one or a collection of them)
+     */
+    public <T> T read(Supplier<T> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        lock.readLock().lock();
+        try {
+            T result = loader.get();
+            if (!pending.isEmpty()) {
+                overlay(result);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams the books of a scan with the pending stock applied to each one; flushes wait
+     * until the scan is done
+     */
+    public void forEach(Consumer<Consumer<? super Book>> scan, Consumer<? super Book> consumer) {
+        read(() -> {
+            scan.accept(book -> {
+                overlay(book);
+                consumer.accept(book);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Runs a read of stored data, such as an aggregate, with the pending stock by book id, so the
+     * reader can correct its result; no flush happens while it runs
+     */
+    public <T> T readPending(Function<Map<String, Integer>, T> reader) {
+        if (!isEnabled()) {
+            return reader.apply(Map.of());
+        }
+        lock.readLock().lock();
+        try {
+            return reader.apply(Map.copyOf(pending));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Applies a stock mutation to one book. The mutation gets the book with its current stock,
+     * pending changes included, and returns whether it applied; concurrent mutations of the
+     * same book are serialized.
+     * @return resulting stock and whether the mutation applied, or empty when the book does not exist
+     */
+    public Optional<StockChange> apply(String id, Predicate<Book> mutation) {
+        if (!isEnabled()) {
+            boolean[] applied = new boolean[1];
+            return bookRepository.computeIfPresent(id, book -> {
+                applied[0] = mutation.test(book);
+                return applied[0] ? book : null;
+            }).map(book -> new StockChange(book.getStock(), applied[0]));
+        }
+        lock.readLock().lock();
+        try {
+            Optional<Book> found = bookRepository.findById(id);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            Book book = found.get();
+            int stored = book.getStock();
+            boolean[] applied = new boolean[1];
+            pending.compute(id, (key, current) -> {
+                book.setStock(current != null ? current : stored);
+                applied[0] = mutation.test(book);
+                return applied[0] ? Integer.valueOf(book.getStock()) : current;
+            });
+            if (applied[0]) {
+                mutations.increment();
+            }
+            return Optional.of(new StockChange(book.getStock(), applied[0]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the pending stock and runs a book write while no stock change can slip in
+     */
+    public <T> T exclusive(Supplier<T> write) {
+        if (!isEnabled()) {
+            return write.get();
+        }
+        lock.writeLock().lock();
+        try {
+            flushLocked();
+            return write.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every pending stock change now
+     */
+    public void flush() {
+        if (!isEnabled() || pending.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            flushLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flush();
+        }
+    }
+
+    private void flushLocked() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, IntUnaryOperator> changes = new HashMap<>();
+        pending.forEach((id, stock) -> changes.put(id, stored -> stock));
+        long start = System.nanoTime();
+        Timer timer = flushFailed;
+        try {
+            int updated = bookRepository.updateStock(changes);
+            pending.clear();
+            timer = flushed;
+            log.debug("Flushed stock for {} books ({} found)", changes.size(), updated);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer flushTimer(String outcome, MeterRegistry registry) {
+        return Timer.builder("bookverse.stock.flush")
+                .description("Write-behind stock flush latency")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error flushing stock for {} books, retrying next window", pending.size(), e);
+        }
+    }
+
+    private void overlay(Object result) {
+        if (result == null) {
+            return;
+        }
+        if (result instanceof Book book) {
+            Integer stock = pending.get(book.getId());
+            if (stock != null) {
+                book.setStock(stock);
+            }
+        } else if (result instanceof Order order) {
+            if (order.getItems() != null) {
+                order.getItems().forEach(item -> overlay(item.getBook()));
+            }
+        } else if (result instanceof Optional<?> optional) {
+            optional.ifPresent(this::overlay);
+        } else if (result instanceof Collection<?> books) {
+            books.forEach(this::overlay);
+        }
+    }
+
+    /**
+     * Outcome of {@link #apply(String, Predicate)}
+     */
+    public record StockChange(int stock, boolean applied) {
+    }
+}
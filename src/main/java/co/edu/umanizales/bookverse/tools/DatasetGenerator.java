@@ -0,0 +1,404 @@
+package co.edu.umanizales.bookverse.tools;
+
+import co.edu.umanizales.bookverse.model.*;
+import co.edu.umanizales.bookverse.model.CsvRowWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Writes a synthetic but valid data directory (autores, libros, clientes, empleados
+ * and ordenes .csv) for benchmarks and capacity tests.
+ * <p>
+ * Output depends only on the seed and the scale. Every entity is derived from its own
+ * index, so IDs can be recomputed without keeping them in memory and files are streamed
+ * row by row. Book popularity and customer activity follow Zipf distributions, and about
+ * one employee in seven is an Administrator. Customer order history is left empty, as it
+ * is for customers created through the API.
+ * <p>
+ * Usage: DatasetGenerator --orders=1000000 [--seed=42] [--out=./data-large]
+ * [--authors=N] [--books=N] [--customers=N] [--employees=N]
+ */
+@Slf4j
+public final class DatasetGenerator {
+
+    private static final long AUTHOR = 1, BOOK = 2, CUSTOMER = 3, EMPLOYEE = 4, ORDER = 5;
+    private static final double BOOK_POPULARITY_EXPONENT = 1.0;
+    private static final double CUSTOMER_ACTIVITY_EXPONENT = 0.8;
+    private static final int ADMINISTRATOR_EVERY = 7;
+    private static final int MAX_ITEMS_PER_ORDER = 6;
+    private static final LocalDateTime FIRST_ORDER = LocalDateTime.of(2024, 1, 1, 8, 0);
+    private static final long ORDER_SPAN_MINUTES = 2L * 365 * 24 * 60;
+
+    private static final String[] FIRST_NAMES = {"Ana", "Carlos", "María", "Juan", "Laura", "Andrés", "Sofía",
+            "Diego", "Valentina", "Santiago", "Camila", "Mateo", "Isabella", "Sebastián", "Daniela", "Nicolás"};
+    private static final String[] LAST_NAMES = {"García", "Rodríguez", "López", "Martínez", "González", "Pérez",
+            "Sánchez", "Ramírez", "Torres", "Flórez", "Rivera", "Gómez", "Díaz", "Morales", "Ortiz", "Castro"};
+    private static final String[] NATIONALITIES = {"Colombiana", "Mexicana", "Argentina", "Chilena", "Española",
+            "Peruana", "Estadounidense", "Británica"};
+    private static final String[] CITIES = {"Manizales", "Bogotá", "Medellín", "Cali", "Pereira", "Barranquilla"};
+    private static final String[] GENRES = {"Novela", "Fantasía", "Ciencia Ficción", "Realismo mágico",
+            "Historia", "Poesía", "Ensayo", "Superación", "Infantil", "Policiaca", "Biografía", "Terror"};
+    private static final String[] PUBLISHERS = {"Planeta", "Alfaguara", "Anagrama", "Penguin Random House",
+            "Norma", "Tusquets", "Siruela", "Salamandra", "Acantilado", "Seix Barral"};
+    private static final String[] LANGUAGES = {"Español", "Español", "Español", "Español", "Español",
+            "Español", "Español", "Inglés", "Inglés", "Francés"};
+    private static final String[] TITLE_WORDS = {"sombra", "río", "ciudad", "memoria", "silencio", "viento",
+            "noche", "jardín", "espejo", "camino", "fuego", "mar", "tiempo", "casa", "luz", "montaña"};
+    private static final String[] STATUSES = {"DELIVERED", "DELIVERED", "DELIVERED", "DELIVERED", "SHIPPED",
+            "SHIPPED", "PAID", "CREATED", "CANCELLED"};
+    private static final String[] PERMISSIONS = {"READ", "WRITE", "DELETE", "REPORTS", "USERS", "INVENTORY"};
+    private static final String[] ZONES = {"Norte", "Sur", "Centro", "Oriente", "Occidente"};
+
+    private final Scale scale;
+    private final long seed;
+
+    public DatasetGenerator(Scale scale, long seed) {
+        this.scale = scale;
+        this.seed = seed;
+    }
+
+    /**
+     * Table sizes of a generated dataset
+     */
+    public record Scale(int authors, int books, int customers, int employees, long orders) {
+
+        public Scale {
+            if (authors < 1 || books < 1 || customers < 1 || employees < 2 || orders < 0) {
+                throw new IllegalArgumentException("Invalid dataset scale: " + authors + " authors, " + books
+                        + " books, " + customers + " customers, " + employees + " employees, " + orders + " orders");
+            }
+        }
+
+        /**
+         * Derives the size of the other tables from the number of orders
+         */
+        public static Scale forOrders(long orders) {
+            int books = (int) clamp(orders / 20, 100, 500_000);
+            return new Scale(
+                    Math.max(20, books / 10),
+                    books,
+                    (int) clamp(orders / 8, 50, 2_000_000),
+                    (int) clamp(orders / 2_000, 5, 5_000),
+                    orders);
+        }
+
+        private static long clamp(long value, long min, long max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        long orders = 10_000;
+        long seed = 42;
+        Path out = Paths.get("./data-generated");
+        Integer authors = null, books = null, customers = null, employees = null;
+
+        for (String arg : args) {
+            String[] kv = arg.replaceFirst("^--", "").split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            switch (kv[0]) {
+                case "orders" -> orders = Long.parseLong(kv[1].replace("_", ""));
+                case "seed" -> seed = Long.parseLong(kv[1]);
+                case "out" -> out = Paths.get(kv[1]);
+                case "authors" -> authors = Integer.parseInt(kv[1]);
+                case "books" -> books = Integer.parseInt(kv[1]);
+                case "customers" -> customers = Integer.parseInt(kv[1]);
+                case "employees" -> employees = Integer.parseInt(kv[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        Scale derived = Scale.forOrders(orders);
+        Scale scale = new Scale(
+                authors != null ? authors : derived.authors(),
+                books != null ? books : derived.books(),
+                customers != null ? customers : derived.customers(),
+                employees != null ? employees : derived.employees(),
+                orders);
+        new DatasetGenerator(scale, seed).generate(out);
+    }
+
+    /**
+     * Writes the five CSV files into the directory, replacing existing ones
+     */
+    public void generate(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        long start = System.nanoTime();
+        writeAuthors(directory.resolve("autores.csv"));
+        writeBooks(directory.resolve("libros.csv"));
+        writeCustomers(directory.resolve("clientes.csv"));
+        writeEmployees(directory.resolve("empleados.csv"));
+        writeOrders(directory.resolve("ordenes.csv"));
+        log.info("Generated {} in {} ms (seed {})", scale, (System.nanoTime() - start) / 1_000_000, seed);
+    }
+
+    public String authorId(int index) {
+        return id(AUTHOR, index);
+    }
+
+    public String bookId(int index) {
+        return id(BOOK, index);
+    }
+
+    public String customerId(int index) {
+        return id(CUSTOMER, index);
+    }
+
+    public String employeeId(int index) {
+        return id(EMPLOYEE, index);
+    }
+
+    public String orderId(long index) {
+        return id(ORDER, index);
+    }
+
+    public static boolean isAdministrator(int employeeIndex) {
+        return employeeIndex % ADMINISTRATOR_EVERY == 0;
+    }
+
+    private void writeAuthors(Path file) throws IOException {
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (int i = 0; i < scale.authors(); i++) {
+                SplittableRandom random = random(AUTHOR, i);
+                String name = pick(random, FIRST_NAMES);
+                String lastName = pick(random, LAST_NAMES);
+                writer.row(new Author(authorId(i), name, lastName, pick(random, NATIONALITIES),
+                        LocalDate.of(1900, 1, 1).plusDays(random.nextInt(36_500)),
+                        "Autor de " + (1 + random.nextInt(30)) + " libros, nacido en " + pick(random, CITIES),
+                        email(name, lastName, i, "autores.co")));
+            }
+        }
+    }
+
+    private void writeBooks(Path file) throws IOException {
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (int i = 0; i < scale.books(); i++) {
+                SplittableRandom random = random(BOOK, i);
+                long price = bookPrice(random);
+                String title = capitalize(pick(random, TITLE_WORDS)) + " de " + pick(random, TITLE_WORDS) + " " + i;
+                Author author = new Author();
+                author.setId(authorId(skewed(random, scale.authors(), 1.1)));
+                Book book = new Book();
+                book.setId(bookId(i));
+                book.setIsbn(isbn(i));
+                book.setTitle(title);
+                book.setAuthor(author);
+                book.setPublisher(pick(random, PUBLISHERS));
+                book.setPublicationDate(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(27_000)));
+                book.setGenre(GENRES[skewed(random, GENRES.length, 0.9)]);
+                book.setPageCount(80 + random.nextInt(900));
+                book.setPrice(price);
+                book.setStock(random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(200));
+                book.setDescription("Una historia sobre " + pick(random, TITLE_WORDS) + ", \"" + pick(random, TITLE_WORDS)
+                        + "\" y " + pick(random, TITLE_WORDS));
+                book.setLanguage(pick(random, LANGUAGES));
+                writer.row(book);
+            }
+        }
+    }
+
+    private void writeCustomers(Path file) throws IOException {
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (int i = 0; i < scale.customers(); i++) {
+                SplittableRandom random = random(CUSTOMER, i);
+                String name = pick(random, FIRST_NAMES);
+                String lastName = pick(random, LAST_NAMES);
+                writer.row(new Customer(customerId(i), name, lastName, email(name, lastName, i, "mail.com"),
+                        "3" + (100_000_000 + random.nextInt(900_000_000)), address(random),
+                        LocalDate.of(2018, 1, 1).plusDays(random.nextInt(2_500)), random.nextInt(20) != 0));
+            }
+        }
+    }
+
+    private void writeEmployees(Path file) throws IOException {
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (int i = 0; i < scale.employees(); i++) {
+                SplittableRandom random = random(EMPLOYEE, i);
+                String name = pick(random, FIRST_NAMES);
+                String lastName = pick(random, LAST_NAMES);
+                String email = email(name, lastName, i, "bookverse.com");
+                String phone = "3" + (100_000_000 + random.nextInt(900_000_000));
+                LocalDate hireDate = LocalDate.of(2010, 1, 1).plusDays(random.nextInt(5_000));
+                if (isAdministrator(i)) {
+                    List<String> permissions = new ArrayList<>();
+                    for (String permission : PERMISSIONS) {
+                        if (random.nextBoolean()) {
+                            permissions.add(permission);
+                        }
+                    }
+                    writer.row(new Administrator(employeeId(i), name, lastName, email, phone, hireDate,
+                            4_000_000 + 100_000 * random.nextInt(40), "ADMINISTRATOR",
+                            random.nextBoolean() ? "ALTO" : "MEDIO", permissions, pick(random, ZONES),
+                            1_000_000 * (1 + random.nextInt(20))));
+                } else {
+                    writer.row(new Salesperson(employeeId(i), name, lastName, email, phone, hireDate,
+                            1_500_000 + 50_000 * random.nextInt(30), "SALESPERSON",
+                            10_000 * (1 + random.nextInt(10)), random.nextInt(500), pick(random, ZONES)));
+                }
+            }
+        }
+    }
+
+    private void writeOrders(Path file) throws IOException {
+        ZipfSampler books = new ZipfSampler(scale.books(), BOOK_POPULARITY_EXPONENT);
+        ZipfSampler customers = new ZipfSampler(scale.customers(), CUSTOMER_ACTIVITY_EXPONENT);
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+        long progressEvery = Math.max(1_000_000, scale.orders() / 10);
+
+        try (CsvRowWriter writer = CsvRowWriter.open(file)) {
+            for (long i = 0; i < scale.orders(); i++) {
+                SplittableRandom random = random(ORDER, i);
+                Customer customer = new Customer();
+                customer.setId(customerId(customers.sample(random)));
+                Salesperson salesperson = new Salesperson();
+                salesperson.setId(employeeId(salespersonIndex(random)));
+
+                long minute = i * ORDER_SPAN_MINUTES / Math.max(scale.orders(), 1) + random.nextInt(60);
+                Order order = new Order(orderId(i), customer, salesperson, FIRST_ORDER.plusMinutes(minute),
+                        paymentMethods[random.nextInt(paymentMethods.length)], pick(random, STATUSES),
+                        address(random));
+
+                int itemCount = 1 + Math.min(MAX_ITEMS_PER_ORDER - 1, geometric(random, 0.45));
+                for (int k = 0; k < itemCount; k++) {
+                    int bookIndex = books.sample(random);
+                    Book book = new Book();
+                    book.setId(bookId(bookIndex));
+                    order.addItem(new Order.OrderItem(book, 1 + geometric(random, 0.7),
+                            bookPrice(random(BOOK, bookIndex))));
+                }
+                writer.row(order);
+
+                if ((i + 1) % progressEvery == 0) {
+                    log.info("Generated {} of {} orders", i + 1, scale.orders());
+                }
+            }
+        }
+    }
+
+    private int salespersonIndex(SplittableRandom random) {
+        int index;
+        do {
+            index = random.nextInt(scale.employees());
+        } while (isAdministrator(index));
+        return index;
+    }
+
+    /**
+     * First draw of a book's random stream, so orders can recompute the price from the index
+     */
+    private static long bookPrice(SplittableRandom bookRandom) {
+        return 500 + 100L * bookRandom.nextInt(1_500) + (bookRandom.nextBoolean() ? 99 : 0);
+    }
+
+    private static int skewed(SplittableRandom random, int n, double exponent) {
+        // Cheap power-law pick for attributes, orders use the exact ZipfSampler
+        return (int) Math.min(n - 1, Math.floor(n * Math.pow(random.nextDouble(), 1 + exponent)));
+    }
+
+    private static int geometric(SplittableRandom random, double continueProbability) {
+        int n = 0;
+        while (random.nextDouble() < continueProbability && n < 20) {
+            n++;
+        }
+        return n;
+    }
+
+    private SplittableRandom random(long kind, long index) {
+        return new SplittableRandom(mix(mix(seed ^ kind * 0x9E3779B97F4A7C15L) + index));
+    }
+
+    private String id(long kind, long index) {
+        long high = mix(mix(seed + kind) ^ index);
+        long low = mix(high ^ 0x632BE59BD9B4E019L);
+        // Version 4 layout so the IDs look like the ones UUID.randomUUID() produces
+        high = (high & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        low = (low & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * ISBN-13 in the 978 prefix with a valid check digit, distinct for the first 900 million books
+     */
+    private static String isbn(int index) {
+        String digits = "978" + (100_000_000 + index % 900_000_000);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return "978-" + digits.substring(3) + (10 - sum % 10) % 10;
+    }
+
+    private static String email(String name, String lastName, int index, String domain) {
+        return (name.charAt(0) + lastName + index + "@" + domain).toLowerCase();
+    }
+
+    private static String address(SplittableRandom random) {
+        return "Calle " + (1 + random.nextInt(150)) + " #" + (1 + random.nextInt(99)) + "-" + (1 + random.nextInt(99))
+                + ", " + pick(random, CITIES);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1/(rank+1)^exponent,
+     * by binary search over the cumulative distribution
+     */
+    public static final class ZipfSampler {
+
+        private final double[] cumulative;
+
+        public ZipfSampler(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1.0 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
+            }
+        }
+
+        public int sample(SplittableRandom random) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
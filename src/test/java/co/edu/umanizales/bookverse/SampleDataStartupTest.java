@@ -0,0 +1,45 @@
+package co.edu.umanizales.bookverse;
+
+import co.edu.umanizales.bookverse.repository.IOrderRepository;
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SampleDataStartupTest {
+
+	// its own generated data: starting up migrates the orders file and writes index files
+	@TempDir
+	static Path dataDir;
+
+	private static long legacyOrders;
+
+	@Autowired
+	private IOrderRepository orderRepository;
+
+	@DynamicPropertySource
+	static void dataPath(DynamicPropertyRegistry properties) throws IOException {
+		new DatasetGenerator(DatasetGenerator.Scale.forOrders(2_000), 7).generate(dataDir);
+		try (Stream<String> lines = Files.lines(dataDir.resolve("ordenes.csv"))) {
+			legacyOrders = lines.filter(line -> !line.isBlank()).count();
+		}
+		properties.add("bookverse.data.path", dataDir::toString);
+	}
+
+	@Test
+	void legacyOrdersAreAllMigratedOnStartup() {
+		assertEquals(legacyOrders, orderRepository.count());
+	}
+
+}
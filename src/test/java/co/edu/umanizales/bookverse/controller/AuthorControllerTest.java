@@ -0,0 +1,56 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.service.AuthorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthorControllerTest {
+
+    @TempDir
+    Path dataDir;
+
+    private IAuthorRepository repository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository = new AuthorCsvRepository(dataDir.toString());
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthorController(new AuthorService(repository))).build();
+    }
+
+    @Test
+    void postCreatesOnlyNewIdsAndPutOnlyUpdatesStoredOnes() throws Exception {
+        mockMvc.perform(post("/api/authors").contentType(MediaType.APPLICATION_JSON).content(author("Gabriel")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/authors").contentType(MediaType.APPLICATION_JSON).content(author("Otro")))
+                .andExpect(status().isConflict());
+        assertEquals("Gabriel", repository.findById("a-1").orElseThrow().getName());
+
+        mockMvc.perform(put("/api/authors/a-1").contentType(MediaType.APPLICATION_JSON).content(author("Gabo")))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/authors/a-2").contentType(MediaType.APPLICATION_JSON).content(author("Nadie")))
+                .andExpect(status().isNotFound());
+        assertEquals("Gabo", repository.findById("a-1").orElseThrow().getName());
+        assertEquals(1, repository.count());
+    }
+
+    private static String author(String name) {
+        return """
+                {"id": "a-1", "name": "%s", "lastName": "García Márquez", "nationality": "Colombiana",
+                 "birthDate": "1927-03-06", "email": "gabo@example.com"}
+                """.formatted(name);
+    }
+}
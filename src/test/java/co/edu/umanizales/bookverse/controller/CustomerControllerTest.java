@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.exception.GlobalExceptionHandler;
+import co.edu.umanizales.bookverse.repository.ICustomerRepository;
+import co.edu.umanizales.bookverse.repository.csv.CustomerCsvRepository;
+import co.edu.umanizales.bookverse.service.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CustomerControllerTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ICustomerRepository repository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CustomerCsvRepository(dataDir.toString());
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new CustomerController(new CustomerService(repository, new SimpleMeterRegistry())))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void emailsThatCannotBeIndexedAreRejectedBeforeAnythingIsWritten() throws Exception {
+        String longEmail = "a".repeat(250) + "@example.com";
+        mockMvc.perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON).content(customer(longEmail)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(customer("ana\\u0000@example.com")))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, repository.count());
+
+        mockMvc.perform(post("/api/customers").contentType(MediaType.APPLICATION_JSON)
+                        .content(customer("ana@example.com")))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/api/customers/c-1").contentType(MediaType.APPLICATION_JSON).content(customer(longEmail)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/customers/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + customer(longEmail) + "]"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.failed").value(1));
+        assertEquals("ana@example.com", repository.findById("c-1").orElseThrow().getEmail());
+        assertEquals(1, repository.findByEmail("ANA@example.com").size());
+    }
+
+    private static String customer(String email) {
+        return """
+                {"id": "c-1", "name": "Ana", "lastName": "Pérez", "email": "%s", "phone": "3001234567",
+                 "address": "Calle 1", "registrationDate": "2025-01-10", "active": true}
+                """.formatted(email);
+    }
+}
@@ -0,0 +1,86 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.exception.ExportAbortedException;
+import co.edu.umanizales.bookverse.exception.GlobalExceptionHandler;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.csv.*;
+import co.edu.umanizales.bookverse.service.ExportService;
+import co.edu.umanizales.bookverse.service.StockWriteBuffer;
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class ExportControllerTest {
+
+    @TempDir
+    Path dataDir;
+
+    private ExportController controller;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new DatasetGenerator(new DatasetGenerator.Scale(10, 50, 5, 4, 10), 42).generate(dataDir);
+        String path = dataDir.toString();
+        AuthorCsvRepository authors = new AuthorCsvRepository(path);
+        // the disk goes away after 40 of the 50 books
+        BookCsvRepository books = new BookCsvRepository(path, authors) {
+            @Override
+            public void forEach(Consumer<? super Book> consumer) {
+                int[] rows = {0};
+                super.forEach(book -> {
+                    if (rows[0]++ == 40) {
+                        throw new RuntimeException("Error reading books file");
+                    }
+                    consumer.accept(book);
+                });
+            }
+        };
+        CustomerCsvRepository customers = new CustomerCsvRepository(path);
+        EmployeeCsvRepository employees = new EmployeeCsvRepository(path);
+        controller = new ExportController(new ExportService(books,
+                new StockWriteBuffer(books, Duration.ZERO, new SimpleMeterRegistry()), authors, customers, employees,
+                new OrderCsvRepository(path, customers, employees, books)));
+    }
+
+    @Test
+    void failureMidStreamLeavesTheBodyUnfinished() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(ExportAbortedException.class,
+                () -> controller.export("books", Map.of("gzip", "true"), null, response));
+
+        assertTrue(response.isCommitted());
+        assertThrows(EOFException.class, () -> new GZIPInputStream(
+                new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes());
+    }
+
+    @Test
+    void failureMidStreamReachesTheContainerInsteadOfAnErrorBody() {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        ServletException thrown = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/export/books")));
+
+        assertInstanceOf(ExportAbortedException.class, thrown.getCause());
+    }
+}
@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.controller;
+
+import co.edu.umanizales.bookverse.repository.IOrderRepository;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.CustomerCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.EmployeeCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.OrderCsvRepository;
+import co.edu.umanizales.bookverse.service.OrderService;
+import co.edu.umanizales.bookverse.service.StockWriteBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderControllerTest {
+
+    @TempDir
+    Path dataDir;
+
+    private IOrderRepository repository;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        String path = dataDir.toString();
+        BookCsvRepository books = new BookCsvRepository(path, new AuthorCsvRepository(path));
+        repository = new OrderCsvRepository(path, new CustomerCsvRepository(path), new EmployeeCsvRepository(path),
+                books);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(
+                new OrderService(repository, new StockWriteBuffer(books, Duration.ZERO, registry), registry))).build();
+    }
+
+    @Test
+    void postWithAnExistingIdIsAConflictAndKeepsTheStoredOrder() throws Exception {
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(order("PENDING")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON).content(order("CANCELLED")))
+                .andExpect(status().isConflict());
+
+        assertEquals(1, repository.count());
+        mockMvc.perform(get("/api/orders/o-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    private static String order(String status) {
+        return """
+                {"id": "o-1", "customer": {"id": "c-1"}, "salesperson": {"id": "e-1"},
+                 "orderDate": "2025-06-01T10:15:00", "paymentMethod": "CASH", "status": "%s",
+                 "shippingAddress": "Calle 10 #20-30, Manizales",
+                 "items": [{"book": {"id": "b-1"}, "quantity": 2, "unitPrice": 1500}]}
+                """.formatted(status);
+    }
+}
@@ -0,0 +1,195 @@
+package co.edu.umanizales.bookverse.load;
+
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the application on a random port against a generated dataset and drives a weighted
+ * mix of scenarios from virtual-thread clients. Latencies go into HdrHistograms per scenario;
+ * the summary is logged and written to target/load-test-report.json.
+ * <p>
+ * Excluded from the regular build; run with mvn -Pload-test test. The run fails when the error
+ * rate or the optional loadtest.p99.max-ms / loadtest.p999.max-ms thresholds are exceeded.
+ */
+@Tag("load")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookVerseLoadTest {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+    private static final DatasetGenerator.Scale SCALE = DatasetGenerator.Scale.forOrders(SETTINGS.orders());
+    private static final DatasetGenerator GENERATOR = new DatasetGenerator(SCALE, SETTINGS.seed());
+
+    @LocalServerPort
+    private int port;
+
+    // removed after the class, once the dirtied context has been closed
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void dataset(DynamicPropertyRegistry registry) throws IOException {
+        GENERATOR.generate(dataDir);
+        registry.add("bookverse.data.path", dataDir::toString);
+    }
+
+    @Test
+    void mixedWorkloadStaysWithinLatencyBudget() throws Exception {
+        LoadScenario.Target target = new LoadScenario.Target(
+                URI.create("http://localhost:" + port), GENERATOR, SCALE);
+        Map<LoadScenario, Stats> stats = new EnumMap<>(LoadScenario.class);
+        SETTINGS.mix().keySet().forEach(scenario -> stats.put(scenario, new Stats()));
+        LoadScenario[] wheel = weightedWheel(SETTINGS.mix());
+
+        long start = System.nanoTime();
+        long measureFrom = start + SETTINGS.warmup().toNanos();
+        long deadline = measureFrom + SETTINGS.duration().toNanos();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .build()) {
+            for (int c = 0; c < SETTINGS.clients(); c++) {
+                SplittableRandom random = new SplittableRandom(SETTINGS.seed() * 31 + c);
+                clients.submit(() -> runClient(http, target, wheel, random, stats, measureFrom, deadline));
+            }
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(SETTINGS.warmup().plus(SETTINGS.duration()).toSeconds() + 120,
+                    TimeUnit.SECONDS), "Load clients did not finish");
+        }
+
+        double seconds = SETTINGS.duration().toNanos() / 1e9;
+        List<Map<String, Object>> report = new ArrayList<>();
+        Histogram overall = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        for (Map.Entry<LoadScenario, Stats> entry : stats.entrySet()) {
+            Stats s = entry.getValue();
+            overall.add(s.latencies);
+            totalErrors += s.errors.get();
+            report.add(summary(entry.getKey().scenarioName(), s.latencies, s.errors.get(), seconds));
+        }
+        Map<String, Object> all = summary("all", overall, totalErrors, seconds);
+        report.add(all);
+        writeReport(report);
+        report.forEach(row -> log.info("{}", row));
+
+        long requests = overall.getTotalCount() + totalErrors;
+        assertTrue(requests > 0, "No request completed inside the measurement window");
+        double errorRate = totalErrors / (double) requests;
+        assertTrue(errorRate <= SETTINGS.maxErrorRate(),
+                "Error rate " + errorRate + " above " + SETTINGS.maxErrorRate());
+        assertWithin("p99", (double) all.get("p99Ms"), SETTINGS.maxP99Millis());
+        assertWithin("p999", (double) all.get("p999Ms"), SETTINGS.maxP999Millis());
+    }
+
+    private static void runClient(HttpClient http, LoadScenario.Target target, LoadScenario[] wheel,
+                                  SplittableRandom random, Map<LoadScenario, Stats> stats,
+                                  long measureFrom, long deadline) {
+        while (true) {
+            LoadScenario scenario = wheel[random.nextInt(wheel.length)];
+            HttpRequest request = scenario.request(target, random);
+            long begin = System.nanoTime();
+            if (begin >= deadline) {
+                return;
+            }
+            boolean ok;
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                ok = scenario.succeeded(response);
+            } catch (IOException e) {
+                log.debug("{} request failed: {}", scenario.scenarioName(), e.toString());
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+            if (begin >= measureFrom) {
+                Stats s = stats.get(scenario);
+                if (ok) {
+                    s.latencies.recordValue(Math.min((end - begin) / 1_000, HIGHEST_TRACKABLE_MICROS));
+                } else {
+                    s.errors.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static LoadScenario[] weightedWheel(Map<LoadScenario, Integer> mix) {
+        List<LoadScenario> wheel = new ArrayList<>();
+        mix.forEach((scenario, weight) -> wheel.addAll(Collections.nCopies(weight, scenario)));
+        return wheel.toArray(new LoadScenario[0]);
+    }
+
+    private static Map<String, Object> summary(String name, Histogram latencies, long errors, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("scenario", name);
+        row.put("requests", latencies.getTotalCount());
+        row.put("errors", errors);
+        row.put("throughputPerSecond", Math.round(latencies.getTotalCount() / seconds * 10) / 10.0);
+        row.put("p50Ms", millis(latencies, 50));
+        row.put("p99Ms", millis(latencies, 99));
+        row.put("p999Ms", millis(latencies, 99.9));
+        row.put("maxMs", latencies.getMaxValue() / 1_000.0);
+        return row;
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    private static void assertWithin(String percentile, double actualMillis, double maxMillis) {
+        if (!Double.isNaN(maxMillis)) {
+            assertTrue(actualMillis <= maxMillis,
+                    percentile + " latency " + actualMillis + " ms above threshold " + maxMillis + " ms");
+        }
+    }
+
+    private static void writeReport(List<Map<String, Object>> report) throws IOException {
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("settings", SETTINGS);
+        document.put("scale", SCALE);
+        document.put("results", report);
+        Path file = Paths.get("target", "load-test-report.json");
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().findAndRegisterModules()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValue(file.toFile(), document);
+    }
+
+    private static final class Stats {
+        final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,166 @@
+package co.edu.umanizales.bookverse.load;
+
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * User journeys driven by the load test. Book and customer picks follow the same
+ * Zipf skew as the generated dataset, so hot records get most of the traffic.
+ */
+enum LoadScenario {
+
+    /**
+     * Book detail pages, with the occasional full catalog listing
+     */
+    BROWSE("browse") {
+        @Override
+        HttpRequest request(Target target, SplittableRandom random) {
+            if (random.nextInt(10) == 0) {
+                return target.get("/api/books");
+            }
+            return target.get("/api/books/" + target.popularBook(random));
+        }
+    },
+
+    /**
+     * Catalog searches by genre and author
+     */
+    SEARCH("search") {
+        @Override
+        HttpRequest request(Target target, SplittableRandom random) {
+            if (random.nextBoolean()) {
+                String genre = GENRES[random.nextInt(GENRES.length)];
+                return target.get("/api/books/genre/" + URLEncoder.encode(genre, StandardCharsets.UTF_8).replace("+", "%20"));
+            }
+            return target.get("/api/books/author/"
+                    + target.generator().authorId(random.nextInt(target.scale().authors())));
+        }
+    },
+
+    /**
+     * Order creation for a skewed customer with one to three popular books
+     */
+    CHECKOUT("checkout") {
+        @Override
+        HttpRequest request(Target target, SplittableRandom random) {
+            StringBuilder items = new StringBuilder();
+            int count = 1 + random.nextInt(3);
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    items.append(',');
+                }
+                items.append("{\"book\":{\"id\":\"").append(target.popularBook(random))
+                        .append("\"},\"quantity\":").append(1 + random.nextInt(2))
+                        .append(",\"unitPrice\":").append(5 + random.nextInt(100)).append(".99}");
+            }
+            String body = "{\"customer\":{\"id\":\"" + target.activeCustomer(random) + "\"},"
+                    + "\"salesperson\":{\"id\":\"" + target.salesperson(random) + "\"},"
+                    + "\"orderDate\":\"2025-06-01T10:15:00\","
+                    + "\"items\":[" + items + "],"
+                    + "\"paymentMethod\":\"CREDIT_CARD\",\"status\":\"CREATED\","
+                    + "\"shippingAddress\":\"Calle 10 #20-30, Manizales\"}";
+            return target.post("/api/orders", body);
+        }
+    },
+
+    /**
+     * Stock movements on popular books; increases and decreases balance out
+     */
+    STOCK("stock") {
+        @Override
+        HttpRequest request(Target target, SplittableRandom random) {
+            String path = random.nextBoolean() ? "/increase-stock" : "/reduce-stock";
+            return target.post("/api/books/" + target.popularBook(random) + path, "{\"quantity\":1}");
+        }
+
+        /**
+         * A tenth of the generated books start sold out, so a reduction may be refused
+         * with 400 Insufficient stock; that is the expected answer, not an error
+         */
+        @Override
+        boolean succeeded(HttpResponse<?> response) {
+            return super.succeeded(response) || response.statusCode() == 400
+                    && response.request().uri().getPath().endsWith("/reduce-stock");
+        }
+    };
+
+    private static final String[] GENRES = {"Novela", "Fantasía", "Historia", "Poesía", "Ensayo"};
+
+    private final String name;
+
+    LoadScenario(String name) {
+        this.name = name;
+    }
+
+    abstract HttpRequest request(Target target, SplittableRandom random);
+
+    /**
+     * Whether the response counts as a served request rather than an error
+     */
+    boolean succeeded(HttpResponse<?> response) {
+        return response.statusCode() < 400;
+    }
+
+    String scenarioName() {
+        return name;
+    }
+
+    static LoadScenario fromName(String name) {
+        for (LoadScenario scenario : values()) {
+            if (scenario.name.equalsIgnoreCase(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown load scenario: " + name);
+    }
+
+    /**
+     * Running application plus the dataset it was started with
+     */
+    record Target(URI baseUri, DatasetGenerator generator, DatasetGenerator.Scale scale,
+                  DatasetGenerator.ZipfSampler books, DatasetGenerator.ZipfSampler customers) {
+
+        private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+        Target(URI baseUri, DatasetGenerator generator, DatasetGenerator.Scale scale) {
+            this(baseUri, generator, scale,
+                    new DatasetGenerator.ZipfSampler(scale.books(), 1.0),
+                    new DatasetGenerator.ZipfSampler(scale.customers(), 0.8));
+        }
+
+        String popularBook(SplittableRandom random) {
+            return generator.bookId(books.sample(random));
+        }
+
+        String activeCustomer(SplittableRandom random) {
+            return generator.customerId(customers.sample(random));
+        }
+
+        String salesperson(SplittableRandom random) {
+            int index;
+            do {
+                index = random.nextInt(scale.employees());
+            } while (DatasetGenerator.isAdministrator(index));
+            return generator.employeeId(index);
+        }
+
+        HttpRequest get(String path) {
+            return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(TIMEOUT).GET().build();
+        }
+
+        HttpRequest post(String path, String json) {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package co.edu.umanizales.bookverse.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test knobs, read from system properties so they can be passed with -D on the Maven command line.
+ * Latency thresholds are optional; when unset the run only reports.
+ */
+record LoadTestSettings(
+        long orders,
+        long seed,
+        int clients,
+        Duration warmup,
+        Duration duration,
+        Map<LoadScenario, Integer> mix,
+        double maxP99Millis,
+        double maxP999Millis,
+        double maxErrorRate) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Long.getLong("loadtest.orders", 500),
+                Long.getLong("loadtest.seed", 42),
+                Integer.getInteger("loadtest.clients", 32),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 20)),
+                parseMix(System.getProperty("loadtest.mix", "browse=60,search=20,checkout=10,stock=10")),
+                doubleProperty("loadtest.p99.max-ms"),
+                doubleProperty("loadtest.p999.max-ms"),
+                Double.parseDouble(System.getProperty("loadtest.error-rate.max", "0.01")));
+    }
+
+    /**
+     * Parses "browse=60,search=20,..." into scenario weights
+     */
+    static Map<LoadScenario, Integer> parseMix(String mix) {
+        Map<LoadScenario, Integer> weights = new EnumMap<>(LoadScenario.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                weights.put(LoadScenario.fromName(kv[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix selects no scenario: " + mix);
+        }
+        return weights;
+    }
+
+    private static double doubleProperty(String name) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? Double.NaN : Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRowWriterTest {
+
+    @Test
+    void encodesNumbersDatesAndQuotingLikeTheJdk() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LocalDateTime withNanos = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 120_000_000);
+        try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out), 64)) {
+            writer.field("plain").field("a,b").field("say \"hi\"").field((String) null)
+                    .field(-42).money(-1).money(3099).decimal(1234.5)
+                    .date(LocalDate.of(987, 6, 5)).dateTime(withNanos)
+                    .dateTime(LocalDateTime.of(2025, 1, 2, 3, 4))
+                    .joined(List.of("x", "y")).joined(List.of())
+                    .endRow();
+            writer.field("añil €").quoted("🙂").endRow();
+        }
+
+        String expected = "plain,\"a,b\",\"say \"\"hi\"\"\",,-42,-0.01,30.99,1234.50,"
+                + "0987-06-05," + withNanos + ",2025-01-02T03:04,\"x;y\",\n"
+                + "añil €,\"🙂\"\n";
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void decimalsRoundLikeTheFormatter() {
+        double[] values = {0, 1.005, 2.675, 0.125, 0.135, -0.001, -0.005, -1.005, 1234.5, 99.994999,
+                1e-9, 12345678.125, 1e20, Double.NaN};
+        for (double value : values) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out), 64)) {
+                writer.decimal(value);
+            }
+            assertEquals(String.format(Locale.US, "%.2f", value), out.toString(StandardCharsets.UTF_8),
+                    "value " + value);
+        }
+    }
+
+    @Test
+    void orderRowRoundTripsThroughTheWriter() {
+        Order order = new Order("o-1", new Customer(), new Salesperson(), LocalDateTime.of(2025, 11, 16, 18, 52),
+                PaymentMethod.CASH, "CREATED", null);
+        for (int i = 0; i < 500; i++) {
+            Book book = new Book();
+            book.setId("b-" + i);
+            order.addItem(new Order.OrderItem(book, 1, 1000 + i));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out), 256)) {
+            writer.row(order);
+        }
+
+        assertEquals(order.toCsv() + "\n", out.toString(StandardCharsets.UTF_8));
+        assertTrue(order.toCsv().contains("b-0:1:10.00;b-1:1:10.01;"));
+    }
+}
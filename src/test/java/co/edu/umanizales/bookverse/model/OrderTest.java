@@ -0,0 +1,68 @@
+package co.edu.umanizales.bookverse.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTest {
+
+    private Order order() {
+        return new Order("o-1", new Customer(), new Salesperson(), LocalDateTime.of(2025, 11, 16, 18, 52),
+                PaymentMethod.CREDIT_CARD, "CREATED", "Calle 123 #45-67, Ciudad");
+    }
+
+    private Order.OrderItem item(String bookId, int quantity, long unitPrice) {
+        Book book = new Book();
+        book.setId(bookId);
+        return new Order.OrderItem(book, quantity, unitPrice);
+    }
+
+    @Test
+    void totalsAreMaintainedIncrementally() {
+        Order order = order();
+        order.addItem(item("b-1", 2, 3099));
+        order.addItem(item("b-2", 1, 1001));
+
+        assertEquals(7199, order.getSubtotal());
+        assertEquals(1368, order.getTaxes());
+        assertEquals(8567, order.getTotal());
+
+        assertTrue(order.removeItem("b-1"));
+        assertEquals(1001, order.getSubtotal());
+        assertEquals(190, order.getTaxes());
+        assertEquals(1191, order.getTotal());
+
+        order.calculateTotals();
+        assertEquals(1191, order.getTotal());
+    }
+
+    @Test
+    void csvUsesDotDecimalsWhateverTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("es-CO"));
+        try {
+            Order order = order();
+            order.addItem(item("b-1", 1, 3099));
+
+            String csv = order.toCsv();
+            assertTrue(csv.contains("\"b-1:1:30.99\",30.99,5.89,36.88,CREDIT_CARD,CREATED"), csv);
+            assertTrue(csv.endsWith(",\"Calle 123 #45-67, Ciudad\""), csv);
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void moneyParsesAndFormatsMinorUnits() {
+        assertEquals(4500000, Money.parse("45000"));
+        assertEquals(3099, Money.parse("30.99"));
+        assertEquals(150, Money.parse("1.5"));
+        assertEquals(-1001, Money.parse("-10.005"));
+        assertEquals("30.99", Money.format(3099));
+        assertEquals("-0.05", Money.format(-5));
+        assertThrows(NumberFormatException.class, () -> Money.parse("0,00"));
+    }
+}
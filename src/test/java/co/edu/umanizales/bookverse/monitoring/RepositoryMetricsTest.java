@@ -0,0 +1,72 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class RepositoryMetricsTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void dataPath(DynamicPropertyRegistry properties) {
+        properties.add("bookverse.data.path", dataDir::toString);
+    }
+
+    @Test
+    void repositoryOperationsAreMeteredAndScraped() throws Exception {
+        authorRepository.save(new Author(null, "Isabel", "Allende", "Chilena",
+                LocalDate.of(1942, 8, 2), "Escritora", "isabel@example.com"));
+        Files.writeString(dataDir.resolve("autores.csv"), "not,a,valid,author,date\n",
+                StandardOpenOption.APPEND);
+
+        assertEquals(1, authorRepository.findAll().size());
+
+        assertEquals(1, registry.get("bookverse.repository.operation")
+                .tags("repository", "authors", "operation", "findAll", "outcome", "success").timer().count());
+        assertEquals(1.0, registry.get("bookverse.repository.rows.returned")
+                .tags("repository", "authors", "operation", "findAll").summary().totalAmount());
+        assertEquals(1.0, registry.get("bookverse.repository.parse.failures")
+                .tags("repository", "authors").counter().count());
+        assertTrue(registry.get("bookverse.repository.bytes.written").tags("repository", "authors")
+                .counter().count() > 0);
+        assertEquals(2.0, registry.get("bookverse.repository.rows.scanned").tags("repository", "authors")
+                .counter().count());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(scrape.contains("bookverse_repository_operation_seconds_bucket"), scrape);
+        assertTrue(scrape.contains("bookverse_repository_bytes_read_total"), scrape);
+    }
+}
@@ -0,0 +1,79 @@
+package co.edu.umanizales.bookverse.monitoring;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "bookverse.slow-log.threshold=0ms")
+@AutoConfigureMockMvc
+class SlowOperationLogTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    @Autowired
+    private SlowOperationLog slowOperationLog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void dataPath(DynamicPropertyRegistry properties) {
+        properties.add("bookverse.data.path", dataDir::toString);
+    }
+
+    @Test
+    void requestIsLoggedWithParametersStagesAndRowsScanned() throws Exception {
+        Author author = authorRepository.save(new Author(null, "Isabel", "Allende", "Chilena",
+                LocalDate.of(1942, 8, 2), "Escritora", "isabel@example.com"));
+        for (String genre : List.of("Novela", "Novela", "Poesía")) {
+            Book book = new Book();
+            book.setTitle("Libro " + genre);
+            book.setGenre(genre);
+            book.setAuthor(author);
+            bookRepository.save(book);
+        }
+        slowOperationLog.clear();
+
+        mockMvc.perform(get("/api/books/genre/Novela")).andExpect(status().isOk());
+
+        SlowOperation entry = slowOperationLog.getEntries().get(0);
+        assertEquals("controller", entry.layer());
+        assertEquals("BookController.getBooksByGenre(request,genre)", entry.shape());
+        assertEquals("Novela", entry.parameters().get("genre"));
+        assertEquals("GET /api/books/genre/Novela", entry.parameters().get("request"));
+        assertTrue(entry.rowsScanned() >= 3, entry.toString());
+
+        SlowOperation.Stage service = entry.stages().get(0);
+        assertEquals("BookService.getBooksByGenre", service.operation());
+        assertEquals(1, service.calls());
+        assertTrue(entry.stages().stream().anyMatch(stage -> stage.layer().equals("repository")
+                && stage.operation().endsWith("findByGenre") && stage.rowsScanned() >= 3), entry.toString());
+
+        assertEquals(1, slowOperationLog.getShapes().size());
+        mockMvc.perform(get("/api/admin/slow-operations/shapes")).andExpect(status().isOk());
+    }
+}
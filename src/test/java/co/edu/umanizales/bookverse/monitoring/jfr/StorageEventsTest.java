@@ -0,0 +1,72 @@
+package co.edu.umanizales.bookverse.monitoring.jfr;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageEventsTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void bookReadsEmitFileParseAndLookupEvents() throws Exception {
+        AuthorCsvRepository authors = new AuthorCsvRepository(dataDir.toString());
+        BookCsvRepository books = new BookCsvRepository(dataDir.toString(), authors);
+        Author author = new Author();
+        author.setName("Gabriel");
+        author.setLastName("García Márquez");
+        author.setNationality("Colombiana");
+        authors.save(author);
+        for (int i = 0; i < 3; i++) {
+            Book book = new Book();
+            book.setTitle("Libro " + i);
+            book.setAuthor(author);
+            books.save(book);
+        }
+
+        Path file = dataDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : List.of("bookverse.CsvRead", "bookverse.CsvWrite",
+                    "bookverse.ParseBatch", "bookverse.ReferenceLookup")) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            assertEquals(3, books.findAll().size());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(e -> e.getEventType().getName()));
+        RecordedEvent read = events.get("bookverse.CsvRead").stream()
+                .filter(e -> "books".equals(e.getString("entity")))
+                .findFirst().orElseThrow();
+        assertEquals(3, read.getLong("rows"));
+        assertTrue(read.getLong("bytes") > 0);
+        RecordedEvent batch = events.get("bookverse.ParseBatch").stream()
+                .filter(e -> "books".equals(e.getString("entity")))
+                .findFirst().orElseThrow();
+        assertEquals(3, batch.getLong("rows"));
+        assertEquals(1, batch.getLong("firstLine"));
+        List<RecordedEvent> lookups = events.get("bookverse.ReferenceLookup");
+        assertEquals(3, lookups.size());
+        assertTrue(lookups.stream().allMatch(e -> e.getBoolean("found")
+                && "authors".equals(e.getString("targetEntity"))));
+        assertNull(events.get("bookverse.CsvWrite"));
+    }
+}
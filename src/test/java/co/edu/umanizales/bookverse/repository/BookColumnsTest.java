@@ -0,0 +1,61 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookColumnsTest {
+
+    @Test
+    void applyReplacesAddsAndRemovesRowsById() {
+        BookColumns.Builder builder = BookColumns.builderById(0);
+        builder.add(book("b-1", "Novela", 1000, 1));
+        builder.add(book("b-2", "Poesía", 2000, 2));
+        builder.add(book("b-3", "Novela", 3000, 3));
+        BookColumns columns = builder.build();
+        assertEquals(14_000L, columns.inventoryValue());
+
+        columns.apply(List.of(book("b-1", "Novela", 1000, 1)),
+                List.of(book("b-3", "Ensayo", 3000, 5), book("b-4", "Poesía", 500, 4)));
+
+        assertEquals(3, columns.size());
+        assertEquals(4_000L + 15_000L + 2_000L, columns.inventoryValue());
+        assertEquals(11, columns.totalUnits());
+        assertEquals(Map.of("Poesía", 2, "Ensayo", 1), genreTitles(columns));
+
+        columns.apply(List.of(book("b-2", "", 0, 0), book("missing", "", 0, 0)), List.of());
+        assertEquals(Map.of("Poesía", 1, "Ensayo", 1), genreTitles(columns));
+        assertEquals(new BookColumns.PriceStatistics(2, 500, 3000, 1750), columns.priceStatistics());
+    }
+
+    @Test
+    void columnsBuiltWithoutIdsCannotBeUpdated() {
+        BookColumns columns = BookColumns.of(List.of(book("b-1", "Novela", 1000, 1)));
+
+        assertThrows(IllegalStateException.class, () -> columns.apply(List.of(), List.of()));
+        assertEquals(1, columns.titlesByLanguage().get("Español"));
+    }
+
+    private static Map<String, Integer> genreTitles(BookColumns columns) {
+        Map<String, Integer> titles = new HashMap<>();
+        columns.genreRollup().forEach(summary -> titles.put(summary.genre(), summary.titles()));
+        return titles;
+    }
+
+    private static Book book(String id, String genre, long price, int stock) {
+        Book book = new Book();
+        book.setId(id);
+        book.setGenre(genre);
+        book.setPrice(price);
+        book.setStock(stock);
+        book.setPageCount(100);
+        book.setLanguage("Español");
+        book.setPublisher("Sudamericana");
+        return book;
+    }
+}
@@ -0,0 +1,243 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behavior every IBookRepository implementation must share.
+ * Each implementation gets a concrete test class extending this one.
+ */
+public abstract class BookRepositoryContract {
+
+    @TempDir
+    protected Path dataDir;
+
+    protected IAuthorRepository authorRepository;
+    protected IBookRepository repository;
+    protected Author author;
+
+    protected abstract IBookRepository createRepository(String dataPath, IAuthorRepository authorRepository);
+
+    @BeforeEach
+    void setUp() {
+        authorRepository = new AuthorCsvRepository(dataDir.toString());
+        author = authorRepository.save(new Author(null, "Gabriel", "Garcia Marquez", "Colombiana",
+                LocalDate.of(1927, 3, 6), "Premio Nobel, 1982", "gabo@example.com"));
+        repository = createRepository(dataDir.toString(), authorRepository);
+    }
+
+    protected Book book(String title, String genre, long price, int stock) {
+        return new Book(null, "978-0307474728", title, author, "Sudamericana",
+                LocalDate.of(1967, 5, 30), genre, 471, price, stock, "Una \"obra\", maestra", "Español");
+    }
+
+    @Test
+    void saveAssignsIdAndFindsItBack() {
+        Book saved = repository.save(book("Cien años de soledad", "Realismo mágico", 5_500_000L, 3));
+
+        assertNotNull(saved.getId());
+        Optional<Book> found = repository.findById(saved.getId());
+        assertTrue(found.isPresent());
+        assertEquals("Cien años de soledad", found.get().getTitle());
+        assertEquals("Una \"obra\", maestra", found.get().getDescription());
+        assertEquals(5_500_000L, found.get().getPrice());
+        assertEquals(LocalDate.of(1967, 5, 30), found.get().getPublicationDate());
+        assertEquals("Gabriel Garcia Marquez", found.get().getAuthorName());
+    }
+
+    @Test
+    void saveWithExistingIdUpdatesInsteadOfDuplicating() {
+        Book saved = repository.save(book("Cien años de soledad", "Realismo mágico", 5_500_000L, 3));
+        saved.setTitle("Cien años de soledad (Edición revisada)");
+        saved.setStock(10);
+        repository.save(saved);
+
+        List<Book> all = repository.findAll();
+        assertEquals(1, all.size());
+        assertEquals("Cien años de soledad (Edición revisada)", all.get(0).getTitle());
+        assertEquals(10, all.get(0).getStock());
+    }
+
+    @Test
+    void findAllByIdKeepsTheRequestedOrder() {
+        Book first = repository.save(book("Uno", "Novela", 1000, 1));
+        Book second = repository.save(book("Dos", "Novela", 2000, 1));
+        repository.save(book("Tres", "Novela", 3000, 1));
+
+        List<Book> found = repository.findAllById(List.of(second.getId(), "missing", first.getId(), second.getId()));
+
+        assertEquals(List.of("Dos", "Uno"), found.stream().map(Book::getTitle).toList());
+        assertEquals("Gabriel Garcia Marquez", found.get(0).getAuthorName());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void deleteRemovesOnlyTheGivenBook() {
+        Book first = repository.save(book("Uno", "Novela", 1000, 1));
+        Book second = repository.save(book("Dos", "Novela", 2000, 1));
+
+        repository.deleteById(first.getId());
+        repository.deleteById("missing");
+
+        assertFalse(repository.existsById(first.getId()));
+        assertTrue(repository.existsById(second.getId()));
+        assertEquals(1, repository.findAll().size());
+    }
+
+    @Test
+    void conditionalWritesOnlyApplyWhenTheIdIsAbsentOrPresent() {
+        Book first = book("Uno", "Novela", 1000, 1);
+        assertTrue(repository.insertIfAbsent(first));
+        assertNotNull(first.getId());
+        assertTrue(repository.insertIfAbsent(book("Otro", "Novela", 1000, 1)));
+        Book duplicate = book("Duplicado", "Novela", 9000, 9);
+        duplicate.setId(first.getId());
+        assertFalse(repository.insertIfAbsent(duplicate));
+
+        Book replacement = book("Uno (revisado)", "Novela", 1500, 2);
+        assertEquals("Uno (revisado)", repository.updateIfExists(first.getId(), replacement)
+                .map(Book::getTitle).orElse(null));
+        assertEquals(first.getId(), replacement.getId());
+        assertTrue(repository.updateIfExists("missing", book("Nada", "Novela", 1, 1)).isEmpty());
+
+        assertEquals(2, repository.computeIfPresent(first.getId(), stored -> null).map(Book::getStock).orElse(-1));
+        assertEquals(7, repository.computeIfPresent(first.getId(), stored -> {
+            stored.setStock(7);
+            return stored;
+        }).map(Book::getStock).orElse(-1));
+
+        IBookRepository reopened = createRepository(dataDir.toString(), authorRepository);
+        Book stored = reopened.findById(first.getId()).orElseThrow();
+        assertEquals("Uno (revisado)", stored.getTitle());
+        assertEquals(7, stored.getStock());
+        assertEquals(2, reopened.count());
+
+        assertTrue(repository.deleteIfExists(first.getId()));
+        assertFalse(repository.deleteIfExists(first.getId()));
+        assertFalse(repository.existsById(first.getId()));
+    }
+
+    @Test
+    void findersFilterByGenreAuthorAndStock() {
+        repository.save(book("Uno", "Novela", 1000, 0));
+        repository.save(book("Dos", "novela", 2000, 5));
+        repository.save(book("Tres", "Poesía", 3000, 2));
+
+        assertEquals(2, repository.findByGenre("NOVELA").size());
+        assertEquals(3, repository.findByAuthorId(author.getId()).size());
+        assertEquals(0, repository.findByAuthorId("other").size());
+        assertEquals(2, repository.findAvailableBooks().size());
+    }
+
+    @Test
+    void columnsAggregateTheCatalog() {
+        repository.save(book("Uno", "Novela", 1000, 1));
+        repository.save(book("Dos", "Novela", 2000, 2));
+        repository.save(book("Tres", "Poesía", 3000, 3));
+
+        BookColumns columns = repository.columns();
+        assertEquals(3, columns.size());
+        assertEquals(14_000L, columns.inventoryValue());
+        assertEquals(2_000L, columns.priceStatistics().average());
+        assertEquals(2, columns.genreRollup().size());
+    }
+
+    @Test
+    void columnsFollowWritesBetweenReads() {
+        Book first = repository.save(book("Uno", "Novela", 1000, 1));
+        repository.save(book("Dos", "Novela", 2000, 2));
+        assertEquals(5_000L, repository.columns().inventoryValue());
+        assertEquals(5_000L, repository.columns().inventoryValue());
+
+        // same row length, so the file size does not change
+        first.setStock(4);
+        repository.save(first);
+        assertEquals(8_000L, repository.columns().inventoryValue());
+
+        repository.updateStock(Map.of(first.getId(), stock -> stock - 3));
+        assertEquals(5_000L, repository.columns().inventoryValue());
+        assertEquals(3, repository.columns().totalUnits());
+    }
+
+    @Test
+    void saveBatchUpsertsWithPerItemOutcome() {
+        Book stored = repository.save(book("Uno", "Novela", 1000, 1));
+        stored.setTitle("Uno (revisado)");
+        Book fresh = book("Dos", "Poesía", 2000, 2);
+
+        BatchResult<Book> result = repository.saveBatch(Arrays.asList(stored, null, fresh));
+
+        assertEquals(1, result.created());
+        assertEquals(1, result.updated());
+        assertEquals(1, result.failed());
+        assertEquals(BatchResult.Status.UPDATED, result.items().get(0).status());
+        assertEquals(1, result.errors().get(0).index());
+        assertNotNull(fresh.getId());
+        assertEquals(fresh.getId(), result.items().get(2).id());
+
+        IBookRepository reopened = createRepository(dataDir.toString(), authorRepository);
+        assertEquals(2, reopened.findAll().size());
+        assertEquals("Uno (revisado)", reopened.findById(stored.getId()).map(Book::getTitle).orElse(null));
+        assertEquals("Gabriel Garcia Marquez", reopened.findById(fresh.getId()).map(Book::getAuthorName).orElse(null));
+        assertEquals(5_000L, repository.columns().inventoryValue());
+    }
+
+    @Test
+    void saveBatchWithARepeatedIdStoresTheLastEntity() {
+        Book stored = repository.save(book("Uno", "Novela", 1000, 1));
+        Book fresh = book("Dos", "Poesía", 2000, 2);
+        fresh.setId("dos");
+        Book freshAgain = book("Dos (revisado)", "Poesía", 2500, 2);
+        freshAgain.setId("dos");
+        Book storedAgain = book("Uno (revisado)", "Novela", 1500, 1);
+        storedAgain.setId(stored.getId());
+
+        BatchResult<Book> result = repository.saveBatch(List.of(fresh, storedAgain, freshAgain));
+
+        assertEquals(List.of(BatchResult.Status.CREATED, BatchResult.Status.UPDATED, BatchResult.Status.UPDATED),
+                result.items().stream().map(BatchResult.Item::status).toList());
+        IBookRepository reopened = createRepository(dataDir.toString(), authorRepository);
+        assertEquals(2, reopened.count());
+        assertEquals("Dos (revisado)", reopened.findById("dos").map(Book::getTitle).orElse(null));
+        assertEquals("Uno (revisado)", reopened.findById(stored.getId()).map(Book::getTitle).orElse(null));
+        assertEquals(1, repository.findByGenre("poesía").size());
+    }
+
+    @Test
+    void updateStockChangesSeveralBooksAndSkipsMissingOnes() {
+        Book first = repository.save(book("Uno", "Novela", 1000, 1));
+        Book second = repository.save(book("Dos", "Novela", 2000, 5));
+
+        int updated = repository.updateStock(Map.of(
+                first.getId(), stock -> stock + 4,
+                second.getId(), stock -> 0,
+                "missing", stock -> 9));
+
+        assertEquals(2, updated);
+        IBookRepository reopened = createRepository(dataDir.toString(), authorRepository);
+        assertEquals(5, reopened.findById(first.getId()).map(Book::getStock).orElse(-1));
+        assertEquals(0, reopened.findById(second.getId()).map(Book::getStock).orElse(-1));
+        assertEquals("Gabriel Garcia Marquez", reopened.findById(first.getId()).map(Book::getAuthorName).orElse(null));
+    }
+
+    @Test
+    void dataSurvivesReopeningTheRepository() {
+        Book saved = repository.save(book("Uno", "Novela", 1000, 1));
+
+        IBookRepository reopened = createRepository(dataDir.toString(), authorRepository);
+        assertEquals("Uno", reopened.findById(saved.getId()).map(Book::getTitle).orElse(null));
+    }
+}
@@ -0,0 +1,63 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.csv.CustomerCsvRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdFilterTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void neverMissesAddedIdsAndKeepsFalsePositivesNearTheTarget() {
+        IdFilter filter = new IdFilter("books", RepositoryMetrics.noop());
+        filter.rebuild(ids -> IntStream.range(0, 10_000).forEach(i -> ids.accept("id-" + i)));
+        IntStream.range(0, 5_000).forEach(i -> filter.add("new-" + i));
+        assertFalse(filter.needsRebuild());
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("id-" + i)));
+        assertTrue(IntStream.range(0, 5_000).allMatch(i -> filter.mightContain("new-" + i)));
+        long falsePositives = IntStream.range(0, 10_000).filter(i -> filter.mightContain("other-" + i)).count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.03);
+
+        IntStream.range(5_000, 10_001).forEach(i -> filter.add("new-" + i));
+        assertTrue(filter.needsRebuild());
+        filter.rebuild(ids -> ids.accept("id-0"));
+        assertTrue(IntStream.range(0, 10_001).allMatch(i -> filter.mightContain("new-" + i)));
+    }
+
+    @Test
+    void unknownIdsAreAnsweredWithoutReadingTheFile() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CustomerCsvRepository customers = new CustomerCsvRepository(dataDir.toString(), new RepositoryMetrics(registry),
+                StorageExecutor.direct(), IdGenerator.timeOrdered());
+        Customer saved = customers.save(new Customer());
+        double scanned = registry.counter("bookverse.repository.rows.scanned", "repository", "customers").count();
+
+        assertFalse(customers.existsById("missing"));
+        assertTrue(customers.findById("missing").isEmpty());
+        assertTrue(customers.findAllById(List.of("missing", "other")).isEmpty());
+        customers.deleteById("missing");
+        assertEquals(scanned, registry.counter("bookverse.repository.rows.scanned", "repository", "customers").count());
+        assertEquals(5, registry.counter("bookverse.repository.id.filter",
+                "repository", "customers", "outcome", "negative").count());
+
+        assertTrue(customers.existsById(saved.getId()));
+        assertEquals(1, registry.counter("bookverse.repository.id.filter",
+                "repository", "customers", "outcome", "positive").count());
+        assertEquals(0, registry.get("bookverse.repository.id.filter")
+                .tags("repository", "customers", "outcome", "false_positive").counter().count());
+        assertTrue(registry.get("bookverse.repository.id.filter.fpp").gauge().value() < 0.01);
+    }
+}
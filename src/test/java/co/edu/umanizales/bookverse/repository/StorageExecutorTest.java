@@ -0,0 +1,40 @@
+package co.edu.umanizales.bookverse.repository;
+
+import co.edu.umanizales.bookverse.exception.StorageBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageExecutorTest {
+
+    @Test
+    void boundsQueuedWorkAndRunsNestedCallsInline() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StorageExecutor executor = new StorageExecutor(1, 0, Duration.ofMillis(50), registry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (var callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<String> blocked = CompletableFuture.supplyAsync(() -> executor.call("books", () -> {
+                started.countDown();
+                release.await();
+                return executor.call("authors", () -> Thread.currentThread().getName());
+            }), callers);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(StorageBusyException.class, () -> executor.call("orders", () -> "late"));
+            assertEquals(1.0, registry.get("bookverse.storage.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("storage-io-1", blocked.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("again", executor.call("orders", () -> "again"));
+        executor.shutdown();
+    }
+}
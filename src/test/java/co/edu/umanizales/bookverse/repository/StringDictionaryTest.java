@@ -0,0 +1,45 @@
+package co.edu.umanizales.bookverse.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    @Test
+    void valuesPastTheCapAreNotAddedThroughEitherPath() {
+        StringDictionary dictionary = new StringDictionary(2);
+        int novela = dictionary.encode("Novela");
+        String poesia = dictionary.canonical("Poesía");
+
+        assertEquals(-1, dictionary.encode("Ensayo"));
+        String teatro = new String("Teatro");
+        assertSame(teatro, dictionary.canonical(teatro));
+        assertEquals(2, dictionary.size());
+
+        assertEquals("Novela", dictionary.decode(novela));
+        assertSame(poesia, dictionary.canonical(new String("Poesía")));
+        assertEquals(dictionary.foldCode("Novela"), dictionary.foldCode("NOVELA"));
+        assertEquals(-1, dictionary.foldCode("ensayo"));
+        assertEquals(-1, dictionary.encode(null));
+    }
+
+    @Test
+    void equalsIgnoreCaseFallsBackToStringsWithoutACode() {
+        StringDictionary dictionary = new StringDictionary(1);
+        dictionary.encode("Novela");
+        List<String> rows = List.of("Novela", "NOVELA", "Ensayo", "ensayo");
+
+        assertEquals(List.of("Novela", "NOVELA"), matching(dictionary, "novela", rows));
+        assertEquals(List.of("Ensayo", "ensayo"), matching(dictionary, "ENSAYO", rows));
+        assertEquals(List.of(), matching(dictionary, "Teatro", rows));
+        assertEquals(List.of(), matching(dictionary, null, rows));
+    }
+
+    private static List<String> matching(StringDictionary dictionary, String query, List<String> rows) {
+        int code = dictionary.foldCode(query);
+        return rows.stream().filter(row -> dictionary.equalsIgnoreCase(code, query, row)).toList();
+    }
+}
@@ -0,0 +1,45 @@
+package co.edu.umanizales.bookverse.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    void idsIncreaseWithinTheSameMillisecondAndCarryTheTimestamp() {
+        Instant now = Instant.parse("2025-06-01T12:00:00.123Z");
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(Clock.fixed(now, ZoneOffset.UTC));
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        assertEquals(ids, sorted);
+        assertEquals(ids.size(), ids.stream().distinct().count());
+        UUID first = UUID.fromString(ids.get(0));
+        assertEquals(7, first.version());
+        assertEquals(2, first.variant());
+        assertEquals(Optional.of(now), TimeOrderedIdGenerator.timestampOf(ids.get(0)));
+        // 10 000 ids overflow the 4096-per-millisecond counter into the following milliseconds
+        assertTrue(TimeOrderedIdGenerator.timestampOf(ids.get(ids.size() - 1)).orElseThrow().isAfter(now));
+    }
+
+    @Test
+    void randomAndForeignIdsHaveNoTimestamp() {
+        assertTrue(TimeOrderedIdGenerator.timestampOf(UUID.randomUUID().toString()).isEmpty());
+        assertTrue(TimeOrderedIdGenerator.timestampOf("author-1").isEmpty());
+        assertTrue(TimeOrderedIdGenerator.timestampOf(null).isEmpty());
+    }
+}
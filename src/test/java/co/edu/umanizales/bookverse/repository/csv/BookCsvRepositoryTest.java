@@ -0,0 +1,69 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.BookRepositoryContract;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCsvRepositoryTest extends BookRepositoryContract {
+
+    @Override
+    protected IBookRepository createRepository(String dataPath, IAuthorRepository authorRepository) {
+        return new BookCsvRepository(dataPath, authorRepository);
+    }
+
+    @Test
+    void findersOnlyMatchWholeFields() {
+        Author other = authorRepository.save(new Author(author.getId() + "0", "Otro", "Autor", "Colombiana",
+                LocalDate.of(1950, 1, 1), "Bio", "otro@example.com"));
+        Book byOther = book("Uno", "Novela negra", 1000, 1);
+        byOther.setAuthor(other);
+        repository.save(byOther);
+        repository.save(book("Dos", "Novela", 2000, 1));
+        repository.save(book("Novela", "Poesía", 3000, 1));
+
+        assertEquals(List.of("Dos", "Novela"), titles(repository.findByAuthorId(author.getId())));
+        assertEquals(List.of("Uno"), titles(repository.findByAuthorId(other.getId())));
+        assertEquals("Otro Autor", repository.findByAuthorId(other.getId()).get(0).getAuthorName());
+        assertEquals(List.of("Dos"), titles(repository.findByGenre("NOVELA")));
+        assertEquals(List.of("Novela"), titles(repository.findByGenre("poesía")));
+        assertTrue(repository.findByGenre(null).isEmpty());
+        assertTrue(repository.findByAuthorId(null).isEmpty());
+    }
+
+    @Test
+    void columnsFollowWritesWithoutResolvingAuthors() {
+        int[] lookups = {0};
+        IBookRepository counting = new BookCsvRepository(dataDir.toString(), new AuthorCsvRepository(dataDir.toString()) {
+            @Override
+            public Optional<Author> findById(String id) {
+                lookups[0]++;
+                return super.findById(id);
+            }
+        });
+        Book first = counting.save(book("Uno", "Novela", 1000, 1));
+        counting.save(book("Dos", "Poesía", 2000, 2));
+
+        assertEquals(5_000L, counting.columns().inventoryValue());
+        counting.deleteById(first.getId());
+        counting.save(book("Tres", "Novela", 3000, 1));
+        counting.updateStock(Map.of(first.getId(), stock -> 9));
+
+        assertEquals(7_000L, counting.columns().inventoryValue());
+        assertEquals(2, counting.columns().genreRollup().size());
+        assertEquals(0, lookups[0]);
+    }
+
+    private static List<String> titles(List<Book> books) {
+        return books.stream().map(Book::getTitle).toList();
+    }
+}
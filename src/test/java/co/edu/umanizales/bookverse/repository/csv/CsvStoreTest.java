@@ -0,0 +1,141 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvStoreTest {
+
+    @TempDir
+    Path dataDir;
+
+    private final List<String> changes = new ArrayList<>();
+    private CsvStore<Author> store;
+
+    @BeforeEach
+    void setUp() {
+        AuthorCsvRepository authors = new AuthorCsvRepository(dataDir.resolve("unused").toString());
+        store = new CsvStore<>(dataDir.resolve("autores.csv").toString(), "authors", "author",
+                CsvCodec.of(authors::parseLine, Author::getId, Author::setId), RepositoryMetrics.noop(),
+                StorageExecutor.direct(), IdGenerator.timeOrdered(),
+                (before, after) -> changes.add(names(before) + "->" + names(after)));
+    }
+
+    @Test
+    void listenerSeesStoredAndWrittenVersionsOfEveryChange() {
+        Author first = store.save(author(null, "Uno"));
+        store.save(author(null, "Dos"));
+        store.computeIfPresent(first.getId(), stored -> {
+            stored.setName("Uno revisado");
+            return stored;
+        });
+        store.computeIfPresent(first.getId(), stored -> null);
+        assertFalse(store.insertIfAbsent(author(first.getId(), "Repetido")));
+        store.deleteIfExists(first.getId());
+        store.deleteIfExists(first.getId());
+
+        assertEquals(List.of("[]->[Uno]", "[]->[Dos]", "[Uno]->[Uno revisado]", "[Uno revisado]->[]"), changes);
+        assertEquals(List.of("Dos"), store.findAll().stream().map(Author::getName).toList());
+    }
+
+    @Test
+    void rewritesReplaceTheFileAndBumpTheVersion() throws IOException {
+        Author first = store.save(author(null, "Uno"));
+        store.save(author(null, "Dos"));
+        long version = store.version();
+
+        first.setName("Uno revisado");
+        store.save(first);
+
+        assertTrue(store.version() > version);
+        assertFalse(Files.exists(dataDir.resolve("autores.csv.tmp")));
+        assertEquals(2, Files.readAllLines(dataDir.resolve("autores.csv")).size());
+        assertEquals("Uno revisado", store.findById(first.getId()).map(Author::getName).orElse(null));
+        assertTrue(store.existsById(first.getId()));
+        assertEquals(2, store.count());
+    }
+
+    @Test
+    void rowsTheCodecRejectsAreMissingFromLookups() {
+        Author kept = store.save(author(null, "Uno"));
+        store.save(author("rechazado", "Rechazado"));
+        AuthorCsvRepository authors = new AuthorCsvRepository(dataDir.resolve("unused").toString());
+        CsvStore<Author> rejecting = new CsvStore<>(dataDir.resolve("autores.csv").toString(), "authors", "author",
+                CsvCodec.of(line -> line.startsWith("rechazado,") ? null : authors.parseLine(line), Author::getId,
+                        Author::setId),
+                RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered(), null);
+
+        assertTrue(rejecting.findById("rechazado").isEmpty());
+        assertEquals(List.of(kept.getId()), rejecting.findAllById(List.of("rechazado", kept.getId())).stream()
+                .map(Author::getId).toList());
+        assertEquals(1, rejecting.findAll().size());
+    }
+
+    @Test
+    void computeEachUpdatesTheStoredRowsInOneWrite() {
+        Author first = store.save(author(null, "Uno"));
+        Author second = store.save(author(null, "Dos"));
+        store.save(author(null, "Tres"));
+        changes.clear();
+        long version = store.version();
+
+        int updated = store.computeEach(Map.of(
+                first.getId(), stored -> {
+                    stored.setName("Uno revisado");
+                    return stored;
+                },
+                second.getId(), stored -> null,
+                "missing", stored -> author(null, "Nadie")));
+
+        assertEquals(1, updated);
+        assertEquals(version + 1, store.version());
+        assertEquals(List.of("[Uno]->[Uno revisado]"), changes);
+        assertEquals(List.of("Uno revisado", "Dos", "Tres"), store.findAll().stream().map(Author::getName).toList());
+        assertEquals(0, store.computeEach(Map.of("missing", stored -> stored)));
+    }
+
+    @Test
+    void readsStopWhereTheFileEndedWhenTheyOpenedIt() {
+        for (int i = 0; i < 5_000; i++) {
+            store.save(author(null, "Autor " + i));
+        }
+        // larger than one read chunk, so the rest of the file is read after the append
+        assertTrue(store.file().path().toFile().length() > 256 * 1024);
+        long[] rows = {0};
+
+        store.file().forEach(Function.identity(), line -> {
+            if (rows[0]++ == 0) {
+                store.save(author(null, "Tarde"));
+            }
+        });
+
+        assertEquals(5_000, rows[0]);
+        assertEquals(5_001, store.count());
+        assertEquals(List.of("Tarde"), store.findMatching(line -> line.contains("Tarde"), row -> true).stream()
+                .map(Author::getName).toList());
+    }
+
+    private static Author author(String id, String name) {
+        return new Author(id, name, "Apellido", "Colombiana", LocalDate.of(1950, 1, 1), "Bio", "a@example.com");
+    }
+
+    private static String names(Collection<Author> authors) {
+        return authors.stream().map(Author::getName).toList().toString();
+    }
+}
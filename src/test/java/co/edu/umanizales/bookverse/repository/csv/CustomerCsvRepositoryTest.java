@@ -0,0 +1,70 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCsvRepositoryTest {
+
+    @TempDir
+    Path dataDir;
+
+    private CustomerCsvRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new CustomerCsvRepository(dataDir.toString());
+    }
+
+    @Test
+    void saveBatchUpsertsAndMovesTheEmailIndex() {
+        Customer stored = repository.save(customer(null, "Ana", "ana@example.com"));
+        Customer renamed = customer(stored.getId(), "Ana", "ana.maria@example.com");
+        Customer fresh = customer(null, "Luis", "luis@example.com");
+
+        BatchResult<Customer> result = repository.saveBatch(Arrays.asList(renamed, null, fresh));
+
+        assertEquals(List.of(BatchResult.Status.UPDATED, BatchResult.Status.FAILED, BatchResult.Status.CREATED),
+                result.items().stream().map(BatchResult.Item::status).toList());
+        assertEquals(1, result.errors().get(0).index());
+        assertNotNull(fresh.getId());
+
+        CustomerCsvRepository reopened = new CustomerCsvRepository(dataDir.toString());
+        assertEquals(2, reopened.count());
+        assertTrue(reopened.findByEmail("ana@example.com").isEmpty());
+        assertEquals(List.of(stored.getId()), ids(reopened.findByEmail("ANA.MARIA@example.com")));
+        assertEquals(List.of(fresh.getId()), ids(reopened.findByEmail("luis@example.com")));
+    }
+
+    @Test
+    void saveBatchWithARepeatedIdIndexesOnlyTheLastEntity() {
+        BatchResult<Customer> result = repository.saveBatch(List.of(
+                customer("c-1", "Ana", "first@example.com"),
+                customer("c-1", "Ana", "last@example.com")));
+
+        assertEquals(1, result.created());
+        assertEquals(1, result.updated());
+        assertEquals(1, repository.count());
+        assertEquals("last@example.com", repository.findById("c-1").map(Customer::getEmail).orElse(null));
+        assertTrue(repository.findByEmail("first@example.com").isEmpty());
+        assertEquals(List.of("c-1"), ids(repository.findByEmail("last@example.com")));
+    }
+
+    private static Customer customer(String id, String name, String email) {
+        return new Customer(id, name, "Gómez", email, "3001234567", "Calle 1, Manizales",
+                LocalDate.of(2024, 1, 15), true);
+    }
+
+    private static List<String> ids(List<Customer> customers) {
+        return customers.stream().map(Customer::getId).toList();
+    }
+}
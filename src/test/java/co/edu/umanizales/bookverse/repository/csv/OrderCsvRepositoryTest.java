@@ -0,0 +1,230 @@
+package co.edu.umanizales.bookverse.repository.csv;
+
+import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.model.PaymentMethod;
+import co.edu.umanizales.bookverse.model.Salesperson;
+import co.edu.umanizales.bookverse.monitoring.RepositoryMetrics;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.IdGenerator;
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCsvRepositoryTest {
+
+    private static final Clock JUNE_2025 = Clock.fixed(Instant.parse("2025-06-15T12:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path dataDir;
+
+    private OrderCsvRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dataDir.resolve("ordenes.csv"), String.join("\n",
+                line("o-1", "2025-03-02T10:00", "DELIVERED"),
+                line("o-2", "2025-04-10T09:30", "PENDING"),
+                line("o-3", "2025-03-20T16:45", "COMPLETED"),
+                line("o-4", "2025-06-01T08:00", "CREATED")) + "\n");
+        repository = open(true);
+    }
+
+    @Test
+    void legacyFileIsSplitByMonthAndCompletedPastMonthsAreSealed() {
+        Path segments = dataDir.resolve("ordenes");
+
+        assertFalse(Files.exists(dataDir.resolve("ordenes.csv")));
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-03.csv.gz")));
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-03.idx")));
+        assertFalse(Files.exists(segments.resolve("ordenes-2025-03.csv")));
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-04.csv")));
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-06.csv")));
+
+        assertEquals(List.of("o-1", "o-3", "o-2", "o-4"), repository.findAll().stream().map(Order::getId).toList());
+        assertEquals(4, repository.count());
+        assertEquals("COMPLETED", repository.findById("o-3").orElseThrow().getStatus());
+        assertTrue(repository.existsById("o-1"));
+        assertFalse(repository.existsById("o-9"));
+        assertEquals(List.of("o-4", "o-1"),
+                repository.findAllById(List.of("o-4", "o-9", "o-1")).stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void statusAndDateQueriesReadOnlyMatchingMonths() {
+        assertEquals(List.of("o-2"), repository.findByStatus("pending").stream().map(Order::getId).toList());
+        assertEquals(List.of("o-1"), repository.findByStatus("DELIVERED").stream().map(Order::getId).toList());
+        assertEquals(List.of("o-3", "o-2"), repository.findByOrderDateBetween(
+                LocalDate.of(2025, 3, 15), LocalDate.of(2025, 4, 30)).stream().map(Order::getId).toList());
+        assertEquals(List.of("o-4"), repository.findByOrderDateBetween(LocalDate.of(2025, 5, 1), null)
+                .stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void writesUnsealAndMoveOrdersBetweenMonths() {
+        Path segments = dataDir.resolve("ordenes");
+        Order reopened = repository.findById("o-1").orElseThrow();
+        reopened.setStatus("SHIPPED");
+        repository.save(reopened);
+
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-03.csv")));
+        assertFalse(Files.exists(segments.resolve("ordenes-2025-03.csv.gz")));
+
+        reopened.setStatus("DELIVERED");
+        repository.save(reopened);
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-03.csv.gz")));
+
+        Order moved = repository.findById("o-2").orElseThrow();
+        moved.setOrderDate(LocalDateTime.of(2025, 6, 3, 11, 0));
+        repository.save(moved);
+        repository.deleteById("o-4");
+
+        assertFalse(Files.exists(segments.resolve("ordenes-2025-04.csv")));
+        assertEquals(List.of("o-1", "o-3", "o-2"), open(true).findAll().stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void aPastMonthIsSealedOnceItsLastOpenOrderIsDone() {
+        Path segments = dataDir.resolve("ordenes");
+        OrderCsvRepository scanning = open(false);
+        scanning.save(order("o-6", "c-2", "2025-04-12T10:00", "PENDING"));
+        Order first = scanning.findById("o-2").orElseThrow();
+        first.setStatus("DELIVERED");
+        scanning.save(first);
+
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-04.csv")));
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-03.csv.gz")));
+
+        Order last = scanning.findById("o-6").orElseThrow();
+        last.setStatus("COMPLETED");
+        scanning.save(last);
+
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-04.csv.gz")));
+        assertFalse(Files.exists(segments.resolve("ordenes-2025-04.csv")));
+        assertEquals(List.of("o-1", "o-3", "o-2", "o-6", "o-4"),
+                open(true).findAll().stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void indexedLookupsReadSingleRecordsAndAgreeWithScans() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 3 * OrderSegments.BLOCK_ROWS; i++) {
+            lines.add(line("feb-" + i, "2025-02-01T10:00", "DELIVERED"));
+        }
+        Path segments = dataDir.resolve("ordenes");
+        Files.write(segments.resolve("ordenes-2025-02.csv"), lines);
+        OrderCsvRepository indexed = open(true);
+        assertTrue(Files.exists(segments.resolve("ordenes-2025-02.csv.gz")));
+
+        Order added = order(null, "c-2", "2025-06-02T09:00", "CREATED");
+        indexed.findById("o-4");
+        indexed.save(added);
+
+        List<String> ids = List.of("feb-700", "o-4", added.getId(), "feb-0", "feb-300", "nope");
+        OrderCsvRepository scanning = open(false);
+        for (OrderCsvRepository repository : List.of(indexed, scanning)) {
+            assertEquals(List.of("feb-700", "o-4", added.getId(), "feb-0", "feb-300"),
+                    repository.findAllById(ids).stream().map(Order::getId).toList());
+            assertEquals("c-2", repository.findById(added.getId()).orElseThrow().getCustomerId());
+            assertTrue(repository.existsById("feb-511"));
+            assertEquals(5 + lines.size(), repository.count());
+            assertEquals(List.of("o-4", added.getId()),
+                    repository.findByStatus("created").stream().map(Order::getId).toList());
+            assertEquals(List.of(added.getId()),
+                    repository.findByCustomerId("c-2").stream().map(Order::getId).toList());
+        }
+    }
+
+    @Test
+    void saveBatchUpsertsAcrossMonthsAndKeepsTheIndexesInStep() {
+        Order pending = repository.findById("o-2").orElseThrow();
+        pending.setStatus("SHIPPED");
+        Order fresh = order(null, "c-2", "2025-06-05T10:00", "CREATED");
+        Order repeated = order("o-5", "c-2", "2025-05-07T10:00", "PENDING");
+        Order repeatedAgain = order("o-5", "c-3", "2025-05-08T10:00", "CREATED");
+
+        BatchResult<Order> result = repository.saveBatch(Arrays.asList(pending, fresh, null, repeated, repeatedAgain));
+
+        assertEquals(List.of(BatchResult.Status.UPDATED, BatchResult.Status.CREATED, BatchResult.Status.FAILED,
+                        BatchResult.Status.CREATED, BatchResult.Status.UPDATED),
+                result.items().stream().map(BatchResult.Item::status).toList());
+        assertNotNull(fresh.getId());
+
+        OrderCsvRepository reopened = open(true);
+        assertEquals(6, reopened.count());
+        assertEquals(List.of("o-2"), reopened.findByStatus("shipped").stream().map(Order::getId).toList());
+        assertTrue(reopened.findByStatus("pending").isEmpty());
+        assertEquals("c-3", reopened.findById("o-5").orElseThrow().getCustomerId());
+        assertEquals(List.of("o-5"), repository.findByCustomerId("c-3").stream().map(Order::getId).toList());
+        assertEquals(List.of(fresh.getId()), repository.findByCustomerId("c-2").stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void indexedStatusLookupsFoldCaseLikeTheFilter() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(order(null, "c-2", "2025-06-03T10:00", "PENDING"));
+        }
+        // the Kelvin sign upper-cases to itself but folds to the same "k" as "kept"
+        Order kelvin = order(null, "c-2", "2025-06-04T10:00", "\u212AEPT");
+        Order kept = order(null, "c-2", "2025-06-05T10:00", "kept");
+        orders.add(kelvin);
+        orders.add(kept);
+        repository.saveBatch(orders);
+
+        assertEquals(List.of(kelvin.getId(), kept.getId()),
+                repository.findByStatus("KEPT").stream().map(Order::getId).toList());
+    }
+
+    @Test
+    void salespersonLookupsMatchTheWholeId() {
+        Order other = order(null, "c-2", "2025-06-03T10:00", "CREATED");
+        other.getSalesperson().setId("e-10");
+        repository.save(other);
+
+        assertEquals(List.of("o-1", "o-3", "o-2", "o-4"),
+                repository.findBySalespersonId("e-1").stream().map(Order::getId).toList());
+        assertEquals(List.of(other.getId()),
+                repository.findBySalespersonId("e-10").stream().map(Order::getId).toList());
+        assertTrue(repository.findBySalespersonId("e-").isEmpty());
+    }
+
+    private OrderCsvRepository open(boolean offsetIndex) {
+        String path = dataDir.toString();
+        BookCsvRepository books = new BookCsvRepository(path, new AuthorCsvRepository(path));
+        return new OrderCsvRepository(path, new CustomerCsvRepository(path), new EmployeeCsvRepository(path), books,
+                RepositoryMetrics.noop(), StorageExecutor.direct(), IdGenerator.timeOrdered(), offsetIndex,
+                JUNE_2025);
+    }
+
+    private static String line(String id, String date, String status) {
+        return order(id, "c-1", date, status).toCsv();
+    }
+
+    private static Order order(String id, String customerId, String date, String status) {
+        Customer customer = new Customer();
+        customer.setId(customerId);
+        Salesperson salesperson = new Salesperson();
+        salesperson.setId("e-1");
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomer(customer);
+        order.setSalesperson(salesperson);
+        order.setOrderDate(LocalDateTime.parse(date));
+        order.setPaymentMethod(PaymentMethod.CASH);
+        order.setStatus(status);
+        order.setShippingAddress("Calle 1");
+        return order;
+    }
+}
@@ -0,0 +1,122 @@
+package co.edu.umanizales.bookverse.repository.index;
+
+import co.edu.umanizales.bookverse.repository.StorageExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BPlusTreeTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsEntriesSortedAcrossPageSplitsAndReopens() throws IOException {
+        Path path = dir.resolve("idx.bpt");
+        BPlusTree tree = BPlusTree.open(path, "orders", StorageExecutor.direct());
+        assertTrue(tree.needsRebuild());
+        tree.rebuild(index -> { });
+
+        List<BPlusTree.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            entries.add(new BPlusTree.Entry(BPlusTree.key("c-" + (i % 50), String.format("2025-01-%02dT10:%02d",
+                    1 + i % 28, i % 60)), "o-" + i));
+        }
+        for (int i = 0; i < entries.size(); i += 100) {
+            tree.update(List.of(), entries.subList(i, i + 100));
+        }
+        assertTrue(Files.size(path) > 10 * BPlusTree.PAGE_SIZE);
+        assertEquals(5000, tree.size());
+
+        List<String> customer7 = tree.findByPrefix("c-7");
+        assertEquals(100, customer7.size());
+        assertTrue(customer7.stream().allMatch(id -> Integer.parseInt(id.substring(2)) % 50 == 7));
+        assertEquals(IntStream.range(0, 5000).filter(i -> i % 50 == 7 && 1 + i % 28 <= 3).count(),
+                tree.findRange(BPlusTree.key("c-7", "2025-01-01"), BPlusTree.key("c-7", "2025-01-04")).size());
+        assertEquals(List.of("o-0", "o-2100", "o-4200"), tree.find(entries.get(0).key()));
+
+        tree.update(List.of(entries.get(0), entries.get(1)), List.of(new BPlusTree.Entry("c-0", "o-0")));
+        assertEquals(4999, tree.size());
+        assertEquals(List.of("o-0"), tree.find("c-0"));
+        assertFalse(tree.findByPrefix("c-1").contains("o-1"));
+        tree.close();
+
+        BPlusTree reopened = BPlusTree.open(path, "orders", StorageExecutor.direct());
+        assertFalse(reopened.needsRebuild());
+        assertEquals(4999, reopened.size());
+        assertEquals(customer7, reopened.findByPrefix("c-7"));
+    }
+
+    @Test
+    void updatesSurviveACrashButAWriteCutBeforeItsUpdateIsRebuilt() {
+        Path path = dir.resolve("idx.bpt");
+        BPlusTree tree = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        tree.rebuild(index -> index.accept("ana@mail.com", "c-1"));
+        tree.begin();
+        tree.update(List.of(), List.of(new BPlusTree.Entry("luis@mail.com", "c-2")));
+
+        // never closed, as after a crash
+        BPlusTree reopened = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        assertFalse(reopened.needsRebuild());
+        assertEquals(List.of("c-2"), reopened.find("luis@mail.com"));
+        reopened.begin();
+
+        // crashed again, this time between the data write and its index update
+        BPlusTree crashed = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        assertTrue(crashed.needsRebuild());
+        crashed.rebuild(index -> index.accept("ana@mail.com", "c-1"));
+        assertEquals(List.of("c-1"), crashed.find("ana@mail.com"));
+        assertEquals(List.of(), crashed.find("luis@mail.com"));
+    }
+
+    @Test
+    void aCompleteJournalIsReplayedOverTornPages() throws IOException {
+        Path path = dir.resolve("idx.bpt");
+        BPlusTree tree = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        tree.rebuild(index -> index.accept("ana@mail.com", "c-1"));
+        tree.begin();
+        tree.update(List.of(), List.of(new BPlusTree.Entry("luis@mail.com", "c-2")));
+        assertTrue(Files.exists(dir.resolve("idx.bpt.journal")));
+
+        // the crash tore the header while the update was being written in place
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(BPlusTree.PAGE_SIZE), 0);
+        }
+
+        BPlusTree reopened = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        assertFalse(reopened.needsRebuild());
+        assertEquals(2, reopened.size());
+        assertEquals(List.of("c-2"), reopened.find("luis@mail.com"));
+        reopened.close();
+        assertFalse(Files.exists(dir.resolve("idx.bpt.journal")));
+    }
+
+    @Test
+    void aFailedUpdateLeavesTheIndexUnusableUntilRebuilt() {
+        Path path = dir.resolve("idx.bpt");
+        BPlusTree tree = BPlusTree.open(path, "customers", StorageExecutor.direct());
+        tree.rebuild(index -> index.accept("ana@mail.com", "c-1"));
+        assertThrows(NullPointerException.class,
+                () -> tree.update(List.of(), Arrays.asList(new BPlusTree.Entry("luis@mail.com", "c-2"), null)));
+
+        assertTrue(tree.needsRebuild());
+        assertThrows(IllegalStateException.class, () -> tree.find("ana@mail.com"));
+        assertThrows(IllegalStateException.class, tree::begin);
+        assertTrue(BPlusTree.open(path, "customers", StorageExecutor.direct()).needsRebuild());
+
+        tree.rebuild(index -> index.accept("ana@mail.com", "c-1"));
+        assertEquals(List.of("c-1"), tree.find("ana@mail.com"));
+    }
+}
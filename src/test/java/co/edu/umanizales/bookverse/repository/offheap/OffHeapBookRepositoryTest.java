@@ -0,0 +1,78 @@
+package co.edu.umanizales.bookverse.repository.offheap;
+
+import co.edu.umanizales.bookverse.repository.BookRepositoryContract;
+import co.edu.umanizales.bookverse.repository.IAuthorRepository;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapBookRepositoryTest extends BookRepositoryContract {
+
+    @Override
+    protected IBookRepository createRepository(String dataPath, IAuthorRepository authorRepository) {
+        return new OffHeapBookRepository(dataPath, authorRepository);
+    }
+
+    @Test
+    void reportsFootprint() {
+        repository.save(book("Uno", "Novela", 1000, 1));
+
+        OffHeapFootprint footprint = ((OffHeapBookRepository) repository).footprint();
+        assertEquals(1, footprint.records());
+        assertTrue(footprint.liveBytes() > 0);
+        assertTrue(footprint.offHeapBytes() >= footprint.liveBytes());
+        assertTrue(footprint.indexBytes() > 0);
+    }
+
+    @Test
+    void readersAreNotBlockedWhileAnUpdateIsBeingWritten() throws Exception {
+        var saved = repository.save(book("Uno", "Novela", 1000, 1));
+        CountDownLatch updating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> update = writer.submit(() -> repository.computeIfPresent(saved.getId(), stored -> {
+                updating.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                stored.setStock(5);
+                return stored;
+            }));
+            assertTrue(updating.await(5, TimeUnit.SECONDS));
+
+            assertEquals(1, repository.findById(saved.getId()).get().getStock());
+            assertEquals(1, repository.count());
+
+            release.countDown();
+            update.get(5, TimeUnit.SECONDS);
+            assertEquals(5, repository.findById(saved.getId()).get().getStock());
+        } finally {
+            release.countDown();
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    void replacingRecordsManyTimesKeepsOnlyTheLatestVersion() {
+        var saved = repository.save(book("Uno", "Novela", 1000, 1));
+        for (int i = 0; i < 2000; i++) {
+            saved.setTitle("Uno " + "x".repeat(i % 50) + i);
+            saved.setDescription("d".repeat(4000));
+            repository.save(saved);
+        }
+
+        assertEquals(1, repository.findAll().size());
+        assertEquals("Uno " + "x".repeat(1999 % 50) + 1999, repository.findById(saved.getId()).get().getTitle());
+    }
+}
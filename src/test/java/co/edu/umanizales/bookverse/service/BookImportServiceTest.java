@@ -0,0 +1,75 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvRepository;
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookImportServiceTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void importsValidRowsInBatchesAndReportsRejectedLines() {
+        AuthorCsvRepository authors = new AuthorCsvRepository(dataDir.toString());
+        Author author = authors.save(new Author(null, "Gabriel", "Garcia Marquez", "Colombiana",
+                LocalDate.of(1927, 3, 6), "Premio Nobel, 1982", "gabo@example.com"));
+        IBookRepository books = new BookCsvRepository(dataDir.toString(), authors);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BookService bookService = new BookService(books,
+                new StockWriteBuffer(books, Duration.ZERO, registry), registry);
+        BookImportService importer = new BookImportService(bookService, authors, 2);
+
+        String csv = String.join("\n",
+                "id,isbn,title,authorId,publisher,publicationDate,genre,pageCount,price,stock,description,language",
+                ",978-0-306-40615-7,Uno," + author.getId() + ",Sudamericana,1967-05-30,Novela,471,30.99,3,\"Uno, dos\",Español",
+                ",978-0-306-40615-8,Dos," + author.getId() + ",Sudamericana,1967-05-30,Novela,471,30.99,3,,Español",
+                "",
+                ",0-306-40615-2,Tres,missing,Sudamericana,30/05/1967,Novela,471,gratis,3,,Español",
+                ",0-306-40615-2,Cuatro,,Sudamericana,,Ensayo,,12,0,,Español",
+                "too,short");
+
+        BookImportService.Summary summary = importer.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, summary.rows());
+        assertEquals(2, summary.created());
+        assertEquals(3, summary.rejected());
+        assertEquals(List.of(3L, 5L, 7L), summary.rejections().stream().map(BookImportService.Rejection::line).toList());
+        assertEquals("Invalid ISBN: 978-0-306-40615-8", summary.rejections().get(0).reason());
+        assertEquals(List.of("Unknown author: missing", "Invalid publication date: 30/05/1967", "Invalid price: gratis"),
+                List.of(summary.rejections().get(1).reason().split("; ")));
+
+        List<Book> stored = books.findAll();
+        assertEquals(List.of("Uno", "Cuatro"), stored.stream().map(Book::getTitle).toList());
+        assertEquals("Uno, dos", stored.get(0).getDescription());
+        assertEquals("Gabriel Garcia Marquez", stored.get(0).getAuthorName());
+    }
+
+    @Test
+    void generatedCatalogPassesIsbnValidation() throws IOException {
+        new DatasetGenerator(new DatasetGenerator.Scale(5, 200, 1, 2, 1), 42).generate(dataDir);
+
+        List<Book> books = new BookCsvRepository(dataDir.toString(), new AuthorCsvRepository(dataDir.toString())).findAll();
+        assertEquals(200, books.size());
+        assertTrue(books.stream().allMatch(book -> BookImportService.isValidIsbn(book.getIsbn())),
+                () -> books.stream().map(Book::getIsbn).filter(isbn -> !BookImportService.isValidIsbn(isbn)).toList().toString());
+        assertEquals(200, books.stream().map(Book::getIsbn).distinct().count());
+    }
+}
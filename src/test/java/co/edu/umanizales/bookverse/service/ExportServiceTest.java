@@ -0,0 +1,108 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.repository.csv.*;
+import co.edu.umanizales.bookverse.tools.DatasetGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    private static final DatasetGenerator.Scale SCALE = new DatasetGenerator.Scale(10, 50, 40, 14, 400);
+
+    @TempDir
+    Path dataDir;
+
+    private StockWriteBuffer stockBuffer;
+    private ExportService exportService;
+    private List<String> orderLines;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        new DatasetGenerator(SCALE, 42).generate(dataDir);
+        orderLines = Files.readAllLines(dataDir.resolve("ordenes.csv"));
+        String path = dataDir.toString();
+        AuthorCsvRepository authors = new AuthorCsvRepository(path);
+        BookCsvRepository books = new BookCsvRepository(path, authors);
+        CustomerCsvRepository customers = new CustomerCsvRepository(path);
+        EmployeeCsvRepository employees = new EmployeeCsvRepository(path);
+        // long window so nothing flushes during a test
+        stockBuffer = new StockWriteBuffer(books, Duration.ofHours(1), new SimpleMeterRegistry());
+        exportService = new ExportService(books, stockBuffer, authors, customers, employees,
+                new OrderCsvRepository(path, customers, employees, books));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockBuffer.close();
+    }
+
+    @Test
+    void exportWritesTheHeaderAndRowsAsStored() {
+        List<String> exported = export("orders", Map.of(), ExportService.RowRange.ALL);
+
+        assertEquals(new Order().getCsvHeader(), exported.get(0));
+        assertEquals(orderLines, exported.subList(1, exported.size()));
+    }
+
+    @Test
+    void rowRangeResumesWithoutTheHeader() {
+        List<String> exported = export("orders", Map.of(), ExportService.RowRange.parse("rows=100-149"));
+
+        assertEquals(orderLines.subList(100, 150), exported);
+    }
+
+    @Test
+    void filtersApplyBeforeRowsAreCounted() {
+        List<String> all = export("orders", Map.of("status", "delivered"), ExportService.RowRange.ALL);
+        List<String> resumed = export("orders", Map.of("status", "DELIVERED"), ExportService.RowRange.parse("rows=3-"));
+
+        assertTrue(all.size() > 4);
+        assertTrue(all.stream().skip(1).allMatch(line -> line.contains(",DELIVERED,")));
+        assertEquals(all.subList(4, all.size()), resumed);
+    }
+
+    @Test
+    void booksAreExportedWithTheirPendingStock() {
+        String id = new DatasetGenerator(SCALE, 42).bookId(3);
+        assertTrue(stockBuffer.apply(id, book -> {
+            book.setStock(777);
+            return true;
+        }).orElseThrow().applied());
+
+        String row = export("books", Map.of(), ExportService.RowRange.ALL).stream()
+                .filter(line -> line.startsWith(id + ","))
+                .findFirst().orElseThrow();
+
+        assertEquals("777", row.split(",")[9]);
+        assertTrue(stockBuffer.hasPending());
+    }
+
+    @Test
+    void unknownFiltersAndBadRangesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> exportService.prepare("orders", Map.of("genre", "x")));
+        assertThrows(IllegalArgumentException.class, () -> exportService.prepare("books", Map.of("available", "maybe")));
+        assertThrows(IllegalArgumentException.class, () -> ExportService.RowRange.parse("rows=10-2"));
+        assertEquals(ExportService.RowRange.ALL, ExportService.RowRange.parse("bytes=0-10"));
+    }
+
+    private List<String> export(String entity, Map<String, String> filters, ExportService.RowRange range) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.prepare(entity, filters).write(out, range);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,78 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.model.Customer;
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.model.PaymentMethod;
+import co.edu.umanizales.bookverse.model.Salesperson;
+import co.edu.umanizales.bookverse.repository.BatchResult;
+import co.edu.umanizales.bookverse.repository.IOrderRepository;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.CustomerCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.EmployeeCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.OrderCsvRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderServiceTest {
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void saveOrdersRejectsOrdersWhoseTotalsOverflowAndSavesTheRest() {
+        String path = dataDir.toString();
+        BookCsvRepository books = new BookCsvRepository(path, new AuthorCsvRepository(path));
+        IOrderRepository repository = new OrderCsvRepository(path, new CustomerCsvRepository(path),
+                new EmployeeCsvRepository(path), books);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        OrderService service = new OrderService(repository, new StockWriteBuffer(books, Duration.ZERO, registry),
+                registry);
+        Order first = order(2, 1_500);
+        Order overflowing = order(2, Long.MAX_VALUE);
+        Order last = order(1, 4_000);
+
+        BatchResult<Order> result = service.saveOrders(Arrays.asList(first, overflowing, null, last));
+
+        assertEquals(List.of(BatchResult.Status.CREATED, BatchResult.Status.FAILED, BatchResult.Status.FAILED,
+                        BatchResult.Status.CREATED),
+                result.items().stream().map(BatchResult.Item::status).toList());
+        assertEquals(List.of(1, 2), result.errors().stream().map(BatchResult.Item::index).toList());
+        assertTrue(result.errors().get(0).error().startsWith("Invalid order: "), result.errors().get(0).error());
+        assertNull(overflowing.getId());
+
+        assertEquals(2, repository.count());
+        assertEquals(3_000L, repository.findById(first.getId()).map(Order::getSubtotal).orElse(-1L));
+        assertEquals(4_000L, repository.findById(last.getId()).map(Order::getSubtotal).orElse(-1L));
+    }
+
+    private static Order order(int quantity, long unitPrice) {
+        Customer customer = new Customer();
+        customer.setId("c-1");
+        Salesperson salesperson = new Salesperson();
+        salesperson.setId("e-1");
+        Book book = new Book();
+        book.setId("b-1");
+        Order order = new Order();
+        order.setCustomer(customer);
+        order.setSalesperson(salesperson);
+        order.setOrderDate(LocalDateTime.of(2025, 6, 1, 10, 15));
+        order.setPaymentMethod(PaymentMethod.CASH);
+        order.setStatus("CREATED");
+        order.setShippingAddress("Calle 10 #20-30, Manizales");
+        // set directly, since addItem would already fail on an overflowing subtotal
+        order.setItems(new ArrayList<>(List.of(new Order.OrderItem(book, quantity, unitPrice))));
+        return order;
+    }
+}
@@ -0,0 +1,96 @@
+package co.edu.umanizales.bookverse.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight flights = new SingleFlight("books", registry);
+
+    @Test
+    void concurrentIdenticalReadsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 16;
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flights.read("getBooksByGenre", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "Novela-" + loads.get();
+                }, "Novela")));
+            }
+            while (registry.get("bookverse.singleflight.calls").tag("role", "follower").counter().count()
+                    < callers - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("Novela-1", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals("Poesía", flights.read("getBooksByGenre", () -> "Poesía", "Poesía"));
+    }
+
+    @Test
+    void readsAfterAWriteDoNotJoinAnOlderLoad() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> stale = executor.submit(() -> flights.read("getAllBooks", () -> {
+                started.countDown();
+                await(release);
+                return "before";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            flights.write(() -> { });
+
+            assertEquals("after", flights.read("getAllBooks", () -> "after"));
+            release.countDown();
+            assertEquals("before", stale.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void followersSeeTheLeadersFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> leader = executor.submit(() -> flights.read("getBookById", () -> {
+                await(release);
+                throw new IllegalStateException("disk gone");
+            }, "b-1"));
+            Future<Object> follower = executor.submit(() -> {
+                while (registry.get("bookverse.singleflight.calls").tag("role", "leader").counter().count() < 1) {
+                    Thread.sleep(1);
+                }
+                return flights.read("getBookById", () -> "fresh", "b-1");
+            });
+            while (registry.get("bookverse.singleflight.calls").tag("role", "follower").counter().count() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            failure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
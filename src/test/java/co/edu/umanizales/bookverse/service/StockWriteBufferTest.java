@@ -0,0 +1,96 @@
+package co.edu.umanizales.bookverse.service;
+
+import co.edu.umanizales.bookverse.model.Author;
+import co.edu.umanizales.bookverse.model.Book;
+import co.edu.umanizales.bookverse.repository.BookColumns;
+import co.edu.umanizales.bookverse.repository.IBookRepository;
+import co.edu.umanizales.bookverse.repository.csv.AuthorCsvRepository;
+import co.edu.umanizales.bookverse.repository.csv.BookCsvRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockWriteBufferTest {
+
+    @TempDir
+    Path dataDir;
+
+    private IBookRepository repository;
+    private StockWriteBuffer buffer;
+    private BookService service;
+    private String bookId;
+
+    @BeforeEach
+    void setUp() {
+        AuthorCsvRepository authors = new AuthorCsvRepository(dataDir.toString());
+        Author author = authors.save(new Author(null, "Gabriel", "Garcia Marquez", "Colombiana",
+                LocalDate.of(1927, 3, 6), "Premio Nobel, 1982", "gabo@example.com"));
+        repository = new BookCsvRepository(dataDir.toString(), authors);
+        bookId = repository.save(new Book(null, "978-0307474728", "Cien años de soledad", author, "Sudamericana",
+                LocalDate.of(1967, 5, 30), "Novela", 471, 1000, 2, "", "Español")).getId();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        // long window so only explicit flushes write
+        buffer = new StockWriteBuffer(repository, Duration.ofHours(1), registry);
+        service = new BookService(repository, buffer, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.close();
+    }
+
+    @Test
+    void mutationsAreReadBackBeforeTheyAreWritten() {
+        service.increaseStock(bookId, 3);
+        assertTrue(service.reduceStock(bookId, 4));
+        assertFalse(service.reduceStock(bookId, 2));
+
+        assertEquals(1, service.getBookById(bookId).map(Book::getStock).orElse(-1));
+        assertEquals(2, repository.findById(bookId).map(Book::getStock).orElse(-1));
+        assertTrue(buffer.hasPending());
+    }
+
+    @Test
+    void flushWritesTheMergedStockOnce() {
+        service.reduceStock(bookId, 2);
+        assertTrue(service.getAvailableBooks().isEmpty());
+
+        buffer.flush();
+
+        assertFalse(buffer.hasPending());
+        assertEquals(0, repository.findById(bookId).map(Book::getStock).orElse(-1));
+        assertTrue(service.getAvailableBooks().isEmpty());
+    }
+
+    @Test
+    void reportsCountThePendingStockWithoutFlushing() {
+        service.increaseStock(bookId, 3);
+
+        assertEquals(5 * 1000, service.getInventoryValue());
+        assertEquals(List.of(5L), service.getGenreSummaries().stream()
+                .map(BookColumns.GenreSummary::units).toList());
+        assertTrue(buffer.hasPending());
+        assertEquals(2, repository.findById(bookId).map(Book::getStock).orElse(-1));
+    }
+
+    @Test
+    void fullBookWritesFlushFirstAndWin() {
+        service.increaseStock(bookId, 5);
+        Book book = repository.findById(bookId).orElseThrow();
+        book.setStock(1);
+
+        service.saveBook(book);
+
+        assertFalse(buffer.hasPending());
+        assertEquals(1, service.getBookById(bookId).map(Book::getStock).orElse(-1));
+    }
+}
@@ -0,0 +1,78 @@
+package co.edu.umanizales.bookverse.tools;
+
+import co.edu.umanizales.bookverse.model.Administrator;
+import co.edu.umanizales.bookverse.model.Employee;
+import co.edu.umanizales.bookverse.model.Order;
+import co.edu.umanizales.bookverse.repository.csv.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetGeneratorTest {
+
+    private static final DatasetGenerator.Scale SCALE = new DatasetGenerator.Scale(10, 50, 40, 14, 400);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sameSeedProducesIdenticalFiles() throws IOException {
+        new DatasetGenerator(SCALE, 7).generate(tempDir.resolve("a"));
+        new DatasetGenerator(SCALE, 7).generate(tempDir.resolve("b"));
+        new DatasetGenerator(SCALE, 8).generate(tempDir.resolve("c"));
+
+        for (String file : List.of("autores.csv", "libros.csv", "clientes.csv", "empleados.csv", "ordenes.csv")) {
+            assertEquals(-1, Files.mismatch(tempDir.resolve("a").resolve(file), tempDir.resolve("b").resolve(file)), file);
+        }
+        assertNotEquals(-1, Files.mismatch(tempDir.resolve("a/ordenes.csv"), tempDir.resolve("c/ordenes.csv")));
+    }
+
+    @Test
+    void generatedDataLoadsThroughTheRepositoriesWithResolvedReferences() throws IOException {
+        DatasetGenerator generator = new DatasetGenerator(SCALE, 42);
+        generator.generate(tempDir);
+
+        String path = tempDir.toString();
+        AuthorCsvRepository authors = new AuthorCsvRepository(path);
+        BookCsvRepository books = new BookCsvRepository(path, authors);
+        EmployeeCsvRepository employees = new EmployeeCsvRepository(path);
+        OrderCsvRepository orders = new OrderCsvRepository(path, new CustomerCsvRepository(path), employees, books);
+
+        assertEquals(SCALE.books(), books.findAll().size());
+        assertTrue(books.findAll().stream().allMatch(b -> b.getAuthor().getName() != null));
+
+        List<Employee> staff = employees.findAll();
+        assertEquals(SCALE.employees(), staff.size());
+        assertEquals(2, staff.stream().filter(e -> e instanceof Administrator).count());
+
+        List<Order> all = orders.findAll();
+        assertEquals(SCALE.orders(), all.size());
+        for (Order order : all) {
+            assertNotNull(order.getCustomer().getEmail(), order.getId());
+            assertNotNull(order.getSalesperson().getAssignedZone(), order.getId());
+            assertFalse(order.getItems().isEmpty());
+            assertTrue(order.getItems().stream().allMatch(item -> item.getBook().getTitle() != null));
+            long subtotal = order.getSubtotal();
+            order.calculateTotals();
+            assertEquals(subtotal, order.getSubtotal());
+        }
+
+        // Book popularity is skewed: the most ordered book appears far more often than the average
+        Map<String, Long> timesOrdered = all.stream()
+                .flatMap(order -> order.getItems().stream())
+                .collect(Collectors.groupingBy(Order.OrderItem::getBookId, Collectors.counting()));
+        long max = timesOrdered.values().stream().mapToLong(Long::longValue).max().orElse(0);
+        double average = timesOrdered.values().stream().mapToLong(Long::longValue).average().orElse(0);
+        assertTrue(max > 4 * average, "max " + max + " average " + average);
+        assertEquals(generator.bookId(0), timesOrdered.entrySet().stream()
+                .max(Map.Entry.comparingByValue()).map(Map.Entry::getKey).orElseThrow());
+    }
+}